@@ -1,16 +1,45 @@
 package com.project.frame.commons.config;
 
 import com.project.frame.commons.constant.RedisConfigConstant;
+import com.project.frame.utils.RedisOperations;
+import com.project.frame.utils.redis.RedisAsyncExecutor;
+import com.project.frame.utils.redis.RedisBloomFilter;
+import com.project.frame.utils.redis.RedisCacheAside;
+import com.project.frame.utils.redis.RedisCircuitBreaker;
+import com.project.frame.utils.redis.RedisHotKeyDetector;
+import com.project.frame.utils.redis.RedisLockManager;
+import com.project.frame.utils.redis.RedisMetrics;
+import com.project.frame.utils.redis.RedisNearCache;
+import com.project.frame.utils.redis.RedisNearCacheSubscriber;
+import com.project.frame.utils.redis.RedisNode;
+import com.project.frame.utils.redis.RedisPoolRegistry;
+import com.project.frame.utils.redis.RedisPubSubManager;
+import com.project.frame.utils.redis.RedisRateLimiter;
+import com.project.frame.utils.redis.RedisReplicaRouter;
+import com.project.frame.utils.redis.RedisScriptRegistry;
+import com.project.frame.utils.redis.RedisScripts;
+import com.project.frame.utils.redis.RedisShardRing;
+import com.project.frame.utils.redis.RedisSingleFlight;
+import com.project.frame.utils.redis.codec.CompactRedisCodec;
+import com.project.frame.utils.redis.codec.JdkRedisCodec;
+import com.project.frame.utils.redis.codec.RedisCodecRegistry;
+import com.project.frame.utils.redis.codec.RedisCompressor;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Redis配置类
+ * 连接池、副本路由、熔断器、脚本注册表、发布订阅等依赖Jedis连接的组件只在非local环境下创建，
+ * local环境下由LocalRedisClient代替Redis服务，不连接任何节点
  *
  * @author mxy
  * @date 2019/12/19
@@ -22,17 +51,205 @@ public class RedisConfig extends CachingConfigurerSupport {
 
     /**
      * 获取Jedis连接池
+     * 连接默认节点，连接创建时即绑定到默认数据库，借用时无需再执行SELECT
      */
     @Bean
+    @Profile("!local")
     public JedisPool jedisPool() {
-        return new JedisPool(jedisPoolConfig(), RedisConfigConstant.HOST, RedisConfigConstant.PORT,
-                RedisConfigConstant.TIMEOUT, RedisConfigConstant.PASSWORD);
+        RedisNode node = redisShardRing().getNodes().get(0);
+        return new JedisPool(jedisPoolConfig(), node.getHost(), node.getPort(),
+                RedisConfigConstant.TIMEOUT, RedisConfigConstant.PASSWORD, RedisConfigConstant.DATABASE_ID);
+    }
+
+    /**
+     * 获取分片一致性哈希环
+     * 未启用分片时只包含spring.redis配置的单个节点
+     */
+    @Bean
+    public RedisShardRing redisShardRing() {
+        List<RedisNode> nodes = new ArrayList<RedisNode>();
+        if (RedisConfigConstant.SHARDING_ENABLED) {
+            for (String address : RedisConfigConstant.SHARDING_NODES) {
+                RedisNode node = RedisNode.parse(address);
+                if (!nodes.contains(node)) {
+                    nodes.add(node);
+                }
+            }
+        } else {
+            nodes.add(new RedisNode(RedisConfigConstant.HOST, RedisConfigConstant.PORT));
+        }
+        return new RedisShardRing(nodes, RedisConfigConstant.SHARDING_VIRTUAL_NODES);
+    }
+
+    /**
+     * 获取按节点和数据库索引划分的连接池注册表
+     */
+    @Bean
+    @Profile("!local")
+    public RedisPoolRegistry redisPoolRegistry() {
+        return new RedisPoolRegistry(jedisPoolConfig(), redisShardRing(), jedisPool());
+    }
+
+    /**
+     * 获取只读副本路由
+     * 未启用时所有读命令都发送到主节点
+     */
+    @Bean
+    @Profile("!local")
+    public RedisReplicaRouter redisReplicaRouter() {
+        return new RedisReplicaRouter(RedisConfigConstant.REPLICA_ENABLED, RedisReplicaRouter.parse(RedisConfigConstant.REPLICA_NODES),
+                RedisConfigConstant.REPLICA_CONSISTENCY, RedisConfigConstant.REPLICA_WINDOW, RedisConfigConstant.REPLICA_MAX_TRACKED_KEYS,
+                RedisConfigConstant.REPLICA_MAX_LAG, RedisConfigConstant.REPLICA_CHECK_INTERVAL, redisPoolRegistry());
+    }
+
+    /**
+     * 获取Redis熔断器
+     * 熔断器打开时在后台重建连接池
+     */
+    @Bean
+    @Profile("!local")
+    public RedisCircuitBreaker redisCircuitBreaker() {
+        final RedisPoolRegistry registry = redisPoolRegistry();
+        return new RedisCircuitBreaker(RedisConfigConstant.CIRCUIT_BREAKER_WINDOW_SIZE,
+                RedisConfigConstant.CIRCUIT_BREAKER_MINIMUM_CALLS, RedisConfigConstant.CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD,
+                RedisConfigConstant.CIRCUIT_BREAKER_OPEN_DURATION, RedisConfigConstant.CIRCUIT_BREAKER_HALF_OPEN_CALLS,
+                registry::recreatePools);
+    }
+
+    /**
+     * 获取RedisClient运行指标
+     */
+    @Bean
+    @Profile("!local")
+    public RedisMetrics redisMetrics() {
+        return new RedisMetrics(redisPoolRegistry(), redisCodecRegistry().getCompressor());
+    }
+
+    /**
+     * 获取对象值编解码注册表
+     * 写入使用配置的编码格式，读取时按数据首字节自动识别，Java序列化作为兜底格式；超过阈值的编码结果再压缩
+     */
+    @Bean
+    public RedisCodecRegistry redisCodecRegistry() {
+        RedisCodecRegistry registry = new RedisCodecRegistry(RedisConfigConstant.CODEC, new CompactRedisCodec(), new JdkRedisCodec());
+        registry.setCompressor(new RedisCompressor(RedisConfigConstant.COMPRESSION_ENABLED,
+                RedisConfigConstant.COMPRESSION_THRESHOLD, RedisConfigConstant.COMPRESSION_LEVEL));
+        return registry;
+    }
+
+    /**
+     * 获取异步调用使用的有界线程池
+     */
+    @Bean
+    public RedisAsyncExecutor redisAsyncExecutor() {
+        return new RedisAsyncExecutor(RedisConfigConstant.ASYNC_CORE_SIZE, RedisConfigConstant.ASYNC_MAX_SIZE,
+                RedisConfigConstant.ASYNC_QUEUE_CAPACITY);
+    }
+
+    /**
+     * 获取Lua脚本注册表
+     */
+    @Bean
+    @Profile("!local")
+    public RedisScriptRegistry redisScriptRegistry() {
+        return new RedisScriptRegistry(RedisScripts.INCR_BY_AND_EXPIRE, RedisScripts.DEL_IF_EQUALS,
+                RedisScripts.PEXPIRE_IF_EQUALS, RedisScripts.LOCK_ACQUIRE, RedisScripts.TOKEN_BUCKET_ACQUIRE);
+    }
+
+    /**
+     * 获取本地近端缓存
+     */
+    @Bean
+    public RedisNearCache redisNearCache() {
+        return new RedisNearCache(RedisConfigConstant.NEAR_CACHE_ENABLED, RedisConfigConstant.NEAR_CACHE_PREFIXES,
+                RedisConfigConstant.NEAR_CACHE_MAX_SIZE, RedisConfigConstant.NEAR_CACHE_TTL, RedisConfigConstant.NEAR_CACHE_CHANNEL);
+    }
+
+    /**
+     * 获取发布订阅管理器
+     * 在默认节点上使用专用连接订阅，没有订阅时不建立连接
+     */
+    @Bean
+    @Profile("!local")
+    public RedisPubSubManager redisPubSubManager() {
+        return new RedisPubSubManager(redisPoolRegistry().getDefaultNode(), RedisConfigConstant.PASSWORD, RedisConfigConstant.TIMEOUT,
+                RedisConfigConstant.PUBSUB_HANDLER_THREADS, RedisConfigConstant.PUBSUB_QUEUE_CAPACITY,
+                RedisConfigConstant.PUBSUB_RETRY_INITIAL, RedisConfigConstant.PUBSUB_RETRY_MAX, RedisConfigConstant.PUBSUB_PING_INTERVAL);
+    }
+
+    /**
+     * 获取本地近端缓存的失效订阅
+     * 进程内的LocalRedisClient没有其他节点，local环境下不订阅
+     */
+    @Bean
+    @Profile("!local")
+    public RedisNearCacheSubscriber redisNearCacheSubscriber() {
+        return new RedisNearCacheSubscriber(redisPubSubManager(), redisNearCache());
+    }
+
+    /**
+     * 获取热点KEY探测器
+     */
+    @Bean
+    public RedisHotKeyDetector redisHotKeyDetector() {
+        return new RedisHotKeyDetector(RedisConfigConstant.HOT_KEY_ENABLED, RedisConfigConstant.HOT_KEY_SAMPLE_RATE,
+                RedisConfigConstant.HOT_KEY_WIDTH, RedisConfigConstant.HOT_KEY_WINDOW, RedisConfigConstant.HOT_KEY_SLOTS,
+                RedisConfigConstant.HOT_KEY_THRESHOLD, RedisConfigConstant.HOT_KEY_TTL, RedisConfigConstant.HOT_KEY_MAX_KEYS,
+                RedisConfigConstant.HOT_KEY_TOP);
+    }
+
+    /**
+     * 获取缓存未命中时的合并加载器
+     */
+    @Bean
+    public RedisSingleFlight redisSingleFlight(RedisOperations redisClient) {
+        return new RedisSingleFlight(redisClient, RedisConfigConstant.SINGLE_FLIGHT_KEY_PREFIX,
+                RedisConfigConstant.SINGLE_FLIGHT_LEASE, RedisConfigConstant.SINGLE_FLIGHT_RETRY_INTERVAL);
+    }
+
+    /**
+     * 获取旁路缓存工具
+     */
+    @Bean
+    public RedisCacheAside redisCacheAside(RedisOperations redisClient, RedisSingleFlight redisSingleFlight) {
+        return new RedisCacheAside(redisClient, redisSingleFlight, redisAsyncExecutor(), RedisConfigConstant.CACHE_ASIDE_JITTER,
+                RedisConfigConstant.CACHE_ASIDE_STALE_RATIO, RedisConfigConstant.CACHE_ASIDE_REFRESH_KEY_PREFIX,
+                RedisConfigConstant.CACHE_ASIDE_REFRESH_LEASE);
+    }
+
+    /**
+     * 获取分布式锁管理器
+     */
+    @Bean
+    public RedisLockManager redisLockManager(RedisOperations redisClient) {
+        return new RedisLockManager(redisClient, RedisConfigConstant.LOCK_KEY_PREFIX, RedisConfigConstant.LOCK_LEASE,
+                RedisConfigConstant.LOCK_RETRY_INTERVAL);
+    }
+
+    /**
+     * 获取请求限流器
+     */
+    @Bean
+    public RedisRateLimiter redisRateLimiter(RedisOperations redisClient) {
+        return new RedisRateLimiter(redisClient, RedisConfigConstant.RATE_LIMIT_ENABLED, RedisConfigConstant.RATE_LIMIT_KEY_PREFIX,
+                RedisConfigConstant.RATE_LIMIT_RULES, RedisConfigConstant.RATE_LIMIT_SYNC_INTERVAL, RedisConfigConstant.RATE_LIMIT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * 获取登录名布隆过滤器
+     */
+    @Bean
+    public RedisBloomFilter loginNameBloomFilter(RedisOperations redisClient) {
+        return new RedisBloomFilter(redisClient, RedisConfigConstant.LOGIN_BLOOM_ENABLED, RedisConfigConstant.LOGIN_BLOOM_KEY_PREFIX,
+                RedisConfigConstant.LOGIN_BLOOM_EXPECTED_INSERTIONS, RedisConfigConstant.LOGIN_BLOOM_FPP,
+                RedisConfigConstant.LOGIN_BLOOM_REBUILD_LEASE, RedisConfigConstant.LOGIN_BLOOM_REBUILD_INTERVAL);
     }
 
     /**
      * 获取Jedis连接池配置信息
      */
     @Bean
+    @Profile("!local")
     public JedisPoolConfig jedisPoolConfig() {
         JedisPoolConfig jedisPoolConfig = new JedisPoolConfig();
         jedisPoolConfig.setMaxIdle(RedisConfigConstant.MAX_IDLE);         // 最大空闲连接
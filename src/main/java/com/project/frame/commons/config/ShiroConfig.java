@@ -1,8 +1,10 @@
 package com.project.frame.commons.config;
 
+import com.project.frame.commons.constant.RedisConfigConstant;
 import com.project.frame.shiro.*;
 import com.project.frame.shiro.redis.ShiroRedisCacheManager;
 import com.project.frame.shiro.redis.ShiroRedisSessionDAO;
+import com.project.frame.utils.redis.RedisRateLimiter;
 import org.apache.shiro.session.mgt.SessionManager;
 import org.apache.shiro.spring.LifecycleBeanPostProcessor;
 import org.apache.shiro.spring.security.interceptor.AuthorizationAttributeSourceAdvisor;
@@ -60,7 +62,7 @@ public class ShiroConfig {
      * 配置Shiro的Web过滤器，拦截浏览器请求并交给SecurityManager处理
      */
     @Bean
-    public ShiroFilterFactoryBean shiroFilterFactoryBean(DefaultWebSecurityManager securityManager) {
+    public ShiroFilterFactoryBean shiroFilterFactoryBean(DefaultWebSecurityManager securityManager, RedisRateLimiter redisRateLimiter) {
         logger.info("\r\n ********* Shiro过滤器配置开始 *********");
 
         ShiroFilterFactoryBean shiroFilterFactoryBean = new ShiroFilterFactoryBean();
@@ -71,17 +73,19 @@ public class ShiroConfig {
         // map里面key值要为过滤器的名称，value为过滤器对象
         filterMap.put("authc", new AuthenticationFilter());
         filterMap.put("perms", new AuthorizationFilter());
+        filterMap.put("rateLimit", new RateLimitFilter(redisRateLimiter, RedisConfigConstant.RATE_LIMIT_IP_HEADER,
+                RedisConfigConstant.RATE_LIMIT_TRUSTED_PROXIES));
         // 将自定义的过滤器加入到过滤器集合中
         shiroFilterFactoryBean.setFilters(filterMap);
 
         // 设置拦截器有序集合
         Map<String, String> filterChainDefinitionMap = new LinkedHashMap<>();
-        filterChainDefinitionMap.put("/admin/login", "anon");
-        filterChainDefinitionMap.put("/admin/**", "anon");
-        filterChainDefinitionMap.put("/api/v1/anon/**", "anon");
+        filterChainDefinitionMap.put("/admin/login", "rateLimit,anon");
+        filterChainDefinitionMap.put("/admin/**", "rateLimit,anon");
+        filterChainDefinitionMap.put("/api/v1/anon/**", "rateLimit,anon");
         filterChainDefinitionMap.put("/static/**", "anon"); // 放行静态资源，这里有一个坑。只配置这里是无效的。需要在 WebMvcConfiguration 类中的 addResourceHandlers() 中再配置一下
-        filterChainDefinitionMap.put("/admin/logout", "logout");
-        filterChainDefinitionMap.put("/**", "authc,perms");
+        filterChainDefinitionMap.put("/admin/logout", "rateLimit,logout");
+        filterChainDefinitionMap.put("/**", "rateLimit,authc,perms");
         // 设置拦截器
         shiroFilterFactoryBean.setFilterChainDefinitionMap(filterChainDefinitionMap);
 
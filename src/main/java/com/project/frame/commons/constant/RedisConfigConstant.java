@@ -40,6 +40,207 @@ public class RedisConfigConstant implements InitializingBean {
     @Value("${spring.redis.jedis.pool.max-wait}")
     private long maxWait;
 
+    @Value("${frame.redis.scan-count}")
+    private int scanCount;
+
+    @Value("${frame.redis.push-chunk-size}")
+    private int pushChunkSize;
+
+    @Value("${frame.redis.codec}")
+    private String codec;
+
+    @Value("${frame.redis.legacy-key-read}")
+    private boolean legacyKeyRead;
+
+    @Value("${frame.redis.sharding.enabled}")
+    private boolean shardingEnabled;
+
+    @Value("${frame.redis.sharding.nodes}")
+    private String[] shardingNodes;
+
+    @Value("${frame.redis.sharding.virtual-nodes}")
+    private int shardingVirtualNodes;
+
+    @Value("${frame.redis.replica.enabled}")
+    private boolean replicaEnabled;
+
+    @Value("${frame.redis.replica.nodes}")
+    private String[] replicaNodes;
+
+    @Value("${frame.redis.replica.consistency}")
+    private String replicaConsistency;
+
+    @Value("${frame.redis.replica.window}")
+    private long replicaWindow;
+
+    @Value("${frame.redis.replica.max-tracked-keys}")
+    private int replicaMaxTrackedKeys;
+
+    @Value("${frame.redis.replica.max-lag}")
+    private int replicaMaxLag;
+
+    @Value("${frame.redis.replica.check-interval}")
+    private long replicaCheckInterval;
+
+    @Value("${frame.redis.lock.key-prefix}")
+    private String lockKeyPrefix;
+
+    @Value("${frame.redis.lock.lease}")
+    private long lockLease;
+
+    @Value("${frame.redis.lock.retry-interval}")
+    private long lockRetryInterval;
+
+    @Value("${frame.redis.rate-limit.enabled}")
+    private boolean rateLimitEnabled;
+
+    @Value("${frame.redis.rate-limit.key-prefix}")
+    private String rateLimitKeyPrefix;
+
+    @Value("${frame.redis.rate-limit.rules}")
+    private String[] rateLimitRules;
+
+    @Value("${frame.redis.rate-limit.sync-interval}")
+    private long rateLimitSyncInterval;
+
+    @Value("${frame.redis.rate-limit.idle-timeout}")
+    private long rateLimitIdleTimeout;
+
+    @Value("${frame.redis.rate-limit.ip-header}")
+    private String rateLimitIpHeader;
+
+    @Value("${frame.redis.rate-limit.trusted-proxies}")
+    private String[] rateLimitTrustedProxies;
+
+    @Value("${frame.redis.login-bloom.enabled}")
+    private boolean loginBloomEnabled;
+
+    @Value("${frame.redis.login-bloom.key-prefix}")
+    private String loginBloomKeyPrefix;
+
+    @Value("${frame.redis.login-bloom.expected-insertions}")
+    private long loginBloomExpectedInsertions;
+
+    @Value("${frame.redis.login-bloom.fpp}")
+    private double loginBloomFpp;
+
+    @Value("${frame.redis.login-bloom.rebuild-lease}")
+    private long loginBloomRebuildLease;
+
+    @Value("${frame.redis.login-bloom.rebuild-interval}")
+    private long loginBloomRebuildInterval;
+
+    @Value("${frame.redis.hot-key.enabled}")
+    private boolean hotKeyEnabled;
+
+    @Value("${frame.redis.hot-key.sample-rate}")
+    private int hotKeySampleRate;
+
+    @Value("${frame.redis.hot-key.width}")
+    private int hotKeyWidth;
+
+    @Value("${frame.redis.hot-key.window}")
+    private int hotKeyWindow;
+
+    @Value("${frame.redis.hot-key.slots}")
+    private int hotKeySlots;
+
+    @Value("${frame.redis.hot-key.threshold}")
+    private double hotKeyThreshold;
+
+    @Value("${frame.redis.hot-key.ttl}")
+    private long hotKeyTtl;
+
+    @Value("${frame.redis.hot-key.max-keys}")
+    private int hotKeyMaxKeys;
+
+    @Value("${frame.redis.hot-key.top}")
+    private int hotKeyTop;
+
+    @Value("${frame.redis.single-flight.key-prefix}")
+    private String singleFlightKeyPrefix;
+
+    @Value("${frame.redis.single-flight.lease}")
+    private long singleFlightLease;
+
+    @Value("${frame.redis.single-flight.retry-interval}")
+    private long singleFlightRetryInterval;
+
+    @Value("${frame.redis.cache-aside.jitter}")
+    private double cacheAsideJitter;
+
+    @Value("${frame.redis.cache-aside.stale-ratio}")
+    private double cacheAsideStaleRatio;
+
+    @Value("${frame.redis.cache-aside.refresh-key-prefix}")
+    private String cacheAsideRefreshKeyPrefix;
+
+    @Value("${frame.redis.cache-aside.refresh-lease}")
+    private long cacheAsideRefreshLease;
+
+    @Value("${frame.redis.compression.enabled}")
+    private boolean compressionEnabled;
+
+    @Value("${frame.redis.compression.threshold}")
+    private int compressionThreshold;
+
+    @Value("${frame.redis.compression.level}")
+    private int compressionLevel;
+
+    @Value("${frame.redis.async.core-size}")
+    private int asyncCoreSize;
+
+    @Value("${frame.redis.async.max-size}")
+    private int asyncMaxSize;
+
+    @Value("${frame.redis.async.queue-capacity}")
+    private int asyncQueueCapacity;
+
+    @Value("${frame.redis.pubsub.handler-threads}")
+    private int pubsubHandlerThreads;
+
+    @Value("${frame.redis.pubsub.queue-capacity}")
+    private int pubsubQueueCapacity;
+
+    @Value("${frame.redis.pubsub.retry-initial}")
+    private long pubsubRetryInitial;
+
+    @Value("${frame.redis.pubsub.retry-max}")
+    private long pubsubRetryMax;
+
+    @Value("${frame.redis.pubsub.ping-interval}")
+    private long pubsubPingInterval;
+
+    @Value("${frame.redis.circuit-breaker.window-size}")
+    private int circuitBreakerWindowSize;
+
+    @Value("${frame.redis.circuit-breaker.minimum-calls}")
+    private int circuitBreakerMinimumCalls;
+
+    @Value("${frame.redis.circuit-breaker.failure-rate-threshold}")
+    private int circuitBreakerFailureRateThreshold;
+
+    @Value("${frame.redis.circuit-breaker.open-duration}")
+    private long circuitBreakerOpenDuration;
+
+    @Value("${frame.redis.circuit-breaker.half-open-calls}")
+    private int circuitBreakerHalfOpenCalls;
+
+    @Value("${frame.redis.near-cache.enabled}")
+    private boolean nearCacheEnabled;
+
+    @Value("${frame.redis.near-cache.prefixes}")
+    private String[] nearCachePrefixes;
+
+    @Value("${frame.redis.near-cache.max-size}")
+    private int nearCacheMaxSize;
+
+    @Value("${frame.redis.near-cache.ttl}")
+    private int nearCacheTtl;
+
+    @Value("${frame.redis.near-cache.channel}")
+    private String nearCacheChannel;
+
     /**
      * Redis所在主机IP
      */
@@ -85,6 +286,341 @@ public class RedisConfigConstant implements InitializingBean {
      */
     public static long MAX_WAIT;
 
+    /**
+     * 使用SCAN迭代KEY时每批的COUNT参数
+     */
+    public static int SCAN_COUNT;
+
+    /**
+     * 批量LPUSH、RPUSH时每条命令包含的元素数
+     */
+    public static int PUSH_CHUNK_SIZE;
+
+    /**
+     * 对象值的编码格式
+     */
+    public static String CODEC;
+
+    /**
+     * String类型的对象KEY不存在时是否回退读取Java序列化编码的旧KEY
+     */
+    public static boolean LEGACY_KEY_READ;
+
+    /**
+     * 是否启用分片
+     */
+    public static boolean SHARDING_ENABLED;
+
+    /**
+     * 分片节点，格式host:port，第一个节点为默认节点
+     */
+    public static String[] SHARDING_NODES;
+
+    /**
+     * 每个节点在一致性哈希环上的虚拟节点数
+     */
+    public static int SHARDING_VIRTUAL_NODES;
+
+    /**
+     * 是否把读命令路由到只读副本
+     */
+    public static boolean REPLICA_ENABLED;
+
+    /**
+     * 只读副本，格式为主节点>副本1|副本2
+     */
+    public static String[] REPLICA_NODES;
+
+    /**
+     * 只读副本的一致性模式
+     */
+    public static String REPLICA_CONSISTENCY;
+
+    /**
+     * 写入后读主节点的窗口期，单位：毫秒
+     */
+    public static long REPLICA_WINDOW;
+
+    /**
+     * 最多跟踪的写入KEY数量
+     */
+    public static int REPLICA_MAX_TRACKED_KEYS;
+
+    /**
+     * 副本允许的最大复制延迟，单位：秒
+     */
+    public static int REPLICA_MAX_LAG;
+
+    /**
+     * 检查副本状态的间隔，单位：毫秒
+     */
+    public static long REPLICA_CHECK_INTERVAL;
+
+    /**
+     * 分布式锁KEY前缀
+     */
+    public static String LOCK_KEY_PREFIX;
+
+    /**
+     * 分布式锁默认租约时间，单位：毫秒
+     */
+    public static long LOCK_LEASE;
+
+    /**
+     * 获取分布式锁失败后重试的平均间隔，单位：毫秒
+     */
+    public static long LOCK_RETRY_INTERVAL;
+
+    /**
+     * 是否启用请求限流
+     */
+    public static boolean RATE_LIMIT_ENABLED;
+
+    /**
+     * 限流令牌桶KEY前缀
+     */
+    public static String RATE_LIMIT_KEY_PREFIX;
+
+    /**
+     * 限流规则，格式为维度:路径模式=每秒令牌数/桶容量
+     */
+    public static String[] RATE_LIMIT_RULES;
+
+    /**
+     * 从Redis预取的限流令牌的有效期，单位：毫秒
+     */
+    public static long RATE_LIMIT_SYNC_INTERVAL;
+
+    /**
+     * 本地限流令牌桶的闲置移除时间，单位：毫秒
+     */
+    public static long RATE_LIMIT_IDLE_TIMEOUT;
+
+    /**
+     * 反向代理传递客户端IP的请求头
+     */
+    public static String RATE_LIMIT_IP_HEADER;
+
+    /**
+     * 可信代理的网段
+     */
+    public static String[] RATE_LIMIT_TRUSTED_PROXIES;
+
+    /**
+     * 是否启用登录名布隆过滤器
+     */
+    public static boolean LOGIN_BLOOM_ENABLED;
+
+    /**
+     * 登录名布隆过滤器的位图KEY前缀
+     */
+    public static String LOGIN_BLOOM_KEY_PREFIX;
+
+    /**
+     * 登录名布隆过滤器预计的元素数量
+     */
+    public static long LOGIN_BLOOM_EXPECTED_INSERTIONS;
+
+    /**
+     * 登录名布隆过滤器期望的误判率
+     */
+    public static double LOGIN_BLOOM_FPP;
+
+    /**
+     * 登录名布隆过滤器重建租约时间，单位：毫秒
+     */
+    public static long LOGIN_BLOOM_REBUILD_LEASE;
+
+    /**
+     * 登录名布隆过滤器定期重建的间隔，单位：毫秒
+     */
+    public static long LOGIN_BLOOM_REBUILD_INTERVAL;
+
+    /**
+     * 是否启用热点KEY探测
+     */
+    public static boolean HOT_KEY_ENABLED;
+
+    /**
+     * 热点KEY探测的采样率，每N次读取记录一次
+     */
+    public static int HOT_KEY_SAMPLE_RATE;
+
+    /**
+     * 热点KEY探测Count-Min Sketch每行的计数器个数
+     */
+    public static int HOT_KEY_WIDTH;
+
+    /**
+     * 热点KEY探测的滑动窗口长度，单位：秒
+     */
+    public static int HOT_KEY_WINDOW;
+
+    /**
+     * 热点KEY探测滑动窗口的时间片个数
+     */
+    public static int HOT_KEY_SLOTS;
+
+    /**
+     * 热点KEY的QPS阈值
+     */
+    public static double HOT_KEY_THRESHOLD;
+
+    /**
+     * 热点KEY的本地缓存时间，单位：毫秒
+     */
+    public static long HOT_KEY_TTL;
+
+    /**
+     * 最多同时提升的热点KEY数量
+     */
+    public static int HOT_KEY_MAX_KEYS;
+
+    /**
+     * 热点KEY统计报告中列出的KEY数量
+     */
+    public static int HOT_KEY_TOP;
+
+    /**
+     * 跨节点合并加载的租约KEY前缀
+     */
+    public static String SINGLE_FLIGHT_KEY_PREFIX;
+
+    /**
+     * 跨节点合并加载的租约时间，单位：毫秒
+     */
+    public static long SINGLE_FLIGHT_LEASE;
+
+    /**
+     * 等待其他节点加载时轮询缓存的平均间隔，单位：毫秒
+     */
+    public static long SINGLE_FLIGHT_RETRY_INTERVAL;
+
+    /**
+     * 旁路缓存有效时间的随机抖动比例
+     */
+    public static double CACHE_ASIDE_JITTER;
+
+    /**
+     * 旁路缓存硬过期时间相对软过期时间延长的比例
+     */
+    public static double CACHE_ASIDE_STALE_RATIO;
+
+    /**
+     * 旁路缓存后台刷新租约KEY前缀
+     */
+    public static String CACHE_ASIDE_REFRESH_KEY_PREFIX;
+
+    /**
+     * 旁路缓存后台刷新租约时间，单位：毫秒
+     */
+    public static long CACHE_ASIDE_REFRESH_LEASE;
+
+    /**
+     * 是否压缩较大的对象值
+     */
+    public static boolean COMPRESSION_ENABLED;
+
+    /**
+     * 对象值编码后超过该长度才压缩，单位：字节
+     */
+    public static int COMPRESSION_THRESHOLD;
+
+    /**
+     * Deflate压缩级别
+     */
+    public static int COMPRESSION_LEVEL;
+
+    /**
+     * 异步调用线程池核心线程数
+     */
+    public static int ASYNC_CORE_SIZE;
+
+    /**
+     * 异步调用线程池最大线程数
+     */
+    public static int ASYNC_MAX_SIZE;
+
+    /**
+     * 异步调用等待队列容量
+     */
+    public static int ASYNC_QUEUE_CAPACITY;
+
+    /**
+     * 发布订阅消息处理线程数
+     */
+    public static int PUBSUB_HANDLER_THREADS;
+
+    /**
+     * 发布订阅待处理消息队列容量
+     */
+    public static int PUBSUB_QUEUE_CAPACITY;
+
+    /**
+     * 重新订阅的初始间隔，单位：毫秒
+     */
+    public static long PUBSUB_RETRY_INITIAL;
+
+    /**
+     * 重新订阅的最大间隔，单位：毫秒
+     */
+    public static long PUBSUB_RETRY_MAX;
+
+    /**
+     * 订阅连接的心跳间隔，单位：毫秒
+     */
+    public static long PUBSUB_PING_INTERVAL;
+
+    /**
+     * 熔断器统计失败率的滑动窗口大小
+     */
+    public static int CIRCUIT_BREAKER_WINDOW_SIZE;
+
+    /**
+     * 熔断器开始计算失败率所需的最少调用次数
+     */
+    public static int CIRCUIT_BREAKER_MINIMUM_CALLS;
+
+    /**
+     * 熔断器失败率阈值，百分比
+     */
+    public static int CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD;
+
+    /**
+     * 熔断器打开的持续时间，单位：毫秒
+     */
+    public static long CIRCUIT_BREAKER_OPEN_DURATION;
+
+    /**
+     * 熔断器半开状态放行的探测调用次数
+     */
+    public static int CIRCUIT_BREAKER_HALF_OPEN_CALLS;
+
+    /**
+     * 是否启用本地近端缓存
+     */
+    public static boolean NEAR_CACHE_ENABLED;
+
+    /**
+     * 使用本地近端缓存的KEY前缀
+     */
+    public static String[] NEAR_CACHE_PREFIXES;
+
+    /**
+     * 本地近端缓存最大条数
+     */
+    public static int NEAR_CACHE_MAX_SIZE;
+
+    /**
+     * 本地近端缓存的最长存活时间，单位：秒
+     */
+    public static int NEAR_CACHE_TTL;
+
+    /**
+     * 本地近端缓存失效通知频道
+     */
+    public static String NEAR_CACHE_CHANNEL;
+
     @Override
     public void afterPropertiesSet() throws Exception {
         HOST = host;
@@ -96,5 +632,72 @@ public class RedisConfigConstant implements InitializingBean {
         MIN_IDLE = minIdle;
         MAX_ACTIVE = maxActive;
         MAX_WAIT = maxWait;
+        SCAN_COUNT = scanCount;
+        PUSH_CHUNK_SIZE = pushChunkSize;
+        CODEC = codec;
+        LEGACY_KEY_READ = legacyKeyRead;
+        SHARDING_ENABLED = shardingEnabled;
+        SHARDING_NODES = shardingNodes;
+        SHARDING_VIRTUAL_NODES = shardingVirtualNodes;
+        REPLICA_ENABLED = replicaEnabled;
+        REPLICA_NODES = replicaNodes;
+        REPLICA_CONSISTENCY = replicaConsistency;
+        REPLICA_WINDOW = replicaWindow;
+        REPLICA_MAX_TRACKED_KEYS = replicaMaxTrackedKeys;
+        REPLICA_MAX_LAG = replicaMaxLag;
+        REPLICA_CHECK_INTERVAL = replicaCheckInterval;
+        LOCK_KEY_PREFIX = lockKeyPrefix;
+        LOCK_LEASE = lockLease;
+        LOCK_RETRY_INTERVAL = lockRetryInterval;
+        RATE_LIMIT_ENABLED = rateLimitEnabled;
+        RATE_LIMIT_KEY_PREFIX = rateLimitKeyPrefix;
+        RATE_LIMIT_RULES = rateLimitRules;
+        RATE_LIMIT_SYNC_INTERVAL = rateLimitSyncInterval;
+        RATE_LIMIT_IDLE_TIMEOUT = rateLimitIdleTimeout;
+        RATE_LIMIT_IP_HEADER = rateLimitIpHeader;
+        RATE_LIMIT_TRUSTED_PROXIES = rateLimitTrustedProxies;
+        LOGIN_BLOOM_ENABLED = loginBloomEnabled;
+        LOGIN_BLOOM_KEY_PREFIX = loginBloomKeyPrefix;
+        LOGIN_BLOOM_EXPECTED_INSERTIONS = loginBloomExpectedInsertions;
+        LOGIN_BLOOM_FPP = loginBloomFpp;
+        LOGIN_BLOOM_REBUILD_LEASE = loginBloomRebuildLease;
+        LOGIN_BLOOM_REBUILD_INTERVAL = loginBloomRebuildInterval;
+        HOT_KEY_ENABLED = hotKeyEnabled;
+        HOT_KEY_SAMPLE_RATE = hotKeySampleRate;
+        HOT_KEY_WIDTH = hotKeyWidth;
+        HOT_KEY_WINDOW = hotKeyWindow;
+        HOT_KEY_SLOTS = hotKeySlots;
+        HOT_KEY_THRESHOLD = hotKeyThreshold;
+        HOT_KEY_TTL = hotKeyTtl;
+        HOT_KEY_MAX_KEYS = hotKeyMaxKeys;
+        HOT_KEY_TOP = hotKeyTop;
+        SINGLE_FLIGHT_KEY_PREFIX = singleFlightKeyPrefix;
+        SINGLE_FLIGHT_LEASE = singleFlightLease;
+        SINGLE_FLIGHT_RETRY_INTERVAL = singleFlightRetryInterval;
+        CACHE_ASIDE_JITTER = cacheAsideJitter;
+        CACHE_ASIDE_STALE_RATIO = cacheAsideStaleRatio;
+        CACHE_ASIDE_REFRESH_KEY_PREFIX = cacheAsideRefreshKeyPrefix;
+        CACHE_ASIDE_REFRESH_LEASE = cacheAsideRefreshLease;
+        COMPRESSION_ENABLED = compressionEnabled;
+        COMPRESSION_THRESHOLD = compressionThreshold;
+        COMPRESSION_LEVEL = compressionLevel;
+        ASYNC_CORE_SIZE = asyncCoreSize;
+        ASYNC_MAX_SIZE = asyncMaxSize;
+        ASYNC_QUEUE_CAPACITY = asyncQueueCapacity;
+        PUBSUB_HANDLER_THREADS = pubsubHandlerThreads;
+        PUBSUB_QUEUE_CAPACITY = pubsubQueueCapacity;
+        PUBSUB_RETRY_INITIAL = pubsubRetryInitial;
+        PUBSUB_RETRY_MAX = pubsubRetryMax;
+        PUBSUB_PING_INTERVAL = pubsubPingInterval;
+        CIRCUIT_BREAKER_WINDOW_SIZE = circuitBreakerWindowSize;
+        CIRCUIT_BREAKER_MINIMUM_CALLS = circuitBreakerMinimumCalls;
+        CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD = circuitBreakerFailureRateThreshold;
+        CIRCUIT_BREAKER_OPEN_DURATION = circuitBreakerOpenDuration;
+        CIRCUIT_BREAKER_HALF_OPEN_CALLS = circuitBreakerHalfOpenCalls;
+        NEAR_CACHE_ENABLED = nearCacheEnabled;
+        NEAR_CACHE_PREFIXES = nearCachePrefixes;
+        NEAR_CACHE_MAX_SIZE = nearCacheMaxSize;
+        NEAR_CACHE_TTL = nearCacheTtl;
+        NEAR_CACHE_CHANNEL = nearCacheChannel;
     }
 }
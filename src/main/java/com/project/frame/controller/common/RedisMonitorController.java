@@ -0,0 +1,210 @@
+package com.project.frame.controller.common;
+
+import com.project.frame.utils.AsyncRedisClient;
+import com.project.frame.utils.redis.RedisBloomFilter;
+import com.project.frame.utils.redis.RedisCacheAside;
+import com.project.frame.utils.redis.RedisCircuitBreaker;
+import com.project.frame.utils.redis.RedisHotKeyDetector;
+import com.project.frame.utils.redis.RedisLockManager;
+import com.project.frame.utils.redis.RedisMetrics;
+import com.project.frame.utils.redis.RedisNearCache;
+import com.project.frame.utils.redis.RedisPubSubManager;
+import com.project.frame.utils.redis.RedisRateLimiter;
+import com.project.frame.utils.redis.RedisReplicaRouter;
+import com.project.frame.utils.redis.RedisSingleFlight;
+import org.apache.shiro.authz.annotation.RequiresPermissions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Redis运行状态监控控制器
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+@RestController
+@RequestMapping(value = "/api/v1/auth/redis")
+public class RedisMonitorController extends BaseController {
+    private static final long serialVersionUID = -2473170852961532918L;
+
+    // 当前环境没有创建对应组件时返回的统计信息
+    private static final Map<String, Object> UNAVAILABLE = Collections.<String, Object>singletonMap("enabled", false);
+
+    @Resource(name = "redisNearCache")
+    private RedisNearCache redisNearCache;
+
+    // local环境下不创建
+    @Autowired(required = false)
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    // local环境下不创建
+    @Autowired(required = false)
+    private RedisReplicaRouter redisReplicaRouter;
+
+    @Resource(name = "redisHotKeyDetector")
+    private RedisHotKeyDetector redisHotKeyDetector;
+
+    // local环境下不创建
+    @Autowired(required = false)
+    private RedisMetrics redisMetrics;
+
+    @Resource(name = "asyncRedisClient")
+    private AsyncRedisClient asyncRedisClient;
+
+    @Resource(name = "redisLockManager")
+    private RedisLockManager redisLockManager;
+
+    @Resource(name = "redisRateLimiter")
+    private RedisRateLimiter redisRateLimiter;
+
+    @Resource(name = "loginNameBloomFilter")
+    private RedisBloomFilter loginNameBloomFilter;
+
+    @Resource(name = "redisSingleFlight")
+    private RedisSingleFlight redisSingleFlight;
+
+    @Resource(name = "redisCacheAside")
+    private RedisCacheAside redisCacheAside;
+
+    // local环境下不创建
+    @Autowired(required = false)
+    private RedisPubSubManager redisPubSubManager;
+
+    /**
+     * 获取本地近端缓存的命中、未命中、淘汰等统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/nearCache")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> nearCache() {
+        return getResult(redisNearCache.getStats());
+    }
+
+    /**
+     * 获取发布订阅的连接状态、订阅列表和消息处理统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/pubsub")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> pubsub() {
+        return getResult(redisPubSubManager == null ? UNAVAILABLE : redisPubSubManager.getStats());
+    }
+
+    /**
+     * 获取异步调用线程池的排队、执行等统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/async")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> async() {
+        return getResult(asyncRedisClient.getStats());
+    }
+
+    /**
+     * 获取熔断器状态和调用统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/circuitBreaker")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> circuitBreaker() {
+        return getResult(redisCircuitBreaker == null ? UNAVAILABLE : redisCircuitBreaker.getStats());
+    }
+
+    /**
+     * 获取只读副本的健康状态和读命令路由统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/replica")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> replica() {
+        return getResult(redisReplicaRouter == null ? UNAVAILABLE : redisReplicaRouter.getStats());
+    }
+
+    /**
+     * 获取热点KEY的探测统计信息，以及按估算QPS排序的前若干个KEY
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/hotKeys")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> hotKeys() {
+        return getResult(redisHotKeyDetector.getStats());
+    }
+
+    /**
+     * 获取缓存未命中合并加载的统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/singleFlight")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> singleFlight() {
+        return getResult(redisSingleFlight.getStats());
+    }
+
+    /**
+     * 获取旁路缓存的命中、未命中、返回旧值和后台刷新统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/cacheAside")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> cacheAside() {
+        return getResult(redisCacheAside.getStats());
+    }
+
+    /**
+     * 获取分布式锁的获取、续期、丢失等统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/lock")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> lock() {
+        return getResult(redisLockManager.getStats());
+    }
+
+    /**
+     * 获取请求限流的放行、拒绝、Redis调用等统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/rateLimit")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> rateLimit() {
+        return getResult(redisRateLimiter.getStats());
+    }
+
+    /**
+     * 获取登录名布隆过滤器的判断、拒绝、误判和重建统计信息
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/loginBloom")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> loginBloom() {
+        return getResult(loginNameBloomFilter.getStats());
+    }
+
+    /**
+     * 获取按命令统计的借用、执行、解码耗时分布，读写数据大小分布，以及连接池指标
+     *
+     * @return 操作结果
+     */
+    @PostMapping(value = "/metrics")
+    @RequiresPermissions({"redis:monitor"})
+    public Map<String, Object> metrics() {
+        return getResult(redisMetrics == null ? UNAVAILABLE : redisMetrics.snapshot());
+    }
+}
@@ -4,6 +4,8 @@ import com.project.frame.mapper.common.BaseMapper;
 import com.project.frame.model.core.User;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 /**
  * 用户Mapper
  *
@@ -27,4 +29,13 @@ public interface UserMapper extends BaseMapper<User, Long> {
      * @return 用户对象
      */
     User getUserCascadeRole(@Param("userId") Long userId);
+
+    /**
+     * 按ID顺序分页查询登录名称
+     *
+     * @param lastId 上一页最后一个用户ID，第一页传null
+     * @param limit  每页数量
+     * @return 用户对象集合，只包含ID和登录名称
+     */
+    List<User> findLoginNames(@Param("lastId") Long lastId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -4,22 +4,77 @@ import com.project.frame.mapper.core.UserMapper;
 import com.project.frame.model.core.User;
 import com.project.frame.service.common.impl.BaseServiceImpl;
 import com.project.frame.service.core.UserService;
+import com.project.frame.utils.redis.RedisBloomFilter;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 用户 业务实现类
+ * 应用启动后以全部登录名称初始化登录名布隆过滤器，新增和修改用户时写入登录名称
  *
  * @author mxy
  * @date 2019/12/15
  */
 @Service("userServiceImpl")
-public class UserServiceImpl extends BaseServiceImpl<User, Long> implements UserService {
+public class UserServiceImpl extends BaseServiceImpl<User, Long> implements UserService, ApplicationListener<ApplicationReadyEvent> {
     private static final long serialVersionUID = 6634653112247755914L;
 
+    // 加载登录名布隆过滤器时每页查询的用户数
+    private static final int LOGIN_NAME_PAGE_SIZE = 1000;
+
     @Autowired
     private UserMapper userMapper;
 
+    @Resource(name = "loginNameBloomFilter")
+    private RedisBloomFilter loginNameBloomFilter;
+
+    /**
+     * 应用启动后初始化登录名布隆过滤器，位图未就绪时在后台从数据库加载
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        loginNameBloomFilter.init(this::loadLoginNames);
+    }
+
+    /**
+     * 保存用户，并把登录名称写入布隆过滤器
+     * 事务回滚时登录名称仍留在过滤器中，只会增加一次误判
+     *
+     * @param user 用户对象
+     * @return 用户对象
+     */
+    @Override
+    public User save(User user) {
+        User saved = super.save(user);
+        if (saved != null) {
+            loginNameBloomFilter.put(saved.getLoginName());
+        }
+        return saved;
+    }
+
+    /**
+     * 更新用户，登录名称可能修改，把登录名称写入布隆过滤器
+     * 重复写入相同的登录名称不改变位图，无需查询原登录名称比较
+     *
+     * @param user 用户对象
+     * @return 用户对象
+     */
+    @Override
+    public User update(User user) {
+        User updated = super.update(user);
+        if (updated != null && StringUtils.isNotEmpty(updated.getLoginName())) {
+            loginNameBloomFilter.put(updated.getLoginName());
+        }
+        return updated;
+    }
+
     /**
      * 根据登录名称查询用户
      *
@@ -41,4 +96,23 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
     public User getUserCascadeRole(Long userId) {
         return userMapper.getUserCascadeRole(userId);
     }
+
+    /**
+     * 按ID顺序分页读取全部登录名称写入布隆过滤器
+     *
+     * @param filter 布隆过滤器
+     */
+    private void loadLoginNames(RedisBloomFilter filter) {
+        Long lastId = null;
+        List<User> users;
+        do {
+            users = userMapper.findLoginNames(lastId, LOGIN_NAME_PAGE_SIZE);
+            List<String> loginNames = new ArrayList<>(users.size());
+            for (User user : users) {
+                loginNames.add(user.getLoginName());
+                lastId = user.getId();
+            }
+            filter.putAll(loginNames);
+        } while (users.size() == LOGIN_NAME_PAGE_SIZE);
+    }
 }
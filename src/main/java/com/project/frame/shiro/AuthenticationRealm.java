@@ -1,11 +1,12 @@
 package com.project.frame.shiro;
 
-import com.alibaba.fastjson.JSON;
 import com.project.frame.model.core.Menu;
 import com.project.frame.model.core.Role;
 import com.project.frame.model.core.User;
 import com.project.frame.service.core.MenuService;
 import com.project.frame.service.core.UserService;
+import com.project.frame.shiro.redis.ShiroRedisCache;
+import com.project.frame.utils.redis.RedisBloomFilter;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.time.DateUtils;
@@ -14,6 +15,7 @@ import org.apache.shiro.authc.*;
 import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.Cache;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 
@@ -34,6 +36,9 @@ public class AuthenticationRealm extends AuthorizingRealm {
     @Resource(name = "menuServiceImpl")
     private MenuService menuService;
 
+    @Resource(name = "loginNameBloomFilter")
+    private RedisBloomFilter loginNameBloomFilter;
+
     /**
      * 获取认证信息
      */
@@ -46,8 +51,16 @@ public class AuthenticationRealm extends AuthorizingRealm {
 
         // 判断登录信息
         if (loginName != null && password != null) {
+            // 登录名一定不存在时不查询数据库
+            if (!loginNameBloomFilter.mightContain(loginName)) {
+                throw new UnknownAccountException();
+            }
+
             // 获取登录用户信息
             User user = userService.getByLoginName(loginName);
+            if (user == null) {
+                loginNameBloomFilter.recordFalsePositive();
+            }
 
             // 判断用户是否存在
             if (user == null || user.getDelFlag()) {
@@ -101,29 +114,28 @@ public class AuthenticationRealm extends AuthorizingRealm {
         }
     }
 
+    /**
+     * 获取授权信息，通过RedisCacheAside读取授权缓存
+     * 软过期之后返回旧的授权信息，同时在后台刷新；硬过期之后通过RedisSingleFlight合并加载，
+     * 同一用户的授权信息在所有节点上同时只查询一次数据库
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected AuthorizationInfo getAuthorizationInfo(PrincipalCollection principals) {
+        Cache<Object, AuthorizationInfo> cache = getAuthorizationCache();
+        if (principals == null || !(cache instanceof ShiroRedisCache)) {
+            return super.getAuthorizationInfo(principals);
+        }
+        return ((ShiroRedisCache<Object, AuthorizationInfo>) cache).getOrLoad(getAuthorizationCacheKey(principals),
+                () -> doGetAuthorizationInfo(principals));
+    }
+
     /**
      * 获取授权信息
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals) {
-        // 从缓存Realm中获取自定义的主体
-        Object object = principals.fromRealm(getName()).iterator().next();
-        /*
-            此处不能直接转成Principal对象的原因是：
-            网上说是ClassLoader类加载器的不同导致的类型转换异常，
-            项目启动时加载项目中的类使用的加载器都是 org.springframework.boot.devtools.restart.classloader.RestartClassLoader
-            而从shiro session 取出来的对象（从redis中取出经过反序列化）的类加载器都是 sun.misc.Launcher.AppClassLoader，
-            很明显会导致类型转换异常，原来Spring的dev-tools为了实现重新装载class自己实现了一个类加载器，
-            来加载项目中会改变的类，方便重启时将新改动的内容更新进来。
-            解决方案1：可以去掉pom文件中的spring-boot-devtools
-            解决方案2：就是以下的方法
-         */
-        Principal principal;
-        if(object instanceof Principal) {
-            principal = (Principal) object;
-        } else {
-            principal = JSON.parseObject(JSON.toJSON(object).toString(), Principal.class);
-        }
+        Principal principal = getPrincipal(principals);
 
         if (principal != null && null != principal.getId()) {
             // 使用SimpleAuthorizationInfo做授权
@@ -182,4 +194,20 @@ public class AuthenticationRealm extends AuthorizingRealm {
         }
         return false;
     }
+
+    /**
+     * 从身份集合中获取自定义的主体
+     * 身份集合由RedisCodec通过线程上下文类加载器解码，devtools重启后取出的主体与当前类加载器一致，可以直接转换
+     *
+     * @param principals 身份集合
+     * @return 主体，身份集合中没有本Realm的主体时返回null
+     */
+    private Principal getPrincipal(PrincipalCollection principals) {
+        Collection<?> realmPrincipals = principals.fromRealm(getName());
+        if (CollectionUtils.isEmpty(realmPrincipals)) {
+            return null;
+        }
+        Object object = realmPrincipals.iterator().next();
+        return object instanceof Principal ? (Principal) object : null;
+    }
 }
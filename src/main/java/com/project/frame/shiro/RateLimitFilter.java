@@ -0,0 +1,235 @@
+package com.project.frame.shiro;
+
+import com.alibaba.fastjson.JSONObject;
+import com.project.frame.commons.config.ExceptionHandlerAdvice;
+import com.project.frame.utils.exception.BASE_RESPONSE_CODE_ENUM;
+import com.project.frame.utils.redis.RedisRateLimiter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.web.filter.AccessControlFilter;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自定义限流过滤器
+ * 按客户端IP、登录用户和请求路径限制请求频率，位于认证和授权过滤器之前，超出限额的请求直接返回
+ * 连接的对端地址属于可信代理时，从代理传递的请求头中从右向左取第一个不可信的地址作为客户端IP，
+ * 客户端自行伪造的请求头位于最左侧，不会被采用
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RateLimitFilter extends AccessControlFilter {
+
+    private final RedisRateLimiter redisRateLimiter;
+
+    // 反向代理传递客户端IP的请求头，为空时直接使用对端地址
+    private final String ipHeader;
+
+    // 可信代理的网段
+    private final List<Subnet> trustedProxies = new ArrayList<>();
+
+    /**
+     * 构造限流过滤器
+     *
+     * @param redisRateLimiter 请求限流器
+     * @param ipHeader         反向代理传递客户端IP的请求头，为空时直接使用对端地址
+     * @param trustedProxies   可信代理的网段，格式为地址/前缀长度，不带前缀长度时表示单个地址
+     */
+    public RateLimitFilter(RedisRateLimiter redisRateLimiter, String ipHeader, String[] trustedProxies) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.ipHeader = StringUtils.trimToNull(ipHeader);
+        if (trustedProxies != null) {
+            for (String proxy : trustedProxies) {
+                if (StringUtils.isNotBlank(proxy)) {
+                    this.trustedProxies.add(Subnet.parse(proxy.trim()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断请求是否在限额内
+     */
+    @Override
+    protected boolean isAccessAllowed(ServletRequest request, ServletResponse response, Object mappedValue) {
+        Object principal = SecurityUtils.getSubject().getPrincipal();
+        String user = principal instanceof Principal ? String.valueOf(((Principal) principal).getId()) : null;
+        return redisRateLimiter.tryAcquire(getPathWithinApplication(request), resolveClientIp(request), user);
+    }
+
+    /**
+     * 获取客户端IP
+     * 对端地址不是可信代理时直接使用对端地址；否则从请求头中从右向左跳过可信代理，取第一个地址
+     *
+     * @param request 请求对象
+     * @return 客户端IP
+     */
+    String resolveClientIp(ServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (ipHeader == null || !(request instanceof HttpServletRequest) || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwarded = ((HttpServletRequest) request).getHeader(ipHeader);
+        if (StringUtils.isBlank(forwarded)) {
+            return remoteAddr;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 判断地址是否属于可信代理
+     */
+    private boolean isTrustedProxy(String address) {
+        if (trustedProxies.isEmpty()) {
+            return false;
+        }
+        byte[] bytes = Subnet.toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 超出限额，返回请求过于频繁
+     *
+     * @param servletRequest  请求对象
+     * @param servletResponse 响应对象
+     */
+    @Override
+    protected boolean onAccessDenied(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException {
+        HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+        httpServletResponse.setStatus(429);
+        httpServletResponse.setContentType("application/json");
+        httpServletResponse.setCharacterEncoding("UTF-8");
+        PrintWriter out = httpServletResponse.getWriter();
+        JSONObject json = new JSONObject();
+        json.put(ExceptionHandlerAdvice.RESPONSE_CODE_NAME, BASE_RESPONSE_CODE_ENUM.TOO_MANY_REQUESTS.getCode());
+        json.put(ExceptionHandlerAdvice.RESPONSE_MSG_NAME, BASE_RESPONSE_CODE_ENUM.TOO_MANY_REQUESTS.getMsg());
+        out.write(json.toJSONString());
+        out.flush();
+        out.close();
+        return false;
+    }
+
+    /**
+     * 网段
+     */
+    private static final class Subnet {
+
+        private final byte[] network;
+
+        private final int prefixLength;
+
+        private Subnet(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        /**
+         * 解析地址/前缀长度格式的网段
+         */
+        static Subnet parse(String cidr) {
+            int index = cidr.indexOf('/');
+            byte[] network = toBytes(index < 0 ? cidr : cidr.substring(0, index));
+            if (network == null) {
+                throw new IllegalArgumentException("可信代理网段格式错误：" + cidr);
+            }
+            int prefixLength = index < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(index + 1).trim());
+            return new Subnet(network, Math.max(0, Math.min(prefixLength, network.length * 8)));
+        }
+
+        /**
+         * 把IP地址字面量转换为字节数组，不是IP地址字面量时返回null
+         * 请求头的内容由客户端控制，解析时不能触发域名解析
+         */
+        static byte[] toBytes(String address) {
+            if (address == null || address.isEmpty()) {
+                return null;
+            }
+            if (address.indexOf(':') < 0) {
+                return parseIpv4(address);
+            }
+            for (int i = 0; i < address.length(); i++) {
+                char c = address.charAt(i);
+                if (Character.digit(c, 16) < 0 && c != ':' && c != '.') {
+                    return null;
+                }
+            }
+            try {
+                // 加上方括号后只按IPv6字面量解析，格式错误时直接抛出异常
+                return InetAddress.getByName("[" + address + "]").getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+
+        private static byte[] parseIpv4(String address) {
+            String[] parts = address.split("\\.", -1);
+            if (parts.length != 4) {
+                return null;
+            }
+            byte[] bytes = new byte[4];
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i];
+                if (part.isEmpty() || part.length() > 3) {
+                    return null;
+                }
+                int value = 0;
+                for (int j = 0; j < part.length(); j++) {
+                    char c = part.charAt(j);
+                    if (c < '0' || c > '9') {
+                        return null;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                if (value > 255) {
+                    return null;
+                }
+                bytes[i] = (byte) value;
+            }
+            return bytes;
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int bits = prefixLength;
+            for (int i = 0; i < network.length && bits > 0; i++, bits -= 8) {
+                int mask = bits >= 8 ? 0xFF : (0xFF << (8 - bits)) & 0xFF;
+                if ((address[i] & mask) != (network[i] & mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.project.frame.shiro.redis;
 
+import com.project.frame.commons.constant.RedisConfigConstant;
 import com.project.frame.commons.constant.RedisConstant;
 import com.project.frame.utils.ByteUtil;
-import com.project.frame.utils.RedisClient;
+import com.project.frame.utils.RedisOperations;
+import com.project.frame.utils.redis.RedisCacheAside;
+import com.project.frame.utils.redis.RedisCacheEntry;
 import lombok.Data;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheException;
-import org.apache.shiro.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * ShiroRedisCache
@@ -25,17 +28,26 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
     // redis客户端
-    private RedisClient redisClient;
+    private RedisOperations redisClient;
 
     // shiroSession的key值前缀
     private String keyPrefix;
 
+    // 旁路缓存工具，getOrLoad通过它读取和加载
+    private RedisCacheAside redisCacheAside;
+
     // 通过redisClient实例和prefix参数构造redisCache
-    public ShiroRedisCache(RedisClient redisClient, String prefix) {
+    public ShiroRedisCache(RedisOperations redisClient, String prefix) {
+        this(redisClient, null, prefix);
+    }
+
+    // 通过redisClient实例、旁路缓存工具和prefix参数构造redisCache
+    public ShiroRedisCache(RedisOperations redisClient, RedisCacheAside redisCacheAside, String prefix) {
         if (redisClient == null) {
             throw new IllegalArgumentException("shiroRedisCahe初始化时，redisClient参数不能为空");
         }
         this.redisClient = redisClient;
+        this.redisCacheAside = redisCacheAside;
         this.keyPrefix = prefix;
     }
 
@@ -67,11 +79,7 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
             if (key == null) {
                 return null;
             } else {
-                V value = (V) redisClient.get(getPreStringKey(key));
-                if (value == null) {
-                    return null;
-                }
-                return value;
+                return unwrap(redisClient.get(getPreStringKey(key)));
             }
         } catch (Throwable t) {
             throw new CacheException(t);
@@ -79,16 +87,44 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
 
     }
 
+    /**
+     * 读取缓存，未命中时加载并写入缓存
+     * 通过RedisCacheAside读写：软过期之后返回旧值并在后台刷新，硬过期之后合并加载；未设置旁路缓存工具时直接加载
+     *
+     * @param key    KEY
+     * @param loader 加载函数
+     * @return 缓存值或加载结果
+     */
+    public V getOrLoad(K key, Supplier<V> loader) throws CacheException {
+        if (key == null || redisCacheAside == null) {
+            return loader.get();
+        }
+        try {
+            return redisCacheAside.get(getPreStringKey(key), RedisConstant.ADMIN_SHIRO_REALM_EXPIRE, loader);
+        } catch (Throwable t) {
+            throw new CacheException(t);
+        }
+    }
+
+    /**
+     * 取出缓存值，RedisCacheAside写入的条目取出其中的值
+     */
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object value) {
+        return (V) (value instanceof RedisCacheEntry ? ((RedisCacheEntry) value).getValue() : value);
+    }
+
     /**
      * 向Redis中存储指定数据
-     * 此处设定权限存储在Redis的超时时间
+     * 此处设定权限存储在Redis的超时时间，按比例随机抖动，避免同时登录的用户授权信息同时过期
+     * 使用一条SETEX写入，不再先SET再SETEX
      */
     @Override
     public V put(K key, V value) throws CacheException {
         logger.debug("\r\n ********* 根据key存储key:【{}】，value:【{}】*********", key, value);
         try {
-            redisClient.set(getPreStringKey(key), value);
-            redisClient.setAndExpire(getPreStringKey(key), value, RedisConstant.ADMIN_SHIRO_REALM_EXPIRE);
+            redisClient.setAndExpire(getPreStringKey(key), value,
+                    RedisCacheAside.jitter(RedisConstant.ADMIN_SHIRO_REALM_EXPIRE, RedisConfigConstant.CACHE_ASIDE_JITTER));
             return value;
         } catch (Throwable t) {
             throw new CacheException(t);
@@ -139,18 +175,19 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
 
     /**
      * 从Redis中获取所有key集合
+     * 使用SCAN分批迭代，避免KEYS命令阻塞Redis
      */
     @Override
     public Set<K> keys() {
         logger.debug("\r\n ********* 从redis中获取所有key集合 *********");
         try {
-            Set<byte[]> keys = redisClient.keys(ByteUtil.objectToBytes(this.keyPrefix + "*"));
-            if (CollectionUtils.isEmpty(keys)) {
+            Iterator<byte[]> keys = redisClient.scan(redisClient.objectKeyPattern(this.keyPrefix));
+            if (!keys.hasNext()) {
                 return Collections.emptySet();
             } else {
                 Set<K> newKeys = new HashSet<K>();
-                for (byte[] key : keys) {
-                    newKeys.add((K) key);
+                while (keys.hasNext()) {
+                    newKeys.add((K) keys.next());
                 }
                 return newKeys;
             }
@@ -161,25 +198,21 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
 
     /**
      * 从Redis中获取所有value集合
+     * 使用SCAN分批迭代，每批KEY通过一条MGET取回value
      */
     @Override
     public Collection<V> values() {
         logger.debug("\r\n ********* 从redis中获取所有value集合 *********");
         try {
-            Set<byte[]> keys = redisClient.keys(ByteUtil.objectToBytes(this.keyPrefix + "*"));
-            if (!CollectionUtils.isEmpty(keys)) {
-                List<V> values = new ArrayList<V>(keys.size());
-                for (byte[] key : keys) {
-                    @SuppressWarnings("unchecked")
-                    V value = get((K) key);
-                    if (value != null) {
-                        values.add(value);
-                    }
-                }
-                return Collections.unmodifiableList(values);
-            } else {
+            Iterator<Object> iterator = redisClient.scanValues(redisClient.objectKeyPattern(this.keyPrefix));
+            if (!iterator.hasNext()) {
                 return Collections.emptyList();
             }
+            List<V> values = new ArrayList<V>();
+            while (iterator.hasNext()) {
+                values.add(unwrap(iterator.next()));
+            }
+            return Collections.unmodifiableList(values);
         } catch (Throwable t) {
             throw new CacheException(t);
         }
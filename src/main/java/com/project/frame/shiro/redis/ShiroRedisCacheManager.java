@@ -1,7 +1,8 @@
 package com.project.frame.shiro.redis;
 
 import com.project.frame.commons.constant.RedisConstant;
-import com.project.frame.utils.RedisClient;
+import com.project.frame.utils.RedisOperations;
+import com.project.frame.utils.redis.RedisCacheAside;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheException;
 import org.apache.shiro.cache.CacheManager;
@@ -26,7 +27,11 @@ public class ShiroRedisCacheManager implements CacheManager {
 
     // 注入redisClient实例
     @Resource(name = "redisClient")
-    private RedisClient redisClient;
+    private RedisOperations redisClient;
+
+    // 注入旁路缓存工具，授权缓存通过它读取和加载
+    @Resource(name = "redisCacheAside")
+    private RedisCacheAside redisCacheAside;
 
     /**
      * 获取权限缓存
@@ -36,7 +41,7 @@ public class ShiroRedisCacheManager implements CacheManager {
         logger.debug("\r\n ********* 获取名称为:【{}】的RedisCache实例", name);
         Cache cache = caches.get(RedisConstant.ADMIN_SHIRO_REALM_KEY + name);
         if (cache == null) {
-            cache = new ShiroRedisCache<K, V>(redisClient, RedisConstant.ADMIN_SHIRO_REALM_KEY);
+            cache = new ShiroRedisCache<K, V>(redisClient, redisCacheAside, RedisConstant.ADMIN_SHIRO_REALM_KEY);
             caches.put(RedisConstant.ADMIN_SHIRO_REALM_KEY + name, cache);
         }
         return cache;
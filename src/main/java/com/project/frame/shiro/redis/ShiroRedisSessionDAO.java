@@ -1,8 +1,7 @@
 package com.project.frame.shiro.redis;
 
 import com.project.frame.commons.constant.RedisConstant;
-import com.project.frame.utils.ByteUtil;
-import com.project.frame.utils.RedisClient;
+import com.project.frame.utils.RedisOperations;
 import org.apache.shiro.session.Session;
 import org.apache.shiro.session.UnknownSessionException;
 import org.apache.shiro.session.mgt.eis.AbstractSessionDAO;
@@ -11,10 +10,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
-import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -29,7 +28,7 @@ public class ShiroRedisSessionDAO extends AbstractSessionDAO {
 
     // 注入redisClient实例
     @Resource(name = "redisClient")
-    private RedisClient redisClient;
+    private RedisOperations redisClient;
 
     /**
      * 获得String类型的sessionId
@@ -74,23 +73,12 @@ public class ShiroRedisSessionDAO extends AbstractSessionDAO {
     public Collection<Session> getActiveSessions() {
         Set<Session> sessions = new HashSet<Session>();
 
-        Set<byte[]> keys = null;
-        try {
-            keys = redisClient.keys(ByteUtil.objectToBytes(RedisConstant.ADMIN_SHIRO_SESSION_KEY + "*"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        if (keys != null && keys.size() > 0) {
-            for (byte[] key : keys) {
-                Session s = null;
-                try {
-                    s = (Session) ByteUtil.bytesToObject(redisClient.get(key));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                }
-                sessions.add(s);
+        // 使用SCAN分批迭代session，每批KEY通过一条MGET取回，避免KEYS命令阻塞Redis
+        Iterator<Object> values = redisClient.scanValues(redisClient.objectKeyPattern(RedisConstant.ADMIN_SHIRO_SESSION_KEY));
+        while (values.hasNext()) {
+            Object value = values.next();
+            if (value instanceof Session) {
+                sessions.add((Session) value);
             }
         }
 
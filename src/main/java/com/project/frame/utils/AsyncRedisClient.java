@@ -0,0 +1,260 @@
+package com.project.frame.utils;
+
+import com.project.frame.utils.redis.RedisAsyncExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Redis异步客户端
+ * 在有界线程池中执行RedisClient的常用操作并返回CompletableFuture，
+ * 需要多个互不依赖的Redis值时可以同时发起，再通过CompletableFuture.allOf统一等待
+ * 失败处理与RedisClient一致：出错时记录日志，Future以null或false正常完成
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+@Component
+public class AsyncRedisClient {
+
+    @Resource(name = "redisClient")
+    private RedisOperations redisClient;
+
+    @Resource(name = "redisAsyncExecutor")
+    private RedisAsyncExecutor redisAsyncExecutor;
+
+    /**
+     * 在异步线程池中执行
+     *
+     * @param supplier 操作
+     * @return 操作结果
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, redisAsyncExecutor);
+    }
+
+    /**
+     * 异步获取对象类型的值
+     *
+     * @param key KEY
+     * @return 值，不存在时为null
+     */
+    public CompletableFuture<Object> get(Object key) {
+        return supplyAsync(() -> redisClient.get(key));
+    }
+
+    /**
+     * 异步获取json类型的值并转换为指定类型
+     *
+     * @param key   KEY
+     * @param clazz 值类型
+     * @return 值，不存在时为null
+     */
+    public <T> CompletableFuture<T> get(String key, Class<T> clazz) {
+        return supplyAsync(() -> redisClient.get(key, clazz));
+    }
+
+    /**
+     * 异步获取字符串类型的值
+     *
+     * @param key KEY
+     * @return 值，不存在时为null
+     */
+    public CompletableFuture<String> getString(String key) {
+        return supplyAsync(() -> redisClient.getString(key));
+    }
+
+    /**
+     * 异步批量获取对象类型的值
+     *
+     * @param keys KEY集合
+     * @return 与KEY顺序一致的值集合
+     */
+    public CompletableFuture<List<Object>> mgetObject(List<?> keys) {
+        return supplyAsync(() -> redisClient.mgetObject(keys));
+    }
+
+    /**
+     * 异步写入对象类型的值
+     *
+     * @param key   KEY
+     * @param value 值
+     * @return 是否写入成功
+     */
+    public CompletableFuture<Boolean> set(Object key, Object value) {
+        return supplyAsync(() -> redisClient.set(key, value));
+    }
+
+    /**
+     * 异步写入对象类型的值并设置有效时间
+     *
+     * @param key    KEY
+     * @param value  值
+     * @param expire 有效时间，单位：秒
+     * @return 是否写入成功
+     */
+    public CompletableFuture<Boolean> setAndExpire(Object key, Object value, int expire) {
+        return supplyAsync(() -> redisClient.setAndExpire(key, value, expire));
+    }
+
+    /**
+     * 异步写入字符串类型的值
+     *
+     * @param key   KEY
+     * @param value 值
+     * @return 执行结果
+     */
+    public CompletableFuture<String> setString(String key, String value) {
+        return supplyAsync(() -> redisClient.setString(key, value));
+    }
+
+    /**
+     * 异步删除KEY
+     *
+     * @param key KEY
+     * @return 是否删除成功
+     */
+    public CompletableFuture<Boolean> del(Object key) {
+        return supplyAsync(() -> redisClient.del(key));
+    }
+
+    /**
+     * 异步获取哈希表中字段的值
+     *
+     * @param key   KEY
+     * @param field 字段
+     * @return 字段的值，不存在时为null
+     */
+    public CompletableFuture<String> hget(String key, String field) {
+        return supplyAsync(() -> redisClient.hget(key, field));
+    }
+
+    /**
+     * 异步获取哈希表中json类型字段的值并转换为指定类型
+     *
+     * @param key   KEY
+     * @param field 字段
+     * @param clazz 值类型
+     * @return 字段的值，不存在时为null
+     */
+    public <T> CompletableFuture<T> hget(String key, String field, Class<T> clazz) {
+        return supplyAsync(() -> redisClient.hget(key, field, clazz));
+    }
+
+    /**
+     * 异步获取哈希表中的所有字段和值
+     *
+     * @param key KEY
+     * @return 字段 -> 值
+     */
+    public CompletableFuture<Map<String, String>> hgetAll(String key) {
+        return supplyAsync(() -> redisClient.hgetAll(key));
+    }
+
+    /**
+     * 异步获取哈希表中的所有字段和json类型的值并转换为指定类型
+     *
+     * @param key   KEY
+     * @param clazz 值类型
+     * @return 字段 -> 值
+     */
+    public <T> CompletableFuture<Map<String, T>> hgetAll(String key, Class<T> clazz) {
+        return supplyAsync(() -> redisClient.hgetAll(key, clazz));
+    }
+
+    /**
+     * 异步设置哈希表中字段的值
+     *
+     * @param key   KEY
+     * @param field 字段
+     * @param value 值
+     * @return 新增字段时为1，覆盖时为0
+     */
+    public CompletableFuture<Long> hset(String key, String field, String value) {
+        return supplyAsync(() -> redisClient.hset(key, field, value));
+    }
+
+    /**
+     * 异步以json格式设置哈希表中字段的值
+     *
+     * @param key   KEY
+     * @param field 字段
+     * @param o     值
+     * @return 新增字段时为1，覆盖时为0
+     */
+    public CompletableFuture<Long> hset(String key, String field, Object o) {
+        return supplyAsync(() -> redisClient.hset(key, field, o));
+    }
+
+    /**
+     * 异步获取列表指定区间内的元素
+     *
+     * @param key   KEY
+     * @param start 开始下标
+     * @param end   结束下标（含）
+     * @return 元素集合
+     */
+    public CompletableFuture<List<String>> lrange(String key, int start, int end) {
+        return supplyAsync(() -> redisClient.lrange(key, start, end));
+    }
+
+    /**
+     * 异步获取列表指定区间内的json元素并转换为指定类型
+     *
+     * @param key   KEY
+     * @param clazz 元素类型
+     * @param start 开始下标
+     * @param end   结束下标（含）
+     * @return 元素集合
+     */
+    public <T> CompletableFuture<List<T>> lrange(String key, Class<T> clazz, int start, int end) {
+        return supplyAsync(() -> redisClient.lrange(key, clazz, start, end));
+    }
+
+    /**
+     * 异步从列表头部插入元素
+     *
+     * @param key   KEY
+     * @param value 元素
+     * @return 插入后列表的长度
+     */
+    public CompletableFuture<Long> lpush(String key, String value) {
+        return supplyAsync(() -> redisClient.lpush(key, value));
+    }
+
+    /**
+     * 异步从列表尾部插入元素
+     *
+     * @param key   KEY
+     * @param value 元素
+     * @return 插入后列表的长度
+     */
+    public CompletableFuture<Long> rpush(String key, String value) {
+        return supplyAsync(() -> redisClient.rpush(key, value));
+    }
+
+    /**
+     * 异步从列表头部批量弹出json元素并转换为指定类型
+     *
+     * @param key   KEY
+     * @param clazz 元素类型
+     * @param size  最大弹出数量
+     * @return 元素集合，列表为空时为null
+     */
+    public <T> CompletableFuture<List<T>> lpop(String key, Class<T> clazz, int size) {
+        return supplyAsync(() -> redisClient.lpop(key, clazz, size));
+    }
+
+    /**
+     * 获取异步线程池统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        return redisAsyncExecutor.getStats();
+    }
+}
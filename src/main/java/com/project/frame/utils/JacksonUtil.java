@@ -7,16 +7,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.AnnotationUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * jackson工具类
  */
 public class JacksonUtil {
+    private static final Logger logger = LoggerFactory.getLogger(JacksonUtil.class);
 
     private final static ObjectMapper objectMapper = new ObjectMapper();
 
@@ -68,6 +74,96 @@ public class JacksonUtil {
         return null;
     }
 
+    /**
+     * 把UTF-8编码的json字节数组转换为相应的JavaBean对象，避免先转换成中间字符串
+     *
+     * @param json
+     * @param valueType
+     * @return 解析失败返回null
+     */
+    public static <T> T readValue(byte[] json, Class<T> valueType) {
+
+        try {
+            return objectMapper.readValue(json, valueType);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [json字节数组转换为对象失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+
+        return null;
+    }
+
+    /**
+     * 把UTF-8编码的json字节数组转换为相应的泛型对象，避免先转换成中间字符串
+     *
+     * @param json
+     * @param valueTypeRef
+     * @return 解析失败返回null
+     */
+    public static <T> T readValue(byte[] json, TypeReference<T> valueTypeRef) {
+
+        try {
+            return objectMapper.readValue(json, valueTypeRef);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [json字节数组转换为对象失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+
+        return null;
+    }
+
+    /**
+     * 把多个UTF-8编码的json字节数组一次性转换为JavaBean集合
+     * 各元素拼接成一个json数组后只调用一次解析，避免逐个元素创建解析器；
+     * 拼接后的数组解析失败或元素个数不一致时逐个元素解析，只有解析失败的元素为null
+     *
+     * @param jsons
+     * @param valueType
+     * @return 与jsons顺序一致的对象集合
+     */
+    public static <T> List<T> readValues(List<byte[]> jsons, Class<T> valueType) {
+        int length = 2;
+        for (byte[] json : jsons) {
+            length += json.length + 1;
+        }
+        byte[] array = new byte[length];
+        int pos = 0;
+        array[pos++] = '[';
+        for (byte[] json : jsons) {
+            if (pos > 1) {
+                array[pos++] = ',';
+            }
+            System.arraycopy(json, 0, array, pos, json.length);
+            pos += json.length;
+        }
+        array[pos++] = ']';
+
+        try {
+            List<T> values = objectMapper.readValue(array, 0, pos,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, valueType));
+            if (values != null && values.size() == jsons.size()) {
+                return values;
+            }
+        } catch (Exception e) {
+            // 存在无法解析的元素，逐个元素解析
+        }
+
+        List<T> values = new ArrayList<T>(jsons.size());
+        for (byte[] json : jsons) {
+            values.add(readValue(json, valueType));
+        }
+        return values;
+    }
+
+    /**
+     * 将对象转换为UTF-8编码的json字节数组，避免先转换成中间字符串
+     *
+     * @param value
+     * @return
+     * @throws IOException
+     */
+    public static byte[] toJsonBytes(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
     /**
      * 将对象转换为字符串类型
      *
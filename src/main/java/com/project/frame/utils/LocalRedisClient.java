@@ -0,0 +1,2030 @@
+package com.project.frame.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.project.frame.utils.redis.RedisBatchConsumer;
+import com.project.frame.utils.redis.RedisExpiryWheel;
+import com.project.frame.utils.redis.RedisKeyPattern;
+import com.project.frame.utils.redis.RedisScript;
+import com.project.frame.utils.redis.RedisScripts;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 进程内的Redis客户端
+ * 启用local环境时代替RedisClient，数据保存在当前进程的ConcurrentHashMap中，适用于单节点部署和无Redis服务的基准测试；
+ * 会话和权限缓存的读取不经过网络和序列化，多个节点之间不共享数据
+ * byte类型KEY的value按引用保存，与Shiro的MemorySessionDAO一致，取出的对象与缓存中的是同一个实例；
+ * String、hash、list、set、zset的值与RedisClient一样保存为字符串，对象值转换为JSON
+ * 过期KEY在读取时惰性删除，同时由过期时间轮定期清理；单个KEY上的命令是原子的，跨KEY的命令不保证原子性
+ * 预定义的Lua脚本由Java代码等价实现，执行其他脚本时直接抛出UnsupportedOperationException，不按Redis故障处理
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+@Component("redisClient")
+@Profile("local")
+public class LocalRedisClient implements RedisOperations, DisposableBean {
+    private Logger logger = LoggerFactory.getLogger(LocalRedisClient.class);
+
+    private static final String OK = "OK";
+
+    private static final String WRONG_TYPE = "WRONGTYPE Operation against a key holding the wrong kind of value";
+
+    // 有等价Java实现的预定义脚本
+    private static final List<RedisScript<?>> SUPPORTED_SCRIPTS = Arrays.<RedisScript<?>>asList(
+            RedisScripts.INCR_BY_AND_EXPIRE, RedisScripts.DEL_IF_EQUALS, RedisScripts.PEXPIRE_IF_EQUALS,
+            RedisScripts.LOCK_ACQUIRE, RedisScripts.TOKEN_BUCKET_ACQUIRE, RedisScripts.BLOOM_PUT,
+            RedisScripts.BLOOM_INVALIDATE, RedisScripts.BLOOM_SWAP);
+
+    // 过期时间轮的刻度，单位：毫秒
+    private static final long EXPIRY_TICK_MILLIS = 100L;
+
+    // 过期时间轮的槽数，一圈约51秒
+    private static final int EXPIRY_WHEEL_SIZE = 512;
+
+    // 数据，String类型的KEY直接作为键，其他类型的对象KEY包装为ObjectKey
+    private final ConcurrentHashMap<Object, Entry> data = new ConcurrentHashMap<Object, Entry>();
+
+    // 串行执行跨KEY的脚本，如LOCK_ACQUIRE的获取锁和递增围栏令牌、布隆过滤器同时写入两个位图
+    private final Object scriptMonitor = new Object();
+
+    private final RedisExpiryWheel<Entry> expiryWheel = new RedisExpiryWheel<Entry>(EXPIRY_TICK_MILLIS, EXPIRY_WHEEL_SIZE,
+            this::onExpire);
+
+    @Override
+    public <T> T eval(RedisScript<T> script, List<String> keys, Object... args) {
+        if (!isSupported(script)) {
+            throw new UnsupportedOperationException("进程内Redis不支持脚本：" + script.getName() + "，需要在LocalRedisClient中等价实现");
+        }
+        try {
+            return script.convertResult(evalScript(script, keys, args));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [执行Redis脚本" + script.getName() + "失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * 按脚本内容执行等价的Java实现，返回与Lua脚本相同的原始返回值
+     */
+    private Object evalScript(RedisScript<?> script, List<String> keys, Object[] args) {
+        if (isScript(script, RedisScripts.INCR_BY_AND_EXPIRE)) {
+            final long delta = Long.parseLong(scriptArg(args[0]));
+            final int expire = Integer.parseInt(scriptArg(args[1]));
+            return compute(keys.get(0), true, entry -> {
+                long value = parseLong(entry.value == null ? "0" : string(entry)) + delta;
+                entry.value = String.valueOf(value);
+                if (entry.expireAt == 0L) {
+                    expireAfter(entry, expire * 1000L);
+                }
+                return value;
+            });
+        }
+        if (isScript(script, RedisScripts.DEL_IF_EQUALS)) {
+            final String expected = scriptArg(args[0]);
+            return compute(keys.get(0), false, entry -> {
+                if (!expected.equals(entry.value)) {
+                    return 0L;
+                }
+                entry.value = null;
+                return 1L;
+            });
+        }
+        if (isScript(script, RedisScripts.PEXPIRE_IF_EQUALS)) {
+            final String expected = scriptArg(args[0]);
+            final long milliseconds = Long.parseLong(scriptArg(args[1]));
+            return compute(keys.get(0), false, entry -> {
+                if (!expected.equals(entry.value)) {
+                    return 0L;
+                }
+                expireAfter(entry, milliseconds);
+                return 1L;
+            });
+        }
+        if (isScript(script, RedisScripts.LOCK_ACQUIRE)) {
+            // 与Lua脚本一样，获取锁和递增围栏令牌作为一个整体执行；否则租约在两步之间过期时，后获取锁的持有者可能先拿到令牌
+            synchronized (scriptMonitor) {
+                if (setIfAbsent(keys.get(0), scriptArg(args[0]), Long.parseLong(scriptArg(args[1]))) != 1L) {
+                    return null;
+                }
+                return incrBy(keys.get(1), 1L);
+            }
+        }
+        if (isScript(script, RedisScripts.TOKEN_BUCKET_ACQUIRE)) {
+            final double rate = Double.parseDouble(scriptArg(args[0]));
+            final double capacity = Double.parseDouble(scriptArg(args[1]));
+            final long requested = Long.parseLong(scriptArg(args[2]));
+            return compute(keys.get(0), true, entry -> {
+                @SuppressWarnings("unchecked")
+                Map<String, String> bucket = (Map<String, String>) container(entry, HashMap.class, HashMap::new);
+                long now = System.currentTimeMillis();
+                double tokens = bucket.containsKey("tokens") ? Double.parseDouble(bucket.get("tokens")) : capacity;
+                long ts = bucket.containsKey("ts") ? Long.parseLong(bucket.get("ts")) : now;
+                tokens = Math.min(capacity, tokens + Math.max(0L, now - ts) * rate / 1000D);
+                long granted = Math.min(requested, (long) Math.floor(tokens));
+                bucket.put("tokens", String.valueOf(tokens - granted));
+                bucket.put("ts", String.valueOf(now));
+                expireAfter(entry, (long) Math.ceil(capacity * 1000D / rate) + 1000L);
+                return granted;
+            });
+        }
+        if (isScript(script, RedisScripts.BLOOM_PUT)) {
+            final long[] offsets = new long[args.length];
+            for (int i = 0; i < args.length; i++) {
+                offsets[i] = Long.parseLong(scriptArg(args[i]));
+            }
+            synchronized (scriptMonitor) {
+                if (setbits(keys.get(0), offsets) == null || live(keys.get(1)) != null && setbits(keys.get(1), offsets) == null) {
+                    throw new IllegalStateException("设置位图失败");
+                }
+                return 1L;
+            }
+        }
+        if (isScript(script, RedisScripts.BLOOM_INVALIDATE)) {
+            final int ready = bitIndex(Long.parseLong(scriptArg(args[0])));
+            synchronized (scriptMonitor) {
+                compute(keys.get(0), false, entry -> {
+                    ((BitSet) container(entry, BitSet.class, BitSet::new)).clear(ready);
+                    return null;
+                });
+                delete(keys.get(1));
+                return 1L;
+            }
+        }
+        if (isScript(script, RedisScripts.BLOOM_SWAP)) {
+            final int ready = bitIndex(Long.parseLong(scriptArg(args[0])));
+            synchronized (scriptMonitor) {
+                Entry building = live(keys.get(1));
+                Object bits = building == null ? null : building.value;
+                delete(keys.get(1));
+                if (!(bits instanceof BitSet) || !((BitSet) bits).get(ready)) {
+                    return 0L;
+                }
+                put(keys.get(0), bits, 0L);
+                return 1L;
+            }
+        }
+        throw new UnsupportedOperationException("进程内Redis不支持脚本：" + script.getName());
+    }
+
+    /**
+     * 判断脚本是否有等价的Java实现
+     */
+    private boolean isSupported(RedisScript<?> script) {
+        for (RedisScript<?> predefined : SUPPORTED_SCRIPTS) {
+            if (isScript(script, predefined)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isScript(RedisScript<?> script, RedisScript<?> predefined) {
+        return Arrays.equals(script.getSha1(), predefined.getSha1());
+    }
+
+    private String scriptArg(Object arg) {
+        return arg instanceof byte[] ? SafeEncoder.encode((byte[]) arg) : String.valueOf(arg);
+    }
+
+    @Override
+    public Long incrByAndExpire(String key, long delta, int expire) {
+        return eval(RedisScripts.INCR_BY_AND_EXPIRE, Collections.singletonList(key), delta, expire);
+    }
+
+    @Override
+    public boolean delIfEquals(String key, String value) {
+        return Boolean.TRUE.equals(eval(RedisScripts.DEL_IF_EQUALS, Collections.singletonList(key), value));
+    }
+
+    @Override
+    public boolean pexpireIfEquals(String key, String value, long milliseconds) {
+        return Boolean.TRUE.equals(eval(RedisScripts.PEXPIRE_IF_EQUALS, Collections.singletonList(key), value, milliseconds));
+    }
+
+    @Override
+    public boolean set(Object key, Object value) {
+        put(objectKey(key), new ObjectValue(value), 0L);
+        return true;
+    }
+
+    @Override
+    public boolean setAndExpire(Object key, Object value, int expire) {
+        try {
+            put(objectKey(key), new ObjectValue(value), expireAt(expire));
+            return true;
+        } catch (Exception e) {
+            logError("setAndExpire", e);
+        }
+        return false;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Entry entry = live(objectKey(key));
+        Object value = entry == null ? null : entry.value;
+        return value instanceof ObjectValue ? ((ObjectValue) value).value : null;
+    }
+
+    @Override
+    public Set<byte[]> keys(Object key) {
+        Set<byte[]> result = new HashSet<byte[]>();
+        try {
+            Iterator<byte[]> iterator = scan(key instanceof byte[] ? (byte[]) key : keyBytes(objectKey(key)));
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+        } catch (Exception e) {
+            logError("keys", e);
+        }
+        return result;
+    }
+
+    @Override
+    public byte[] objectKeyPattern(String prefix) {
+        return RedisKeyPattern.prefix(prefix);
+    }
+
+    @Override
+    public Iterator<byte[]> scan(byte[] pattern) {
+        return scan(pattern, 0);
+    }
+
+    /**
+     * 迭代匹配的KEY，进程内一次生成全部结果的快照，count参数不起作用
+     */
+    @Override
+    public Iterator<byte[]> scan(byte[] pattern, int count) {
+        List<byte[]> result = new ArrayList<byte[]>();
+        for (Object key : matchingKeys(pattern)) {
+            result.add(keyBytes(key));
+        }
+        return result.iterator();
+    }
+
+    @Override
+    public Iterator<String> scanString(String pattern) {
+        return scanString(pattern, 0);
+    }
+
+    /**
+     * 迭代匹配的KEY，进程内一次生成全部结果的快照，count参数不起作用
+     */
+    @Override
+    public Iterator<String> scanString(String pattern, int count) {
+        List<String> result = new ArrayList<String>();
+        for (Object key : matchingKeys(SafeEncoder.encode(pattern))) {
+            result.add(SafeEncoder.encode(keyBytes(key)));
+        }
+        return result.iterator();
+    }
+
+    @Override
+    public Iterator<Object> scanValues(byte[] pattern) {
+        return scanValues(pattern, 0);
+    }
+
+    /**
+     * 迭代匹配的byte类型KEY对应的value，进程内一次生成全部结果的快照，count参数不起作用
+     */
+    @Override
+    public Iterator<Object> scanValues(byte[] pattern, int count) {
+        List<Object> result = new ArrayList<Object>();
+        for (Object key : matchingKeys(pattern)) {
+            Entry entry = live(key);
+            Object value = entry == null ? null : entry.value;
+            if (value instanceof ObjectValue && ((ObjectValue) value).value != null) {
+                result.add(((ObjectValue) value).value);
+            }
+        }
+        return result.iterator();
+    }
+
+    /**
+     * 获取匹配模式的所有未过期KEY
+     */
+    private List<Object> matchingKeys(byte[] pattern) {
+        List<Object> keys = new ArrayList<Object>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Object, Entry> item : data.entrySet()) {
+            if (item.getValue().isExpired(now)) {
+                continue;
+            }
+            try {
+                if (RedisKeyPattern.matches(pattern, keyBytes(item.getKey()))) {
+                    keys.add(item.getKey());
+                }
+            } catch (RuntimeException e) {
+                logError("scan", e);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean expire(Object key, int expire) {
+        expireKey(objectKey(key), expire);
+        return true;
+    }
+
+    /**
+     * 设置有效时间，有效时间不大于0时与Redis一样直接删除KEY
+     *
+     * @return KEY存在返回1，否则返回0
+     */
+    private long expireKey(Object key, final int seconds) {
+        Long result = compute(key, false, entry -> {
+            if (seconds <= 0) {
+                entry.value = null;
+            } else {
+                expireAfter(entry, seconds * 1000L);
+            }
+            return 1L;
+        });
+        return result == null ? 0L : result;
+    }
+
+    @Override
+    public boolean del(Object key) {
+        data.remove(objectKey(key));
+        return true;
+    }
+
+    @Override
+    public boolean del(Object... keys) {
+        if (keys == null || keys.length == 0) {
+            return true;
+        }
+        for (Object key : keys) {
+            data.remove(objectKey(key));
+        }
+        return true;
+    }
+
+    @Override
+    public List<Object> mgetObject(List<?> keys) {
+        List<Object> result = new ArrayList<Object>();
+        if (keys == null || keys.isEmpty()) {
+            return result;
+        }
+        for (Object key : keys) {
+            result.add(get(key));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean msetAndExpire(Map<?, ?> keyValues, int expire) {
+        if (keyValues == null || keyValues.isEmpty()) {
+            return true;
+        }
+        try {
+            long expireAt = expireAt(expire);
+            for (Map.Entry<?, ?> item : keyValues.entrySet()) {
+                put(objectKey(item.getKey()), new ObjectValue(item.getValue()), expireAt);
+            }
+            return true;
+        } catch (Exception e) {
+            logError("msetAndExpire", e);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean msetAndExpireString(Map<String, String> keyValues, int expire) {
+        if (keyValues == null || keyValues.isEmpty()) {
+            return true;
+        }
+        try {
+            long expireAt = expireAt(expire);
+            for (Map.Entry<String, String> item : keyValues.entrySet()) {
+                put(item.getKey(), item.getValue(), expireAt);
+            }
+            return true;
+        } catch (Exception e) {
+            logError("msetAndExpireString", e);
+        }
+        return false;
+    }
+
+    @Override
+    public Long delObjects(Collection<?> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0L;
+        }
+        long deleted = 0L;
+        for (Object key : keys) {
+            deleted += delete(objectKey(key));
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean exists(Object key) {
+        return live(objectKey(key)) != null;
+    }
+
+    @Override
+    public void setStringForObject(String key, Object o) {
+        try {
+            put(key, JacksonUtil.toJsonStr(o), 0L);
+        } catch (Exception e) {
+            logError("setStringForObject", e);
+        }
+    }
+
+    @Override
+    public String setString(String key, String value) {
+        put(key, value, 0L);
+        return OK;
+    }
+
+    @Override
+    public void setAndExpireString(String key, String v, int expire) {
+        try {
+            put(key, v, expireAt(expire));
+        } catch (Exception e) {
+            logError("setAndExpireString", e);
+        }
+    }
+
+    @Override
+    public long setnx(String key, String value) {
+        return setIfAbsent(key, value, 0L);
+    }
+
+    @Override
+    public long setnxAndExpireString(String key, String value, int expire) {
+        try {
+            expireAt(expire);
+            return setIfAbsent(key, value, expire * 1000L);
+        } catch (Exception e) {
+            logError("setnxAndExpireString", e);
+            return -1;
+        }
+    }
+
+    @Override
+    public long setnxAndPexpireString(String key, String value, long milliseconds) {
+        if (milliseconds <= 0) {
+            logError("setnxAndPexpireString", new IllegalArgumentException("ERR invalid expire time in set"));
+            return -1;
+        }
+        return setIfAbsent(key, value, milliseconds);
+    }
+
+    /**
+     * KEY不存在时写入
+     *
+     * @param milliseconds 有效时间，单位：毫秒，0表示不过期
+     * @return 写入返回1，KEY已存在返回0
+     */
+    private long setIfAbsent(String key, final String value, final long milliseconds) {
+        final boolean[] created = new boolean[1];
+        data.compute(key, (k, entry) -> {
+            if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+                return entry;
+            }
+            Entry fresh = new Entry(k);
+            fresh.value = value;
+            if (milliseconds > 0) {
+                expireAfter(fresh, milliseconds);
+            }
+            created[0] = true;
+            return fresh;
+        });
+        return created[0] ? 1L : 0L;
+    }
+
+    @Override
+    public <T> T get(String key, TypeReference<T> clazz) {
+        String json = getString(key);
+        return json == null ? null : JacksonUtil.readValue(json, clazz);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        String json = getString(key);
+        return json == null ? null : JacksonUtil.readValue(json, clazz);
+    }
+
+    @Override
+    public String getString(String key) {
+        try {
+            Entry entry = live(key);
+            return entry == null ? null : string(entry);
+        } catch (Exception e) {
+            logError("getString", e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> keysString(String pattern) {
+        Set<String> set = new LinkedHashSet<String>();
+        Iterator<String> ite = scanString(pattern);
+        while (ite.hasNext()) {
+            set.add(ite.next());
+        }
+        return new ArrayList<String>(set);
+    }
+
+    @Override
+    public Long expireString(String key, int seconds) {
+        return expireKey(key, seconds);
+    }
+
+    @Override
+    public Long delStrings(String... keys) {
+        long deleted = 0L;
+        for (String key : keys) {
+            deleted += delete(key);
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean existsString(String key) {
+        return live(key) != null;
+    }
+
+    @Override
+    public List<String> mget(String... keys) {
+        List<String> result = new ArrayList<String>(keys.length);
+        for (String key : keys) {
+            Entry entry = live(key);
+            result.add(entry != null && entry.value instanceof String ? (String) entry.value : null);
+        }
+        return result;
+    }
+
+    @Override
+    public Long hlen(String key) {
+        try {
+            return read(key, HashMap.class, hash -> (long) hash.size(), 0L);
+        } catch (Exception e) {
+            logError("hlen", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long hset(String key, String field, String value) {
+        try {
+            return updateHash(key, true, hash -> hash.put(field, value) == null ? 1L : 0L);
+        } catch (Exception e) {
+            logError("hset", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long hset(String key, String field, Object o) {
+        try {
+            return hset(key, field, JacksonUtil.toJsonStr(o));
+        } catch (Exception e) {
+            logError("hset", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long hsetnx(String key, String field, Object o) {
+        try {
+            String json = JacksonUtil.toJsonStr(o);
+            return updateHash(key, true, hash -> hash.putIfAbsent(field, json) == null ? 1L : 0L);
+        } catch (Exception e) {
+            logError("hsetnx", e);
+            return -1L;
+        }
+    }
+
+    @Override
+    public String hget(String key, String field) {
+        try {
+            return read(key, HashMap.class, hash -> (String) hash.get(field), null);
+        } catch (Exception e) {
+            logError("hget", e);
+            return null;
+        }
+    }
+
+    @Override
+    public <T> T hget(String key, String field, Class<T> clazz) {
+        String json = hget(key, field);
+        return json == null ? null : JacksonUtil.readValue(json, clazz);
+    }
+
+    @Override
+    public <T> T hget(String key, String field, TypeReference<T> tr) {
+        String json = hget(key, field);
+        return json == null ? null : JacksonUtil.readValue(json, tr);
+    }
+
+    @Override
+    public String hmset(String key, Map<String, String> hash) {
+        try {
+            return updateHash(key, true, target -> {
+                target.putAll(hash);
+                return OK;
+            });
+        } catch (Exception e) {
+            logError("hmset", e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> hmget(String key, String... fields) {
+        try {
+            return read(key, HashMap.class, hash -> {
+                List<String> values = new ArrayList<String>(fields.length);
+                for (String field : fields) {
+                    values.add((String) hash.get(field));
+                }
+                return values;
+            }, new ArrayList<String>(Collections.nCopies(fields.length, (String) null)));
+        } catch (Exception e) {
+            logError("hmget", e);
+            return null;
+        }
+    }
+
+    @Override
+    public <T> List<T> hmget(String key, Class<T> clazz, String... fields) {
+        List<String> jsons = hmget(key, fields);
+        if (jsons == null || fields.length == 0) {
+            return null;
+        }
+        List<T> results = new ArrayList<T>();
+        for (String json : jsons) {
+            if (json != null) {
+                results.add(JacksonUtil.readValue(json, clazz));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> hgetAll(String key) {
+        try {
+            return read(key, HashMap.class, hash -> new HashMap<String, String>(hash), new HashMap<String, String>());
+        } catch (Exception e) {
+            logError("hgetAll", e);
+            return new HashMap<String, String>();
+        }
+    }
+
+    @Override
+    public <T> Map<String, T> hgetAll(String key, Class<T> clazz) {
+        Map<String, T> result = new HashMap<String, T>();
+        for (Map.Entry<String, String> item : hgetAll(key).entrySet()) {
+            if (item.getValue() != null) {
+                result.put(item.getKey(), JacksonUtil.readValue(item.getValue(), clazz));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Boolean hexists(String key, String field) {
+        try {
+            return read(key, HashMap.class, hash -> hash.containsKey(field), false);
+        } catch (Exception e) {
+            logError("hexists", e);
+            return false;
+        }
+    }
+
+    @Override
+    public Long hdel(String key, String field) {
+        try {
+            Long result = updateHash(key, false, hash -> hash.remove(field) == null ? 0L : 1L);
+            return result == null ? 0L : result;
+        } catch (Exception e) {
+            logError("hdel", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long hincrBy(String key, String field, long value) {
+        try {
+            return updateHash(key, true, hash -> {
+                String current = hash.get(field);
+                long result = (current == null ? 0L : parseLong(current)) + value;
+                hash.put(field, String.valueOf(result));
+                return result;
+            });
+        } catch (Exception e) {
+            logError("hincrBy", e);
+            return null;
+        }
+    }
+
+    @Override
+    public <T> Iterator<Map.Entry<String, T>> hscan(String key, Class<T> clazz) {
+        return hscan(key, clazz, 0, 1);
+    }
+
+    /**
+     * 迭代hash的所有field，进程内一次生成全部结果的快照，count和parallelism参数不起作用
+     */
+    @Override
+    public <T> Iterator<Map.Entry<String, T>> hscan(String key, Class<T> clazz, int count, int parallelism) {
+        List<Map.Entry<String, T>> result = new ArrayList<Map.Entry<String, T>>();
+        for (Map.Entry<String, String> item : hgetAll(key).entrySet()) {
+            try {
+                T value = JacksonUtil.readValue(item.getValue(), clazz);
+                if (value != null) {
+                    result.add(new AbstractMap.SimpleImmutableEntry<String, T>(item.getKey(), value));
+                }
+            } catch (Exception e) {
+                logError("hscan", e);
+            }
+        }
+        return result.iterator();
+    }
+
+    @Override
+    public Long rpush(String key, String string) {
+        return push(key, Collections.singletonList(string), false);
+    }
+
+    @Override
+    public Long rpush(String key, Object o) {
+        try {
+            return rpush(key, JacksonUtil.toJsonStr(o));
+        } catch (Exception e) {
+            logError("rpush", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long lpush(String key, String string) {
+        return push(key, Collections.singletonList(string), true);
+    }
+
+    @Override
+    public Long lpush(String key, Object o) {
+        try {
+            return lpush(key, JacksonUtil.toJsonStr(o));
+        } catch (Exception e) {
+            logError("lpush", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public <T> Long lpush(String key, List<T> oList) {
+        return pushAll(key, oList, true);
+    }
+
+    /**
+     * 批量插入，进程内一次插入全部元素，chunkSize参数不起作用
+     */
+    @Override
+    public <T> Long lpush(String key, List<T> oList, int chunkSize) {
+        return pushAll(key, oList, true);
+    }
+
+    @Override
+    public <T> Long rpush(String key, List<T> oList) {
+        return pushAll(key, oList, false);
+    }
+
+    /**
+     * 批量插入，进程内一次插入全部元素，chunkSize参数不起作用
+     */
+    @Override
+    public <T> Long rpush(String key, List<T> oList, int chunkSize) {
+        return pushAll(key, oList, false);
+    }
+
+    private <T> Long pushAll(String key, List<T> oList, boolean left) {
+        if (oList == null || oList.isEmpty()) {
+            return 0L;
+        }
+        try {
+            List<String> values = new ArrayList<String>(oList.size());
+            for (T t : oList) {
+                values.add(JacksonUtil.toJsonStr(t));
+            }
+            return push(key, values, left);
+        } catch (Exception e) {
+            logError(left ? "lpush" : "rpush", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 依次插入，与Redis一样左侧插入多个元素后顺序与参数相反
+     *
+     * @return 插入后列表的长度
+     */
+    private Long push(String key, List<String> values, boolean left) {
+        try {
+            return updateList(key, true, list -> {
+                for (String value : values) {
+                    if (left) {
+                        list.addFirst(value);
+                    } else {
+                        list.addLast(value);
+                    }
+                }
+                return (long) list.size();
+            });
+        } catch (Exception e) {
+            logError(left ? "lpush" : "rpush", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public Long llen(String key) {
+        try {
+            return read(key, LinkedList.class, list -> (long) list.size(), 0L);
+        } catch (Exception e) {
+            logError("llen", e);
+            return 0L;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> lrange(String key, int start, int end) {
+        try {
+            return read(key, LinkedList.class, list -> {
+                int[] range = range(start, end, list.size());
+                return range == null ? new ArrayList<String>()
+                        : new ArrayList<String>(list.subList(range[0], range[1] + 1));
+            }, new ArrayList<String>());
+        } catch (Exception e) {
+            logError("lrange", e);
+            return new ArrayList<String>();
+        }
+    }
+
+    @Override
+    public <T> List<T> lrange(String key, Class<T> clazz, int start, int end) {
+        List<T> result = new ArrayList<T>();
+        for (String json : lrange(key, start, end)) {
+            result.add(JacksonUtil.readValue(json, clazz));
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T lrange(String key, int start, int end, TypeReference<T> clazz) {
+        List<String> jsonList = lrange(key, start, end);
+        if (jsonList.isEmpty()) {
+            return null;
+        }
+        return JacksonUtil.readValue(jsonList.toString(), clazz);
+    }
+
+    @Override
+    public <T> List<T> lpop(String key, Class<T> clazz, int size) {
+        return popBatch(key, clazz, size, true);
+    }
+
+    @Override
+    public <T> List<T> rpop(String key, Class<T> clazz, int size) {
+        return popBatch(key, clazz, size, false);
+    }
+
+    @Override
+    public <T> long consumeLeft(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer) {
+        return consume(key, clazz, batchSize, consumer, true);
+    }
+
+    @Override
+    public <T> long consumeRight(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer) {
+        return consume(key, clazz, batchSize, consumer, false);
+    }
+
+    private <T> long consume(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer, boolean left) {
+        long total = 0;
+        while (true) {
+            List<T> batch = popBatch(key, clazz, batchSize, left);
+            if (batch == null) {
+                return total;
+            }
+            total += batch.size();
+            try {
+                if (!consumer.consume(batch)) {
+                    return total;
+                }
+            } catch (Exception e) {
+                logger.error("\r\n ********* [批量消费列表元素失败，已弹出的元素未被处理]" + ExceptionUtils.getFullStackTrace(e));
+                return total;
+            }
+        }
+    }
+
+    /**
+     * 原子地弹出最多size个元素，按弹出顺序返回，列表为空时返回null
+     */
+    private <T> List<T> popBatch(String key, Class<T> clazz, int size, boolean left) {
+        if (size <= 0) {
+            return null;
+        }
+        try {
+            List<String> jsons = updateList(key, false, list -> {
+                List<String> popped = new ArrayList<String>(Math.min(size, list.size()));
+                while (popped.size() < size && !list.isEmpty()) {
+                    popped.add(left ? list.removeFirst() : list.removeLast());
+                }
+                return popped;
+            });
+            if (jsons == null || jsons.isEmpty()) {
+                return null;
+            }
+            List<T> values = new ArrayList<T>(jsons.size());
+            for (String json : jsons) {
+                values.add(JacksonUtil.readValue(json, clazz));
+            }
+            return values;
+        } catch (Exception e) {
+            logError(left ? "lpop" : "rpop", e);
+            return null;
+        }
+    }
+
+    @Override
+    public String lpop(String key) {
+        try {
+            return updateList(key, false, LinkedList::pollFirst);
+        } catch (Exception e) {
+            logError("lpop", e);
+            return null;
+        }
+    }
+
+    @Override
+    public String rpop(String key) {
+        try {
+            return updateList(key, false, LinkedList::pollLast);
+        } catch (Exception e) {
+            logError("rpop", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long lrem(String key, int count, String value) {
+        try {
+            Long removed = updateList(key, false, list -> {
+                long result = 0L;
+                Iterator<String> iterator = count < 0 ? list.descendingIterator() : list.iterator();
+                while (iterator.hasNext() && (count == 0 || result < Math.abs((long) count))) {
+                    if (iterator.next().equals(value)) {
+                        iterator.remove();
+                        result++;
+                    }
+                }
+                return result;
+            });
+            return removed == null ? 0L : removed;
+        } catch (Exception e) {
+            logError("lrem", e);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String lindex(String key, int index) {
+        try {
+            return read(key, LinkedList.class, list -> {
+                int i = index < 0 ? list.size() + index : index;
+                return i < 0 || i >= list.size() ? null : (String) list.get(i);
+            }, null);
+        } catch (Exception e) {
+            logError("lindex", e);
+            return null;
+        }
+    }
+
+    @Override
+    public String lset(String key, int index, String value) {
+        try {
+            String result = updateList(key, false, list -> {
+                int i = index < 0 ? list.size() + index : index;
+                if (i < 0 || i >= list.size()) {
+                    throw new IllegalArgumentException("ERR index out of range");
+                }
+                list.set(i, value);
+                return OK;
+            });
+            if (result == null) {
+                throw new IllegalArgumentException("ERR no such key");
+            }
+            return result;
+        } catch (Exception e) {
+            logError("lset", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void sadd(String key, String member) {
+        saddAll(key, Collections.singleton(member));
+    }
+
+    @Override
+    public void saddAll(String key, Set<String> members) {
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        try {
+            updateSet(key, true, set -> set.addAll(members));
+        } catch (Exception e) {
+            logError("sadd", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> smembers(String key) {
+        try {
+            return read(key, HashSet.class, set -> new HashSet<String>(set), new HashSet<String>());
+        } catch (Exception e) {
+            logError("smembers", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long srem(String key, String member) {
+        return srem(key, new String[]{member});
+    }
+
+    @Override
+    public String spop(String key) {
+        try {
+            return updateSet(key, false, set -> {
+                String member = randomMembers(set, 1).get(0);
+                set.remove(member);
+                return member;
+            });
+        } catch (Exception e) {
+            logError("spop", e);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> srandmember(String key, int count) {
+        try {
+            return read(key, HashSet.class, set -> randomMembers(set, count), new ArrayList<String>());
+        } catch (Exception e) {
+            logError("srandmember", e);
+            return null;
+        }
+    }
+
+    /**
+     * 随机选取成员，count为正数时不重复，为负数时可以重复
+     */
+    private List<String> randomMembers(Set<String> set, int count) {
+        List<String> members = new ArrayList<String>(set);
+        List<String> result = new ArrayList<String>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (count < 0) {
+            for (int i = 0; i < -count; i++) {
+                result.add(members.get(random.nextInt(members.size())));
+            }
+            return result;
+        }
+        Collections.shuffle(members, random);
+        return new ArrayList<String>(members.subList(0, Math.min(count, members.size())));
+    }
+
+    /**
+     * 与RedisClient一致，返回的是参数中的成员数量
+     */
+    @Override
+    public Long srem(String key, List<String> members) {
+        Long removed = srem(key, members.toArray(new String[members.size()]));
+        return removed == null ? null : (long) members.size();
+    }
+
+    @Override
+    public Long srem(String key, String... members) {
+        try {
+            Long removed = updateSet(key, false, set -> {
+                long result = 0L;
+                for (String member : members) {
+                    if (set.remove(member)) {
+                        result++;
+                    }
+                }
+                return result;
+            });
+            return removed == null ? 0L : removed;
+        } catch (Exception e) {
+            logError("srem", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Boolean sismember(String key, String member) {
+        try {
+            return read(key, HashSet.class, set -> set.contains(member), false);
+        } catch (Exception e) {
+            logError("sismember", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long scard(String key) {
+        try {
+            return read(key, HashSet.class, set -> (long) set.size(), 0L);
+        } catch (Exception e) {
+            logError("scard", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long ttl(String key) {
+        Entry entry = live(key);
+        if (entry == null) {
+            return -2L;
+        }
+        long expireAt = entry.expireAt;
+        return expireAt == 0L ? -1L : Math.max(0L, (expireAt - System.currentTimeMillis() + 500L) / 1000L);
+    }
+
+    @Override
+    public Long incr(String key) {
+        return incrBy(key, 1L);
+    }
+
+    @Override
+    public Long incrBy(String key, long integer) {
+        try {
+            return compute(key, true, entry -> {
+                long value = (entry.value == null ? 0L : parseLong(string(entry))) + integer;
+                entry.value = String.valueOf(value);
+                return value;
+            });
+        } catch (Exception e) {
+            logError("incrBy", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long decr(String key) {
+        return incrBy(key, -1L);
+    }
+
+    @Override
+    public Long decrBy(String key, long num) {
+        return incrBy(key, -num);
+    }
+
+    @Override
+    public Long zcard(String key) {
+        try {
+            return read(key, ZSet.class, zset -> (long) zset.scores.size(), 0L);
+        } catch (Exception e) {
+            logError("zcard", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Set<String> zrange(String key, int start, int end) {
+        return zrangeByRank(key, start, end, false);
+    }
+
+    @Override
+    public <T> Set<T> zrange(String key, Class<T> clazz, int start, int end) {
+        return readJsonSet(zrange(key, start, end), clazz);
+    }
+
+    @Override
+    public Set<String> zrevrange(String key, int start, int end) {
+        return zrangeByRank(key, start, end, true);
+    }
+
+    @Override
+    public <T> Set<T> zrevrange(String key, Class<T> clazz, int start, int end) {
+        return readJsonSet(zrevrange(key, start, end), clazz);
+    }
+
+    private Set<String> zrangeByRank(String key, int start, int end, boolean reverse) {
+        try {
+            return read(key, ZSet.class, zset -> {
+                Set<String> result = new LinkedHashSet<String>();
+                int[] range = range(start, end, zset.ordered.size());
+                if (range == null) {
+                    return result;
+                }
+                Iterator<ZMember> iterator = reverse ? zset.ordered.descendingIterator() : zset.ordered.iterator();
+                for (int i = 0; i <= range[1] && iterator.hasNext(); i++) {
+                    String member = iterator.next().member;
+                    if (i >= range[0]) {
+                        result.add(member);
+                    }
+                }
+                return result;
+            }, new LinkedHashSet<String>());
+        } catch (Exception e) {
+            logError(reverse ? "zrevrange" : "zrange", e);
+            return null;
+        }
+    }
+
+    private <T> Set<T> readJsonSet(Set<String> jsons, Class<T> clazz) {
+        Set<T> result = new TreeSet<T>();
+        if (jsons != null) {
+            for (String json : jsons) {
+                result.add(JacksonUtil.readValue(json, clazz));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> zrangeByScore(String key, Long min, Long max) {
+        try {
+            return zrangeByScore(key, min.doubleValue(), max.doubleValue(), 0, -1);
+        } catch (Exception e) {
+            logError("zrangeByScore", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void zrem(String key, String member) {
+        try {
+            updateZSet(key, false, zset -> zset.remove(member));
+        } catch (Exception e) {
+            logError("zrem", e);
+        }
+    }
+
+    @Override
+    public void zadd(String key, Long score, String member) {
+        try {
+            updateZSet(key, true, zset -> zset.put(member, score));
+        } catch (Exception e) {
+            logError("zadd", e);
+        }
+    }
+
+    @Override
+    public void zincrBy(String key, Long score, String member) {
+        try {
+            updateZSet(key, true, zset -> {
+                Double current = zset.scores.get(member);
+                return zset.put(member, (current == null ? 0D : current) + score);
+            });
+        } catch (Exception e) {
+            logError("zincrBy", e);
+        }
+    }
+
+    @Override
+    public void zincrBy(String key, Long score, Object o) {
+        try {
+            zincrBy(key, score, JacksonUtil.toJsonStr(o));
+        } catch (Exception e) {
+            logError("zincrBy", e);
+        }
+    }
+
+    @Override
+    public void zremrangeByRank(String key, int start, int end) {
+        try {
+            updateZSet(key, false, zset -> {
+                int[] range = range(start, end, zset.ordered.size());
+                if (range == null) {
+                    return 0;
+                }
+                List<String> members = new ArrayList<String>();
+                Iterator<ZMember> iterator = zset.ordered.iterator();
+                for (int i = 0; i <= range[1] && iterator.hasNext(); i++) {
+                    String member = iterator.next().member;
+                    if (i >= range[0]) {
+                        members.add(member);
+                    }
+                }
+                for (String member : members) {
+                    zset.remove(member);
+                }
+                return members.size();
+            });
+        } catch (Exception e) {
+            logError("zremrangeByRank", e);
+        }
+    }
+
+    @Override
+    public void zremrangeByScore(String key, Long start, Long end) {
+        try {
+            zremrangeByScore(key, start.doubleValue(), end.doubleValue());
+        } catch (Exception e) {
+            logError("zremrangeByScore", e);
+        }
+    }
+
+    @Override
+    public int zscore(String key, String member) {
+        try {
+            Double score = read(key, ZSet.class, zset -> zset.scores.get(member), null);
+            return score == null ? 0 : score.intValue();
+        } catch (Exception e) {
+            logError("zscore", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public int zscore(String key, Object o) {
+        try {
+            return zscore(key, JacksonUtil.toJsonStr(o));
+        } catch (Exception e) {
+            logError("zscore", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public Long zadd(String key, double score, String member) {
+        try {
+            return updateZSet(key, true, zset -> zset.put(member, score) ? 1L : 0L);
+        } catch (Exception e) {
+            logError("zadd", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long zadd(String key, Map<String, Double> scoreMembers) {
+        return zadd(key, scoreMembers, 0);
+    }
+
+    /**
+     * 批量添加成员，进程内一次写入全部成员，chunkSize参数不起作用
+     */
+    @Override
+    public Long zadd(String key, Map<String, Double> scoreMembers, int chunkSize) {
+        if (scoreMembers == null || scoreMembers.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return updateZSet(key, true, zset -> {
+                long added = 0L;
+                for (Map.Entry<String, Double> entry : scoreMembers.entrySet()) {
+                    if (zset.put(entry.getKey(), entry.getValue())) {
+                        added++;
+                    }
+                }
+                return added;
+            });
+        } catch (Exception e) {
+            logError("zadd", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Double zincrBy(String key, double increment, String member) {
+        try {
+            return updateZSet(key, true, zset -> {
+                Double current = zset.scores.get(member);
+                double score = (current == null ? 0D : current) + increment;
+                zset.put(member, score);
+                return score;
+            });
+        } catch (Exception e) {
+            logError("zincrBy", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Double zscoreDouble(String key, String member) {
+        try {
+            return read(key, ZSet.class, zset -> zset.scores.get(member), null);
+        } catch (Exception e) {
+            logError("zscore", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long zrank(String key, String member) {
+        return zrank(key, member, false);
+    }
+
+    @Override
+    public Long zrevrank(String key, String member) {
+        return zrank(key, member, true);
+    }
+
+    private Long zrank(String key, String member, boolean reverse) {
+        try {
+            return read(key, ZSet.class, zset -> {
+                Double score = zset.scores.get(member);
+                if (score == null) {
+                    return null;
+                }
+                long rank = zset.ordered.headSet(new ZMember(score, member)).size();
+                return reverse ? zset.ordered.size() - 1 - rank : rank;
+            }, null);
+        } catch (Exception e) {
+            logError(reverse ? "zrevrank" : "zrank", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, Double> zrangeWithScores(String key, long start, long end) {
+        return scoresByRank(key, start, end, false);
+    }
+
+    @Override
+    public Map<String, Double> zrevrangeWithScores(String key, long start, long end) {
+        return scoresByRank(key, start, end, true);
+    }
+
+    private Map<String, Double> scoresByRank(String key, long start, long end, boolean reverse) {
+        try {
+            return read(key, ZSet.class, zset -> {
+                Map<String, Double> result = new LinkedHashMap<String, Double>();
+                int[] range = range(clamp(start), clamp(end), zset.ordered.size());
+                if (range == null) {
+                    return result;
+                }
+                Iterator<ZMember> iterator = reverse ? zset.ordered.descendingIterator() : zset.ordered.iterator();
+                for (int i = 0; i <= range[1] && iterator.hasNext(); i++) {
+                    ZMember item = iterator.next();
+                    if (i >= range[0]) {
+                        result.put(item.member, item.score);
+                    }
+                }
+                return result;
+            }, new LinkedHashMap<String, Double>());
+        } catch (Exception e) {
+            logError(reverse ? "zrevrangeWithScores" : "zrangeWithScores", e);
+            return null;
+        }
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    @Override
+    public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
+        Map<String, Double> scores = scoresByScore(key, min, max, offset, count, false);
+        return scores == null ? null : new LinkedHashSet<String>(scores.keySet());
+    }
+
+    @Override
+    public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
+        Map<String, Double> scores = scoresByScore(key, min, max, offset, count, true);
+        return scores == null ? null : new LinkedHashSet<String>(scores.keySet());
+    }
+
+    @Override
+    public Map<String, Double> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
+        return scoresByScore(key, min, max, offset, count, false);
+    }
+
+    @Override
+    public Map<String, Double> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
+        return scoresByScore(key, min, max, offset, count, true);
+    }
+
+    /**
+     * 按分数区间分页读取成员和分数，与Redis的LIMIT一样，offset为负数或count为0时返回空结果，count为负数表示不限
+     */
+    private Map<String, Double> scoresByScore(String key, double min, double max, int offset, int count, boolean reverse) {
+        try {
+            return read(key, ZSet.class, zset -> {
+                Map<String, Double> result = new LinkedHashMap<String, Double>();
+                if (min > max || offset < 0) {
+                    return result;
+                }
+                NavigableSet<ZMember> members = zset.ordered.subSet(new ZMember(min, ""), true, new ZMember(max, null), true);
+                Iterator<ZMember> iterator = reverse ? members.descendingIterator() : members.iterator();
+                int skipped = 0;
+                while (iterator.hasNext() && (count < 0 || result.size() < count)) {
+                    ZMember item = iterator.next();
+                    if (skipped < offset) {
+                        skipped++;
+                        continue;
+                    }
+                    result.put(item.member, item.score);
+                }
+                return result;
+            }, new LinkedHashMap<String, Double>());
+        } catch (Exception e) {
+            logError(reverse ? "zrevrangeByScore" : "zrangeByScore", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long zremrangeByScore(String key, double min, double max) {
+        try {
+            Long removed = updateZSet(key, false, zset -> {
+                if (min > max) {
+                    return 0L;
+                }
+                List<String> members = new ArrayList<String>();
+                for (ZMember item : zset.ordered.subSet(new ZMember(min, ""), true, new ZMember(max, null), true)) {
+                    members.add(item.member);
+                }
+                for (String member : members) {
+                    zset.remove(member);
+                }
+                return (long) members.size();
+            });
+            return removed == null ? 0L : removed;
+        } catch (Exception e) {
+            logError("zremrangeByScore", e);
+            return null;
+        }
+    }
+
+    @Override
+    public Long setbits(String key, long... offsets) {
+        if (offsets == null || offsets.length == 0) {
+            return 0L;
+        }
+        try {
+            return compute(key, true, entry -> {
+                BitSet bits = (BitSet) container(entry, BitSet.class, BitSet::new);
+                long changed = 0L;
+                for (long offset : offsets) {
+                    int index = bitIndex(offset);
+                    if (!bits.get(index)) {
+                        bits.set(index);
+                        changed++;
+                    }
+                }
+                return changed;
+            });
+        } catch (Exception e) {
+            logError("setbits", e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<Boolean> getbits(String key, long... offsets) {
+        try {
+            List<Boolean> absent = new ArrayList<Boolean>();
+            for (long offset : offsets) {
+                bitIndex(offset);
+                absent.add(Boolean.FALSE);
+            }
+            return read(key, BitSet.class, bits -> {
+                List<Boolean> result = new ArrayList<Boolean>(offsets.length);
+                for (long offset : offsets) {
+                    result.add(bits.get(bitIndex(offset)));
+                }
+                return result;
+            }, absent);
+        } catch (Exception e) {
+            logError("getbits", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        data.clear();
+    }
+
+    @Override
+    public Long dbSize() {
+        long size = 0L;
+        long now = System.currentTimeMillis();
+        for (Entry entry : data.values()) {
+            if (!entry.isExpired(now)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void destroy() {
+        expiryWheel.destroy();
+    }
+
+    /**
+     * 获取未过期的条目，已过期的条目顺便删除
+     */
+    private Entry live(Object key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            removeIfExpired(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 条目仍在数据中且已过期时删除，与并发的写命令互斥，不会删除刚被重新设置有效时间的条目
+     */
+    private void removeIfExpired(final Entry entry) {
+        final long now = System.currentTimeMillis();
+        data.computeIfPresent(entry.key, (k, current) -> current == entry && current.isExpired(now) ? null : current);
+    }
+
+    /**
+     * 删除KEY
+     *
+     * @return 删除了未过期的KEY返回1，否则返回0
+     */
+    private long delete(Object key) {
+        Entry entry = data.remove(key);
+        return entry != null && !entry.isExpired(System.currentTimeMillis()) ? 1L : 0L;
+    }
+
+    /**
+     * 写入值并重新设置有效时间，KEY已存在时复用原条目，原条目在时间轮中的定时继续有效
+     *
+     * @param expireAt 过期时间，毫秒时间戳，0表示不过期
+     */
+    private void put(Object key, final Object value, final long expireAt) {
+        data.compute(key, (k, entry) -> {
+            Entry target = entry == null ? new Entry(k) : entry;
+            synchronized (target) {
+                target.value = value;
+                target.expireAt = 0L;
+                if (expireAt > 0L) {
+                    scheduleExpire(target, expireAt);
+                }
+            }
+            return target;
+        });
+    }
+
+    /**
+     * 在KEY上原子执行命令
+     * 已过期的条目视为不存在；create为true时KEY不存在则创建值为null的条目，否则直接返回null；
+     * 命令执行后值为null或String类型的KEY保存的集合为空时删除KEY
+     *
+     * @param key       KEY
+     * @param create    KEY不存在时是否创建
+     * @param operation 命令
+     * @return 命令的返回值
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R compute(Object key, final boolean create, final Function<Entry, R> operation) {
+        final Object[] result = new Object[1];
+        data.compute(key, (k, entry) -> {
+            Entry target = entry != null && entry.isExpired(System.currentTimeMillis()) ? null : entry;
+            if (target == null) {
+                if (!create) {
+                    return null;
+                }
+                target = new Entry(k);
+            }
+            synchronized (target) {
+                result[0] = operation.apply(target);
+                return isEmpty(target) ? null : target;
+            }
+        });
+        return (R) result[0];
+    }
+
+    /**
+     * 读取KEY保存的值
+     *
+     * @param key       KEY
+     * @param type      值的类型，类型不符时与Redis一样抛出WRONGTYPE错误
+     * @param operation 读取命令
+     * @param absent    KEY不存在时的返回值
+     */
+    @SuppressWarnings("unchecked")
+    private <C, R> R read(Object key, Class<C> type, Function<C, R> operation, R absent) {
+        Entry entry = live(key);
+        if (entry == null) {
+            return absent;
+        }
+        synchronized (entry) {
+            if (entry.value == null) {
+                return absent;
+            }
+            if (!type.isInstance(entry.value)) {
+                throw new IllegalStateException(WRONG_TYPE);
+            }
+            return operation.apply((C) entry.value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R updateHash(String key, boolean create, Function<Map<String, String>, R> operation) {
+        return compute(key, create, entry -> operation.apply((Map<String, String>) container(entry, HashMap.class, HashMap::new)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R updateList(String key, boolean create, Function<LinkedList<String>, R> operation) {
+        return compute(key, create, entry -> operation.apply((LinkedList<String>) container(entry, LinkedList.class, LinkedList::new)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R updateSet(String key, boolean create, Function<Set<String>, R> operation) {
+        return compute(key, create, entry -> operation.apply((Set<String>) container(entry, HashSet.class, HashSet::new)));
+    }
+
+    private <R> R updateZSet(String key, boolean create, Function<ZSet, R> operation) {
+        return compute(key, create, entry -> operation.apply((ZSet) container(entry, ZSet.class, ZSet::new)));
+    }
+
+    /**
+     * 获取条目保存的集合，新建的条目创建空集合
+     */
+    private static Object container(Entry entry, Class<?> type, Supplier<?> creator) {
+        if (entry.value == null) {
+            entry.value = creator.get();
+        } else if (!type.isInstance(entry.value)) {
+            throw new IllegalStateException(WRONG_TYPE);
+        }
+        return entry.value;
+    }
+
+    /**
+     * 获取条目保存的String值
+     */
+    private static String string(Entry entry) {
+        if (!(entry.value instanceof String)) {
+            throw new IllegalStateException(WRONG_TYPE);
+        }
+        return (String) entry.value;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("ERR value is not an integer or out of range");
+        }
+    }
+
+    /**
+     * 把位偏移量转换为BitSet下标，超出范围时与Redis一样报错
+     */
+    private static int bitIndex(long offset) {
+        if (offset < 0 || offset >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ERR bit offset is not an integer or out of range");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * 判断命令执行后条目是否应删除
+     */
+    private static boolean isEmpty(Entry entry) {
+        Object value = entry.value;
+        if (value == null) {
+            return true;
+        }
+        return value instanceof Collection && ((Collection<?>) value).isEmpty()
+                || value instanceof Map && ((Map<?, ?>) value).isEmpty()
+                || value instanceof ZSet && ((ZSet) value).scores.isEmpty();
+    }
+
+    /**
+     * 把有效时间转换为过期时间，有效时间不大于0时与Redis的SETEX一样报错
+     */
+    private static long expireAt(int seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("ERR invalid expire time in setex");
+        }
+        return System.currentTimeMillis() + seconds * 1000L;
+    }
+
+    /**
+     * 设置条目的有效时间，调用方已持有条目的锁
+     */
+    private void expireAfter(Entry entry, long milliseconds) {
+        scheduleExpire(entry, System.currentTimeMillis() + milliseconds);
+    }
+
+    /**
+     * 设置条目的过期时间并加入时间轮
+     * 条目在时间轮中已有更早的定时时不再重复添加，到期时再按新的过期时间重新加入，续期频繁的KEY在时间轮中最多只有一个定时
+     */
+    private void scheduleExpire(Entry entry, long expireAt) {
+        synchronized (entry) {
+            entry.expireAt = expireAt;
+            if (entry.scheduledAt != 0L && entry.scheduledAt <= expireAt) {
+                return;
+            }
+            entry.scheduledAt = expireAt;
+        }
+        expiryWheel.schedule(entry, expireAt);
+    }
+
+    /**
+     * 时间轮到期回调：条目已过期则删除，已续期则按新的过期时间重新加入时间轮
+     */
+    private void onExpire(Entry entry, long scheduledAt) {
+        long expireAt;
+        synchronized (entry) {
+            if (entry.scheduledAt != scheduledAt) {
+                return;
+            }
+            entry.scheduledAt = 0L;
+            expireAt = entry.expireAt;
+        }
+        if (expireAt == 0L || data.get(entry.key) != entry) {
+            return;
+        }
+        if (expireAt <= System.currentTimeMillis()) {
+            removeIfExpired(entry);
+        } else {
+            scheduleExpire(entry, expireAt);
+        }
+    }
+
+    /**
+     * 对象KEY在进程内的键，与RedisClient的编码一致：String类型的KEY直接使用，其他类型包装为ObjectKey
+     */
+    private static Object objectKey(Object key) {
+        return key instanceof String ? key : new ObjectKey(key);
+    }
+
+    /**
+     * 获取KEY在Redis中对应的字节数组，用于匹配SCAN模式
+     */
+    private static byte[] keyBytes(Object key) {
+        return key instanceof ObjectKey ? ((ObjectKey) key).bytes() : SafeEncoder.encode((String) key);
+    }
+
+    /**
+     * 按Redis的规则计算下标区间，负数表示从末尾倒数
+     *
+     * @return 起止下标，区间为空时返回null
+     */
+    private static int[] range(int start, int end, int size) {
+        int from = start < 0 ? Math.max(0, size + start) : start;
+        int to = end < 0 ? size + end : Math.min(end, size - 1);
+        return from > to || from >= size ? null : new int[]{from, to};
+    }
+
+    private void logError(String command, Exception e) {
+        logger.error("\r\n ********* [进程内Redis命令" + command + "执行失败]" + ExceptionUtils.getFullStackTrace(e));
+    }
+
+    /**
+     * KEY对应的条目
+     */
+    private static final class Entry {
+
+        // KEY
+        final Object key;
+
+        // 值，String命令保存String或集合，对象命令保存包装为ObjectValue的对象
+        volatile Object value;
+
+        // 过期时间，毫秒时间戳，0表示不过期
+        volatile long expireAt;
+
+        // 时间轮中的定时对应的过期时间，0表示不在时间轮中
+        long scheduledAt;
+
+        Entry(Object key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now) {
+            long time = expireAt;
+            return time != 0L && time <= now;
+        }
+    }
+
+    /**
+     * String以外类型的对象KEY，按KEY对象本身比较，序列化结果仅在匹配SCAN模式时计算并缓存
+     */
+    private static final class ObjectKey {
+
+        final Object key;
+
+        volatile byte[] bytes;
+
+        ObjectKey(Object key) {
+            this.key = key;
+        }
+
+        byte[] bytes() {
+            byte[] result = bytes;
+            if (result == null) {
+                try {
+                    result = ByteUtil.objectToBytes(key);
+                } catch (IOException e) {
+                    throw new IllegalStateException("序列化KEY失败", e);
+                }
+                bytes = result;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof ObjectKey && Objects.equals(key, ((ObjectKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) * 31 + 1;
+        }
+    }
+
+    /**
+     * 对象命令保存的值，与String命令保存的值区分类型，互相读取时与Redis一样报错或返回null
+     */
+    private static final class ObjectValue {
+
+        final Object value;
+
+        ObjectValue(Object value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 有序集合，按分数排序，分数相同时按成员排序
+     */
+    private static final class ZSet {
+
+        final Map<String, Double> scores = new HashMap<String, Double>();
+
+        final TreeSet<ZMember> ordered = new TreeSet<ZMember>();
+
+        boolean put(String member, double score) {
+            Double previous = scores.put(member, score);
+            if (previous != null) {
+                ordered.remove(new ZMember(previous, member));
+            }
+            ordered.add(new ZMember(score, member));
+            return previous == null;
+        }
+
+        boolean remove(String member) {
+            Double previous = scores.remove(member);
+            if (previous == null) {
+                return false;
+            }
+            ordered.remove(new ZMember(previous, member));
+            return true;
+        }
+    }
+
+    /**
+     * 有序集合的成员，member为null时排在同分数的所有成员之后，用于按分数查询区间的上界
+     */
+    private static final class ZMember implements Comparable<ZMember> {
+
+        final double score;
+
+        final String member;
+
+        ZMember(double score, String member) {
+            this.score = score;
+            this.member = member;
+        }
+
+        @Override
+        public int compareTo(ZMember other) {
+            int result = Double.compare(score, other.score);
+            if (result != 0) {
+                return result;
+            }
+            if (member == null || other.member == null) {
+                return member == null ? (other.member == null ? 0 : 1) : -1;
+            }
+            return member.compareTo(other.member);
+        }
+    }
+}
@@ -2,38 +2,130 @@ package com.project.frame.utils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.project.frame.commons.constant.RedisConfigConstant;
+import com.project.frame.utils.redis.RedisAsyncExecutor;
+import com.project.frame.utils.redis.RedisBatchConsumer;
+import com.project.frame.utils.redis.RedisCircuitBreaker;
+import com.project.frame.utils.redis.RedisCircuitOpenException;
+import com.project.frame.utils.redis.RedisHotKeyDetector;
+import com.project.frame.utils.redis.RedisKeyPattern;
+import com.project.frame.utils.redis.RedisMetrics;
+import com.project.frame.utils.redis.RedisNearCache;
+import com.project.frame.utils.redis.RedisNode;
+import com.project.frame.utils.redis.RedisPipelineCallback;
+import com.project.frame.utils.redis.RedisPoolRegistry;
+import com.project.frame.utils.redis.RedisReplicaRouter;
+import com.project.frame.utils.redis.RedisScanIterator;
+import com.project.frame.utils.redis.RedisScript;
+import com.project.frame.utils.redis.RedisScriptRegistry;
+import com.project.frame.utils.redis.RedisScripts;
+import com.project.frame.utils.redis.codec.RedisCodecRegistry;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.SafeEncoder;
 
 import javax.annotation.Resource;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Redis客户端工具类
+ * 单KEY命令路由到KEY所在的分片节点，批量命令按节点分组执行；发布订阅等与KEY无关的命令使用默认节点
+ * 配置了只读副本时，读命令通过borrowRead优先发送到副本，其他命令都发送到主节点
+ * 启用local环境时不创建此类，由进程内的LocalRedisClient代替
+ * 应用启动后，未开启旧KEY读取时抽样检查是否仍有Java序列化编码的旧KEY，存在时输出警告
  */
 @Component
-public class RedisClient {
+@Profile("!local")
+public class RedisClient implements RedisOperations, ApplicationListener<ApplicationReadyEvent> {
     private Logger logger = LoggerFactory.getLogger(RedisClient.class);
 
-    @Resource(name = "jedisPool")
-    private volatile JedisPool jedisPool;
+    @Resource(name = "redisPoolRegistry")
+    private RedisPoolRegistry redisPoolRegistry;
 
-    @Resource(name = "jedisPoolConfig")
-    private JedisPoolConfig jedisPoolConfig;
+    @Resource(name = "redisCodecRegistry")
+    private RedisCodecRegistry redisCodecRegistry;
+
+    @Resource(name = "redisNearCache")
+    private RedisNearCache redisNearCache;
+
+    @Resource(name = "redisScriptRegistry")
+    private RedisScriptRegistry redisScriptRegistry;
+
+    @Resource(name = "redisCircuitBreaker")
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Resource(name = "redisMetrics")
+    private RedisMetrics redisMetrics;
+
+    @Resource(name = "redisReplicaRouter")
+    private RedisReplicaRouter redisReplicaRouter;
+
+    @Resource(name = "redisAsyncExecutor")
+    private RedisAsyncExecutor redisAsyncExecutor;
+
+    @Resource(name = "redisHotKeyDetector")
+    private RedisHotKeyDetector redisHotKeyDetector;
 
     private static final String NOT_FOUND = "nil";
 
-    private Object lock = new Object();
+    // 并行解码时每个分片至少包含的元素数，元素较少时在调用线程直接解码
+    private static final int MIN_DECODE_SLICE = 64;
+
+    // 匹配Java序列化编码的旧String类型KEY
+    private static final byte[] LEGACY_KEY_PATTERN = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x74, '*'};
 
-    // 重试次数
-    private final static int RESET_NUM = 3;
+    // 启动时检查旧KEY，每个节点最多SCAN的批数
+    private static final int LEGACY_PROBE_BATCHES = 10;
+
+    /**
+     * 应用启动后检查旧KEY
+     * 未开启旧KEY读取时，升级前写入的会话和权限缓存无法读取，用户需要重新登录，旧KEY在过期前一直占用内存；
+     * 每个节点只SCAN有限的批数，未发现旧KEY不代表一定不存在
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (RedisConfigConstant.LEGACY_KEY_READ) {
+            return;
+        }
+        ScanParams params = new ScanParams().match(LEGACY_KEY_PATTERN).count(RedisConfigConstant.SCAN_COUNT);
+        for (RedisNode node : redisPoolRegistry.getNodes()) {
+            String cursor = ScanParams.SCAN_POINTER_START;
+            for (int i = 0; i < LEGACY_PROBE_BATCHES; i++) {
+                ScanResult<byte[]> page = scanPage(node, cursor, params);
+                if (page == null) {
+                    break;
+                }
+                if (!page.getResult().isEmpty()) {
+                    logger.warn("\r\n ********* 节点【{}】存在Java序列化编码的旧KEY，但未开启旧KEY读取（frame.redis.legacy-key-read），"
+                            + "升级前写入的会话和权限缓存将无法读取；升级版本应开启旧KEY读取，旧KEY全部过期后再关闭", node.getName());
+                    return;
+                }
+                cursor = page.getCursor();
+                if (ScanParams.SCAN_POINTER_START.equals(cursor)) {
+                    break;
+                }
+            }
+        }
+    }
 
     /**
      * 获取Jedis对象
@@ -45,48 +137,525 @@ public class RedisClient {
     }
 
     /**
-     * 获取Jedis对象，重试三次
+     * 获取默认节点的Jedis对象
      *
      * @param dbId 数据库ID
      * @return Jedis对象
      */
     public Jedis getJedis(int dbId) {
-        Jedis jedis = null;
-        int tryCount = 0;
-        while (jedis == null && tryCount < RESET_NUM) {
-            tryCount++;
+        return getJedis(redisPoolRegistry.getDefaultNode(), dbId);
+    }
+
+    /**
+     * 获取指定节点的Jedis对象
+     * 连接池按节点和数据库索引划分，连接在创建时已绑定数据库，借用时不再执行SELECT
+     * 借用前先经过熔断器，熔断期间直接抛出RedisCircuitOpenException，不再占用请求线程重试或重建连接池；
+     * 连接池耗尽不计为熔断器的失败
+     *
+     * @param node 节点
+     * @param dbId 数据库ID
+     * @return Jedis对象
+     */
+    public Jedis getJedis(RedisNode node, int dbId) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            redisMetrics.borrowFailed(false);
+            throw new RedisCircuitOpenException("Redis熔断器已打开，暂停访问Redis");
+        }
+        try {
+            return checkConnectionPool(node, dbId).getResource();
+        } catch (RuntimeException e) {
+            // 连接池耗尽或等待空闲连接超时说明负载过高而不是Redis故障，只记录指标，不计入熔断器
+            boolean exhausted = e instanceof JedisExhaustedPoolException || e.getCause() instanceof NoSuchElementException;
+            if (exhausted) {
+                redisCircuitBreaker.onIgnored();
+            } else {
+                redisCircuitBreaker.onFailure();
+            }
+            redisMetrics.borrowFailed(exhausted);
+            throw e;
+        }
+    }
+
+    /**
+     * 借用默认节点的Jedis对象，用于发布订阅等与KEY无关的命令
+     *
+     * @param command 命令名称
+     * @return Jedis对象
+     */
+    private Jedis borrow(String command) {
+        return borrow(command, redisPoolRegistry.getDefaultNode());
+    }
+
+    /**
+     * 借用String类型KEY所在主节点的Jedis对象，用于写命令
+     * 非分片且不需要记录写入的KEY时，不对KEY编码
+     *
+     * @param command 命令名称
+     * @param key     KEY
+     * @return Jedis对象
+     */
+    private Jedis borrow(String command, String key) {
+        if (!redisPoolRegistry.isSharded() && !redisReplicaRouter.isTrackingWrites()) {
+            return borrow(command, redisPoolRegistry.getDefaultNode());
+        }
+        return borrow(command, SafeEncoder.encode(key));
+    }
+
+    /**
+     * 借用字节数组KEY所在主节点的Jedis对象，用于写命令
+     * read-your-writes模式下记录写入的KEY，窗口期内读取该KEY时回到主节点
+     *
+     * @param command 命令名称
+     * @param key     KEY
+     * @return Jedis对象
+     */
+    private Jedis borrow(String command, byte[] key) {
+        redisReplicaRouter.recordWrite(key);
+        return borrow(command, redisPoolRegistry.getNode(key));
+    }
+
+    /**
+     * 借用读取String类型KEY使用的Jedis对象
+     *
+     * @param command 命令名称
+     * @param key     KEY
+     * @return Jedis对象
+     */
+    private Jedis borrowRead(String command, String key) {
+        if (!redisPoolRegistry.isSharded() && !redisReplicaRouter.isEnabled()) {
+            return borrow(command, redisPoolRegistry.getDefaultNode());
+        }
+        return borrowRead(command, SafeEncoder.encode(key));
+    }
+
+    /**
+     * 借用读取字节数组KEY使用的Jedis对象
+     *
+     * @param command 命令名称
+     * @param key     KEY
+     * @return Jedis对象
+     */
+    private Jedis borrowRead(String command, byte[] key) {
+        return borrowRead(command, redisPoolRegistry.getNode(key), key);
+    }
+
+    /**
+     * 借用读取指定主节点上KEY使用的Jedis对象
+     * 优先借用健康副本的连接，副本连接失败时标记副本不可用并回退到主节点；
+     * 副本连接不经过熔断器，主节点熔断期间读命令仍可由副本提供
+     *
+     * @param command 命令名称
+     * @param primary 主节点
+     * @param keys    本次读取的KEY
+     * @return Jedis对象
+     */
+    private Jedis borrowRead(String command, RedisNode primary, byte[]... keys) {
+        RedisNode replica = redisReplicaRouter.select(primary, keys);
+        if (replica != null) {
+            long start = redisMetrics.beforeBorrow(command);
             try {
-                if (checkConnectionPool() != null) {
-                    jedis = jedisPool.getResource();
-                    jedis.select(dbId);
-                }
-            } catch (Exception e) {
-                jedisPool = null;
-                logger.error("\r\n ********* 获取Jedis对象失败" + ExceptionUtils.getFullStackTrace(e));
+                Jedis jedis = checkConnectionPool(replica, RedisConfigConstant.DATABASE_ID).getResource();
+                redisMetrics.afterBorrow(start);
+                return jedis;
+            } catch (RuntimeException e) {
+                redisMetrics.borrowFailed(e instanceof JedisExhaustedPoolException);
+                redisReplicaRouter.markDown(replica);
             }
         }
+        return borrow(command, primary);
+    }
+
+    /**
+     * 借用指定节点默认数据库的Jedis对象，并记录借用耗时
+     * 归还时记录执行耗时，均归入指定命令的指标
+     *
+     * @param command 命令名称
+     * @param node    节点
+     * @return Jedis对象
+     */
+    private Jedis borrow(String command, RedisNode node) {
+        long start = redisMetrics.beforeBorrow(command);
+        Jedis jedis = getJedis(node, RedisConfigConstant.DATABASE_ID);
+        redisMetrics.afterBorrow(start);
         return jedis;
     }
 
+    /**
+     * 按所在节点对KEY分组，非分片模式下只有默认节点一组
+     *
+     * @param keys KEY集合
+     * @return 节点 -> KEY在集合中的下标
+     */
+    private Map<RedisNode, List<Integer>> groupByNode(byte[][] keys) {
+        Map<RedisNode, List<Integer>> groups = new LinkedHashMap<RedisNode, List<Integer>>();
+        for (int i = 0; i < keys.length; i++) {
+            RedisNode node = redisPoolRegistry.getNode(keys[i]);
+            List<Integer> indexes = groups.get(node);
+            if (indexes == null) {
+                indexes = new ArrayList<Integer>();
+                groups.put(node, indexes);
+            }
+            indexes.add(i);
+        }
+        return groups;
+    }
+
+    /**
+     * 获取多个KEY共同所在的节点
+     * 需要在同一条命令或同一个脚本中操作的KEY应使用相同的hash tag，如session:{id}和session:{id}:index
+     *
+     * @param keys KEY集合
+     * @return 节点
+     * @throws IllegalArgumentException KEY分布在不同节点
+     */
+    private RedisNode sameNode(byte[][] keys) {
+        RedisNode node = redisPoolRegistry.getNode(keys[0]);
+        for (int i = 1; i < keys.length; i++) {
+            if (!node.equals(redisPoolRegistry.getNode(keys[i]))) {
+                throw new IllegalArgumentException("KEY分布在不同的Redis分片节点，请使用相同的hash tag");
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 取出下标对应的KEY
+     *
+     * @param keys    KEY集合
+     * @param indexes 下标
+     * @return KEY集合
+     */
+    private static byte[][] select(byte[][] keys, List<Integer> indexes) {
+        byte[][] selected = new byte[indexes.size()][];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = keys[indexes.get(i)];
+        }
+        return selected;
+    }
+
     /**
      * 校验JedisPool池连接
      *
      * @return JedisPool
      */
     public JedisPool checkConnectionPool() {
-        if (jedisPool == null) {
-            synchronized (lock) {
-                if (jedisPool == null) {
-                    try {
-                        jedisPool = new JedisPool(jedisPoolConfig, RedisConfigConstant.HOST, RedisConfigConstant.PORT,
-                                RedisConfigConstant.TIMEOUT, RedisConfigConstant.PASSWORD);
-                    } catch (Exception e) {
-                        logger.error("\r\n ********* [校验JedisPoll连接池失败]" + ExceptionUtils.getFullStackTrace(e));
-                    }
+        return checkConnectionPool(RedisConfigConstant.DATABASE_ID);
+    }
+
+    /**
+     * 校验指定数据库的JedisPool池连接
+     *
+     * @param dbId 数据库ID
+     * @return JedisPool
+     */
+    public JedisPool checkConnectionPool(int dbId) {
+        return checkConnectionPool(redisPoolRegistry.getDefaultNode(), dbId);
+    }
+
+    /**
+     * 校验指定节点指定数据库的JedisPool池连接
+     *
+     * @param node 节点
+     * @param dbId 数据库ID
+     * @return JedisPool
+     */
+    public JedisPool checkConnectionPool(RedisNode node, int dbId) {
+        try {
+            return redisPoolRegistry.getPool(node, dbId);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [校验JedisPoll连接池失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * 使用配置的编码格式把对象值编码成字节数组
+     *
+     * @param value 对象
+     * @return 字节数组
+     * @throws IOException 编码失败
+     */
+    public byte[] encodeValue(Object value) throws IOException {
+        return encode("encodeValue", value);
+    }
+
+    /**
+     * 把字节数组解码成对象值，自动识别编码格式
+     *
+     * @param bytes 字节数组
+     * @return 对象
+     * @throws IOException            数据格式错误
+     * @throws ClassNotFoundException 找不到数据中记录的类
+     */
+    public Object decodeValue(byte[] bytes) throws IOException, ClassNotFoundException {
+        return decode("decodeValue", bytes);
+    }
+
+    /**
+     * 执行Lua脚本
+     * 使用EVALSHA只发送脚本SHA1，脚本未加载时自动加载后重试
+     * 参数按类型转换：byte[]原样发送，String使用UTF-8编码，数字和布尔值转换为字符串，其他对象转换为json
+     *
+     * @param script 脚本定义
+     * @param keys   KEY参数
+     * @param args   其他参数
+     * @return 按脚本声明类型转换后的返回值，执行失败返回null
+     */
+    public <T> T eval(RedisScript<T> script, List<String> keys, Object... args) {
+        Jedis jedis = null;
+        try {
+            List<byte[]> keyBytes = new ArrayList<byte[]>(keys.size());
+            for (String key : keys) {
+                keyBytes.add(SafeEncoder.encode(key));
+            }
+            List<byte[]> argBytes = new ArrayList<byte[]>(args.length);
+            for (Object arg : args) {
+                argBytes.add(toScriptArg(arg));
+            }
+            for (byte[] key : keyBytes) {
+                redisReplicaRouter.recordWrite(key);
+            }
+            jedis = keyBytes.isEmpty() ? borrow("eval")
+                    : borrow("eval", sameNode(keyBytes.toArray(new byte[keyBytes.size()][])));
+            return script.convertResult(redisScriptRegistry.execute(jedis, script, keyBytes, argBytes));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [执行Redis脚本" + script.getName() + "失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 转换脚本参数
+     *
+     * @param arg 参数
+     * @return 字节数组
+     * @throws IOException 转换json失败
+     */
+    private byte[] toScriptArg(Object arg) throws IOException {
+        if (arg instanceof byte[]) {
+            return (byte[]) arg;
+        }
+        if (arg instanceof String) {
+            return SafeEncoder.encode((String) arg);
+        }
+        if (arg instanceof Number || arg instanceof Boolean) {
+            return SafeEncoder.encode(String.valueOf(arg));
+        }
+        return JacksonUtil.toJsonBytes(arg);
+    }
+
+    /**
+     * 计数器自增，首次创建时设置过期时间，自增和设置过期时间在服务端原子完成
+     *
+     * @param key    键
+     * @param delta  增量
+     * @param expire 过期时间，单位：秒
+     * @return 自增后的值，执行失败返回null
+     */
+    public Long incrByAndExpire(String key, long delta, int expire) {
+        return eval(RedisScripts.INCR_BY_AND_EXPIRE, Collections.singletonList(key), delta, expire);
+    }
+
+    /**
+     * 值与期望值相同时删除KEY，比较和删除在服务端原子完成
+     *
+     * @param key   键
+     * @param value 期望值
+     * @return 是否删除
+     */
+    public boolean delIfEquals(String key, String value) {
+        return Boolean.TRUE.equals(eval(RedisScripts.DEL_IF_EQUALS, Collections.singletonList(key), value));
+    }
+
+    /**
+     * 值与期望值相同时重新设置过期时间，比较和设置在服务端原子完成
+     *
+     * @param key          键
+     * @param value        期望值
+     * @param milliseconds 过期时间，单位：毫秒
+     * @return 是否设置成功
+     */
+    public boolean pexpireIfEquals(String key, String value, long milliseconds) {
+        return Boolean.TRUE.equals(eval(RedisScripts.PEXPIRE_IF_EQUALS, Collections.singletonList(key), value, milliseconds));
+    }
+
+    /**
+     * 编码对象值并记录写入大小
+     */
+    private byte[] encode(String command, Object value) throws IOException {
+        byte[] bytes = redisCodecRegistry.encode(value);
+        redisMetrics.recordWrite(command, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * 解码对象值并记录解码耗时和读取大小
+     */
+    private Object decode(String command, byte[] bytes) throws IOException, ClassNotFoundException {
+        long start = System.nanoTime();
+        Object value = redisCodecRegistry.decode(bytes);
+        redisMetrics.recordDecode(command, System.nanoTime() - start, bytes.length);
+        return value;
+    }
+
+    /**
+     * 转换json并记录写入大小
+     */
+    private byte[] toJson(String command, Object value) throws IOException {
+        byte[] json = JacksonUtil.toJsonBytes(value);
+        redisMetrics.recordWrite(command, json.length);
+        return json;
+    }
+
+    /**
+     * 解析json并记录解码耗时和读取大小
+     */
+    private <T> T readJson(String command, byte[] json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        T value = JacksonUtil.readValue(json, clazz);
+        redisMetrics.recordDecode(command, System.nanoTime() - start, json.length);
+        return value;
+    }
+
+    /**
+     * 解析json并记录解码耗时和读取大小
+     */
+    private <T> T readJson(String command, byte[] json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        T value = JacksonUtil.readValue(json, type);
+        redisMetrics.recordDecode(command, System.nanoTime() - start, json.length);
+        return value;
+    }
+
+    /**
+     * 解析json并记录解码耗时和读取大小（按字符数计）
+     */
+    private <T> T readJson(String command, String json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        T value = JacksonUtil.readValue(json, clazz);
+        redisMetrics.recordDecode(command, System.nanoTime() - start, json.length());
+        return value;
+    }
+
+    /**
+     * 解析json并记录解码耗时和读取大小（按字符数计）
+     */
+    private <T> T readJson(String command, String json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        T value = JacksonUtil.readValue(json, type);
+        redisMetrics.recordDecode(command, System.nanoTime() - start, json.length());
+        return value;
+    }
+
+    /**
+     * 一次性解析多个json并记录解码耗时和读取大小
+     */
+    private <T> List<T> readJsonValues(String command, List<byte[]> jsons, Class<T> clazz) {
+        long start = System.nanoTime();
+        List<T> values = JacksonUtil.readValues(jsons, clazz);
+        int bytes = 0;
+        for (byte[] json : jsons) {
+            bytes += json.length;
+        }
+        redisMetrics.recordDecode(command, System.nanoTime() - start, bytes);
+        return values;
+    }
+
+    /**
+     * 获取运行指标
+     *
+     * @return RedisMetrics
+     */
+    public RedisMetrics getMetrics() {
+        return redisMetrics;
+    }
+
+    /**
+     * 获取只读副本路由
+     *
+     * @return RedisReplicaRouter
+     */
+    public RedisReplicaRouter getReplicaRouter() {
+        return redisReplicaRouter;
+    }
+
+    /**
+     * 获取熔断器
+     *
+     * @return RedisCircuitBreaker
+     */
+    public RedisCircuitBreaker getCircuitBreaker() {
+        return redisCircuitBreaker;
+    }
+
+    /**
+     * 获取本地近端缓存
+     *
+     * @return RedisNearCache
+     */
+    public RedisNearCache getNearCache() {
+        return redisNearCache;
+    }
+
+    /**
+     * 获取热点KEY探测器
+     *
+     * @return RedisHotKeyDetector
+     */
+    public RedisHotKeyDetector getHotKeyDetector() {
+        return redisHotKeyDetector;
+    }
+
+    /**
+     * KEY被写入或删除后丢弃本地近端缓存和热点KEY的本地副本，并通知其他节点丢弃近端缓存
+     * 一次写入涉及的所有KEY合并为一条失效消息，发布到默认节点；写入使用的连接不在默认节点时，另借默认节点的连接发布
+     *
+     * @param jedis Jedis实例
+     * @param keys  KEY集合
+     */
+    private void invalidateNearCache(Jedis jedis, Collection<?> keys) {
+        List<String> cacheable = null;
+        for (Object key : keys) {
+            if (key instanceof String && redisHotKeyDetector.isEnabled()) {
+                redisHotKeyDetector.invalidate((String) key);
+            }
+            if (redisNearCache.isCacheable(key)) {
+                redisNearCache.invalidate((String) key);
+                if (cacheable == null) {
+                    cacheable = new ArrayList<String>();
                 }
+                cacheable.add((String) key);
+            }
+        }
+        if (cacheable == null) {
+            return;
+        }
+        RedisNode defaultNode = redisPoolRegistry.getDefaultNode();
+        boolean onDefaultNode = jedis.getClient().getPort() == defaultNode.getPort()
+                && defaultNode.getHost().equals(jedis.getClient().getHost());
+        Jedis publisher = null;
+        try {
+            publisher = onDefaultNode ? jedis : borrow("publish");
+            publisher.publish(redisNearCache.getChannel(), redisNearCache.buildInvalidationMessage(cacheable));
+        } finally {
+            if (!onDefaultNode) {
+                releaseJedisInstance(publisher);
             }
         }
-        return jedisPool;
     }
 
     /**
@@ -97,7 +666,19 @@ public class RedisClient {
     public void releaseJedisInstance(Jedis jedis) {
         try {
             if (jedis != null) {
+                // 连接在使用过程中出现网络错误时会被标记为broken，据此记录本次调用结果；副本连接的结果不计入熔断器
+                RedisNode replica = redisReplicaRouter.replicaOf(jedis);
+                if (replica != null) {
+                    if (jedis.getClient().isBroken()) {
+                        redisReplicaRouter.markDown(replica);
+                    }
+                } else if (jedis.getClient().isBroken()) {
+                    redisCircuitBreaker.onFailure();
+                } else {
+                    redisCircuitBreaker.onSuccess();
+                }
                 jedis.close();
+                redisMetrics.afterRelease();
             }
         } catch (Exception e) {
             logger.error("\r\n ********* [释放Jedis实例失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -105,6 +686,111 @@ public class RedisClient {
 
     }
 
+    /**
+     * 编码对象KEY，String类型的KEY直接使用UTF-8编码，其他类型使用Java序列化
+     *
+     * @param key KEY
+     * @return 编码后的KEY
+     */
+    private static byte[] objectKey(Object key) throws IOException {
+        return key instanceof String ? SafeEncoder.encode((String) key) : ByteUtil.objectToBytes(key);
+    }
+
+    /**
+     * 判断KEY是否可能存在Java序列化编码的旧KEY
+     *
+     * @param key KEY
+     * @return boolean
+     */
+    private static boolean hasLegacyKey(Object key) {
+        return RedisConfigConstant.LEGACY_KEY_READ && key instanceof String;
+    }
+
+    /**
+     * 获取与新KEY位于同一节点的旧KEY，写入或删除新KEY后旧值不再可见
+     * 调用方把旧KEY的DEL与写命令放在同一个连接的同一次发送中，不另借连接也不增加网络往返；
+     * 分片模式下旧KEY位于其他节点时直接删除
+     *
+     * @param command  命令名称
+     * @param key      KEY
+     * @param keyBytes UTF-8编码的新KEY
+     * @return 旧KEY，未开启旧KEY读取、KEY不是String类型或旧KEY已另行删除时返回null
+     */
+    private byte[] legacyKeyOnSameNode(String command, Object key, byte[] keyBytes) throws IOException {
+        if (!hasLegacyKey(key)) {
+            return null;
+        }
+        byte[] legacyBytes = ByteUtil.objectToBytes(key);
+        if (!redisPoolRegistry.isSharded() || redisPoolRegistry.getNode(legacyBytes).equals(redisPoolRegistry.getNode(keyBytes))) {
+            return legacyBytes;
+        }
+        delRaw(command, new byte[][]{legacyBytes}, null);
+        return null;
+    }
+
+    /**
+     * 在批量删除的KEY之后追加String类型KEY对应的旧KEY，由delRaw按节点合并到同一条DEL命令中
+     * 追加的旧KEY在keys中对应null，不参与近端缓存失效
+     *
+     * @param keysByte 编码后的KEY
+     * @param keys     原始KEY集合，会追加与旧KEY对应的null
+     * @return 追加旧KEY后的KEY，未开启旧KEY读取时返回keysByte
+     */
+    private static byte[][] appendLegacyKeys(byte[][] keysByte, List<Object> keys) throws IOException {
+        if (!RedisConfigConstant.LEGACY_KEY_READ) {
+            return keysByte;
+        }
+        List<byte[]> all = new ArrayList<byte[]>(Arrays.asList(keysByte));
+        int size = keys.size();
+        for (int i = 0; i < size; i++) {
+            if (keys.get(i) instanceof String) {
+                all.add(ByteUtil.objectToBytes(keys.get(i)));
+                keys.add(null);
+            }
+        }
+        return all.toArray(new byte[all.size()][]);
+    }
+
+    /**
+     * 读取String类型KEY对应的旧KEY，并迁移到UTF-8编码的新KEY
+     * 新KEY使用SET NX写入并保留旧KEY的剩余有效时间，不会覆盖期间写入的新值；写入后删除旧KEY
+     *
+     * @param command  命令名称
+     * @param key      KEY
+     * @param keyBytes UTF-8编码的新KEY
+     * @return 旧KEY的value，不存在时返回null
+     */
+    private byte[] migrateLegacyKey(String command, String key, byte[] keyBytes) throws IOException {
+        byte[] legacyBytes = ByteUtil.objectToBytes(key);
+        byte[] value;
+        long pttl;
+        Jedis jedis = null;
+        try {
+            jedis = borrow(command, legacyBytes);
+            value = jedis.get(legacyBytes);
+            if (value == null) {
+                return null;
+            }
+            pttl = jedis.pttl(legacyBytes);
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        // 读取之后旧KEY恰好过期
+        if (pttl == -2L) {
+            return value;
+        }
+        jedis = null;
+        try {
+            jedis = borrow(command, keyBytes);
+            SetParams params = SetParams.setParams().nx();
+            jedis.set(keyBytes, value, pttl > 0 ? params.px(pttl) : params);
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        delRaw(command, new byte[][]{legacyBytes}, null);
+        return value;
+    }
+
     /**
      * 存储byte类型的KEY和VALUE
      *
@@ -115,147 +801,682 @@ public class RedisClient {
     public boolean set(Object key, Object value) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            jedis.set(ByteUtil.objectToBytes(key), ByteUtil.objectToBytes(value));
+            byte[] keyBytes = objectKey(key);
+            byte[] valueBytes = encode("set", value);
+            byte[] legacyBytes = legacyKeyOnSameNode("set", key, keyBytes);
+            jedis = borrow("set", keyBytes);
+            if (legacyBytes == null) {
+                jedis.set(keyBytes, valueBytes);
+            } else {
+                Pipeline pipeline = jedis.pipelined();
+                pipeline.set(keyBytes, valueBytes);
+                pipeline.del(legacyBytes);
+                pipeline.sync();
+            }
+            invalidateNearCache(jedis, Collections.singleton(key));
             return true;
         } catch (Exception e) {
             logger.error("\r\n ********* [Redis数据存储失败]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
             releaseJedisInstance(jedis);
         }
-        return false;
+        return false;
+    }
+
+    /**
+     * 设置byte类型的KEY和VALUE的有效时间
+     *
+     * @param key
+     * @param value
+     * @param expire
+     * @return boolean
+     */
+    public boolean setAndExpire(Object key, Object value, int expire) {
+        Jedis jedis = null;
+        try {
+            byte[] keyBytes = objectKey(key);
+            byte[] valueBytes = encode("setAndExpire", value);
+            byte[] legacyBytes = legacyKeyOnSameNode("setAndExpire", key, keyBytes);
+            jedis = borrow("setAndExpire", keyBytes);
+            if (legacyBytes == null) {
+                jedis.setex(keyBytes, expire, valueBytes);
+            } else {
+                Pipeline pipeline = jedis.pipelined();
+                pipeline.setex(keyBytes, expire, valueBytes);
+                pipeline.del(legacyBytes);
+                pipeline.sync();
+            }
+            invalidateNearCache(jedis, Collections.singleton(key));
+            return true;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [设置byte类型的KEY有效时间出错]" + ExceptionUtils.getFullStackTrace(e));
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        return false;
+    }
+
+    /**
+     * 获取byte类型KEY的value值
+     * 配置了本地近端缓存的KEY优先从本地读取；其他String类型的KEY参与热点KEY探测，热点KEY优先从本地副本读取
+     * String类型的KEY不存在且开启了旧KEY读取时，回退读取Java序列化编码的旧KEY并迁移
+     *
+     * @param key
+     * @return object
+     */
+    public Object get(Object key) {
+        Jedis jedis = null;
+        try {
+            boolean nearCached = redisNearCache.isCacheable(key) && redisNearCache.isActive();
+            boolean hotTracked = !nearCached && key instanceof String && redisHotKeyDetector.isEnabled();
+            long version = -1L;
+            if (nearCached) {
+                byte[] local = redisNearCache.get((String) key);
+                if (local != null) {
+                    return decode("get", local);
+                }
+                version = redisNearCache.currentVersion((String) key);
+            } else if (hotTracked) {
+                redisHotKeyDetector.record((String) key);
+                version = redisHotKeyDetector.currentVersion((String) key);
+                byte[] local = redisHotKeyDetector.get((String) key);
+                if (local != null) {
+                    return decode("get", local);
+                }
+            }
+            byte[] keyBytes = objectKey(key);
+            jedis = borrowRead("get", keyBytes);
+            byte[] obj = jedis.get(keyBytes);
+            if (obj == null && hasLegacyKey(key)) {
+                releaseJedisInstance(jedis);
+                jedis = null;
+                obj = migrateLegacyKey("get", (String) key, keyBytes);
+            }
+            if (nearCached) {
+                redisNearCache.put((String) key, obj, version);
+            } else if (hotTracked) {
+                redisHotKeyDetector.put((String) key, obj, version);
+            }
+            return obj == null ? null : decode("get", obj);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取byte类型key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 根据表达式获取keys
+     * 基于SCAN分批迭代，不会像KEYS命令一样阻塞Redis；数据量大时请直接使用scan惰性消费
+     *
+     * @param key 表达式，byte[]类型直接作为匹配模式，其他类型按对象KEY编码
+     */
+    public Set<byte[]> keys(Object key) {
+        Set<byte[]> result = new HashSet<byte[]>();
+        try {
+            Iterator<byte[]> iterator = scan(key instanceof byte[] ? (byte[]) key : objectKey(key));
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取byte类型key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
+        }
+        return result;
+    }
+
+    /**
+     * 构造匹配以指定前缀开头的byte类型KEY的表达式
+     * String类型的对象KEY以UTF-8编码，开启了旧KEY读取时scan和scanValues同时迭代匹配的旧KEY
+     *
+     * @param prefix KEY前缀
+     * @return 匹配模式
+     */
+    public byte[] objectKeyPattern(String prefix) {
+        return RedisKeyPattern.prefix(prefix);
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的byte类型KEY，每批数量为配置的默认值
+     *
+     * @param pattern 匹配模式
+     * @return KEY迭代器
+     */
+    public Iterator<byte[]> scan(byte[] pattern) {
+        return scan(pattern, RedisConfigConstant.SCAN_COUNT);
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的byte类型KEY
+     * 消费完当前批次才会发送下一次SCAN，出错时记录日志并结束迭代
+     * 开启了旧KEY读取时，同时迭代匹配的Java序列化编码的旧KEY
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT参数
+     * @return KEY迭代器
+     */
+    public Iterator<byte[]> scan(byte[] pattern, int count) {
+        List<Iterator<byte[]>> iterators = new ArrayList<Iterator<byte[]>>();
+        for (final ScanParams params : objectScanParams(pattern, count)) {
+            for (final RedisNode node : redisPoolRegistry.getNodes()) {
+                iterators.add(new RedisScanIterator<byte[]>() {
+                    @Override
+                    protected ScanResult<byte[]> scan(String cursor) {
+                        return scanPage(node, cursor, params);
+                    }
+                });
+            }
+        }
+        return RedisScanIterator.concat(iterators);
+    }
+
+    /**
+     * 构造迭代对象KEY的SCAN参数，开启了旧KEY读取且模式不能匹配旧KEY时追加旧KEY的匹配模式
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT参数
+     * @return SCAN参数集合
+     */
+    private List<ScanParams> objectScanParams(byte[] pattern, int count) {
+        List<ScanParams> params = new ArrayList<ScanParams>(2);
+        params.add(new ScanParams().match(pattern).count(count));
+        byte[] legacy = RedisConfigConstant.LEGACY_KEY_READ ? RedisKeyPattern.legacy(pattern) : null;
+        if (legacy != null) {
+            params.add(new ScanParams().match(legacy).count(count));
+        }
+        return params;
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的String类型KEY，每批数量为配置的默认值
+     *
+     * @param pattern 匹配模式
+     * @return KEY迭代器
+     */
+    public Iterator<String> scanString(String pattern) {
+        return scanString(pattern, RedisConfigConstant.SCAN_COUNT);
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的String类型KEY
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT参数
+     * @return KEY迭代器
+     */
+    public Iterator<String> scanString(String pattern, int count) {
+        final ScanParams params = new ScanParams().match(pattern).count(count);
+        List<Iterator<String>> iterators = new ArrayList<Iterator<String>>();
+        for (final RedisNode node : redisPoolRegistry.getNodes()) {
+            iterators.add(new RedisScanIterator<String>() {
+                @Override
+                protected ScanResult<String> scan(String cursor) {
+                    ScanResult<byte[]> page = scanPage(node, cursor, params);
+                    if (page == null) {
+                        return null;
+                    }
+                    List<String> keys = new ArrayList<String>(page.getResult().size());
+                    for (byte[] key : page.getResult()) {
+                        keys.add(SafeEncoder.encode(key));
+                    }
+                    return new ScanResult<String>(page.getCursor(), keys);
+                }
+            });
+        }
+        return RedisScanIterator.concat(iterators);
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的byte类型KEY对应的value，每批数量为配置的默认值
+     *
+     * @param pattern 匹配模式
+     * @return value迭代器
+     */
+    public Iterator<Object> scanValues(byte[] pattern) {
+        return scanValues(pattern, RedisConfigConstant.SCAN_COUNT);
+    }
+
+    /**
+     * 使用SCAN惰性迭代匹配的byte类型KEY对应的value
+     * 每扫描到一批KEY，使用一条MGET取回整批value，已过期或解码失败的value被跳过
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT参数
+     * @return value迭代器
+     */
+    public Iterator<Object> scanValues(byte[] pattern, int count) {
+        List<Iterator<Object>> iterators = new ArrayList<Iterator<Object>>();
+        for (final ScanParams params : objectScanParams(pattern, count)) {
+            for (final RedisNode node : redisPoolRegistry.getNodes()) {
+                iterators.add(new RedisScanIterator<Object>() {
+                    @Override
+                    protected ScanResult<Object> scan(String cursor) {
+                        ScanResult<byte[]> page = scanPage(node, cursor, params);
+                        if (page == null) {
+                            return null;
+                        }
+                        List<Object> values = new ArrayList<Object>(page.getResult().size());
+                        if (!page.getResult().isEmpty()) {
+                            for (byte[] value : mgetByte(page.getResult().toArray(new byte[page.getResult().size()][]))) {
+                                if (value == null) {
+                                    continue;
+                                }
+                                try {
+                                    values.add(decode("scanValues", value));
+                                } catch (Exception e) {
+                                    logger.error("\r\n ********* [解码byte类型的value失败]" + ExceptionUtils.getFullStackTrace(e));
+                                }
+                            }
+                        }
+                        return new ScanResult<Object>(page.getCursor(), values);
+                    }
+                });
+            }
+        }
+        return RedisScanIterator.concat(iterators);
+    }
+
+    /**
+     * 在指定节点执行一次SCAN
+     *
+     * @param node   节点
+     * @param cursor 游标
+     * @param params 匹配模式和COUNT参数
+     * @return 扫描结果，出错时返回null
+     */
+    private ScanResult<byte[]> scanPage(RedisNode node, String cursor, ScanParams params) {
+        Jedis jedis = null;
+        try {
+            jedis = borrow("scan", node);
+            return jedis.scan(SafeEncoder.encode(cursor), params);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [SCAN迭代KEY失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 设置byte类型的KEY缓存有效时间
+     * String类型的KEY不存在且开启了旧KEY读取时，设置旧KEY的有效时间
+     *
+     * @param key
+     * @param expire
+     * @return boolean
+     */
+    public boolean expire(Object key, int expire) {
+        Jedis jedis = null;
+        try {
+            byte[] keyBytes = objectKey(key);
+            jedis = borrow("expire", keyBytes);
+            Long result = jedis.expire(keyBytes, expire);
+            if (Long.valueOf(0L).equals(result) && hasLegacyKey(key)) {
+                releaseJedisInstance(jedis);
+                jedis = null;
+                byte[] legacyBytes = ByteUtil.objectToBytes(key);
+                jedis = borrow("expire", legacyBytes);
+                jedis.expire(legacyBytes, expire);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [设置byte类型的KEY缓存有效时间失败]" + ExceptionUtils.getFullStackTrace(e));
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        return false;
+    }
+
+    /**
+     * 删除byte类型的key
+     *
+     * @param key
+     * @return boolean
+     */
+    public boolean del(Object key) {
+        Jedis jedis = null;
+        try {
+            byte[] keyBytes = objectKey(key);
+            byte[] legacyBytes = legacyKeyOnSameNode("del", key, keyBytes);
+            jedis = borrow("del", keyBytes);
+            jedis.del(legacyBytes == null ? new byte[][]{keyBytes} : new byte[][]{keyBytes, legacyBytes});
+            invalidateNearCache(jedis, Collections.singleton(key));
+            return true;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [删除byte类型的key失败]" + ExceptionUtils.getFullStackTrace(e));
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        return false;
+    }
+
+    /**
+     * 删除字节数组key
+     *
+     * @param keys
+     * @return
+     */
+    public boolean del(Object... keys) {
+        if (keys == null || keys.length == 0) {
+            return true;
+        }
+        try {
+            byte[][] keysByte = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                keysByte[i] = objectKey(keys[i]);
+            }
+            List<Object> keyList = new ArrayList<Object>(Arrays.asList(keys));
+            delRaw("del", appendLegacyKeys(keysByte, keyList), keyList);
+            return true;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [删除byte类型的KEY失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+        return false;
+    }
+
+    /**
+     * 批量获取byte类型KEY的value值
+     * 使用一条MGET命令完成，返回结果与keys顺序一致，不存在的KEY对应null；
+     * 开启了旧KEY读取时，不存在的String类型KEY逐个回退读取旧KEY并迁移
+     *
+     * @param keys KEY集合
+     * @return value集合
+     */
+    public List<Object> mgetObject(List<?> keys) {
+        List<Object> result = new ArrayList<Object>();
+        if (keys == null || keys.isEmpty()) {
+            return result;
+        }
+        try {
+            byte[][] keysByte = new byte[keys.size()][];
+            for (int i = 0; i < keys.size(); i++) {
+                keysByte[i] = objectKey(keys.get(i));
+            }
+            List<byte[]> values = mgetRaw("mgetObject", keysByte);
+            for (int i = 0; i < values.size(); i++) {
+                byte[] value = values.get(i);
+                if (value == null && hasLegacyKey(keys.get(i))) {
+                    value = migrateLegacyKey("mgetObject", (String) keys.get(i), keysByte[i]);
+                }
+                result.add(value == null ? null : decode("mgetObject", value));
+            }
+        } catch (Exception e) {
+            logger.error("\r\n ********* [批量获取byte类型key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
+        }
+        return result;
+    }
+
+    /**
+     * 批量获取字节数组KEY的value值
+     * 使用一条MGET命令完成，返回结果与keys顺序一致，不存在的KEY对应null
+     *
+     * @param keys KEY集合
+     * @return value集合
+     */
+    public List<byte[]> mgetByte(byte[]... keys) {
+        if (keys == null || keys.length == 0) {
+            return new ArrayList<byte[]>();
+        }
+        try {
+            return mgetRaw("mgetByte", keys);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [批量获取字节数组key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
+            return new ArrayList<byte[]>();
+        }
+    }
+
+    /**
+     * 按节点分组执行MGET，每个节点一条命令，结果按keys的顺序合并
+     *
+     * @param command 命令名称
+     * @param keys    KEY集合
+     * @return value集合，不存在的KEY对应null
+     */
+    private List<byte[]> mgetRaw(String command, byte[][] keys) {
+        Map<RedisNode, List<Integer>> groups = groupByNode(keys);
+        if (groups.size() == 1) {
+            Jedis jedis = null;
+            try {
+                jedis = borrowRead(command, groups.keySet().iterator().next(), keys);
+                return jedis.mget(keys);
+            } finally {
+                releaseJedisInstance(jedis);
+            }
+        }
+        byte[][] values = new byte[keys.length][];
+        for (Map.Entry<RedisNode, List<Integer>> group : groups.entrySet()) {
+            Jedis jedis = null;
+            try {
+                byte[][] groupKeys = select(keys, group.getValue());
+                jedis = borrowRead(command, group.getKey(), groupKeys);
+                List<byte[]> part = jedis.mget(groupKeys);
+                for (int i = 0; i < part.size(); i++) {
+                    values[group.getValue().get(i)] = part.get(i);
+                }
+            } finally {
+                releaseJedisInstance(jedis);
+            }
+        }
+        return new ArrayList<byte[]>(Arrays.asList(values));
+    }
+
+    /**
+     * 按节点分组执行DEL，每个节点一条命令
+     *
+     * @param command       命令名称
+     * @param keys          KEY集合
+     * @param nearCacheKeys 与keys一一对应的原始KEY，用于丢弃本地近端缓存，不需要时为null
+     * @return 被删除的KEY数量
+     */
+    private long delRaw(String command, byte[][] keys, List<?> nearCacheKeys) {
+        long deleted = 0L;
+        for (Map.Entry<RedisNode, List<Integer>> group : groupByNode(keys).entrySet()) {
+            Jedis jedis = null;
+            try {
+                byte[][] groupKeys = select(keys, group.getValue());
+                for (byte[] key : groupKeys) {
+                    redisReplicaRouter.recordWrite(key);
+                }
+                jedis = borrow(command, group.getKey());
+                Long result = jedis.del(groupKeys);
+                deleted += result == null ? 0L : result;
+                if (nearCacheKeys != null) {
+                    List<Object> originalKeys = new ArrayList<Object>(group.getValue().size());
+                    for (Integer index : group.getValue()) {
+                        originalKeys.add(nearCacheKeys.get(index));
+                    }
+                    invalidateNearCache(jedis, originalKeys);
+                }
+            } finally {
+                releaseJedisInstance(jedis);
+            }
+        }
+        return deleted;
     }
 
     /**
-     * 设置byte类型的KEY和VALUE的有效时间
+     * 批量存储byte类型的KEY和VALUE并设置有效时间
+     * 同一节点的SETEX命令在同一个连接的管道中发送，每个节点只产生一次网络往返
      *
-     * @param key
-     * @param value
-     * @param expire
+     * @param keyValues KEY和VALUE集合
+     * @param expire    有效时间，单位：秒
      * @return boolean
      */
-    public boolean setAndExpire(Object key, Object value, int expire) {
-        Jedis jedis = null;
+    public boolean msetAndExpire(Map<?, ?> keyValues, int expire) {
+        if (keyValues == null || keyValues.isEmpty()) {
+            return true;
+        }
         try {
-            jedis = getJedis();
-            jedis.setex(ByteUtil.objectToBytes(key), expire, ByteUtil.objectToBytes(value));
+            List<Object> keys = new ArrayList<Object>(keyValues.size());
+            byte[][] keysByte = new byte[keyValues.size()][];
+            byte[][] valuesByte = new byte[keyValues.size()][];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : keyValues.entrySet()) {
+                keys.add(entry.getKey());
+                keysByte[i] = objectKey(entry.getKey());
+                valuesByte[i++] = encode("msetAndExpire", entry.getValue());
+            }
+            // 旧KEY按所在节点分组，与同一节点的SETEX放在同一个管道中删除
+            Map<RedisNode, List<byte[]>> legacyByNode = new HashMap<RedisNode, List<byte[]>>();
+            if (RedisConfigConstant.LEGACY_KEY_READ) {
+                for (Object key : keys) {
+                    if (key instanceof String) {
+                        byte[] legacyBytes = ByteUtil.objectToBytes(key);
+                        legacyByNode.computeIfAbsent(redisPoolRegistry.getNode(legacyBytes), node -> new ArrayList<byte[]>()).add(legacyBytes);
+                    }
+                }
+            }
+            for (Map.Entry<RedisNode, List<Integer>> group : groupByNode(keysByte).entrySet()) {
+                Jedis jedis = null;
+                try {
+                    jedis = borrow("msetAndExpire", group.getKey());
+                    Pipeline pipeline = jedis.pipelined();
+                    List<Object> groupKeys = new ArrayList<Object>(group.getValue().size());
+                    for (Integer index : group.getValue()) {
+                        redisReplicaRouter.recordWrite(keysByte[index]);
+                        pipeline.setex(keysByte[index], expire, valuesByte[index]);
+                        groupKeys.add(keys.get(index));
+                    }
+                    List<byte[]> legacyKeys = legacyByNode.remove(group.getKey());
+                    if (legacyKeys != null) {
+                        pipeline.del(legacyKeys.toArray(new byte[legacyKeys.size()][]));
+                    }
+                    pipeline.sync();
+                    invalidateNearCache(jedis, groupKeys);
+                } finally {
+                    releaseJedisInstance(jedis);
+                }
+            }
+            for (List<byte[]> legacyKeys : legacyByNode.values()) {
+                delRaw("msetAndExpire", legacyKeys.toArray(new byte[legacyKeys.size()][]), null);
+            }
             return true;
         } catch (Exception e) {
-            logger.error("\r\n ********* [设置byte类型的KEY有效时间出错]" + ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
+            logger.error("\r\n ********* [批量存储byte类型的KEY和VALUE失败]" + ExceptionUtils.getFullStackTrace(e));
         }
         return false;
     }
 
     /**
-     * 获取byte类型KEY的value值
+     * 批量存储String类型的KEY和VALUE并设置有效时间
+     * 同一节点的SETEX命令在同一个连接的管道中发送，每个节点只产生一次网络往返
      *
-     * @param key
-     * @return object
+     * @param keyValues KEY和VALUE集合
+     * @param expire    有效时间，单位：秒
+     * @return boolean
      */
-    public Object get(Object key) {
-        Jedis jedis = null;
+    public boolean msetAndExpireString(Map<String, String> keyValues, int expire) {
+        if (keyValues == null || keyValues.isEmpty()) {
+            return true;
+        }
         try {
-            jedis = getJedis();
-            byte[] obj = jedis.get(ByteUtil.objectToBytes(key));
-            return obj == null ? null : ByteUtil.bytesToObject(obj);
+            byte[][] keysByte = new byte[keyValues.size()][];
+            byte[][] valuesByte = new byte[keyValues.size()][];
+            int i = 0;
+            for (Map.Entry<String, String> entry : keyValues.entrySet()) {
+                keysByte[i] = SafeEncoder.encode(entry.getKey());
+                valuesByte[i++] = SafeEncoder.encode(entry.getValue());
+            }
+            for (Map.Entry<RedisNode, List<Integer>> group : groupByNode(keysByte).entrySet()) {
+                Jedis jedis = null;
+                try {
+                    jedis = borrow("msetAndExpireString", group.getKey());
+                    Pipeline pipeline = jedis.pipelined();
+                    for (Integer index : group.getValue()) {
+                        redisReplicaRouter.recordWrite(keysByte[index]);
+                        pipeline.setex(keysByte[index], expire, valuesByte[index]);
+                    }
+                    pipeline.sync();
+                } finally {
+                    releaseJedisInstance(jedis);
+                }
+            }
+            return true;
         } catch (Exception e) {
-            logger.error("\r\n ********* [获取byte类型key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
-            return null;
-        } finally {
-            releaseJedisInstance(jedis);
+            logger.error("\r\n ********* [批量存储String类型的KEY和VALUE失败]" + ExceptionUtils.getFullStackTrace(e));
         }
+        return false;
     }
 
     /**
-     * 根据表达式获取keys
+     * 批量删除byte类型的key
+     * 每个节点使用一条DEL命令完成
      *
-     * @param key
+     * @param keys KEY集合
+     * @return 被删除的KEY数量
      */
-    public Set<byte[]> keys(Object key) {
-        Jedis jedis = null;
+    public Long delObjects(Collection<?> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0L;
+        }
         try {
-            jedis = getJedis();
-            return jedis.keys(ByteUtil.objectToBytes(key));
+            List<Object> keyList = new ArrayList<Object>(keys);
+            byte[][] keysByte = new byte[keyList.size()][];
+            for (int i = 0; i < keysByte.length; i++) {
+                keysByte[i] = objectKey(keyList.get(i));
+            }
+            return delRaw("delObjects", appendLegacyKeys(keysByte, keyList), keyList);
         } catch (Exception e) {
-            logger.error("\r\n ********* [获取byte类型key的value值出错]" + ExceptionUtils.getFullStackTrace(e));
-            return new HashSet<byte[]>();
-        } finally {
-            releaseJedisInstance(jedis);
+            logger.error("\r\n ********* [批量删除byte类型的KEY失败]" + ExceptionUtils.getFullStackTrace(e));
+            return 0L;
         }
     }
 
     /**
-     * 设置byte类型的KEY缓存有效时间
+     * 使用管道批量执行任意命令
+     * 回调中追加的命令在同一个连接上排队，统一刷新后一次性读取全部响应
+     * 分片模式下无法确定命令发往哪个节点，请改用带路由KEY的重载
      *
-     * @param key
-     * @param expire
-     * @return boolean
+     * @param callback 管道回调
+     * @return 与命令追加顺序一致的执行结果集合，执行失败时返回空集合
      */
-    public boolean expire(Object key, int expire) {
-        Jedis jedis = null;
-        try {
-            jedis = getJedis();
-            jedis.expire(ByteUtil.objectToBytes(key), expire);
-            return true;
-        } catch (Exception e) {
-            logger.error("\r\n ********* [设置byte类型的KEY缓存有效时间失败]" + ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
+    public List<Object> executePipelined(RedisPipelineCallback callback) {
+        if (redisPoolRegistry.isSharded()) {
+            logger.error("\r\n ********* [Redis管道批量执行失败] 分片模式下请指定路由KEY");
+            return new ArrayList<Object>();
         }
-        return false;
+        return executePipelined(redisPoolRegistry.getDefaultNode(), callback);
     }
 
     /**
-     * 删除byte类型的key
+     * 在路由KEY所在的节点上使用管道批量执行任意命令
+     * 分片模式下回调中的KEY应与路由KEY使用相同的hash tag，保证落在同一个节点；管道命令总是发送到主节点
      *
-     * @param key
-     * @return boolean
+     * @param routingKey 路由KEY
+     * @param callback   管道回调
+     * @return 与命令追加顺序一致的执行结果集合，执行失败时返回空集合
      */
-    public boolean del(Object key) {
-        Jedis jedis = null;
-        try {
-            jedis = getJedis();
-            jedis.del(ByteUtil.objectToBytes(key));
-            return true;
-        } catch (Exception e) {
-            logger.error("\r\n ********* [删除byte类型的key失败]" + ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
-        }
-        return false;
+    public List<Object> executePipelined(String routingKey, RedisPipelineCallback callback) {
+        byte[] key = SafeEncoder.encode(routingKey);
+        redisReplicaRouter.recordWrite(key);
+        return executePipelined(redisPoolRegistry.getNode(key), callback);
     }
 
     /**
-     * 删除字节数组key
+     * 在指定节点上使用管道批量执行任意命令
      *
-     * @param keys
-     * @return
+     * @param node     节点
+     * @param callback 管道回调
+     * @return 与命令追加顺序一致的执行结果集合，执行失败时返回空集合
      */
-    public boolean del(Object... keys) {
-        if (keys == null || keys.length == 0) {
-            return true;
-        }
+    private List<Object> executePipelined(RedisNode node, RedisPipelineCallback callback) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            byte[] keysByte = new byte[keys.length];
-            for (int i = 0; i < keys.length; i++) {
-                keysByte = ByteUtil.objectToBytes(keys[i]);
-            }
-            jedis.del(keysByte);
-            return true;
+            jedis = borrow("executePipelined", node);
+            Pipeline pipeline = jedis.pipelined();
+            callback.doInPipeline(pipeline);
+            return pipeline.syncAndReturnAll();
         } catch (Exception e) {
-            logger.error("\r\n ********* [删除byte类型的KEY失败]" + ExceptionUtils.getFullStackTrace(e));
+            logger.error("\r\n ********* [Redis管道批量执行失败]" + ExceptionUtils.getFullStackTrace(e));
+            return new ArrayList<Object>();
         } finally {
             releaseJedisInstance(jedis);
         }
-        return false;
     }
 
     /**
      * 查询字节类型KEY是否存在
+     * String类型的KEY不存在且开启了旧KEY读取时，查询旧KEY是否存在
      *
      * @param key
      * @return boolean
@@ -263,8 +1484,19 @@ public class RedisClient {
     public boolean exists(Object key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            return jedis.exists(ByteUtil.objectToBytes(key));
+            byte[] keyBytes = objectKey(key);
+            jedis = borrowRead("exists", keyBytes);
+            if (jedis.exists(keyBytes)) {
+                return true;
+            }
+            if (hasLegacyKey(key)) {
+                releaseJedisInstance(jedis);
+                jedis = null;
+                byte[] legacyBytes = ByteUtil.objectToBytes(key);
+                jedis = borrowRead("exists", legacyBytes);
+                return jedis.exists(legacyBytes);
+            }
+            return false;
         } catch (IOException e) {
             logger.error("\r\n ********* [判断缓存是否存在出错]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -282,9 +1514,9 @@ public class RedisClient {
     public void setStringForObject(String key, Object o) {
         Jedis jedis = null;
         try {
-            String s = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
-            jedis.set(key, s);
+            byte[] json = toJson("setStringForObject", o);
+            jedis = borrow("setStringForObject", key);
+            jedis.set(SafeEncoder.encode(key), json);
         } catch (Exception e) {
             logger.error("\r\n ********* [存储String类型的KEY，JSON类型的Value失败]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -303,7 +1535,7 @@ public class RedisClient {
         String result = "";
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("setString", key);
             result = jedis.set(key, value);
         } catch (Exception e) {
             logger.error("\r\n ********* [存储String类型的KEY，String类型的Value失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -324,7 +1556,7 @@ public class RedisClient {
         Jedis jedis = null;
         try {
             String s = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
+            jedis = borrow("setString");
             jedis.set(key, s);
             jedis.expire(key, expire);
         } catch (Exception e) {
@@ -344,7 +1576,7 @@ public class RedisClient {
     public void setAndExpireString(String key, String v, int expire) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("setAndExpireString", key);
             jedis.setex(key, expire, v);
         } catch (Exception e) {
             logger.error("\r\n ********* [设置String类型的KEY，String类型的VALUE]" + ExceptionUtils.getFullStackTrace(e));
@@ -366,7 +1598,7 @@ public class RedisClient {
         long result = -1;
 
         try {
-            jedis = getJedis();
+            jedis = borrow("setnx", key);
             result = jedis.setnx(key, value);
         } catch (Exception e) {
             logger.error("\r\n ********* [Redis setnx 调用失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -378,6 +1610,7 @@ public class RedisClient {
 
     /**
      * redis缓存有效时间数据
+     * 需要互斥时请使用RedisLockManager，它提供持有者校验的释放、自动续期和围栏令牌
      *
      * @param key
      * @param value
@@ -389,11 +1622,32 @@ public class RedisClient {
         long result = -1;
 
         try {
-            jedis = getJedis();
-            result = jedis.setnx(key, value);
-            if (result == 1) {
-                jedis.expire(key, expire);
-            }
+            jedis = borrow("setnxAndExpireString", key);
+            // SET NX EX一条命令完成，避免SETNX成功后EXPIRE失败留下永不过期的KEY
+            result = jedis.set(key, value, SetParams.setParams().nx().ex(expire)) == null ? 0 : 1;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [Redis缓存有效时间数据失败]" + ExceptionUtils.getFullStackTrace(e));
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+        return result;
+    }
+
+    /**
+     * KEY不存在时写入并设置毫秒级有效时间
+     *
+     * @param key          KEY
+     * @param value        值
+     * @param milliseconds 有效时间，单位：毫秒
+     * @return 1表示写入成功，0表示KEY已存在，-1表示Redis访问失败
+     */
+    public long setnxAndPexpireString(String key, String value, long milliseconds) {
+        Jedis jedis = null;
+        long result = -1;
+
+        try {
+            jedis = borrow("setnxAndPexpireString", key);
+            result = jedis.set(key, value, SetParams.setParams().nx().px(milliseconds)) == null ? 0 : 1;
         } catch (Exception e) {
             logger.error("\r\n ********* [Redis缓存有效时间数据失败]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -411,11 +1665,11 @@ public class RedisClient {
      * @return
      */
     public <T> T get(String key, TypeReference<T> clazz) {
-        String json = null;
+        byte[] json = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            json = jedis.get(key);
+            jedis = borrowRead("get", key);
+            json = jedis.get(SafeEncoder.encode(key));
         } catch (Exception e) {
             logger.error("\r\n ********* [根据KEY获取特定类型的缓存值]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -424,7 +1678,7 @@ public class RedisClient {
         if (json == null) {
             return null;
         } else {
-            return JacksonUtil.readValue(json, clazz);
+            return readJson("get", json, clazz);
         }
     }
 
@@ -437,11 +1691,11 @@ public class RedisClient {
      * @return VALUE
      */
     public <T> T get(String key, Class<T> clazz) {
-        String json = null;
+        byte[] json = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            json = jedis.get(key);
+            jedis = borrowRead("get", key);
+            json = jedis.get(SafeEncoder.encode(key));
         } catch (Exception e) {
             logger.error("\r\n ********* [根据KEY获取指定类型的缓存值失败]" + ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -450,7 +1704,7 @@ public class RedisClient {
         if (json == null) {
             return null;
         } else {
-            return JacksonUtil.readValue(json, clazz);
+            return readJson("get", json, clazz);
         }
     }
 
@@ -462,7 +1716,7 @@ public class RedisClient {
         String result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("getString", key);
             String str = jedis.get(key);
             if (!NOT_FOUND.equals(str)) {
                 result = str;
@@ -483,7 +1737,7 @@ public class RedisClient {
         byte[] o = null;
 
         try {
-            jedis = getJedis();
+            jedis = borrowRead("get", key);
             o = jedis.get(key);
 
         } catch (Exception e) {
@@ -495,28 +1749,19 @@ public class RedisClient {
     }
 
     /**
+     * 根据表达式获取String类型的keys
+     * 基于SCAN分批迭代并去重，不会像KEYS命令一样阻塞Redis；数据量大时请直接使用scanString惰性消费
+     *
      * @param pattern
      * @return
      */
     public List<String> keysString(String pattern) {
-        List<String> result = new ArrayList<String>();
-        Set<String> set = new HashSet<String>();
-        Jedis jedis = null;
-        try {
-            jedis = getJedis();
-            set = jedis.keys(pattern);
-            if (set != null && !set.isEmpty()) {
-                final Iterator<String> ite = set.iterator();
-                while (ite.hasNext()) {
-                    result.add((String) ite.next());
-                }
-            }
-        } catch (Exception e) {
-            logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
+        Set<String> set = new LinkedHashSet<String>();
+        Iterator<String> ite = scanString(pattern);
+        while (ite.hasNext()) {
+            set.add(ite.next());
         }
-        return result;
+        return new ArrayList<String>(set);
     }
 
     /**
@@ -528,7 +1773,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("expireString", key);
             result = jedis.expire(key, seconds);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -544,14 +1789,14 @@ public class RedisClient {
      */
     public Long delStrings(String... keys) {
         Long result = 0L;
-        Jedis jedis = null;
         try {
-            jedis = getJedis();
-            result = jedis.del(keys);
+            byte[][] keysByte = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                keysByte[i] = SafeEncoder.encode(keys[i]);
+            }
+            result = delRaw("delStrings", keysByte, null);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
         }
         return result;
     }
@@ -563,7 +1808,7 @@ public class RedisClient {
     public boolean existsString(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("existsString", key);
             return jedis.exists(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -582,7 +1827,7 @@ public class RedisClient {
         Jedis jedis = null;
 
         try {
-            jedis = getJedis();
+            jedis = borrow("setByte", key);
             jedis.set(key, o);
 
         } catch (Exception e) {
@@ -600,7 +1845,7 @@ public class RedisClient {
     public void setAndExpireByte(byte[] key, byte[] s, int expire) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("setAndExpireByte", key);
             jedis.setex(key, expire, s);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -618,7 +1863,7 @@ public class RedisClient {
         byte[] o = null;
 
         try {
-            jedis = getJedis();
+            jedis = borrowRead("getByte", key);
             o = jedis.get(key);
 
         } catch (Exception e) {
@@ -640,7 +1885,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("delByte", key);
             result = jedis.del(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -652,14 +1897,10 @@ public class RedisClient {
 
     public Long delBytes(byte[]... keys) {
         Long result = 0L;
-        Jedis jedis = null;
         try {
-            jedis = getJedis();
-            result = jedis.del(keys);
+            result = delRaw("delBytes", keys, null);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
         }
         return result;
     }
@@ -671,18 +1912,21 @@ public class RedisClient {
      */
     public List<String> mget(final String... keys) {
         List<String> result = null;
-        Jedis jedis = null;
         try {
-            jedis = getJedis();
-            result = jedis.mget(keys);
-            if (result != null && !result.isEmpty()) {
+            byte[][] keysByte = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                keysByte[i] = SafeEncoder.encode(keys[i]);
+            }
+            List<byte[]> values = mgetRaw("mget", keysByte);
+            result = new ArrayList<String>(values.size());
+            for (byte[] value : values) {
+                result.add(value == null ? null : SafeEncoder.encode(value));
+            }
+            if (!result.isEmpty()) {
                 result.remove(NOT_FOUND);
             }
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-
-            releaseJedisInstance(jedis);
         }
         return result;
     }
@@ -695,7 +1939,7 @@ public class RedisClient {
         Long len = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hlen", key);
             len = jedis.hlen(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -714,7 +1958,11 @@ public class RedisClient {
         Jedis jedis = null;
         List<String> result = null;
         try {
-            jedis = getJedis();
+            byte[][] keysByte = new byte[key.length][];
+            for (int i = 0; i < key.length; i++) {
+                keysByte[i] = SafeEncoder.encode(key[i]);
+            }
+            jedis = borrow("blpop", sameNode(keysByte));
             result = jedis.blpop(timeout, key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -735,7 +1983,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("hset", key);
             result = jedis.hset(key, field, value);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -756,9 +2004,9 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            String s = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
-            result = jedis.hset(key, field, s);
+            byte[] json = toJson("hset", o);
+            jedis = borrow("hset", key);
+            result = jedis.hset(SafeEncoder.encode(key), SafeEncoder.encode(field), json);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -778,9 +2026,9 @@ public class RedisClient {
         Long result = -1L;
         Jedis jedis = null;
         try {
-            String s = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
-            result = jedis.hsetnx(key, field, s);
+            byte[] json = toJson("hsetnx", o);
+            jedis = borrow("hsetnx", key);
+            result = jedis.hsetnx(SafeEncoder.encode(key), SafeEncoder.encode(field), json);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -793,7 +2041,7 @@ public class RedisClient {
         String result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hget", key);
             String str = jedis.hget(key, field);
             if (!NOT_FOUND.equals(str)) {
                 result = str;
@@ -816,21 +2064,18 @@ public class RedisClient {
      * @return
      */
     public <T> T hget(String key, String field, Class<T> clazz) {
-        String result = null;
+        byte[] result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            String str = jedis.hget(key, field);
-            if (!NOT_FOUND.equals(str)) {
-                result = str;
-            }
+            jedis = borrowRead("hget", key);
+            result = jedis.hget(SafeEncoder.encode(key), SafeEncoder.encode(field));
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
             releaseJedisInstance(jedis);
         }
 
-        return result == null ? null : JacksonUtil.readValue(result, clazz);
+        return result == null ? null : readJson("hget", result, clazz);
     }
 
 
@@ -842,21 +2087,18 @@ public class RedisClient {
      * @return
      */
     public <T> T hget(String key, String field, TypeReference<T> tr) {
-        String result = null;
+        byte[] result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            String str = jedis.hget(key, field);
-            if (!NOT_FOUND.equals(str)) {
-                result = str;
-            }
+            jedis = borrowRead("hget", key);
+            result = jedis.hget(SafeEncoder.encode(key), SafeEncoder.encode(field));
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
             releaseJedisInstance(jedis);
         }
 
-        return result == null ? null : JacksonUtil.readValue(result, tr);
+        return result == null ? null : readJson("hget", result, tr);
     }
 
 
@@ -869,7 +2111,7 @@ public class RedisClient {
         String result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("hmset", key);
             result = jedis.hmset(key, hash);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -889,7 +2131,7 @@ public class RedisClient {
         List<String> result = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hmget", key);
             result = jedis.hmget(key, fields);
             if (result != null && !result.isEmpty()) {
                 result.remove(NOT_FOUND);
@@ -916,7 +2158,7 @@ public class RedisClient {
         Jedis jedis = null;
 
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hmget", key);
 
             if (fields.length > 0) {
                 results = new ArrayList<T>();
@@ -929,7 +2171,7 @@ public class RedisClient {
 
             for (String json : jsons) {
                 if (json != null) {
-                    results.add(JacksonUtil.readValue(json, clazz));
+                    results.add(readJson("hmget", json, clazz));
                 }
             }
         } catch (Exception e) {
@@ -950,7 +2192,7 @@ public class RedisClient {
         Map<String, String> result = new HashMap<String, String>();
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hgetAll", key);
             result = jedis.hgetAll(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -962,6 +2204,8 @@ public class RedisClient {
 
 
     /**
+     * 一次性读取整个Hash并解码，字段很多的Hash使用hscan分批读取
+     *
      * @param key
      * @param clazz
      * @param <T>
@@ -972,7 +2216,7 @@ public class RedisClient {
         Map<String, String> jsonsMaps = new HashMap<String, String>();
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hgetAll", key);
             jsonsMaps = jedis.hgetAll(key);
 
             if (jsonsMaps != null) {
@@ -983,7 +2227,7 @@ public class RedisClient {
                     String jsonValue = (String) jsonsMaps.get(jsonKey);
 
                     if (jsonValue != null) {
-                        result.put(jsonKey, JacksonUtil.readValue(jsonValue, clazz));
+                        result.put(jsonKey, readJson("hgetAll", jsonValue, clazz));
                     }
                 }
             }
@@ -1006,7 +2250,7 @@ public class RedisClient {
         Boolean result = false;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("hexists", key);
             result = jedis.hexists(key, field);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1026,7 +2270,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("rpush", key);
             result = jedis.rpush(key, string);
         } catch (Exception e) {
         } finally {
@@ -1044,10 +2288,9 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            String string = JacksonUtil.toJsonStr(o);
-
-            result = jedis.rpush(key, string);
+            byte[] json = toJson("rpush", o);
+            jedis = borrow("rpush", key);
+            result = jedis.rpush(SafeEncoder.encode(key), json);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -1066,7 +2309,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("lpush", key);
             result = jedis.lpush(key, string);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1086,10 +2329,9 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            String string = JacksonUtil.toJsonStr(o);
-
-            result = jedis.lpush(key, string);
+            byte[] json = toJson("lpush", o);
+            jedis = borrow("lpush", key);
+            result = jedis.lpush(SafeEncoder.encode(key), json);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
@@ -1100,24 +2342,30 @@ public class RedisClient {
 
 
     /**
-     * @param key
-     * @param oList
-     * @param <T>
+     * 批量插入到列表头部，按配置的分块大小分批发送
+     *
+     * @param key   KEY
+     * @param oList 元素列表
+     * @param <T>   元素类型
+     * @return 插入后列表的长度
      */
-    public <T> void lpush(String key, List<T> oList) {
-        Jedis jedis = null;
-        try {
-            jedis = getJedis();
-            for (T t : oList) {
-                String string = JacksonUtil.toJsonStr(t);
+    public <T> Long lpush(String key, List<T> oList) {
+        return lpush(key, oList, RedisConfigConstant.PUSH_CHUNK_SIZE);
+    }
 
-                jedis.lpush(key, string);
-            }
-        } catch (Exception e) {
-            logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
-        }
+    /**
+     * 批量插入到列表头部，元素顺序与逐个LPUSH相同
+     * 先序列化全部元素，再在同一个连接上每个分块发送一条多值LPUSH，分块大小限制单条命令的请求大小
+     * 某个分块失败时，之前的分块已经写入
+     *
+     * @param key       KEY
+     * @param oList     元素列表
+     * @param chunkSize 每条LPUSH命令包含的元素数
+     * @param <T>       元素类型
+     * @return 插入后列表的长度
+     */
+    public <T> Long lpush(String key, List<T> oList, int chunkSize) {
+        return pushAll("lpush", key, oList, chunkSize);
     }
 
 
@@ -1129,7 +2377,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("llen", key);
             result = jedis.llen(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1150,7 +2398,7 @@ public class RedisClient {
         List<String> result = new ArrayList<String>();
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("lrange", key);
             result = jedis.lrange(key, start, end);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1173,12 +2421,12 @@ public class RedisClient {
         List<T> result = new ArrayList<T>();
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            List<String> strings = jedis.lrange(key, start, end);
+            jedis = borrowRead("lrange", key);
+            List<byte[]> jsons = jedis.lrange(SafeEncoder.encode(key), start, end);
 
-            if (strings != null && !strings.isEmpty()) {
-                for (final String string : strings) {
-                    result.add(JacksonUtil.readValue(string, clazz));
+            if (jsons != null && !jsons.isEmpty()) {
+                for (final byte[] json : jsons) {
+                    result.add(readJson("lrange", json, clazz));
                 }
             }
         } catch (Exception e) {
@@ -1190,6 +2438,130 @@ public class RedisClient {
     }
 
 
+    /**
+     * 使用HSCAN惰性迭代Hash的字段和解码后的value，每批数量为配置的默认值，在调用线程解码
+     *
+     * @param key   KEY
+     * @param clazz value类型
+     * @param <T>   value类型
+     * @return 字段和value的迭代器
+     */
+    public <T> Iterator<Map.Entry<String, T>> hscan(String key, Class<T> clazz) {
+        return hscan(key, clazz, RedisConfigConstant.SCAN_COUNT, 1);
+    }
+
+    /**
+     * 使用HSCAN惰性迭代Hash的字段和解码后的value
+     * 消费完当前批次才会发送下一次HSCAN，同一时刻只保留一批数据，避免一次性读取大Hash造成的内存峰值和服务端阻塞
+     * parallelism大于1时，每批value拆分后由异步线程池和调用线程并行解码，适合解码开销大的value；线程池队列满时由调用线程解码
+     * 游标只在主节点上有效，因此HSCAN不路由到只读副本；解码失败的value被跳过，出错时记录日志并结束迭代
+     *
+     * @param key         KEY
+     * @param clazz       value类型
+     * @param count       每次HSCAN的COUNT参数
+     * @param parallelism 每批value最多同时解码的线程数
+     * @param <T>         value类型
+     * @return 字段和value的迭代器
+     */
+    public <T> Iterator<Map.Entry<String, T>> hscan(final String key, final Class<T> clazz, int count, final int parallelism) {
+        final byte[] keyBytes = SafeEncoder.encode(key);
+        final RedisNode node = redisPoolRegistry.getNode(keyBytes);
+        final ScanParams params = new ScanParams().count(count);
+        return new RedisScanIterator<Map.Entry<String, T>>() {
+            @Override
+            protected ScanResult<Map.Entry<String, T>> scan(String cursor) {
+                Jedis jedis = null;
+                ScanResult<Map.Entry<byte[], byte[]>> page;
+                try {
+                    jedis = borrow("hscan", node);
+                    page = jedis.hscan(keyBytes, SafeEncoder.encode(cursor), params);
+                } catch (Exception e) {
+                    logger.error("\r\n ********* [HSCAN迭代Hash失败]" + ExceptionUtils.getFullStackTrace(e));
+                    return null;
+                } finally {
+                    releaseJedisInstance(jedis);
+                }
+                return new ScanResult<Map.Entry<String, T>>(page.getCursor(), decodeEntries(page.getResult(), clazz, parallelism));
+            }
+        };
+    }
+
+    /**
+     * 解码一批Hash字段和value，按parallelism拆分后并行解码，结果保持HSCAN返回的顺序
+     *
+     * @param entries     字段和value
+     * @param clazz       value类型
+     * @param parallelism 最多同时解码的线程数
+     * @param <T>         value类型
+     * @return 解码后的字段和value，解码失败的被跳过
+     */
+    private <T> List<Map.Entry<String, T>> decodeEntries(final List<Map.Entry<byte[], byte[]>> entries, final Class<T> clazz,
+                                                         int parallelism) {
+        final Object[] decoded = new Object[entries.size()];
+        final int slices = Math.max(1, Math.min(parallelism, entries.size() / MIN_DECODE_SLICE));
+        final int sliceSize = (entries.size() + slices - 1) / slices;
+        // 异步线程和调用线程从同一个计数器领取分片，调用线程不必等待仍在排队的任务，
+        // 即使在异步线程池内调用也不会因为线程池占满而互相等待
+        final AtomicInteger nextSlice = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(slices);
+        Runnable worker = () -> {
+            int slice;
+            while ((slice = nextSlice.getAndIncrement()) < slices) {
+                try {
+                    decodeEntries(entries, decoded, slice * sliceSize, (slice + 1) * sliceSize, clazz);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        try {
+            for (int i = 1; i < slices; i++) {
+                redisAsyncExecutor.execute(worker);
+            }
+        } catch (RejectedExecutionException e) {
+            // 线程池已关闭，由调用线程解码剩余分片
+        }
+        worker.run();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        List<Map.Entry<String, T>> result = new ArrayList<Map.Entry<String, T>>(decoded.length);
+        for (Object entry : decoded) {
+            if (entry != null) {
+                @SuppressWarnings("unchecked")
+                Map.Entry<String, T> typed = (Map.Entry<String, T>) entry;
+                result.add(typed);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 解码[from, to)范围内的Hash字段和value
+     */
+    private <T> void decodeEntries(List<Map.Entry<byte[], byte[]>> entries, Object[] decoded, int from, int to, Class<T> clazz) {
+        for (int i = from; i < Math.min(to, entries.size()); i++) {
+            Map.Entry<byte[], byte[]> entry = entries.get(i);
+            try {
+                T value = readJson("hscan", entry.getValue(), clazz);
+                if (value != null) {
+                    decoded[i] = new AbstractMap.SimpleImmutableEntry<String, T>(SafeEncoder.encode(entry.getKey()), value);
+                }
+            } catch (Exception e) {
+                logger.error("\r\n ********* [解码Hash字段" + SafeEncoder.encode(entry.getKey()) + "失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        }
+    }
+
     /**
      * @param key
      * @param field
@@ -1199,7 +2571,7 @@ public class RedisClient {
         Long result = 0L;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("hdel", key);
             result = jedis.hdel(key, field);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1210,23 +2582,68 @@ public class RedisClient {
     }
 
     /**
-     * @param key
-     * @param oList
-     * @param <T>
+     * 批量插入到列表尾部，按配置的分块大小分批发送
+     *
+     * @param key   KEY
+     * @param oList 元素列表
+     * @param <T>   元素类型
+     * @return 插入后列表的长度
      */
-    public <T> void rpush(String key, List<T> oList) {
+    public <T> Long rpush(String key, List<T> oList) {
+        return rpush(key, oList, RedisConfigConstant.PUSH_CHUNK_SIZE);
+    }
+
+    /**
+     * 批量插入到列表尾部，元素顺序与逐个RPUSH相同
+     * 先序列化全部元素，再在同一个连接上每个分块发送一条多值RPUSH，分块大小限制单条命令的请求大小
+     * 某个分块失败时，之前的分块已经写入
+     *
+     * @param key       KEY
+     * @param oList     元素列表
+     * @param chunkSize 每条RPUSH命令包含的元素数
+     * @param <T>       元素类型
+     * @return 插入后列表的长度
+     */
+    public <T> Long rpush(String key, List<T> oList, int chunkSize) {
+        return pushAll("rpush", key, oList, chunkSize);
+    }
+
+    /**
+     * 批量插入列表，序列化在借用连接之前完成，不占用连接
+     *
+     * @param command   命令名称，lpush或rpush
+     * @param key       KEY
+     * @param oList     元素列表
+     * @param chunkSize 每条命令包含的元素数
+     * @param <T>       元素类型
+     * @return 插入后列表的长度
+     */
+    private <T> Long pushAll(String command, String key, List<T> oList, int chunkSize) {
+        Long result = 0L;
+        if (oList == null || oList.isEmpty()) {
+            return result;
+        }
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            for (Object o : oList) {
-                String s = JacksonUtil.toJsonStr(o);
-                jedis.rpush(key, s);
+            byte[][] values = new byte[oList.size()][];
+            int index = 0;
+            for (T t : oList) {
+                values[index++] = toJson(command, t);
+            }
+            byte[] keyBytes = SafeEncoder.encode(key);
+            int size = Math.max(1, chunkSize);
+            jedis = borrow(command, keyBytes);
+            for (int from = 0; from < values.length; from += size) {
+                byte[][] chunk = from == 0 && values.length <= size ? values
+                        : Arrays.copyOfRange(values, from, Math.min(values.length, from + size));
+                result = "lpush".equals(command) ? jedis.lpush(keyBytes, chunk) : jedis.rpush(keyBytes, chunk);
             }
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
         } finally {
             releaseJedisInstance(jedis);
         }
+        return result;
     }
 
 
@@ -1242,7 +2659,7 @@ public class RedisClient {
         List<String> jsonList = null;
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("lrange", key);
             jsonList = jedis.lrange(key, start, end);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1254,86 +2671,143 @@ public class RedisClient {
         if (jsonList == null || jsonList.isEmpty()) {
             return null;
         } else {
-            return JacksonUtil.readValue(jsonList.toString(), clazz);
+            return readJson("lrange", jsonList.toString(), clazz);
         }
 
     }
 
 
     /**
+     * 从列表头部批量弹出元素
+     * 在一个事务中执行LRANGE和LTRIM，只产生一次网络往返，并发消费者之间不会重复或遗漏元素
+     *
      * @param key
      * @param clazz
      * @param size
      * @param <T>
-     * @return
+     * @return 列表为空时返回null
      */
     public <T> List<T> lpop(String key, Class<T> clazz, int size) {
-        String json = null;
-        Jedis jedis = null;
-        int count = 0;
-        List<T> results = null;
+        return popBatch(key, clazz, size, true);
+    }
 
-        try {
-            jedis = getJedis();
-            long exists = jedis.llen(key);
-            count = (int) (exists > size ? size : exists);
+    /**
+     * 从列表尾部批量弹出元素，返回顺序与逐个RPOP一致
+     * 在一个事务中执行LRANGE和LTRIM，只产生一次网络往返，并发消费者之间不会重复或遗漏元素
+     *
+     * @param key
+     * @param clazz
+     * @param size
+     * @param <T>
+     * @return 列表为空时返回null
+     */
+    public <T> List<T> rpop(String key, Class<T> clazz, int size) {
+        return popBatch(key, clazz, size, false);
+    }
+
+    /**
+     * 从列表头部分批消费元素，直到列表为空或回调返回false
+     * 每批元素原子弹出后一次性反序列化，再整体交给回调
+     *
+     * @param key       键
+     * @param clazz     元素类型
+     * @param batchSize 每批最大元素数
+     * @param consumer  批量消费回调
+     * @param <T>
+     * @return 已交给回调的元素总数
+     */
+    public <T> long consumeLeft(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer) {
+        return consume(key, clazz, batchSize, consumer, true);
+    }
+
+    /**
+     * 从列表尾部分批消费元素，直到列表为空或回调返回false
+     * 每批元素原子弹出后一次性反序列化，再整体交给回调
+     *
+     * @param key       键
+     * @param clazz     元素类型
+     * @param batchSize 每批最大元素数
+     * @param consumer  批量消费回调
+     * @param <T>
+     * @return 已交给回调的元素总数
+     */
+    public <T> long consumeRight(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer) {
+        return consume(key, clazz, batchSize, consumer, false);
+    }
 
-            if (count > 0) {
-                results = new ArrayList<T>();
+    /**
+     * 分批消费列表元素
+     *
+     * @param key       键
+     * @param clazz     元素类型
+     * @param batchSize 每批最大元素数
+     * @param consumer  批量消费回调
+     * @param left      true从头部弹出，false从尾部弹出
+     * @param <T>
+     * @return 已交给回调的元素总数
+     */
+    private <T> long consume(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer, boolean left) {
+        long total = 0;
+        while (true) {
+            List<T> batch = popBatch(key, clazz, batchSize, left);
+            if (batch == null) {
+                return total;
             }
-
-            for (int i = 0; i < count; i++) {
-                json = jedis.lpop(key);
-
-                if (json != null) {
-                    results.add(JacksonUtil.readValue(json, clazz));
+            total += batch.size();
+            try {
+                if (!consumer.consume(batch)) {
+                    return total;
                 }
+            } catch (Exception e) {
+                logger.error("\r\n ********* [批量消费列表元素失败]" + ExceptionUtils.getFullStackTrace(e));
+                return total;
             }
-        } catch (Exception e) {
-            logger.error(ExceptionUtils.getFullStackTrace(e));
-        } finally {
-            releaseJedisInstance(jedis);
         }
-
-        return results;
     }
 
     /**
-     * @param key
-     * @param clazz
-     * @param size
+     * 原子地批量弹出列表元素并一次性反序列化
+     *
+     * @param key   键
+     * @param clazz 元素类型
+     * @param size  最大弹出数量
+     * @param left  true从头部弹出，false从尾部弹出
      * @param <T>
-     * @return
+     * @return 列表为空时返回null
      */
-    public <T> List<T> rpop(String key, Class<T> clazz, int size) {
-        String json = null;
+    private <T> List<T> popBatch(String key, Class<T> clazz, int size, boolean left) {
+        if (size <= 0) {
+            return null;
+        }
         Jedis jedis = null;
-        int count = 0;
-        List<T> results = null;
-
         try {
-            jedis = getJedis();
-            long exists = jedis.llen(key);
-            count = (int) (exists > size ? size : exists);
-
-            if (count > 0) {
-                results = new ArrayList<T>();
+            jedis = borrow(left ? "lpop" : "rpop", key);
+            byte[] keyBytes = SafeEncoder.encode(key);
+            Transaction transaction = jedis.multi();
+            Response<List<byte[]>> range;
+            if (left) {
+                range = transaction.lrange(keyBytes, 0, size - 1);
+                transaction.ltrim(keyBytes, size, -1);
+            } else {
+                range = transaction.lrange(keyBytes, -size, -1);
+                transaction.ltrim(keyBytes, 0, -size - 1);
             }
+            transaction.exec();
 
-            for (int i = 0; i < count; i++) {
-                json = jedis.rpop(key);
-
-                if (json != null) {
-                    results.add(JacksonUtil.readValue(json, clazz));
-                }
+            List<byte[]> jsons = range.get();
+            if (jsons == null || jsons.isEmpty()) {
+                return null;
             }
+            if (!left) {
+                Collections.reverse(jsons);
+            }
+            return readJsonValues(left ? "lpop" : "rpop", jsons, clazz);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
+            return null;
         } finally {
             releaseJedisInstance(jedis);
         }
-
-        return results;
     }
 
     /**
@@ -1345,7 +2819,7 @@ public class RedisClient {
     public String lpop(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("lpop", key);
             return jedis.lpop(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1363,7 +2837,7 @@ public class RedisClient {
     public String rpop(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("rpop", key);
             return jedis.rpop(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1383,7 +2857,7 @@ public class RedisClient {
     public Long lrem(String key, int count, String value) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("lrem", key);
             return jedis.lrem(key, count, value);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1401,7 +2875,7 @@ public class RedisClient {
     public String lindex(String key, int index) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("lindex", key);
             return jedis.lindex(key, index);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1420,7 +2894,7 @@ public class RedisClient {
     public String lset(String key, int index, String value) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("lset", key);
             return jedis.lset(key, index, value);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1437,7 +2911,7 @@ public class RedisClient {
     public void sadd(String key, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("sadd", key);
             jedis.sadd(key, member);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1454,7 +2928,7 @@ public class RedisClient {
     public void saddAll(String key, Set<String> members) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("saddAll", key);
             for (final String member : members) {
                 jedis.sadd(key, member);
             }
@@ -1475,7 +2949,7 @@ public class RedisClient {
     public Set<String> smembers(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("smembers", key);
             return jedis.smembers(key);
         } catch (Exception e) {
             logger.error("\r\n ********* [返回集合中的所有的成员失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1496,7 +2970,7 @@ public class RedisClient {
     public Long srem(String key, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("srem", key);
             return jedis.srem(key, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [移除集合中的一个或多个成员元素，不存在的成员元素会被忽略失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1515,7 +2989,7 @@ public class RedisClient {
     public String spop(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("spop", key);
             return jedis.spop(key);
         } catch (Exception e) {
             logger.error("\r\n ********* [移除并返回集合中的一个随机元素失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1535,7 +3009,7 @@ public class RedisClient {
     public List<String> srandmember(String key, int count) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("srandmember", key);
 
             return jedis.srandmember(key, count);
         } catch (Exception e) {
@@ -1556,7 +3030,7 @@ public class RedisClient {
     public Long srem(String key, List<String> members) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("srem", key);
             for (String member : members) {
                 jedis.srem(key, member);
             }
@@ -1579,7 +3053,7 @@ public class RedisClient {
     public Long srem(String key, String... members) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("srem", key);
             return jedis.srem(key, members);
         } catch (Exception e) {
             logger.error("\r\n ********* [移除集合中一个或多个成员出错：]" + ExceptionUtils.getFullStackTrace(e));
@@ -1599,7 +3073,7 @@ public class RedisClient {
     public Boolean sismember(String key, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("sismember", key);
             return jedis.sismember(key, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [判断 member 元素是否集合 key 的成员失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1618,7 +3092,7 @@ public class RedisClient {
     public Long scard(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("scard", key);
             return jedis.scard(key);
         } catch (Exception e) {
             logger.error("\r\n ********* [获取存储在集合中的元素的数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1637,7 +3111,7 @@ public class RedisClient {
     public Long ttl(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("ttl", key);
             return jedis.ttl(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1656,7 +3130,7 @@ public class RedisClient {
     public Long publish(String channel, String message) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("publish");
             return jedis.publish(channel, message);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1667,13 +3141,17 @@ public class RedisClient {
     }
 
     /**
+     * 在连接池的连接上阻塞订阅，订阅期间一直占用该连接，断开后不会重新订阅
+     *
      * @param jedisPubSub
      * @param channels
+     * @deprecated 使用RedisPubSubManager.subscribe，订阅使用专用连接并自动重新订阅
      */
+    @Deprecated
     public void subscribe(JedisPubSub jedisPubSub, String... channels) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("subscribe");
             jedis.subscribe(jedisPubSub, channels);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1683,13 +3161,17 @@ public class RedisClient {
     }
 
     /**
+     * 在连接池的连接上阻塞按模式订阅，订阅期间一直占用该连接，断开后不会重新订阅
+     *
      * @param jedisPubSub
      * @param partterns
+     * @deprecated 使用RedisPubSubManager.psubscribe，订阅使用专用连接并自动重新订阅
      */
+    @Deprecated
     public void psubscribe(JedisPubSub jedisPubSub, String... partterns) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("psubscribe");
             jedis.psubscribe(jedisPubSub, partterns);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1705,7 +3187,7 @@ public class RedisClient {
     public Long incr(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("incr", key);
             return jedis.incr(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1725,7 +3207,7 @@ public class RedisClient {
     public Long incrBy(String key, long integer) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("incrBy", key);
             return jedis.incrBy(key, integer);
         } catch (Exception e) {
             logger.error("\r\n ********* [ key 中储存的数字加上指定的增量值失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1746,7 +3228,7 @@ public class RedisClient {
     public Long hincrBy(String key, String field, long value) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("hincrBy", key);
             return jedis.hincrBy(key, field, value);
         } catch (Exception e) {
             logger.error("\r\n ********* [用于增加存储在字段中存储由增量键哈希的数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1763,7 +3245,7 @@ public class RedisClient {
     public Long decr(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("decr", key);
             return jedis.decr(key);
         } catch (Exception e) {
             logger.error(ExceptionUtils.getFullStackTrace(e));
@@ -1783,7 +3265,7 @@ public class RedisClient {
     public Long decrBy(String key, long num) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("decrBy", key);
             return jedis.decrBy(key, num);
         } catch (Exception e) {
             logger.error("\r\n ********* [减小存储在由指定的值的key的数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1802,7 +3284,7 @@ public class RedisClient {
     public Long zcard(String key) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zcard", key);
             return jedis.zcard(key);
         } catch (Exception e) {
             logger.error("\r\n ********* [返回在指定的键存储在集合中的元素的数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1823,7 +3305,7 @@ public class RedisClient {
     public Set<String> zrange(String key, int start, int end) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zrange", key);
             return jedis.zrange(key, start, end);
         } catch (Exception e) {
             logger.error("\r\n ********* [返回存储在关键的排序元素集合在指定的范围失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1849,13 +3331,13 @@ public class RedisClient {
         Jedis jedis = null;
         Iterator<String> it = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zrange", key);
             Set<String> zset = jedis.zrange(key, start, end);
 
             if (zset != null && !zset.isEmpty()) {
                 it = zset.iterator();
                 while (it.hasNext()) {
-                    result.add(JacksonUtil.readValue(it.next(), clazz));
+                    result.add(readJson("zrange", it.next(), clazz));
                 }
             }
         } catch (Exception e) {
@@ -1869,7 +3351,7 @@ public class RedisClient {
     public Set<String> zrevrange(String key, int start, int end) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zrevrange", key);
             return jedis.zrevrange(key, start, end);
         } catch (Exception e) {
             return null;
@@ -1894,14 +3376,14 @@ public class RedisClient {
         Iterator<String> it = null;
         String json = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zrevrange", key);
             Set<String> zset = jedis.zrevrange(key, start, end);
 
             if (zset != null && !zset.isEmpty()) {
                 it = zset.iterator();
                 while (it.hasNext()) {
                     json = (String) it.next();
-                    result.add(JacksonUtil.readValue(json, clazz));
+                    result.add(readJson("zrevrange", json, clazz));
                 }
             }
         } catch (Exception e) {
@@ -1924,7 +3406,7 @@ public class RedisClient {
     public Set<String> zrangeByScore(String key, Long min, Long max) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zrangeByScore", key);
             return jedis.zrangeByScore(key, min, max);
         } catch (Exception e) {
             logger.error("\r\n ********* [返回的有序集合在最小值和最大值(包括得分等于最小或最大元素)之间的分数键中的所有元素失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1943,7 +3425,7 @@ public class RedisClient {
     public void zrem(String key, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("zrem", key);
             jedis.zrem(key, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [有序集合存储在键删除指定成员失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1962,7 +3444,7 @@ public class RedisClient {
     public void zadd(String key, Long score, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("zadd", key);
             jedis.zadd(key, score, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [添加所有指定的成员指定的分数存放在键的有序集合失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -1981,7 +3463,7 @@ public class RedisClient {
     public void zincrBy(String key, Long score, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("zincrBy", key);
             jedis.zincrby(key, score, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [加单位成员的有序集合存储增量键比分失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -2001,7 +3483,7 @@ public class RedisClient {
         Jedis jedis = null;
         try {
             String member = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
+            jedis = borrow("zincrBy", key);
             jedis.zincrby(key, score, member);
         } catch (Exception e) {
             logger.error("\r\n ********* [加单位成员的有序集合存储增量键比分失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -2020,7 +3502,7 @@ public class RedisClient {
     public void zremrangeByRank(String key, int start, int end) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("zremrangeByRank", key);
             jedis.zremrangeByRank(key, start, end);
         } catch (Exception e) {
             logger.error("\r\n ********* [删除的元素数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -2039,7 +3521,7 @@ public class RedisClient {
     public void zremrangeByScore(String key, Long start, Long end) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrow("zremrangeByScore", key);
             jedis.zremrangeByScore(key, start, end);
         } catch (Exception e) {
             logger.error("\r\n ********* [删除的有序集合保存在key的最小值和最大值(含)之间的分数的所有元素数量失败]" + ExceptionUtils.getFullStackTrace(e));
@@ -2051,6 +3533,7 @@ public class RedisClient {
 
     /**
      * 返回成员的有序集合在键比分
+     * 分数截断为整数，成员不存在时返回0；需要准确分数时请使用zscoreDouble
      *
      * @param key
      * @param member
@@ -2059,7 +3542,7 @@ public class RedisClient {
     public int zscore(String key, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
+            jedis = borrowRead("zscore", key);
             Double score = jedis.zscore(key, member);
             if (score != null) {
                 return score.intValue();
@@ -2077,6 +3560,7 @@ public class RedisClient {
 
     /**
      * 返回成员的有序集合在键比分
+     * 分数截断为整数，成员不存在时返回0；需要准确分数时请使用zscoreDouble
      *
      * @param key
      * @param o
@@ -2086,7 +3570,7 @@ public class RedisClient {
         Jedis jedis = null;
         try {
             String member = JacksonUtil.toJsonStr(o);
-            jedis = getJedis();
+            jedis = borrowRead("zscore", key);
             Double score = jedis.zscore(key, member);
             if (score != null) {
                 return score.intValue();
@@ -2102,35 +3586,446 @@ public class RedisClient {
     }
 
     /**
-     * 删除Redis中的所有key
+     * 添加成员或更新成员的分数
      *
-     * @throws Exception
+     * @param key    KEY
+     * @param score  分数
+     * @param member 成员
+     * @return 新增的成员数，执行失败返回null
      */
-    public void flushAll() {
+    public Long zadd(String key, double score, String member) {
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            jedis.flushAll();
+            jedis = borrow("zadd", key);
+            return jedis.zadd(key, score, member);
         } catch (Exception e) {
-            logger.error("\r\n ********* [Cache清空失败]" + ExceptionUtils.getFullStackTrace(e));
+            logger.error("\r\n ********* [添加有序集合成员失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
         } finally {
             releaseJedisInstance(jedis);
         }
     }
 
     /**
-     * 获取Redis中的数据量
+     * 批量添加成员或更新成员的分数，每批数量为配置的默认值
+     *
+     * @param key          KEY
+     * @param scoreMembers 成员 -> 分数
+     * @return 新增的成员数，执行失败返回null
      */
-    public Long dbSize() {
+    public Long zadd(String key, Map<String, Double> scoreMembers) {
+        return zadd(key, scoreMembers, RedisConfigConstant.PUSH_CHUNK_SIZE);
+    }
+
+    /**
+     * 批量添加成员或更新成员的分数
+     * 每批成员使用一条ZADD命令，所有批次在同一个连接上依次发送
+     *
+     * @param key          KEY
+     * @param scoreMembers 成员 -> 分数
+     * @param chunkSize    每条ZADD命令包含的成员数
+     * @return 新增的成员数，执行失败返回null
+     */
+    public Long zadd(String key, Map<String, Double> scoreMembers, int chunkSize) {
+        if (scoreMembers == null || scoreMembers.isEmpty()) {
+            return 0L;
+        }
         Jedis jedis = null;
         try {
-            jedis = getJedis();
-            return jedis.dbSize();
+            int size = Math.max(1, chunkSize);
+            jedis = borrow("zadd", key);
+            if (scoreMembers.size() <= size) {
+                return jedis.zadd(key, scoreMembers);
+            }
+            long added = 0L;
+            Map<String, Double> chunk = new HashMap<String, Double>(size * 4 / 3 + 1);
+            for (Map.Entry<String, Double> entry : scoreMembers.entrySet()) {
+                chunk.put(entry.getKey(), entry.getValue());
+                if (chunk.size() == size) {
+                    added += jedis.zadd(key, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                added += jedis.zadd(key, chunk);
+            }
+            return added;
         } catch (Exception e) {
-            logger.error("\r\n ********* [获取Redis数据量失败]" + ExceptionUtils.getFullStackTrace(e));
+            logger.error("\r\n ********* [批量添加有序集合成员失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 增加成员的分数，成员不存在时以0为初始分数
+     *
+     * @param key       KEY
+     * @param increment 增量
+     * @param member    成员
+     * @return 增加后的分数，执行失败返回null
+     */
+    public Double zincrBy(String key, double increment, String member) {
+        Jedis jedis = null;
+        try {
+            jedis = borrow("zincrBy", key);
+            return jedis.zincrby(key, increment, member);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [增加有序集合成员的分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 获取成员的分数
+     *
+     * @param key    KEY
+     * @param member 成员
+     * @return 分数，成员不存在或执行失败返回null
+     */
+    public Double zscoreDouble(String key, String member) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zscore", key);
+            return jedis.zscore(key, member);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取有序集合成员的分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 获取成员按分数从小到大的排名
+     *
+     * @param key    KEY
+     * @param member 成员
+     * @return 从0开始的排名，成员不存在或执行失败返回null
+     */
+    public Long zrank(String key, String member) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrank", key);
+            return jedis.zrank(key, member);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取有序集合成员的排名失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 获取成员按分数从大到小的排名
+     *
+     * @param key    KEY
+     * @param member 成员
+     * @return 从0开始的排名，成员不存在或执行失败返回null
+     */
+    public Long zrevrank(String key, String member) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrevrank", key);
+            return jedis.zrevrank(key, member);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取有序集合成员的排名失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 按排名区间获取成员和分数，按分数从小到大排列
+     *
+     * @param key   KEY
+     * @param start 起始排名，负数表示从末尾倒数
+     * @param end   结束排名（含），负数表示从末尾倒数
+     * @return 成员 -> 分数，按排名有序，执行失败返回null
+     */
+    public Map<String, Double> zrangeWithScores(String key, long start, long end) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrangeWithScores", key);
+            return toScoreMap(jedis.zrangeWithScores(key, start, end));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按排名获取有序集合成员和分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 按排名区间获取成员和分数，按分数从大到小排列
+     *
+     * @param key   KEY
+     * @param start 起始排名，负数表示从末尾倒数
+     * @param end   结束排名（含），负数表示从末尾倒数
+     * @return 成员 -> 分数，按排名有序，执行失败返回null
+     */
+    public Map<String, Double> zrevrangeWithScores(String key, long start, long end) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrevrangeWithScores", key);
+            return toScoreMap(jedis.zrevrangeWithScores(key, start, end));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按排名获取有序集合成员和分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 分页获取分数区间内的成员，按分数从小到大排列
+     *
+     * @param key    KEY
+     * @param min    最小分数（含）
+     * @param max    最大分数（含）
+     * @param offset 跳过的成员数
+     * @param count  返回的最大成员数，负数表示不限
+     * @return 成员集合，按分数有序，执行失败返回null
+     */
+    public Set<String> zrangeByScore(String key, double min, double max, int offset, int count) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrangeByScore", key);
+            return jedis.zrangeByScore(key, min, max, offset, count);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按分数获取有序集合成员失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 分页获取分数区间内的成员，按分数从大到小排列
+     *
+     * @param key    KEY
+     * @param max    最大分数（含）
+     * @param min    最小分数（含）
+     * @param offset 跳过的成员数
+     * @param count  返回的最大成员数，负数表示不限
+     * @return 成员集合，按分数有序，执行失败返回null
+     */
+    public Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrevrangeByScore", key);
+            return jedis.zrevrangeByScore(key, max, min, offset, count);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按分数获取有序集合成员失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 分页获取分数区间内的成员和分数，按分数从小到大排列
+     *
+     * @param key    KEY
+     * @param min    最小分数（含）
+     * @param max    最大分数（含）
+     * @param offset 跳过的成员数
+     * @param count  返回的最大成员数，负数表示不限
+     * @return 成员 -> 分数，按分数有序，执行失败返回null
+     */
+    public Map<String, Double> zrangeByScoreWithScores(String key, double min, double max, int offset, int count) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrangeByScoreWithScores", key);
+            return toScoreMap(jedis.zrangeByScoreWithScores(key, min, max, offset, count));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按分数获取有序集合成员和分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 分页获取分数区间内的成员和分数，按分数从大到小排列
+     *
+     * @param key    KEY
+     * @param max    最大分数（含）
+     * @param min    最小分数（含）
+     * @param offset 跳过的成员数
+     * @param count  返回的最大成员数，负数表示不限
+     * @return 成员 -> 分数，按分数有序，执行失败返回null
+     */
+    public Map<String, Double> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count) {
+        Jedis jedis = null;
+        try {
+            jedis = borrowRead("zrevrangeByScoreWithScores", key);
+            return toScoreMap(jedis.zrevrangeByScoreWithScores(key, max, min, offset, count));
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按分数获取有序集合成员和分数失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 删除分数区间内的成员
+     *
+     * @param key KEY
+     * @param min 最小分数（含）
+     * @param max 最大分数（含）
+     * @return 删除的成员数，执行失败返回null
+     */
+    public Long zremrangeByScore(String key, double min, double max) {
+        Jedis jedis = null;
+        try {
+            jedis = borrow("zremrangeByScore", key);
+            return jedis.zremrangeByScore(key, min, max);
+        } catch (Exception e) {
+            logger.error("\r\n ********* [按分数删除有序集合成员失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 把位图中的多个位设置为1
+     * 所有SETBIT命令在同一个连接的管道中发送，只有一次网络往返
+     *
+     * @param key     KEY
+     * @param offsets 位偏移量
+     * @return 原来为0的位数，执行失败返回null
+     */
+    public Long setbits(String key, long... offsets) {
+        if (offsets == null || offsets.length == 0) {
             return 0L;
+        }
+        Jedis jedis = null;
+        try {
+            jedis = borrow("setbits", key);
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Boolean>> responses = new ArrayList<Response<Boolean>>(offsets.length);
+            for (long offset : offsets) {
+                responses.add(pipeline.setbit(key, offset, true));
+            }
+            pipeline.sync();
+            long changed = 0L;
+            for (Response<Boolean> response : responses) {
+                if (!response.get()) {
+                    changed++;
+                }
+            }
+            return changed;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [设置位图失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
+        } finally {
+            releaseJedisInstance(jedis);
+        }
+    }
+
+    /**
+     * 获取位图中多个位的值
+     * 所有GETBIT命令在同一个连接的管道中发送，只有一次网络往返；
+     * 始终读取主节点，副本的复制延迟会让刚设置的位读取为0
+     *
+     * @param key     KEY
+     * @param offsets 位偏移量
+     * @return 与偏移量顺序一致的位的值，执行失败返回null
+     */
+    public List<Boolean> getbits(String key, long... offsets) {
+        if (offsets == null || offsets.length == 0) {
+            return new ArrayList<Boolean>();
+        }
+        Jedis jedis = null;
+        try {
+            jedis = borrow("getbits", redisPoolRegistry.getNode(SafeEncoder.encode(key)));
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Boolean>> responses = new ArrayList<Response<Boolean>>(offsets.length);
+            for (long offset : offsets) {
+                responses.add(pipeline.getbit(key, offset));
+            }
+            pipeline.sync();
+            List<Boolean> bits = new ArrayList<Boolean>(offsets.length);
+            for (Response<Boolean> response : responses) {
+                bits.add(response.get());
+            }
+            return bits;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [读取位图失败]" + ExceptionUtils.getFullStackTrace(e));
+            return null;
         } finally {
             releaseJedisInstance(jedis);
         }
     }
+
+    /**
+     * 把带分数的成员集合转换为保持顺序的成员 -> 分数
+     *
+     * @param tuples 成员和分数
+     * @return 成员 -> 分数
+     */
+    private static Map<String, Double> toScoreMap(Set<Tuple> tuples) {
+        Map<String, Double> result = new LinkedHashMap<String, Double>(tuples.size() * 4 / 3 + 1);
+        for (Tuple tuple : tuples) {
+            result.put(tuple.getElement(), tuple.getScore());
+        }
+        return result;
+    }
+
+    /**
+     * 删除Redis中的所有key，分片模式下清空所有节点
+     *
+     * @throws Exception
+     */
+    public void flushAll() {
+        try {
+            for (RedisNode node : redisPoolRegistry.getNodes()) {
+                Jedis jedis = null;
+                try {
+                    jedis = borrow("flushAll", node);
+                    jedis.flushAll();
+                    if (redisNearCache.isEnabled() && node.equals(redisPoolRegistry.getDefaultNode())) {
+                        redisNearCache.invalidateAll();
+                        jedis.publish(redisNearCache.getChannel(), redisNearCache.buildInvalidationMessage((String) null));
+                    }
+                } finally {
+                    releaseJedisInstance(jedis);
+                }
+            }
+            if (redisHotKeyDetector.isEnabled()) {
+                redisHotKeyDetector.invalidateAll();
+            }
+        } catch (Exception e) {
+            logger.error("\r\n ********* [Cache清空失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+    }
+
+    /**
+     * 获取Redis中的数据量，分片模式下为所有节点之和
+     */
+    public Long dbSize() {
+        try {
+            long size = 0L;
+            for (RedisNode node : redisPoolRegistry.getNodes()) {
+                Jedis jedis = null;
+                try {
+                    jedis = borrow("dbSize", node);
+                    size += jedis.dbSize();
+                } finally {
+                    releaseJedisInstance(jedis);
+                }
+            }
+            return size;
+        } catch (Exception e) {
+            logger.error("\r\n ********* [获取Redis数据量失败]" + ExceptionUtils.getFullStackTrace(e));
+            return 0L;
+        }
+    }
 }
@@ -0,0 +1,511 @@
+package com.project.frame.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.project.frame.utils.redis.RedisBatchConsumer;
+import com.project.frame.utils.redis.RedisScript;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis数据命令接口
+ * 业务代码和Redis工具类依赖此接口，默认由连接Redis服务的RedisClient实现；
+ * 启用local环境时由进程内的LocalRedisClient实现，适用于单节点部署和无Redis服务的基准测试
+ * 连接、管道、发布订阅和字节数组KEY等与Jedis绑定的方法只在RedisClient中提供
+ * 两种实现的失败处理一致：出错时记录日志，返回null、false或空集合，不抛出异常
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public interface RedisOperations {
+
+    /**
+     * 执行Lua脚本
+     * 进程内的LocalRedisClient不执行Lua，只支持RedisScripts中预定义的脚本；新增脚本需要同时在LocalRedisClient中等价实现
+     *
+     * @param script 脚本定义
+     * @param keys   KEY参数
+     * @param args   其他参数
+     * @return 按脚本声明类型转换后的返回值，执行失败返回null
+     * @throws UnsupportedOperationException LocalRedisClient执行未预定义的脚本，属于编程错误，不按执行失败处理
+     */
+    <T> T eval(RedisScript<T> script, List<String> keys, Object... args);
+
+    /**
+     * 计数器自增，首次创建时设置过期时间
+     *
+     * @param key    键
+     * @param delta  增量
+     * @param expire 过期时间，单位：秒
+     * @return 自增后的值，执行失败返回null
+     */
+    Long incrByAndExpire(String key, long delta, int expire);
+
+    /**
+     * 值与期望值相同时删除KEY
+     *
+     * @param key   键
+     * @param value 期望值
+     * @return 是否删除
+     */
+    boolean delIfEquals(String key, String value);
+
+    /**
+     * 值与期望值相同时重新设置过期时间
+     *
+     * @param key          键
+     * @param value        期望值
+     * @param milliseconds 过期时间，单位：毫秒
+     * @return 是否设置成功
+     */
+    boolean pexpireIfEquals(String key, String value, long milliseconds);
+
+    /**
+     * 存储byte类型的KEY和VALUE
+     * 对象KEY中String类型的KEY以UTF-8编码，其他类型的KEY使用Java序列化
+     */
+    boolean set(Object key, Object value);
+
+    /**
+     * 存储byte类型的KEY和VALUE并设置有效时间，单位：秒
+     */
+    boolean setAndExpire(Object key, Object value, int expire);
+
+    /**
+     * 获取byte类型KEY的value值
+     */
+    Object get(Object key);
+
+    /**
+     * 根据表达式获取byte类型的KEY
+     *
+     * @param key 表达式，byte[]类型直接作为匹配模式，其他类型按对象KEY编码
+     */
+    Set<byte[]> keys(Object key);
+
+    /**
+     * 构造匹配以指定前缀开头的byte类型KEY的表达式
+     */
+    byte[] objectKeyPattern(String prefix);
+
+    /**
+     * 惰性迭代匹配的byte类型KEY
+     */
+    Iterator<byte[]> scan(byte[] pattern);
+
+    /**
+     * 惰性迭代匹配的byte类型KEY，count为每批数量
+     */
+    Iterator<byte[]> scan(byte[] pattern, int count);
+
+    /**
+     * 惰性迭代匹配的String类型KEY
+     */
+    Iterator<String> scanString(String pattern);
+
+    /**
+     * 惰性迭代匹配的String类型KEY，count为每批数量
+     */
+    Iterator<String> scanString(String pattern, int count);
+
+    /**
+     * 惰性迭代匹配的byte类型KEY对应的value
+     */
+    Iterator<Object> scanValues(byte[] pattern);
+
+    /**
+     * 惰性迭代匹配的byte类型KEY对应的value，count为每批数量
+     */
+    Iterator<Object> scanValues(byte[] pattern, int count);
+
+    /**
+     * 设置byte类型的KEY缓存有效时间，单位：秒
+     */
+    boolean expire(Object key, int expire);
+
+    /**
+     * 删除byte类型的KEY
+     */
+    boolean del(Object key);
+
+    /**
+     * 批量删除byte类型的KEY
+     */
+    boolean del(Object... keys);
+
+    /**
+     * 批量获取byte类型KEY的value值，返回结果与keys顺序一致，不存在的KEY对应null
+     */
+    List<Object> mgetObject(List<?> keys);
+
+    /**
+     * 批量存储byte类型的KEY和VALUE并设置相同的有效时间，单位：秒
+     */
+    boolean msetAndExpire(Map<?, ?> keyValues, int expire);
+
+    /**
+     * 批量存储String类型的KEY和VALUE并设置相同的有效时间，单位：秒
+     */
+    boolean msetAndExpireString(Map<String, String> keyValues, int expire);
+
+    /**
+     * 批量删除byte类型的KEY，返回删除的数量
+     */
+    Long delObjects(Collection<?> keys);
+
+    /**
+     * 判断byte类型的KEY是否存在
+     */
+    boolean exists(Object key);
+
+    /**
+     * 存储String类型的KEY，JSON类型的VALUE
+     */
+    void setStringForObject(String key, Object o);
+
+    /**
+     * 存储String类型的KEY和VALUE
+     */
+    String setString(String key, String value);
+
+    /**
+     * 存储String类型的KEY和VALUE并设置有效时间，单位：秒
+     */
+    void setAndExpireString(String key, String v, int expire);
+
+    /**
+     * KEY不存在时存储，返回1表示成功，0表示KEY已存在，-1表示执行失败
+     */
+    long setnx(String key, String value);
+
+    /**
+     * KEY不存在时存储并设置有效时间，单位：秒；返回值同setnx
+     */
+    long setnxAndExpireString(String key, String value, int expire);
+
+    /**
+     * KEY不存在时存储并设置有效时间，单位：毫秒；返回值同setnx
+     */
+    long setnxAndPexpireString(String key, String value, long milliseconds);
+
+    /**
+     * 根据KEY获取JSON值并转换为特定类型
+     */
+    <T> T get(String key, TypeReference<T> clazz);
+
+    /**
+     * 根据KEY获取JSON值并转换为指定类型
+     */
+    <T> T get(String key, Class<T> clazz);
+
+    /**
+     * 获取String类型的值
+     */
+    String getString(String key);
+
+    /**
+     * 根据表达式获取String类型的KEY
+     */
+    List<String> keysString(String pattern);
+
+    /**
+     * 设置String类型的KEY缓存有效时间，单位：秒；返回1表示成功，0表示KEY不存在
+     */
+    Long expireString(String key, int seconds);
+
+    /**
+     * 批量删除String类型的KEY，返回删除的数量
+     */
+    Long delStrings(String... keys);
+
+    /**
+     * 判断String类型的KEY是否存在
+     */
+    boolean existsString(String key);
+
+    /**
+     * 批量获取String类型的值
+     */
+    List<String> mget(String... keys);
+
+    Long hlen(String key);
+
+    Long hset(String key, String field, String value);
+
+    /**
+     * 存储hash的field，value转换为JSON
+     */
+    Long hset(String key, String field, Object o);
+
+    /**
+     * field不存在时存储，value转换为JSON
+     */
+    Long hsetnx(String key, String field, Object o);
+
+    String hget(String key, String field);
+
+    <T> T hget(String key, String field, Class<T> clazz);
+
+    <T> T hget(String key, String field, TypeReference<T> tr);
+
+    String hmset(String key, Map<String, String> hash);
+
+    List<String> hmget(String key, String... fields);
+
+    <T> List<T> hmget(String key, Class<T> clazz, String... fields);
+
+    Map<String, String> hgetAll(String key);
+
+    <T> Map<String, T> hgetAll(String key, Class<T> clazz);
+
+    Boolean hexists(String key, String field);
+
+    Long hdel(String key, String field);
+
+    Long hincrBy(String key, String field, long value);
+
+    /**
+     * 惰性迭代hash的所有field和JSON值
+     */
+    <T> Iterator<Map.Entry<String, T>> hscan(String key, Class<T> clazz);
+
+    /**
+     * 惰性迭代hash的所有field和JSON值，count为每批数量，parallelism为解码并行度
+     */
+    <T> Iterator<Map.Entry<String, T>> hscan(String key, Class<T> clazz, int count, int parallelism);
+
+    Long rpush(String key, String string);
+
+    /**
+     * 从右侧插入，value转换为JSON
+     */
+    Long rpush(String key, Object o);
+
+    Long lpush(String key, String string);
+
+    /**
+     * 从左侧插入，value转换为JSON
+     */
+    Long lpush(String key, Object o);
+
+    /**
+     * 从左侧批量插入，value转换为JSON，返回插入后列表的长度
+     */
+    <T> Long lpush(String key, List<T> oList);
+
+    /**
+     * 从左侧批量插入，每批chunkSize个，返回插入后列表的长度
+     */
+    <T> Long lpush(String key, List<T> oList, int chunkSize);
+
+    /**
+     * 从右侧批量插入，value转换为JSON，返回插入后列表的长度
+     */
+    <T> Long rpush(String key, List<T> oList);
+
+    /**
+     * 从右侧批量插入，每批chunkSize个，返回插入后列表的长度
+     */
+    <T> Long rpush(String key, List<T> oList, int chunkSize);
+
+    Long llen(String key);
+
+    List<String> lrange(String key, int start, int end);
+
+    <T> List<T> lrange(String key, Class<T> clazz, int start, int end);
+
+    /**
+     * 获取列表区间内的JSON值，整体转换为特定类型
+     */
+    <T> T lrange(String key, int start, int end, TypeReference<T> clazz);
+
+    /**
+     * 从左侧批量弹出最多size个元素，列表为空时返回null
+     */
+    <T> List<T> lpop(String key, Class<T> clazz, int size);
+
+    /**
+     * 从右侧批量弹出最多size个元素，列表为空时返回null
+     */
+    <T> List<T> rpop(String key, Class<T> clazz, int size);
+
+    /**
+     * 从左侧分批弹出并消费，直到列表为空或消费者返回false，返回消费的元素数
+     */
+    <T> long consumeLeft(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer);
+
+    /**
+     * 从右侧分批弹出并消费，直到列表为空或消费者返回false，返回消费的元素数
+     */
+    <T> long consumeRight(String key, Class<T> clazz, int batchSize, RedisBatchConsumer<T> consumer);
+
+    String lpop(String key);
+
+    String rpop(String key);
+
+    Long lrem(String key, int count, String value);
+
+    String lindex(String key, int index);
+
+    String lset(String key, int index, String value);
+
+    void sadd(String key, String member);
+
+    void saddAll(String key, Set<String> members);
+
+    Set<String> smembers(String key);
+
+    Long srem(String key, String member);
+
+    String spop(String key);
+
+    List<String> srandmember(String key, int count);
+
+    Long srem(String key, List<String> members);
+
+    Long srem(String key, String... members);
+
+    Boolean sismember(String key, String member);
+
+    Long scard(String key);
+
+    /**
+     * 获取KEY的剩余有效时间，单位：秒；KEY不存在返回-2，没有有效时间返回-1
+     */
+    Long ttl(String key);
+
+    Long incr(String key);
+
+    Long incrBy(String key, long integer);
+
+    Long decr(String key);
+
+    Long decrBy(String key, long num);
+
+    Long zcard(String key);
+
+    Set<String> zrange(String key, int start, int end);
+
+    <T> Set<T> zrange(String key, Class<T> clazz, int start, int end);
+
+    Set<String> zrevrange(String key, int start, int end);
+
+    <T> Set<T> zrevrange(String key, Class<T> clazz, int start, int end);
+
+    Set<String> zrangeByScore(String key, Long min, Long max);
+
+    void zrem(String key, String member);
+
+    void zadd(String key, Long score, String member);
+
+    void zincrBy(String key, Long score, String member);
+
+    /**
+     * 增加成员的分数，成员转换为JSON
+     */
+    void zincrBy(String key, Long score, Object o);
+
+    void zremrangeByRank(String key, int start, int end);
+
+    void zremrangeByScore(String key, Long start, Long end);
+
+    int zscore(String key, String member);
+
+    /**
+     * 获取成员的分数，成员转换为JSON
+     */
+    int zscore(String key, Object o);
+
+    /**
+     * 添加成员或更新成员的分数，返回新增的成员数
+     */
+    Long zadd(String key, double score, String member);
+
+    /**
+     * 批量添加成员或更新成员的分数，每批数量为配置的默认值，返回新增的成员数
+     */
+    Long zadd(String key, Map<String, Double> scoreMembers);
+
+    /**
+     * 批量添加成员或更新成员的分数，每批chunkSize个成员一条ZADD命令，返回新增的成员数
+     */
+    Long zadd(String key, Map<String, Double> scoreMembers, int chunkSize);
+
+    /**
+     * 增加成员的分数，返回增加后的分数
+     */
+    Double zincrBy(String key, double increment, String member);
+
+    /**
+     * 获取成员的分数，成员不存在返回null
+     */
+    Double zscoreDouble(String key, String member);
+
+    /**
+     * 获取成员按分数从小到大的排名，成员不存在返回null
+     */
+    Long zrank(String key, String member);
+
+    /**
+     * 获取成员按分数从大到小的排名，成员不存在返回null
+     */
+    Long zrevrank(String key, String member);
+
+    /**
+     * 按排名区间获取成员和分数，按分数从小到大排列
+     */
+    Map<String, Double> zrangeWithScores(String key, long start, long end);
+
+    /**
+     * 按排名区间获取成员和分数，按分数从大到小排列
+     */
+    Map<String, Double> zrevrangeWithScores(String key, long start, long end);
+
+    /**
+     * 分页获取分数区间内的成员，按分数从小到大排列，count为负数表示不限
+     */
+    Set<String> zrangeByScore(String key, double min, double max, int offset, int count);
+
+    /**
+     * 分页获取分数区间内的成员，按分数从大到小排列，count为负数表示不限
+     */
+    Set<String> zrevrangeByScore(String key, double max, double min, int offset, int count);
+
+    /**
+     * 分页获取分数区间内的成员和分数，按分数从小到大排列，count为负数表示不限
+     */
+    Map<String, Double> zrangeByScoreWithScores(String key, double min, double max, int offset, int count);
+
+    /**
+     * 分页获取分数区间内的成员和分数，按分数从大到小排列，count为负数表示不限
+     */
+    Map<String, Double> zrevrangeByScoreWithScores(String key, double max, double min, int offset, int count);
+
+    /**
+     * 删除分数区间内的成员，返回删除的成员数
+     */
+    Long zremrangeByScore(String key, double min, double max);
+
+    /**
+     * 把位图中的多个位设置为1，返回原来为0的位数
+     */
+    Long setbits(String key, long... offsets);
+
+    /**
+     * 获取位图中多个位的值，与偏移量顺序一致
+     */
+    List<Boolean> getbits(String key, long... offsets);
+
+    /**
+     * 清空所有数据
+     */
+    void flushAll();
+
+    /**
+     * 获取KEY的数量
+     */
+    Long dbSize();
+}
@@ -18,6 +18,7 @@ public enum BASE_RESPONSE_CODE_ENUM {
     METHOD_NOT_SUPPORTED("405", "不支持的请求方法"),
     MEDIA_TYPE_NOT_ACCEPT("406", "无法接受请求中的媒体类型"),
     MEDIA_TYPE_NOT_SUPPORTED("415", "不支持的媒体类型"),
+    TOO_MANY_REQUESTS("429", "请求过于频繁，请稍后再试"),
     SERVER_ERROR("500", "获取数据异常"),
 
     /********************* 登录相关自定义异常 *****************/
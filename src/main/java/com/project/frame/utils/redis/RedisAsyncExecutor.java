@@ -0,0 +1,105 @@
+package com.project.frame.utils.redis;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步Redis调用使用的有界线程池
+ * 队列满时由提交任务的线程直接执行，既不丢弃任务也不会无限堆积；统计排队、执行和回退到调用线程的次数
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisAsyncExecutor implements Executor, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    // 任务排队等待时间累计和最大值，单位：纳秒
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    /**
+     * 构造线程池
+     *
+     * @param coreSize      核心线程数
+     * @param maxSize       最大线程数
+     * @param queueCapacity 等待队列容量
+     */
+    public RedisAsyncExecutor(int coreSize, int maxSize, int queueCapacity) {
+        final AtomicInteger index = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "redis-async-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        RejectedExecutionHandler rejectedHandler = (runnable, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Redis异步线程池已关闭");
+            }
+            callerRuns.increment();
+            runnable.run();
+        };
+        this.executor = new ThreadPoolExecutor(coreSize, Math.max(coreSize, maxSize), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory, rejectedHandler);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final long enqueuedAt = System.nanoTime();
+        submitted.increment();
+        executor.execute(() -> {
+            long waited = System.nanoTime() - enqueuedAt;
+            totalQueueNanos.add(waited);
+            maxQueueNanos.accumulateAndGet(waited, Math::max);
+            try {
+                command.run();
+            } finally {
+                completed.increment();
+            }
+        });
+    }
+
+    /**
+     * 获取线程池统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        long completedCount = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("activeCount", executor.getActiveCount());
+        stats.put("maxPoolSize", executor.getMaximumPoolSize());
+        stats.put("queueSize", executor.getQueue().size());
+        stats.put("queueRemaining", executor.getQueue().remainingCapacity());
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", completedCount);
+        stats.put("callerRuns", callerRuns.sum());
+        stats.put("avgQueueMillis", completedCount == 0 ? 0D : totalQueueNanos.sum() / 1e6 / completedCount);
+        stats.put("maxQueueMillis", maxQueueNanos.get() / 1e6);
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
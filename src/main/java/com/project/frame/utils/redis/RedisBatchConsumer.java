@@ -0,0 +1,23 @@
+package com.project.frame.utils.redis;
+
+import java.util.List;
+
+/**
+ * Redis列表批量消费回调接口
+ * 每批元素在Redis端原子弹出后一次性反序列化，再整体交给回调处理
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public interface RedisBatchConsumer<T> {
+
+    /**
+     * 处理一批元素
+     * 元素在回调前已从列表中移除，回调抛出异常时该批元素不会放回列表
+     *
+     * @param batch 本批元素，顺序与弹出顺序一致
+     * @return true继续消费下一批，false停止消费
+     * @throws Exception 处理过程中的异常，抛出后停止消费
+     */
+    boolean consume(List<T> batch) throws Exception;
+}
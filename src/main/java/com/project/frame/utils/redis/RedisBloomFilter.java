@@ -0,0 +1,461 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.RedisOperations;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import redis.clients.jedis.util.MurmurHash;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于Redis位图的布隆过滤器
+ * 位数和哈希函数个数按预计元素数量和误判率计算，KEY附加位数和哈希函数个数，调整容量后使用新的位图；
+ * 每个元素的k个位通过两个MurmurHash值双重哈希得到，设置和判断都在一次管道往返中完成
+ * 元素先去除首尾空白并转为小写再计算位置，判断、添加和重建使用同一规则
+ * 位图最后一位为就绪标记，从数据源完整加载后才设置；未就绪、Redis访问失败时判断结果均为可能存在，
+ * 过滤器只会减少查询，不会拒绝实际存在的元素
+ * 添加元素失败时清除就绪标记，所有节点回退为查询数据源，直到下一次重建完成；
+ * 重建先写入新的位图，完成后再替换当前位图，重建期间添加的元素同时写入两个位图；
+ * 除未就绪时触发外，所有节点每个重建间隔只定期重建一次，纳入不经过put写入数据源的元素并清除已删除的元素
+ * 位图、重建位图和租约KEY使用相同的hash tag，分片模式下位于同一节点
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisBloomFilter implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisBloomFilter.class);
+
+    // Redis位图最多2^32位，最后一位留作就绪标记
+    private static final long MAX_BITS = (1L << 32) - 1;
+
+    // 哈希函数个数上限
+    private static final int MAX_HASHES = 30;
+
+    private static final int SEED = 0x9747b28c;
+
+    // 位图格式版本，元素规范化或哈希方式变化时递增，使用新的位图并重建
+    private static final int FORMAT_VERSION = 2;
+
+    // 未就绪时两次触发重建的最小间隔，单位：毫秒
+    private static final long REBUILD_INTERVAL = 60000L;
+
+    private final RedisOperations redisClient;
+
+    private final boolean enabled;
+
+    // 位图KEY
+    private final String key;
+
+    // 正在重建的位图KEY
+    private final String buildingKey;
+
+    // 位图KEY和正在重建的位图KEY，作为脚本的KEY参数
+    private final List<String> scriptKeys;
+
+    // 位数，即就绪标记的偏移量
+    private final long bits;
+
+    // 哈希函数个数
+    private final int hashes;
+
+    // 重建租约KEY和当前节点的租约值
+    private final String rebuildKey;
+    private final String rebuildToken = UUID.randomUUID().toString();
+
+    // 定期重建的标记KEY，标记存在期间其他节点不再定期重建
+    private final String scheduleKey;
+
+    // 重建租约时间，单位：毫秒
+    private final long rebuildLeaseMillis;
+
+    // 定期重建的间隔，单位：毫秒
+    private final long rebuildIntervalMillis;
+
+    // 执行重建的后台线程
+    private final ScheduledExecutorService rebuilder;
+
+    // 从数据源加载全部元素
+    private volatile Loader loader;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile long lastRebuildAt;
+
+    // 写入失败的元素，写入成功前判断时视为可能存在
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // 写入失败后清除就绪标记也失败，需要在下一次访问Redis时重试
+    private volatile boolean invalidatePending;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+    private final LongAdder notReady = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder rebuildFailures = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 构造布隆过滤器
+     *
+     * @param redisClient        Redis客户端
+     * @param enabled            是否启用，未启用时判断结果均为可能存在
+     * @param keyPrefix          位图KEY前缀
+     * @param expectedInsertions 预计的元素数量
+     * @param fpp                期望的误判率
+     * @param rebuildLeaseMillis    重建租约时间，单位：毫秒
+     * @param rebuildIntervalMillis 定期重建的间隔，单位：毫秒，0表示不定期重建
+     */
+    public RedisBloomFilter(RedisOperations redisClient, boolean enabled, String keyPrefix, long expectedInsertions,
+                            double fpp, long rebuildLeaseMillis, long rebuildIntervalMillis) {
+        long n = Math.max(1L, expectedInsertions);
+        double p = Math.max(Double.MIN_VALUE, Math.min(fpp, 0.5D));
+        this.redisClient = redisClient;
+        this.enabled = enabled;
+        this.bits = Math.max(64L, Math.min(MAX_BITS, (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)))));
+        this.hashes = (int) Math.max(1L, Math.min(MAX_HASHES, Math.round((double) bits / n * Math.log(2))));
+        this.key = keyPrefix + "{" + bits + ":" + hashes + ":v" + FORMAT_VERSION + "}";
+        this.buildingKey = key + ":building";
+        this.scriptKeys = Arrays.asList(key, buildingKey);
+        this.rebuildKey = key + ":rebuild";
+        this.scheduleKey = key + ":schedule";
+        this.rebuildLeaseMillis = rebuildLeaseMillis;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-bloom-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置数据源，位图未就绪时在后台重建，并开始定期重建
+     *
+     * @param loader 从数据源加载全部元素，通过putAll写入
+     */
+    public void init(Loader loader) {
+        this.loader = loader;
+        if (!enabled) {
+            return;
+        }
+        if (!isReady()) {
+            rebuildAsync();
+        }
+        if (rebuildIntervalMillis > 0L) {
+            rebuilder.scheduleWithFixedDelay(this::scheduledRebuild, rebuildIntervalMillis, rebuildIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 判断位图是否已从数据源完整加载
+     *
+     * @return 是否就绪，Redis访问失败返回false
+     */
+    public boolean isReady() {
+        List<Boolean> ready = redisClient.getbits(key, bits);
+        return ready != null && ready.size() == 1 && ready.get(0);
+    }
+
+    /**
+     * 判断元素是否可能存在
+     * 位图未就绪时触发后台重建
+     *
+     * @param value 元素
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(String value) {
+        if (!enabled || value == null) {
+            return true;
+        }
+        value = normalize(value);
+        checks.increment();
+        retryPending();
+        if (pending.contains(value)) {
+            return true;
+        }
+        long[] offsets = offsets(value, hashes + 1);
+        offsets[hashes] = bits;
+        List<Boolean> result = redisClient.getbits(key, offsets);
+        if (result == null || result.size() != offsets.length) {
+            errors.increment();
+            return true;
+        }
+        if (!result.get(hashes)) {
+            notReady.increment();
+            rebuildAsync();
+            return true;
+        }
+        for (int i = 0; i < hashes; i++) {
+            if (!result.get(i)) {
+                rejects.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 添加元素，正在重建时同时写入重建的位图
+     * 写入失败时清除就绪标记，其他节点回退为查询数据源，直到下一次重建完成；
+     * 失败的元素同时记录在本地，之后每次判断和添加前重试，重试成功前本节点判断该元素时视为可能存在
+     *
+     * @param value 元素
+     */
+    public void put(String value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        value = normalize(value);
+        puts.increment();
+        retryPending();
+        if (!write(value)) {
+            pending.add(value);
+            invalidate();
+        }
+    }
+
+    /**
+     * 批量添加元素到正在重建的位图，所有位在一次管道往返中设置，供数据源加载时调用
+     *
+     * @param values 元素集合
+     * @throws IllegalStateException 写入失败
+     */
+    public void putAll(Collection<String> values) {
+        if (!enabled || values == null || values.isEmpty()) {
+            return;
+        }
+        long[] offsets = new long[values.size() * hashes];
+        int index = 0;
+        for (String value : values) {
+            if (value != null) {
+                System.arraycopy(offsets(normalize(value), hashes), 0, offsets, index, hashes);
+                index += hashes;
+            }
+        }
+        if (index < offsets.length) {
+            long[] trimmed = new long[index];
+            System.arraycopy(offsets, 0, trimmed, 0, index);
+            offsets = trimmed;
+        }
+        if (redisClient.setbits(buildingKey, offsets) == null) {
+            throw new IllegalStateException("写入布隆过滤器" + buildingKey + "失败");
+        }
+    }
+
+    /**
+     * 记录一次误判，即判断为可能存在但数据源中不存在，包括未就绪时的放行
+     */
+    public void recordFalsePositive() {
+        if (enabled) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * 规范化元素，去除首尾空白并转为小写
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 计算元素对应的位偏移量，第i个位置为h1 + i * h2对位数取模
+     */
+    private long[] offsets(String value, int count) {
+        byte[] bytes = SafeEncoder.encode(value);
+        long h1 = MurmurHash.hash64A(bytes, SEED);
+        long h2 = MurmurHash.hash64A(bytes, (int) h1);
+        long[] offsets = new long[count];
+        for (int i = 0; i < hashes; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bits);
+        }
+        return offsets;
+    }
+
+    /**
+     * 设置元素对应的位，正在重建时同时写入重建的位图
+     *
+     * @return 是否写入成功
+     */
+    private boolean write(String value) {
+        long[] offsets = offsets(value, hashes);
+        Object[] args = new Object[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            args[i] = offsets[i];
+        }
+        return redisClient.eval(RedisScripts.BLOOM_PUT, scriptKeys, args) != null;
+    }
+
+    /**
+     * 清除就绪标记并放弃正在进行的重建，失败时在下一次访问Redis时重试
+     */
+    private void invalidate() {
+        invalidatePending = redisClient.eval(RedisScripts.BLOOM_INVALIDATE, scriptKeys, bits) == null;
+        if (!invalidatePending) {
+            invalidations.increment();
+            logger.info("\r\n ********* 布隆过滤器【{}】写入失败，已清除就绪标记，等待重建", key);
+        }
+    }
+
+    /**
+     * 重试清除就绪标记和写入失败的元素
+     */
+    private void retryPending() {
+        if (invalidatePending) {
+            invalidate();
+            if (invalidatePending) {
+                return;
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (String value : pending) {
+            if (!write(value)) {
+                return;
+            }
+            pending.remove(value);
+        }
+    }
+
+    /**
+     * 在后台线程中重建位图，当前节点已在重建或距上次触发不足间隔时跳过
+     */
+    private void rebuildAsync() {
+        final Loader source = loader;
+        long now = System.currentTimeMillis();
+        if (source == null || now - lastRebuildAt < REBUILD_INTERVAL || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        lastRebuildAt = now;
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild(source);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.set(false);
+            logger.error("\r\n ********* [提交布隆过滤器" + key + "重建任务失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+    }
+
+    /**
+     * 定期重建，本间隔内其他节点已定期重建或当前节点正在重建时跳过
+     */
+    private void scheduledRebuild() {
+        Loader source = loader;
+        if (source == null || redisClient.setnxAndPexpireString(scheduleKey, rebuildToken, rebuildIntervalMillis) != 1) {
+            return;
+        }
+        if (rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuild(source);
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    /**
+     * 从数据源加载全部元素到新的位图，完成后替换当前位图，其他节点持有重建租约时跳过
+     * 新的位图在加载前先设置就绪标记，加载期间put同时写入新旧两个位图；
+     * 加载期间有元素写入失败时新的位图被放弃，替换失败，当前位图保持未就绪，等待下一次重建
+     */
+    private void rebuild(Loader source) {
+        if (redisClient.setnxAndPexpireString(rebuildKey, rebuildToken, rebuildLeaseMillis) != 1) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            redisClient.delStrings(buildingKey);
+            if (redisClient.setbits(buildingKey, bits) == null
+                    || !Long.valueOf(1L).equals(redisClient.expireString(buildingKey, (int) Math.max(1L, rebuildLeaseMillis / 1000L)))) {
+                throw new IllegalStateException("创建布隆过滤器" + buildingKey + "失败");
+            }
+            source.load(this);
+            if (!Boolean.TRUE.equals(redisClient.eval(RedisScripts.BLOOM_SWAP, scriptKeys, bits))) {
+                throw new IllegalStateException("重建期间布隆过滤器" + key + "写入失败或重建超时，放弃本次重建");
+            }
+            rebuilds.increment();
+            logger.info("\r\n ********* 布隆过滤器【{}】重建完成，耗时{}毫秒", key, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            rebuildFailures.increment();
+            logger.error("\r\n ********* [重建布隆过滤器" + key + "失败]" + ExceptionUtils.getFullStackTrace(e));
+        } finally {
+            redisClient.delIfEquals(rebuildKey, rebuildToken);
+        }
+    }
+
+    /**
+     * 获取过滤器统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("key", key);
+        stats.put("bits", bits);
+        stats.put("hashes", hashes);
+        stats.put("checks", checks.sum());
+        stats.put("rejects", rejects.sum());
+        stats.put("notReady", notReady.sum());
+        stats.put("errors", errors.sum());
+        stats.put("falsePositives", falsePositives.sum());
+        stats.put("puts", puts.sum());
+        stats.put("pending", pending.size());
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("rebuildFailures", rebuildFailures.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("invalidatePending", invalidatePending);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * 数据源加载接口
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * 加载全部元素，分批调用putAll写入
+         *
+         * @param filter 布隆过滤器
+         * @throws Exception 加载失败，不设置就绪标记
+         */
+        void load(RedisBloomFilter filter) throws Exception;
+    }
+}
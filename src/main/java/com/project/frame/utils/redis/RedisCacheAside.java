@@ -0,0 +1,216 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.RedisOperations;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 旁路缓存工具
+ * 缓存值连同软过期时间一起写入Redis，KEY的有效时间为硬过期时间；有效时间按比例随机抖动，同时写入的KEY不会同时过期
+ * 软过期之前直接返回缓存值；软过期之后、硬过期之前返回旧值，同时在后台刷新，同一个KEY在所有节点上同时只有一个刷新任务；
+ * 硬过期之后未命中，通过RedisSingleFlight合并加载
+ * 加载结果为null时不写入缓存
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCacheAside {
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheAside.class);
+
+    private final RedisOperations redisClient;
+
+    private final RedisSingleFlight redisSingleFlight;
+
+    // 执行后台刷新的线程池
+    private final Executor refreshExecutor;
+
+    // 有效时间的随机抖动比例
+    private final double jitter;
+
+    // 硬过期时间相对软过期时间延长的比例
+    private final double staleRatio;
+
+    // 后台刷新租约KEY前缀
+    private final String refreshKeyPrefix;
+
+    // 后台刷新租约时间，单位：毫秒
+    private final long refreshLeaseMillis;
+
+    // 当前节点正在刷新的KEY
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServes = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * 构造旁路缓存工具
+     *
+     * @param redisClient        Redis客户端
+     * @param redisSingleFlight  合并加载器
+     * @param refreshExecutor    执行后台刷新的线程池
+     * @param jitter             有效时间的随机抖动比例
+     * @param staleRatio         硬过期时间相对软过期时间延长的比例
+     * @param refreshKeyPrefix   后台刷新租约KEY前缀
+     * @param refreshLeaseMillis 后台刷新租约时间，单位：毫秒
+     */
+    public RedisCacheAside(RedisOperations redisClient, RedisSingleFlight redisSingleFlight, Executor refreshExecutor,
+                           double jitter, double staleRatio, String refreshKeyPrefix, long refreshLeaseMillis) {
+        this.redisClient = redisClient;
+        this.redisSingleFlight = redisSingleFlight;
+        this.refreshExecutor = refreshExecutor;
+        this.jitter = Math.max(0D, Math.min(jitter, 0.9D));
+        this.staleRatio = Math.max(0D, staleRatio);
+        this.refreshKeyPrefix = refreshKeyPrefix;
+        this.refreshLeaseMillis = refreshLeaseMillis;
+    }
+
+    /**
+     * 按比例随机抖动有效时间
+     *
+     * @param seconds 有效时间，单位：秒
+     * @param ratio   抖动比例，例如0.1表示在上下10%范围内随机
+     * @return 抖动后的有效时间，单位：秒，不小于1
+     */
+    public static int jitter(int seconds, double ratio) {
+        if (seconds <= 0 || ratio <= 0) {
+            return seconds;
+        }
+        double factor = 1D + ratio * (ThreadLocalRandom.current().nextDouble() * 2D - 1D);
+        return Math.max(1, (int) Math.round(seconds * factor));
+    }
+
+    /**
+     * 读取缓存，未命中时加载并写入缓存
+     *
+     * @param key        KEY
+     * @param ttlSeconds 软过期时间，单位：秒，实际值按比例随机抖动
+     * @param loader     加载函数
+     * @param <T>        值类型
+     * @return 缓存值或加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, int ttlSeconds, Supplier<T> loader) {
+        RedisCacheEntry entry = read(key);
+        if (entry != null) {
+            if (entry.isStale(System.currentTimeMillis())) {
+                staleServes.increment();
+                refreshAsync(key, ttlSeconds, loader);
+            } else {
+                hits.increment();
+            }
+            return (T) entry.getValue();
+        }
+        misses.increment();
+        return redisSingleFlight.loadShared(key, () -> {
+            RedisCacheEntry loaded = read(key);
+            return loaded == null ? null : (T) loaded.getValue();
+        }, () -> loadAndPut(key, ttlSeconds, loader));
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key        KEY
+     * @param value      缓存值
+     * @param ttlSeconds 软过期时间，单位：秒，实际值按比例随机抖动
+     */
+    public void put(String key, Object value, int ttlSeconds) {
+        long softMillis = Math.max(1L, Math.round(ttlSeconds * 1000D
+                * (1D + jitter * (ThreadLocalRandom.current().nextDouble() * 2D - 1D))));
+        int hardSeconds = (int) Math.max(1L, (long) Math.ceil(softMillis * (1D + staleRatio) / 1000D));
+        redisClient.setAndExpire(key, new RedisCacheEntry(value, System.currentTimeMillis() + softMillis), hardSeconds);
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key KEY
+     */
+    public void evict(String key) {
+        redisClient.del(key);
+    }
+
+    /**
+     * 读取缓存条目，不是RedisCacheEntry的旧数据视为未命中
+     */
+    private RedisCacheEntry read(String key) {
+        Object value = redisClient.get(key);
+        return value instanceof RedisCacheEntry ? (RedisCacheEntry) value : null;
+    }
+
+    /**
+     * 加载并写入缓存
+     */
+    private <T> T loadAndPut(String key, int ttlSeconds, Supplier<T> loader) {
+        loads.increment();
+        T value = loader.get();
+        if (value != null) {
+            put(key, value, ttlSeconds);
+        }
+        return value;
+    }
+
+    /**
+     * 在后台刷新缓存，当前节点已在刷新或其他节点持有刷新租约时跳过
+     * 刷新租约不主动删除，租约期间其他节点读取到的是刷新后的值
+     */
+    private <T> void refreshAsync(String key, int ttlSeconds, Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    if (redisClient.setnxAndPexpireString(refreshKeyPrefix + key, "1", refreshLeaseMillis) == 1) {
+                        loadAndPut(key, ttlSeconds, loader);
+                        refreshes.increment();
+                    }
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    logger.error("\r\n ********* [后台刷新缓存" + key + "失败]" + ExceptionUtils.getFullStackTrace(e));
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long staleCount = staleServes.sum();
+        long total = hitCount + staleCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("staleServes", staleCount);
+        stats.put("hitRate", total == 0 ? 0D : (double) (hitCount + staleCount) / total);
+        stats.put("loads", loads.sum());
+        stats.put("refreshing", refreshing.size());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("refreshFailures", refreshFailures.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.frame.utils.redis;
+
+import java.io.Serializable;
+
+/**
+ * RedisCacheAside写入Redis的缓存条目
+ * 保存缓存值和软过期时间，Redis中的KEY在硬过期时间删除；软过期之后、硬过期之前读取到的是可以继续使用的旧值
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = -4127783390413062580L;
+
+    // 缓存值
+    private Object value;
+
+    // 软过期时间，毫秒时间戳
+    private long softExpireAt;
+
+    private RedisCacheEntry() {
+    }
+
+    public RedisCacheEntry(Object value, long softExpireAt) {
+        this.value = value;
+        this.softExpireAt = softExpireAt;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getSoftExpireAt() {
+        return softExpireAt;
+    }
+
+    /**
+     * 判断是否已超过软过期时间
+     *
+     * @param now 当前时间
+     * @return boolean
+     */
+    public boolean isStale(long now) {
+        return now >= softExpireAt;
+    }
+}
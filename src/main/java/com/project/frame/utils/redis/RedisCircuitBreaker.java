@@ -0,0 +1,307 @@
+package com.project.frame.utils.redis;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis熔断器
+ * 关闭状态下按滑动窗口统计最近若干次调用的失败率，超过阈值后打开；打开期间直接拒绝调用，
+ * 到期后进入半开状态放行少量探测调用，探测全部成功则关闭，任一失败则重新打开
+ * 打开时在后台线程中重建连接池，请求线程不参与重建
+ * 状态和滑动窗口都通过原子变量维护，每次Redis调用不需要获取锁
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCircuitBreaker implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // 滑动窗口大小
+    private final int windowSize;
+
+    // 开始计算失败率所需的最少调用次数
+    private final int minimumCalls;
+
+    // 失败率阈值，百分比
+    private final int failureRateThreshold;
+
+    // 打开状态持续时间，单位：毫秒
+    private final long openDurationMillis;
+
+    // 半开状态放行的探测调用次数
+    private final int halfOpenCalls;
+
+    // 打开时执行的操作
+    private final Runnable onOpen;
+
+    // 执行打开操作的后台线程
+    private final ExecutorService background;
+
+    // 滑动窗口槽位的取值
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    // 滑动窗口，按调用序号循环写入，计数随每个槽位的原子替换增减，不需要加锁
+    private final AtomicIntegerArray window;
+    private final AtomicLong windowCursor = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger windowFailures = new AtomicInteger();
+
+    // 当前阶段，每次状态切换替换为新的阶段对象，通过CAS保证只有一个线程完成切换
+    private final AtomicReference<Phase> phase = new AtomicReference<Phase>(new Phase(State.CLOSED, 0));
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder openCount = new LongAdder();
+    private final LongAdder halfOpenCount = new LongAdder();
+    private final LongAdder closeCount = new LongAdder();
+
+    /**
+     * 构造熔断器
+     *
+     * @param windowSize           滑动窗口大小
+     * @param minimumCalls         开始计算失败率所需的最少调用次数
+     * @param failureRateThreshold 失败率阈值，百分比
+     * @param openDurationMillis   打开状态持续时间，单位：毫秒
+     * @param halfOpenCalls        半开状态放行的探测调用次数
+     * @param onOpen               打开时在后台执行的操作，可以为null
+     */
+    public RedisCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openDurationMillis,
+                               int halfOpenCalls, Runnable onOpen) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onOpen = onOpen;
+        this.window = new AtomicIntegerArray(this.windowSize);
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-circuit-breaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 判断是否允许本次调用，不允许时调用方应直接失败
+     * 关闭状态下只读取一次当前阶段
+     *
+     * @return boolean
+     */
+    public boolean allowRequest() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - current.since < openDurationMillis) {
+                        rejections.increment();
+                        return false;
+                    }
+                    transition(current, State.HALF_OPEN);
+                    break;
+                default:
+                    int permits = current.permits.get();
+                    if (permits <= 0) {
+                        rejections.increment();
+                        return false;
+                    }
+                    if (current.permits.compareAndSet(permits, permits - 1)) {
+                        return true;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public void onSuccess() {
+        successes.increment();
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            if (current.successes.incrementAndGet() >= halfOpenCalls) {
+                transition(current, State.CLOSED);
+            }
+        } else if (current.state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * 记录一次失败调用
+     */
+    public void onFailure() {
+        failures.increment();
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            transition(current, State.OPEN);
+        } else if (current.state == State.CLOSED) {
+            record(true);
+            int count = windowCount.get();
+            if (count >= minimumCalls && windowFailures.get() * 100L >= (long) failureRateThreshold * count) {
+                transition(current, State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 放行后未实际执行的调用，例如连接池耗尽，不计入成功或失败；半开状态下归还探测名额
+     */
+    public void onIgnored() {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.permits.incrementAndGet();
+        }
+    }
+
+    /**
+     * 把调用结果写入滑动窗口，覆盖最早的结果
+     *
+     * @param failed 是否失败
+     */
+    private void record(boolean failed) {
+        int slot = (int) (windowCursor.getAndIncrement() % windowSize);
+        update(window.getAndSet(slot, failed ? FAILURE : SUCCESS), failed ? FAILURE : SUCCESS);
+    }
+
+    /**
+     * 按槽位的原值和新值调整窗口计数
+     */
+    private void update(int previous, int current) {
+        if (previous == EMPTY && current != EMPTY) {
+            windowCount.incrementAndGet();
+        } else if (previous != EMPTY && current == EMPTY) {
+            windowCount.decrementAndGet();
+        }
+        if (previous == FAILURE) {
+            windowFailures.decrementAndGet();
+        }
+        if (current == FAILURE) {
+            windowFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * 从指定阶段切换状态，阶段已被其他线程切换时不做任何操作
+     *
+     * @param expected 切换前的阶段
+     * @param target   目标状态
+     */
+    private void transition(Phase expected, State target) {
+        Phase next = new Phase(target, halfOpenCalls);
+        if (!phase.compareAndSet(expected, next)) {
+            return;
+        }
+        switch (target) {
+            case OPEN:
+                openCount.increment();
+                if (onOpen != null) {
+                    background.execute(this::runOnOpen);
+                }
+                break;
+            case HALF_OPEN:
+                halfOpenCount.increment();
+                break;
+            default:
+                for (int i = 0; i < windowSize; i++) {
+                    update(window.getAndSet(i, EMPTY), EMPTY);
+                }
+                closeCount.increment();
+                break;
+        }
+        logger.warn("\r\n ********* Redis熔断器状态变化：【{}】->【{}】", expected.state, target);
+    }
+
+    /**
+     * 执行打开操作，忽略异常
+     */
+    private void runOnOpen() {
+        try {
+            onOpen.run();
+        } catch (Exception e) {
+            logger.error("\r\n ********* [Redis熔断器后台操作失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+    }
+
+    /**
+     * 获取当前状态
+     *
+     * @return 状态
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * 获取熔断器统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Phase current = phase.get();
+        int count = windowCount.get();
+        int failed = windowFailures.get();
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("state", current.state.name());
+        stats.put("stateChangedAt", current.since);
+        stats.put("windowCalls", count);
+        stats.put("windowFailures", failed);
+        stats.put("failureRate", count == 0 ? 0D : failed * 100D / count);
+        stats.put("successes", successes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("openCount", openCount.sum());
+        stats.put("halfOpenCount", halfOpenCount.sum());
+        stats.put("closeCount", closeCount.sum());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        background.shutdownNow();
+    }
+
+    /**
+     * 熔断器阶段，包括状态、进入时间以及半开状态的探测名额和成功次数
+     */
+    private static final class Phase {
+
+        final State state;
+
+        final long since = System.currentTimeMillis();
+
+        final AtomicInteger permits;
+
+        final AtomicInteger successes = new AtomicInteger();
+
+        Phase(State state, int permits) {
+            this.state = state;
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+}
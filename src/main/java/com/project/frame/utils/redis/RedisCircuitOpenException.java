@@ -0,0 +1,23 @@
+package com.project.frame.utils.redis;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Redis熔断器打开时快速失败抛出的异常
+ * 熔断期间调用频繁，不填充堆栈以降低开销
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCircuitOpenException extends JedisConnectionException {
+    private static final long serialVersionUID = -6152984725631045672L;
+
+    public RedisCircuitOpenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.frame.utils.redis;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 过期时间轮
+ * 时间轮由若干个槽组成，每个槽对应一个时间刻度，到期时间按刻度放入对应的槽，超过一圈的到期时间在转到该槽时放回等待下一圈；
+ * 每个刻度只处理一个槽，添加和处理的开销与总的定时数量无关
+ * 时间轮不支持取消，到期回调自行判断定时是否仍然有效
+ *
+ * @param <T> 定时对象类型
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisExpiryWheel<T> implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisExpiryWheel.class);
+
+    // 时间刻度，单位：毫秒
+    private final long tickMillis;
+
+    // 槽，下标为到期时间所在刻度对槽数取模
+    private final Queue<Timeout<T>>[] buckets;
+
+    // 到期回调，参数为定时对象和到期时间
+    private final ObjLongConsumer<T> onExpire;
+
+    // 已处理到的刻度，刻度结束后才处理，保证槽中属于本圈的定时都已到期
+    private volatile long processedTick;
+
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * 构造过期时间轮
+     *
+     * @param tickMillis 时间刻度，单位：毫秒
+     * @param wheelSize  槽的个数
+     * @param onExpire   到期回调，参数为定时对象和到期时间
+     */
+    @SuppressWarnings("unchecked")
+    public RedisExpiryWheel(long tickMillis, int wheelSize, ObjLongConsumer<T> onExpire) {
+        this.tickMillis = Math.max(1L, tickMillis);
+        this.buckets = new Queue[Math.max(1, wheelSize)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<Timeout<T>>();
+        }
+        this.onExpire = onExpire;
+        this.processedTick = System.currentTimeMillis() / this.tickMillis - 1;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 添加定时，到期时间所在刻度已处理过时放入下一个待处理的刻度
+     *
+     * @param target   定时对象
+     * @param expireAt 到期时间，毫秒时间戳
+     */
+    public void schedule(T target, long expireAt) {
+        long tick = Math.max(expireAt / tickMillis, processedTick + 1);
+        buckets[(int) Math.floorMod(tick, (long) buckets.length)].add(new Timeout<T>(target, expireAt));
+    }
+
+    /**
+     * 处理上次处理之后到当前时间之间已结束的所有刻度
+     */
+    private void tick() {
+        long now = System.currentTimeMillis();
+        long lastTick = now / tickMillis - 1;
+        // 停顿很久时最多转一圈
+        long from = Math.max(processedTick + 1, lastTick - buckets.length + 1);
+        for (long tick = from; tick <= lastTick; tick++) {
+            Queue<Timeout<T>> bucket = buckets[(int) Math.floorMod(tick, (long) buckets.length)];
+            List<Timeout<T>> pending = new ArrayList<Timeout<T>>();
+            Timeout<T> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.expireAt > now) {
+                    pending.add(timeout);
+                    continue;
+                }
+                try {
+                    onExpire.accept(timeout.target, timeout.expireAt);
+                } catch (RuntimeException e) {
+                    logger.error("\r\n ********* [处理到期KEY失败]" + ExceptionUtils.getFullStackTrace(e));
+                }
+            }
+            bucket.addAll(pending);
+        }
+        processedTick = Math.max(processedTick, lastTick);
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * 定时
+     */
+    private static final class Timeout<T> {
+
+        final T target;
+
+        final long expireAt;
+
+        Timeout(T target, long expireAt) {
+            this.target = target;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.frame.utils.redis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶的直方图
+ * 记录值落入的区间计数、总数、总和和最大值，分位数按所在区间的上界估算
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisHistogram {
+
+    /**
+     * 耗时分桶上界，单位：微秒
+     */
+    public static final long[] LATENCY_BOUNDS = {50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000,
+            100000, 250000, 500000, 1000000};
+
+    /**
+     * 数据大小分桶上界，单位：字节
+     */
+    public static final long[] SIZE_BOUNDS = {64, 256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304};
+
+    // 各区间上界（包含），最后一个区间没有上界
+    private final long[] bounds;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public RedisHistogram(long[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一个值
+     *
+     * @param value 值
+     */
+    public void record(long value) {
+        int index = 0;
+        while (index < bounds.length && value > bounds[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 获取记录的总数
+     *
+     * @return 总数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 获取直方图快照
+     *
+     * @return 总数、平均值、最大值、分位数估算值和各区间计数，区间以上界为名称，"+Inf"表示最后一个区间
+     */
+    public Map<String, Object> snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        long total = count.sum();
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("count", total);
+        result.put("mean", total == 0 ? 0D : (double) sum.sum() / total);
+        result.put("max", max.get());
+        result.put("p50", percentile(counts, total, 0.50));
+        result.put("p95", percentile(counts, total, 0.95));
+        result.put("p99", percentile(counts, total, 0.99));
+        Map<String, Long> distribution = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < counts.length; i++) {
+            distribution.put(i < bounds.length ? String.valueOf(bounds[i]) : "+Inf", counts[i]);
+        }
+        result.put("buckets", distribution);
+        return result;
+    }
+
+    /**
+     * 按区间上界估算分位数，落在最后一个区间时返回最大值
+     */
+    private long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                return i < bounds.length ? Math.min(bounds[i], max.get()) : max.get();
+            }
+        }
+        return max.get();
+    }
+}
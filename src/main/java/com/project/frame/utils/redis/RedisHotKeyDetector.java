@@ -0,0 +1,373 @@
+package com.project.frame.utils.redis;
+
+import org.springframework.beans.factory.DisposableBean;
+import redis.clients.jedis.util.Hashing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis热点KEY探测和本地缓存
+ * 按采样率抽样记录RedisClient.get读取的KEY，计数保存在滑动窗口的Count-Min Sketch中，窗口由若干个时间片组成，
+ * 每个时间片结束时清空最旧的时间片；估算的QPS超过阈值的KEY被提升为热点KEY，其value在本地缓存很短的时间，
+ * 窗口内不再达到阈值的KEY自动降级
+ * 本节点写入或删除KEY时立即丢弃本地副本，其他节点的写入最多在本地缓存时间内不可见，因此本地缓存时间应很短
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisHotKeyDetector implements DisposableBean {
+
+    // Count-Min Sketch的行数，即哈希函数个数
+    private static final int DEPTH = 4;
+
+    // 是否启用
+    private final boolean enabled;
+
+    // 采样率，每sampleRate次读取记录一次
+    private final int sampleRate;
+
+    // Count-Min Sketch每行的计数器个数
+    private final int width;
+
+    // 滑动窗口长度，单位：毫秒
+    private final long windowMillis;
+
+    // 热点KEY的QPS阈值
+    private final double threshold;
+
+    // 热点KEY的本地缓存时间，单位：毫秒
+    private final long ttlMillis;
+
+    // 最多同时提升的热点KEY数量
+    private final int maxKeys;
+
+    // 统计报告中列出的KEY数量
+    private final int topSize;
+
+    // 每个时间片一组计数器，按时间片轮换
+    private final AtomicIntegerArray[] slots;
+
+    // 当前写入的时间片
+    private volatile int current;
+
+    // 估算QPS达到阈值一定比例的候选KEY，用于统计报告
+    private final Map<String, Long> candidates = new ConcurrentHashMap<String, Long>();
+
+    // 已提升的热点KEY
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<String, HotKey>();
+
+    // 版本号序列，热点KEY创建和失效时从中取得新的版本号，不同热点KEY对象的版本号不会重复
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    // 轮换时间片的线程
+    private final ScheduledExecutorService rotator;
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+    private final LongAdder rejectedPromotions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 构造热点KEY探测器
+     *
+     * @param enabled       是否启用
+     * @param sampleRate    采样率，每sampleRate次读取记录一次
+     * @param width         Count-Min Sketch每行的计数器个数
+     * @param windowSeconds 滑动窗口长度，单位：秒
+     * @param slotCount     滑动窗口的时间片个数
+     * @param threshold     热点KEY的QPS阈值
+     * @param ttlMillis     热点KEY的本地缓存时间，单位：毫秒
+     * @param maxKeys       最多同时提升的热点KEY数量
+     * @param topSize       统计报告中列出的KEY数量
+     */
+    public RedisHotKeyDetector(boolean enabled, int sampleRate, int width, int windowSeconds, int slotCount,
+                               double threshold, long ttlMillis, int maxKeys, int topSize) {
+        this.enabled = enabled && windowSeconds > 0 && threshold > 0 && maxKeys > 0;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.width = Math.max(64, width);
+        this.windowMillis = Math.max(1, windowSeconds) * 1000L;
+        this.threshold = threshold;
+        this.ttlMillis = ttlMillis;
+        this.maxKeys = maxKeys;
+        this.topSize = topSize;
+        this.slots = new AtomicIntegerArray[Math.max(2, slotCount)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new AtomicIntegerArray(DEPTH * this.width);
+        }
+        this.rotator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-hot-key-rotator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.enabled) {
+            long slotMillis = Math.max(1L, this.windowMillis / slots.length);
+            this.rotator.scheduleAtFixedRate(this::rotate, slotMillis, slotMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次读取，按采样率抽样计数，达到阈值时提升为热点KEY
+     *
+     * @param key KEY
+     */
+    public void record(String key) {
+        if (!enabled || sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        sampled.increment();
+        AtomicIntegerArray slot = slots[current];
+        int[] indexes = indexes(key);
+        for (int index : indexes) {
+            slot.addAndGet(index, sampleRate);
+        }
+        long estimate = estimate(indexes);
+        double qps = estimate * 1000D / windowMillis;
+        if (qps >= threshold) {
+            promote(key);
+        }
+        if (qps >= threshold / 4 && (candidates.containsKey(key) || candidates.size() < topSize * 8)) {
+            candidates.put(key, estimate);
+        }
+    }
+
+    /**
+     * 获取热点KEY的本地副本
+     *
+     * @param key KEY
+     * @return 编码后的值，不是热点KEY或已过期时返回null
+     */
+    public byte[] get(String key) {
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey == null) {
+            return null;
+        }
+        byte[] value = hotKey.value;
+        if (value == null || hotKey.loadedAt + ttlMillis <= System.currentTimeMillis()) {
+            return null;
+        }
+        hits.increment();
+        return value;
+    }
+
+    /**
+     * 获取KEY当前的版本号，从Redis读取前调用，写回本地时传入
+     *
+     * @param key KEY
+     * @return 版本号，不是热点KEY时返回-1
+     */
+    public long currentVersion(String key) {
+        HotKey hotKey = hotKeys.get(key);
+        return hotKey == null ? -1L : hotKey.version;
+    }
+
+    /**
+     * 把从Redis读取的热点KEY的值放入本地缓存，不是热点KEY或读取期间该KEY发生过失效时放弃写入
+     * 只有对同一个KEY的写入会使读取结果作废，其他KEY的写入不影响
+     *
+     * @param key           KEY
+     * @param value         编码后的值
+     * @param loadedVersion 读取前的版本号
+     */
+    public void put(String key, byte[] value, long loadedVersion) {
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey == null || value == null) {
+            return;
+        }
+        synchronized (hotKey) {
+            if (hotKey.version == loadedVersion) {
+                hotKey.value = value;
+                hotKey.loadedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * 丢弃热点KEY的本地副本，并使该KEY正在进行的读取结果作废
+     *
+     * @param key KEY
+     */
+    public void invalidate(String key) {
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey != null) {
+            synchronized (hotKey) {
+                hotKey.version = versionSequence.incrementAndGet();
+                hotKey.value = null;
+            }
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * 丢弃全部热点KEY的本地副本
+     */
+    public void invalidateAll() {
+        for (HotKey hotKey : hotKeys.values()) {
+            synchronized (hotKey) {
+                hotKey.version = versionSequence.incrementAndGet();
+                hotKey.value = null;
+            }
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * 提升为热点KEY，已提升的KEY延长保留时间
+     *
+     * @param key KEY
+     */
+    private void promote(String key) {
+        long now = System.currentTimeMillis();
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey != null) {
+            hotKey.hotAt = now;
+            return;
+        }
+        if (hotKeys.size() >= maxKeys) {
+            rejectedPromotions.increment();
+            return;
+        }
+        if (hotKeys.putIfAbsent(key, new HotKey(now, versionSequence.incrementAndGet())) == null) {
+            promotions.increment();
+        }
+    }
+
+    /**
+     * 估算窗口内的读取次数，取各行在所有时间片上计数之和的最小值
+     *
+     * @param indexes 各行的计数器下标
+     * @return 估算的读取次数
+     */
+    private long estimate(int[] indexes) {
+        long min = Long.MAX_VALUE;
+        for (int index : indexes) {
+            long sum = 0L;
+            for (AtomicIntegerArray slot : slots) {
+                sum += slot.get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * 计算KEY在各行的计数器下标
+     * 每行对64位哈希值加上不同的常量后重新混合，各行下标相互独立，不同KEY在所有行同时冲突的概率约为width的DEPTH次方分之一
+     *
+     * @param key KEY
+     * @return 各行的计数器下标
+     */
+    private int[] indexes(String key) {
+        long hash = Hashing.MURMUR_HASH.hash(key);
+        int[] indexes = new int[DEPTH];
+        for (int row = 0; row < DEPTH; row++) {
+            long x = hash + (row + 1) * 0x9E3779B97F4A7C15L;
+            x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+            x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            x ^= x >>> 33;
+            indexes[row] = row * width + (int) ((x & Long.MAX_VALUE) % width);
+        }
+        return indexes;
+    }
+
+    /**
+     * 轮换时间片：清空最旧的时间片作为新的当前时间片，降级窗口内未再达到阈值的热点KEY，刷新候选KEY的计数
+     */
+    private void rotate() {
+        int next = (current + 1) % slots.length;
+        slots[next] = new AtomicIntegerArray(DEPTH * width);
+        current = next;
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, HotKey> entry : hotKeys.entrySet()) {
+            if (now - entry.getValue().hotAt > windowMillis) {
+                hotKeys.remove(entry.getKey());
+                demotions.increment();
+            }
+        }
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            long estimate = estimate(indexes(entry.getKey()));
+            if (estimate * 1000D / windowMillis < threshold / 4) {
+                candidates.remove(entry.getKey());
+            } else {
+                entry.setValue(estimate);
+            }
+        }
+    }
+
+    /**
+     * 获取热点KEY统计信息，包括按估算QPS排序的前若干个KEY
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        List<Map.Entry<String, Long>> sorted = new ArrayList<Map.Entry<String, Long>>(candidates.entrySet());
+        sorted.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        List<Map<String, Object>> top = new ArrayList<Map<String, Object>>();
+        for (Map.Entry<String, Long> entry : sorted.subList(0, Math.min(topSize, sorted.size()))) {
+            Map<String, Object> item = new LinkedHashMap<String, Object>();
+            item.put("key", entry.getKey());
+            item.put("qps", Math.round(entry.getValue() * 1000D / windowMillis));
+            item.put("promoted", hotKeys.containsKey(entry.getKey()));
+            top.add(item);
+        }
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("threshold", threshold);
+        stats.put("hotKeys", hotKeys.size());
+        stats.put("candidates", candidates.size());
+        stats.put("sampled", sampled.sum());
+        stats.put("hits", hits.sum());
+        stats.put("promotions", promotions.sum());
+        stats.put("demotions", demotions.sum());
+        stats.put("rejectedPromotions", rejectedPromotions.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("top", top);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        rotator.shutdownNow();
+    }
+
+    /**
+     * 热点KEY及其本地副本
+     */
+    private static final class HotKey {
+
+        // 最近一次达到阈值的时间
+        volatile long hotAt;
+
+        // 编码后的值，未加载或已失效时为null
+        volatile byte[] value;
+
+        // 本地副本的加载时间
+        volatile long loadedAt;
+
+        // 版本号，该KEY每次失效时更新，在对象锁内修改
+        volatile long version;
+
+        HotKey(long hotAt, long version) {
+            this.hotAt = hotAt;
+            this.version = version;
+        }
+    }
+}
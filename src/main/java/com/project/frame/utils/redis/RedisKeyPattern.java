@@ -0,0 +1,143 @@
+package com.project.frame.utils.redis;
+
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Redis KEY匹配模式
+ * 构造SCAN使用的匹配模式，并在进程内按与Redis相同的规则匹配：*匹配任意字节串，?匹配单个字节，
+ * [abc]、[^abc]、[a-z]匹配字节集合，\转义下一个字节
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public final class RedisKeyPattern {
+
+    private RedisKeyPattern() {
+    }
+
+    /**
+     * 构造匹配以指定前缀开头的对象KEY的表达式，String类型的对象KEY以UTF-8编码
+     *
+     * @param prefix KEY前缀
+     * @return 匹配模式
+     */
+    public static byte[] prefix(String prefix) {
+        return SafeEncoder.encode(escape(prefix) + "*");
+    }
+
+    /**
+     * 构造匹配Java序列化编码的旧String类型KEY的表达式
+     * 旧KEY的前5个字节为序列化头和字符串标记，随后2个字节为长度，再之后才是字符内容；
+     * 以*开头的模式已经能匹配旧KEY，已经是旧KEY格式的模式无需转换，均返回null
+     *
+     * @param pattern UTF-8编码的匹配模式
+     * @return 旧KEY的匹配模式，无需额外匹配时返回null
+     */
+    public static byte[] legacy(byte[] pattern) {
+        if (pattern == null || pattern.length == 0 || pattern[0] == '*' || pattern[0] == (byte) 0xAC) {
+            return null;
+        }
+        byte[] header = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x74, '?', '?'};
+        byte[] legacy = new byte[header.length + pattern.length];
+        System.arraycopy(header, 0, legacy, 0, header.length);
+        System.arraycopy(pattern, 0, legacy, header.length, pattern.length);
+        return legacy;
+    }
+
+    /**
+     * 转义匹配模式中的通配字符
+     *
+     * @param str 字符串
+     * @return 转义后的字符串
+     */
+    public static String escape(String str) {
+        StringBuilder sb = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 判断KEY是否匹配模式
+     *
+     * @param pattern 匹配模式
+     * @param key     KEY
+     * @return boolean
+     */
+    public static boolean matches(byte[] pattern, byte[] key) {
+        return matches(pattern, 0, key, 0);
+    }
+
+    private static boolean matches(byte[] pattern, int p, byte[] key, int k) {
+        while (p < pattern.length) {
+            byte c = pattern[p];
+            if (c == '*') {
+                while (p + 1 < pattern.length && pattern[p + 1] == '*') {
+                    p++;
+                }
+                if (p + 1 == pattern.length) {
+                    return true;
+                }
+                for (int i = k; i <= key.length; i++) {
+                    if (matches(pattern, p + 1, key, i)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (k >= key.length) {
+                return false;
+            }
+            if (c == '?') {
+                p++;
+                k++;
+                continue;
+            }
+            if (c == '[') {
+                p++;
+                boolean not = p < pattern.length && pattern[p] == '^';
+                if (not) {
+                    p++;
+                }
+                boolean match = false;
+                while (p < pattern.length && pattern[p] != ']') {
+                    if (pattern[p] == '\\' && p + 1 < pattern.length) {
+                        p++;
+                        match |= pattern[p] == key[k];
+                    } else if (p + 2 < pattern.length && pattern[p + 1] == '-') {
+                        int start = pattern[p] & 0xFF;
+                        int end = pattern[p + 2] & 0xFF;
+                        int value = key[k] & 0xFF;
+                        match |= value >= Math.min(start, end) && value <= Math.max(start, end);
+                        p += 2;
+                    } else {
+                        match |= pattern[p] == key[k];
+                    }
+                    p++;
+                }
+                if (match == not) {
+                    return false;
+                }
+                // 跳过]
+                p++;
+                k++;
+                continue;
+            }
+            if (c == '\\' && p + 1 < pattern.length) {
+                p++;
+                c = pattern[p];
+            }
+            if (c != key[k]) {
+                return false;
+            }
+            p++;
+            k++;
+        }
+        return k == key.length;
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.frame.utils.redis;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Redis分布式锁的持有凭证
+ * 由RedisLockManager在获取锁成功时创建，持有期间由看门狗定时续期；使用try-with-resources或在finally中调用unlock释放
+ * 围栏令牌在每次获取同一个锁时单调递增，写入外部存储时携带令牌，由存储拒绝比已见过的令牌更小的写入，
+ * 可以防止持有者因停顿导致租约过期后仍继续写入
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisLock implements AutoCloseable {
+
+    // 锁管理器
+    private final RedisLockManager manager;
+
+    // 锁名称
+    private final String name;
+
+    // 锁KEY
+    private final String key;
+
+    // 持有者标识，释放和续期时校验
+    private final String owner;
+
+    // 围栏令牌
+    private final long token;
+
+    // 租约时间，单位：毫秒
+    private final long leaseMillis;
+
+    // 是否仍然持有，释放或续期失败后为false
+    private volatile boolean held = true;
+
+    // 最近一次获取或续期成功的时间
+    private volatile long renewedAt;
+
+    // 看门狗续期任务
+    private volatile ScheduledFuture<?> renewal;
+
+    RedisLock(RedisLockManager manager, String name, String key, String owner, long token, long leaseMillis) {
+        this.manager = manager;
+        this.name = name;
+        this.key = key;
+        this.owner = owner;
+        this.token = token;
+        this.leaseMillis = leaseMillis;
+        this.renewedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 释放锁，只有锁仍属于当前持有者时才会删除，重复调用无副作用
+     *
+     * @return 是否由本次调用释放
+     */
+    public boolean unlock() {
+        return manager.release(this);
+    }
+
+    @Override
+    public void close() {
+        unlock();
+    }
+
+    /**
+     * 判断是否仍然持有锁
+     * 看门狗续期失败或租约到期后返回false，此时临界区内的操作应尽快停止
+     *
+     * @return boolean
+     */
+    public boolean isHeld() {
+        return held && System.currentTimeMillis() - renewedAt < leaseMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    boolean markReleased() {
+        boolean wasHeld = held;
+        held = false;
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
+        return wasHeld;
+    }
+
+    void markRenewed() {
+        renewedAt = System.currentTimeMillis();
+    }
+
+    long getRenewedAt() {
+        return renewedAt;
+    }
+
+    void setRenewal(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+}
@@ -0,0 +1,239 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.RedisOperations;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis分布式锁管理器
+ * 获取锁时使用SET NX PX写入持有者标识，并在同一脚本中递增该锁的围栏令牌计数器；
+ * 释放和续期都通过脚本校验持有者，不会误删或续期其他持有者的锁；
+ * 持有期间看门狗每隔三分之一租约时间续期一次，临界区执行时间可以超过租约时间
+ * 锁KEY和令牌计数器KEY使用相同的hash tag，分片模式下位于同一节点；令牌计数器不过期，保证令牌永远单调递增
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisLockManager implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisLockManager.class);
+
+    // 令牌计数器KEY的后缀
+    private static final String FENCING_SUFFIX = ":fencing";
+
+    private final RedisOperations redisClient;
+
+    // 锁KEY前缀
+    private final String keyPrefix;
+
+    // 默认租约时间，单位：毫秒
+    private final long defaultLeaseMillis;
+
+    // 获取失败后重试的平均间隔，单位：毫秒
+    private final long retryMillis;
+
+    // 看门狗线程
+    private final ScheduledExecutorService watchdog;
+
+    // 当前节点持有的锁，关闭时释放
+    private final Set<RedisLock> heldLocks = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder renewals = new LongAdder();
+    private final LongAdder renewalErrors = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder releaseMismatches = new LongAdder();
+
+    /**
+     * 构造锁管理器
+     *
+     * @param redisClient        Redis客户端
+     * @param keyPrefix          锁KEY前缀
+     * @param defaultLeaseMillis 默认租约时间，单位：毫秒
+     * @param retryMillis        获取失败后重试的平均间隔，单位：毫秒
+     */
+    public RedisLockManager(RedisOperations redisClient, String keyPrefix, long defaultLeaseMillis, long retryMillis) {
+        this.redisClient = redisClient;
+        this.keyPrefix = keyPrefix;
+        this.defaultLeaseMillis = defaultLeaseMillis;
+        this.retryMillis = Math.max(1L, retryMillis);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 尝试获取锁一次，不等待
+     *
+     * @param name 锁名称
+     * @return 锁，获取失败返回null
+     */
+    public RedisLock tryLock(String name) {
+        return tryLock(name, 0L, defaultLeaseMillis);
+    }
+
+    /**
+     * 在等待时间内尝试获取锁
+     *
+     * @param name       锁名称
+     * @param waitMillis 最长等待时间，单位：毫秒
+     * @return 锁，超时返回null
+     */
+    public RedisLock tryLock(String name, long waitMillis) {
+        return tryLock(name, waitMillis, defaultLeaseMillis);
+    }
+
+    /**
+     * 在等待时间内尝试获取锁，获取失败后按随机间隔重试，避免竞争者同时重试
+     * 等待期间线程被中断时恢复中断标记并返回null
+     *
+     * @param name        锁名称
+     * @param waitMillis  最长等待时间，单位：毫秒
+     * @param leaseMillis 租约时间，单位：毫秒，持有期间由看门狗续期
+     * @return 锁，超时返回null
+     */
+    public RedisLock tryLock(String name, long waitMillis, long leaseMillis) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        String key = keyPrefix + "{" + name + "}";
+        List<String> keys = Arrays.asList(key, key + FENCING_SUFFIX);
+        String owner = UUID.randomUUID().toString();
+        while (true) {
+            attempts.increment();
+            Long token = redisClient.eval(RedisScripts.LOCK_ACQUIRE, keys, owner, leaseMillis);
+            if (token != null) {
+                RedisLock lock = new RedisLock(this, name, key, owner, token, leaseMillis);
+                heldLocks.add(lock);
+                long period = Math.max(1L, leaseMillis / 3);
+                lock.setRenewal(watchdog.scheduleWithFixedDelay(() -> renew(lock), period, period, TimeUnit.MILLISECONDS));
+                acquired.increment();
+                return lock;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                timeouts.increment();
+                return null;
+            }
+            long sleep = retryMillis / 2 + ThreadLocalRandom.current().nextLong(retryMillis + 1);
+            try {
+                Thread.sleep(Math.min(remaining, Math.max(1L, sleep)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                timeouts.increment();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 释放锁
+     *
+     * @param lock 锁
+     * @return 是否由本次调用释放
+     */
+    boolean release(RedisLock lock) {
+        heldLocks.remove(lock);
+        if (!lock.markReleased()) {
+            return false;
+        }
+        if (redisClient.delIfEquals(lock.getKey(), lock.getOwner())) {
+            released.increment();
+            return true;
+        }
+        // 租约已过期，锁可能已被其他持有者获取
+        releaseMismatches.increment();
+        logger.warn("\r\n ********* Redis锁【{}】释放时已不属于当前持有者，令牌【{}】", lock.getName(), lock.getToken());
+        return false;
+    }
+
+    /**
+     * 看门狗续期
+     * 锁已不属于当前持有者时停止续期；Redis暂时不可用时继续重试，直到租约到期
+     *
+     * @param lock 锁
+     */
+    private void renew(RedisLock lock) {
+        try {
+            if (!lock.isHeld()) {
+                markLost(lock);
+                return;
+            }
+            Boolean renewed = redisClient.eval(RedisScripts.PEXPIRE_IF_EQUALS, Collections.singletonList(lock.getKey()),
+                    lock.getOwner(), lock.getLeaseMillis());
+            if (renewed == null) {
+                renewalErrors.increment();
+            } else if (renewed) {
+                lock.markRenewed();
+                renewals.increment();
+            } else {
+                markLost(lock);
+            }
+        } catch (Exception e) {
+            renewalErrors.increment();
+            logger.error("\r\n ********* [Redis锁续期失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+    }
+
+    /**
+     * 标记锁已丢失
+     *
+     * @param lock 锁
+     */
+    private void markLost(RedisLock lock) {
+        heldLocks.remove(lock);
+        if (lock.markReleased()) {
+            lost.increment();
+            logger.warn("\r\n ********* Redis锁【{}】租约已丢失，令牌【{}】", lock.getName(), lock.getToken());
+        }
+    }
+
+    /**
+     * 获取锁统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("held", heldLocks.size());
+        stats.put("acquired", acquired.sum());
+        stats.put("attempts", attempts.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("renewals", renewals.sum());
+        stats.put("renewalErrors", renewalErrors.sum());
+        stats.put("lost", lost.sum());
+        stats.put("released", released.sum());
+        stats.put("releaseMismatches", releaseMismatches.sum());
+        return stats;
+    }
+
+    /**
+     * 停止看门狗并释放当前节点持有的锁
+     */
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        for (RedisLock lock : heldLocks) {
+            release(lock);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.frame.utils.redis;
+
+/**
+ * Redis订阅消息监听接口
+ * 由RedisPubSubManager在消息处理线程池中回调，回调不会阻塞订阅连接的读取
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public interface RedisMessageListener {
+
+    /**
+     * 处理一条消息
+     * 抛出的异常只记录日志，不影响后续消息
+     *
+     * @param channel 消息所在频道，模式订阅时为实际发布的频道
+     * @param message 消息内容
+     */
+    void onMessage(String channel, String message);
+
+    /**
+     * 频道或模式订阅成功，包括断开后重新订阅成功
+     *
+     * @param channel 频道或模式
+     */
+    default void onSubscribe(String channel) {
+    }
+
+    /**
+     * 订阅连接断开，重新订阅成功之前发布的消息会丢失
+     */
+    default void onDisconnect() {
+    }
+}
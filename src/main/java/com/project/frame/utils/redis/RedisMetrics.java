@@ -0,0 +1,206 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.redis.codec.RedisCompressor;
+import redis.clients.jedis.JedisPool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RedisClient运行指标
+ * 按命令（RedisClient的方法名）分别统计借用连接、执行命令、解码结果三个阶段的耗时，以及读写数据的大小分布；
+ * 同一线程上的借用和归还通过线程变量关联到同一个命令，借用期间的解码耗时从执行耗时中扣除
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisMetrics {
+
+    // 命令名称 -> 命令指标
+    private final ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<String, CommandMetrics>();
+
+    // 当前线程正在执行的命令
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    // 借用连接等待超时次数
+    private final LongAdder borrowTimeouts = new LongAdder();
+
+    // 借用连接失败次数（包括超时和熔断）
+    private final LongAdder borrowFailures = new LongAdder();
+
+    // 连接池注册表，用于采集连接池指标
+    private final RedisPoolRegistry poolRegistry;
+
+    // 对象值压缩器，用于采集压缩率和耗时
+    private final RedisCompressor compressor;
+
+    public RedisMetrics(RedisPoolRegistry poolRegistry, RedisCompressor compressor) {
+        this.poolRegistry = poolRegistry;
+        this.compressor = compressor;
+    }
+
+    /**
+     * 开始借用连接
+     *
+     * @param command 命令名称
+     * @return 开始时间，单位：纳秒
+     */
+    public long beforeBorrow(String command) {
+        Context ctx = context.get();
+        ctx.command = command;
+        ctx.active = false;
+        return System.nanoTime();
+    }
+
+    /**
+     * 借用连接成功，记录借用耗时
+     *
+     * @param startNanos 开始时间
+     */
+    public void afterBorrow(long startNanos) {
+        Context ctx = context.get();
+        long now = System.nanoTime();
+        command(ctx.command).borrow.record(toMicros(now - startNanos));
+        ctx.active = true;
+        ctx.borrowedAt = now;
+        ctx.decodeNanos = 0;
+    }
+
+    /**
+     * 借用连接失败
+     *
+     * @param timeout 是否为等待超时
+     */
+    public void borrowFailed(boolean timeout) {
+        borrowFailures.increment();
+        if (timeout) {
+            borrowTimeouts.increment();
+        }
+        context.get().active = false;
+    }
+
+    /**
+     * 记录一次解码耗时和读取的数据大小，在借用期间解码的耗时不计入执行耗时
+     *
+     * @param command 命令名称
+     * @param nanos   解码耗时，单位：纳秒
+     * @param bytes   数据大小
+     */
+    public void recordDecode(String command, long nanos, int bytes) {
+        Context ctx = context.get();
+        if (ctx.active) {
+            ctx.decodeNanos += nanos;
+        }
+        CommandMetrics metrics = command(command);
+        metrics.decode.record(toMicros(nanos));
+        metrics.readBytes.record(bytes);
+    }
+
+    /**
+     * 记录一次写入的数据大小
+     *
+     * @param command 命令名称
+     * @param bytes   数据大小
+     */
+    public void recordWrite(String command, int bytes) {
+        command(command).writeBytes.record(bytes);
+    }
+
+    /**
+     * 归还连接，记录执行耗时（借用成功到归还之间扣除解码的时间）
+     */
+    public void afterRelease() {
+        Context ctx = context.get();
+        if (!ctx.active) {
+            return;
+        }
+        ctx.active = false;
+        long elapsed = System.nanoTime() - ctx.borrowedAt - ctx.decodeNanos;
+        command(ctx.command).execute.record(toMicros(Math.max(0, elapsed)));
+    }
+
+    /**
+     * 获取全部指标快照
+     *
+     * @return 指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("borrowTimeouts", borrowTimeouts.sum());
+        result.put("borrowFailures", borrowFailures.sum());
+
+        Map<String, Object> pools = new TreeMap<String, Object>();
+        for (Map.Entry<String, JedisPool> entry : poolRegistry.getPools().entrySet()) {
+            JedisPool pool = entry.getValue();
+            Map<String, Object> gauges = new LinkedHashMap<String, Object>();
+            gauges.put("active", pool.getNumActive());
+            gauges.put("idle", pool.getNumIdle());
+            gauges.put("waiters", pool.getNumWaiters());
+            gauges.put("meanBorrowWaitMillis", pool.getMeanBorrowWaitTimeMillis());
+            gauges.put("maxBorrowWaitMillis", pool.getMaxBorrowWaitTimeMillis());
+            pools.put(entry.getKey(), gauges);
+        }
+        result.put("pools", pools);
+
+        if (compressor != null) {
+            result.put("compression", compressor.getStats());
+        }
+
+        Map<String, Object> commandSnapshots = new TreeMap<String, Object>();
+        for (Map.Entry<String, CommandMetrics> entry : commands.entrySet()) {
+            CommandMetrics metrics = entry.getValue();
+            Map<String, Object> snapshot = new LinkedHashMap<String, Object>();
+            snapshot.put("borrowMicros", metrics.borrow.snapshot());
+            snapshot.put("executeMicros", metrics.execute.snapshot());
+            if (metrics.decode.getCount() > 0) {
+                snapshot.put("decodeMicros", metrics.decode.snapshot());
+                snapshot.put("readBytes", metrics.readBytes.snapshot());
+            }
+            if (metrics.writeBytes.getCount() > 0) {
+                snapshot.put("writeBytes", metrics.writeBytes.snapshot());
+            }
+            commandSnapshots.put(entry.getKey(), snapshot);
+        }
+        result.put("commands", commandSnapshots);
+        return result;
+    }
+
+    private CommandMetrics command(String name) {
+        CommandMetrics metrics = commands.get(name);
+        if (metrics == null) {
+            metrics = commands.computeIfAbsent(name, key -> new CommandMetrics());
+        }
+        return metrics;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * 单个命令的指标
+     */
+    private static class CommandMetrics {
+        private final RedisHistogram borrow = new RedisHistogram(RedisHistogram.LATENCY_BOUNDS);
+        private final RedisHistogram execute = new RedisHistogram(RedisHistogram.LATENCY_BOUNDS);
+        private final RedisHistogram decode = new RedisHistogram(RedisHistogram.LATENCY_BOUNDS);
+        private final RedisHistogram readBytes = new RedisHistogram(RedisHistogram.SIZE_BOUNDS);
+        private final RedisHistogram writeBytes = new RedisHistogram(RedisHistogram.SIZE_BOUNDS);
+    }
+
+    /**
+     * 线程上正在执行的命令
+     */
+    private static class Context {
+        private String command;
+        private boolean active;
+        private long borrowedAt;
+        private long decodeNanos;
+    }
+}
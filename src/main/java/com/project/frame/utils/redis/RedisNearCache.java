@@ -0,0 +1,379 @@
+package com.project.frame.utils.redis;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis本地近端缓存
+ * 位于RedisClient.get之前，只缓存指定前缀的KEY，保存编码后的字节数组，命中时在本地解码，避免共享可变对象
+ * 任一节点写入或删除KEY后，通过Redis发布订阅通知所有节点丢弃本地副本；订阅断开期间不提供本地缓存
+ * 条目按KEY的哈希分布在多个分段中，每个分段是独立加锁、按访问顺序淘汰的LRU，读取只锁定KEY所在的分段
+ * 从Redis读取前先在分段中放入带版本号的占位条目，失效时连同占位条目一起删除，只有同一个KEY的失效会使读取结果作废
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisNearCache {
+
+    // 失效消息中节点ID与KEY的分隔符
+    private static final char SEPARATOR = '|';
+
+    // 失效消息中多个KEY之间的分隔符
+    private static final char KEY_SEPARATOR = '\n';
+
+    // 失效消息中表示清空全部缓存的KEY
+    private static final String ALL_KEYS = "*";
+
+    // 分段数，必须是2的幂
+    private static final int SEGMENTS = 16;
+
+    // 当前节点ID，用于忽略自己发出的失效消息
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 是否启用
+    private final boolean enabled;
+
+    // 需要缓存的KEY前缀
+    private final String[] prefixes;
+
+    // 最大缓存条数
+    private final int maxSize;
+
+    // 本地副本的最长存活时间，单位：毫秒
+    private final long ttlMillis;
+
+    // 失效通知频道
+    private final String channel;
+
+    // 缓存分段，每个分段按访问顺序排列，超出分段容量时淘汰最久未访问的条目
+    private final Segment[] segments;
+
+    // 占位条目版本号的来源，保证失效后重新放入的占位条目不会复用旧版本号
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    // 失效订阅是否处于连接状态
+    private volatile boolean subscribed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder remoteInvalidations = new LongAdder();
+
+    /**
+     * 构造本地近端缓存
+     *
+     * @param enabled    是否启用
+     * @param prefixes   需要缓存的KEY前缀
+     * @param maxSize    最大缓存条数
+     * @param ttlSeconds 本地副本的最长存活时间，单位：秒
+     * @param channel    失效通知频道
+     */
+    public RedisNearCache(boolean enabled, String[] prefixes, int maxSize, int ttlSeconds, String channel) {
+        this.enabled = enabled && prefixes != null && prefixes.length > 0 && maxSize > 0 && ttlSeconds > 0;
+        this.prefixes = prefixes == null ? new String[0] : prefixes;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.channel = channel;
+        this.segments = new Segment[SEGMENTS];
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * 判断KEY是否使用本地缓存
+     *
+     * @param key KEY
+     * @return boolean
+     */
+    public boolean isCacheable(Object key) {
+        if (!enabled || !(key instanceof String)) {
+            return false;
+        }
+        String str = (String) key;
+        for (String prefix : prefixes) {
+            if (str.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前是否可以使用本地缓存
+     * 失效订阅断开时可能错过其他节点的失效通知，此时直接读取Redis
+     *
+     * @return boolean
+     */
+    public boolean isActive() {
+        return enabled && subscribed;
+    }
+
+    /**
+     * 获取本地缓存的值
+     *
+     * @param key KEY
+     * @return 编码后的值，未命中返回null
+     */
+    public byte[] get(String key) {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.expireAt <= System.currentTimeMillis()) {
+                segment.remove(key);
+                if (entry.value != null) {
+                    expirations.increment();
+                }
+                entry = null;
+            }
+        }
+        if (entry == null || entry.value == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * 获取KEY当前的版本号，从Redis读取前调用，写回本地时传入
+     * KEY不在本地缓存中时放入占位条目，读取期间该KEY失效会删除占位条目，使读取结果作废
+     *
+     * @param key KEY
+     * @return 版本号，订阅断开时返回-1
+     */
+    public long currentVersion(String key) {
+        Segment segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            if (!subscribed) {
+                return -1L;
+            }
+            Entry entry = segment.get(key);
+            if (entry == null || entry.expireAt <= now) {
+                entry = new Entry(null, now + ttlMillis, versionSequence.incrementAndGet());
+                segment.put(key, entry);
+            }
+            return entry.version;
+        }
+    }
+
+    /**
+     * 把从Redis读取的值放入本地缓存
+     * 读取期间该KEY发生过失效时放弃写入，避免旧值覆盖；其他KEY的失效不影响
+     *
+     * @param key           KEY
+     * @param value         编码后的值，为null时删除占位条目
+     * @param loadedVersion 读取前的版本号
+     */
+    public void put(String key, byte[] value, long loadedVersion) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null || entry.version != loadedVersion) {
+                return;
+            }
+            if (value == null) {
+                segment.remove(key);
+            } else {
+                segment.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis, loadedVersion));
+            }
+        }
+    }
+
+    /**
+     * 丢弃本地缓存中的KEY，正在从Redis读取的结果同时作废
+     *
+     * @param key KEY
+     */
+    public void invalidate(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * 清空本地缓存，正在从Redis读取的结果同时作废
+     */
+    public void invalidateAll() {
+        clear();
+        invalidations.increment();
+    }
+
+    /**
+     * 清空所有分段
+     */
+    private void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 获取KEY所在的分段
+     */
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * 构造发送给其他节点的失效消息
+     *
+     * @param key KEY，为null表示清空全部
+     * @return 消息内容
+     */
+    public String buildInvalidationMessage(String key) {
+        return nodeId + SEPARATOR + (key == null ? ALL_KEYS : key);
+    }
+
+    /**
+     * 构造发送给其他节点的失效消息，一条命令写入的多个KEY合并为一条消息，KEY之间以换行分隔
+     *
+     * @param keys KEY集合
+     * @return 消息内容
+     */
+    public String buildInvalidationMessage(Collection<String> keys) {
+        StringBuilder message = new StringBuilder(nodeId).append(SEPARATOR);
+        boolean first = true;
+        for (String key : keys) {
+            if (!first) {
+                message.append(KEY_SEPARATOR);
+            }
+            message.append(key);
+            first = false;
+        }
+        return message.toString();
+    }
+
+    /**
+     * 处理其他节点发来的失效消息，忽略本节点发出的消息
+     *
+     * @param message 消息内容
+     */
+    public void onInvalidationMessage(String message) {
+        if (message == null) {
+            return;
+        }
+        int index = message.indexOf(SEPARATOR);
+        if (index < 0 || message.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        remoteInvalidations.increment();
+        int start = index + 1;
+        while (start <= message.length()) {
+            int end = message.indexOf(KEY_SEPARATOR, start);
+            if (end < 0) {
+                end = message.length();
+            }
+            String key = message.substring(start, end);
+            if (ALL_KEYS.equals(key)) {
+                invalidateAll();
+                return;
+            }
+            invalidate(key);
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 设置失效订阅的连接状态，状态变化时清空本地缓存
+     *
+     * @param subscribed 是否已订阅
+     */
+    public void setSubscribed(boolean subscribed) {
+        this.subscribed = subscribed;
+        clear();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("subscribed", subscribed);
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0D : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("remoteInvalidations", remoteInvalidations.sum());
+        return stats;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 缓存分段，按访问顺序排列，由调用方在分段锁内访问
+     */
+    private final class Segment extends LinkedHashMap<String, Entry> {
+        private static final long serialVersionUID = 6387205178431587142L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                if (eldest.getValue().value != null) {
+                    evictions.increment();
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 缓存条目，value为null表示正在从Redis读取的占位条目
+     */
+    private static class Entry {
+        private final byte[] value;
+        private final long expireAt;
+        private final long version;
+
+        private Entry(byte[] value, long expireAt, long version) {
+            this.value = value;
+            this.expireAt = expireAt;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.frame.utils.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * 本地近端缓存的失效订阅
+ * 通过RedisPubSubManager订阅失效频道，连接断开时清空本地缓存并停用，重新订阅成功后恢复
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisNearCacheSubscriber implements RedisMessageListener, InitializingBean, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisNearCacheSubscriber.class);
+
+    private final RedisPubSubManager pubSubManager;
+
+    private final RedisNearCache nearCache;
+
+    public RedisNearCacheSubscriber(RedisPubSubManager pubSubManager, RedisNearCache nearCache) {
+        this.pubSubManager = pubSubManager;
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (nearCache.isEnabled()) {
+            pubSubManager.subscribe(nearCache.getChannel(), this);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (nearCache.isEnabled()) {
+            pubSubManager.unsubscribe(nearCache.getChannel(), this);
+        }
+    }
+
+    @Override
+    public void onMessage(String channel, String message) {
+        nearCache.onInvalidationMessage(message);
+    }
+
+    @Override
+    public void onSubscribe(String channel) {
+        nearCache.setSubscribed(true);
+        logger.info("\r\n ********* 本地缓存失效频道【{}】订阅成功", channel);
+    }
+
+    @Override
+    public void onDisconnect() {
+        nearCache.setSubscribed(false);
+        logger.warn("\r\n ********* 本地缓存失效频道订阅断开，重新订阅成功前不使用本地缓存");
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.frame.utils.redis;
+
+/**
+ * Redis节点地址
+ * 节点名称为host:port，在一致性哈希环上用于生成虚拟节点，修改名称会改变KEY的分布
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public final class RedisNode {
+
+    // 节点IP
+    private final String host;
+
+    // 节点端口号
+    private final int port;
+
+    // 节点名称
+    private final String name;
+
+    public RedisNode(String host, int port) {
+        this.host = host;
+        this.port = port;
+        this.name = host + ":" + port;
+    }
+
+    /**
+     * 解析host:port格式的节点地址
+     *
+     * @param address 节点地址
+     * @return 节点
+     */
+    public static RedisNode parse(String address) {
+        String value = address.trim();
+        int index = value.lastIndexOf(':');
+        if (index <= 0 || index == value.length() - 1) {
+            throw new IllegalArgumentException("Redis节点地址格式错误，应为host:port：" + address);
+        }
+        return new RedisNode(value.substring(0, index), Integer.parseInt(value.substring(index + 1)));
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof RedisNode && name.equals(((RedisNode) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.frame.utils.redis;
+
+import redis.clients.jedis.Pipeline;
+
+/**
+ * Redis管道回调接口
+ * 回调中的命令会在同一个连接上排队，执行结束后统一发送并一次性读取全部响应
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public interface RedisPipelineCallback {
+
+    /**
+     * 在管道中追加命令
+     * 如需取得强类型的结果，可保留命令返回的Response对象，管道同步完成后再调用其get()方法
+     *
+     * @param pipeline 管道对象
+     * @throws Exception 命令追加过程中的异常
+     */
+    void doInPipeline(Pipeline pipeline) throws Exception;
+}
@@ -0,0 +1,259 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.commons.constant.RedisConfigConstant;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按节点和数据库索引划分的Jedis连接池注册表
+ * 每个连接池创建连接时即通过SELECT绑定到对应的数据库，借用连接时无需再执行SELECT
+ * 配置多个节点时为分片模式，KEY通过一致性哈希环路由到节点；第一个节点为默认节点，承载发布订阅等与KEY无关的命令
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisPoolRegistry implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisPoolRegistry.class);
+
+    // 节点和数据库索引 -> 连接池
+    private final Map<PoolKey, JedisPool> pools = new ConcurrentHashMap<PoolKey, JedisPool>();
+
+    // 连接池配置信息
+    private final JedisPoolConfig jedisPoolConfig;
+
+    // 分片一致性哈希环
+    private final RedisShardRing ring;
+
+    // 默认节点
+    private final RedisNode defaultNode;
+
+    // 是否为分片模式
+    private final boolean sharded;
+
+    private final Object lock = new Object();
+
+    /**
+     * 通过连接池配置、分片哈希环和默认节点默认数据库的连接池构造注册表
+     *
+     * @param jedisPoolConfig 连接池配置信息
+     * @param ring            分片一致性哈希环，第一个节点为默认节点
+     * @param defaultPool     绑定到默认节点默认数据库的连接池
+     */
+    public RedisPoolRegistry(JedisPoolConfig jedisPoolConfig, RedisShardRing ring, JedisPool defaultPool) {
+        this.jedisPoolConfig = jedisPoolConfig;
+        this.ring = ring;
+        this.defaultNode = ring.getNodes().get(0);
+        this.sharded = ring.getNodes().size() > 1;
+        if (defaultPool != null) {
+            pools.put(new PoolKey(defaultNode, RedisConfigConstant.DATABASE_ID), defaultPool);
+        }
+    }
+
+    /**
+     * 获取默认节点指定数据库的连接池，不存在或已关闭时创建
+     *
+     * @param dbId 数据库ID
+     * @return JedisPool
+     */
+    public JedisPool getPool(int dbId) {
+        return getPool(defaultNode, dbId);
+    }
+
+    /**
+     * 获取指定节点指定数据库的连接池，不存在或已关闭时创建
+     *
+     * @param node 节点
+     * @param dbId 数据库ID
+     * @return JedisPool
+     */
+    public JedisPool getPool(RedisNode node, int dbId) {
+        PoolKey key = new PoolKey(node, dbId);
+        JedisPool pool = pools.get(key);
+        if (pool == null || pool.isClosed()) {
+            synchronized (lock) {
+                pool = pools.get(key);
+                if (pool == null || pool.isClosed()) {
+                    pool = createPool(node, dbId);
+                    pools.put(key, pool);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 获取默认节点默认数据库的连接池
+     *
+     * @return JedisPool
+     */
+    public JedisPool getDefaultPool() {
+        return getPool(RedisConfigConstant.DATABASE_ID);
+    }
+
+    /**
+     * 获取KEY所在的节点，非分片模式下始终为默认节点
+     *
+     * @param key KEY的字节数组
+     * @return 节点
+     */
+    public RedisNode getNode(byte[] key) {
+        return sharded ? ring.getNode(key) : defaultNode;
+    }
+
+    /**
+     * 获取默认节点
+     *
+     * @return 节点
+     */
+    public RedisNode getDefaultNode() {
+        return defaultNode;
+    }
+
+    /**
+     * 获取全部节点
+     *
+     * @return 节点集合
+     */
+    public List<RedisNode> getNodes() {
+        return ring.getNodes();
+    }
+
+    /**
+     * 获取分片一致性哈希环
+     *
+     * @return 哈希环
+     */
+    public RedisShardRing getRing() {
+        return ring;
+    }
+
+    /**
+     * 是否为分片模式
+     *
+     * @return boolean
+     */
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    /**
+     * 丢弃默认节点指定数据库的连接池，下次获取时重新创建
+     *
+     * @param dbId 数据库ID
+     */
+    public void resetPool(int dbId) {
+        JedisPool pool = pools.remove(new PoolKey(defaultNode, dbId));
+        closeQuietly(pool);
+    }
+
+    /**
+     * 重建所有已创建的连接池，新连接池替换后再关闭旧连接池
+     * 由熔断器在后台线程中调用，已借出的旧连接归还时随旧连接池销毁
+     */
+    public void recreatePools() {
+        synchronized (lock) {
+            for (Map.Entry<PoolKey, JedisPool> entry : pools.entrySet()) {
+                JedisPool old = entry.getValue();
+                entry.setValue(createPool(entry.getKey().node, entry.getKey().dbId));
+                closeQuietly(old);
+            }
+        }
+    }
+
+    /**
+     * 获取所有已创建的连接池
+     *
+     * @return 节点名称/db数据库索引 -> 连接池
+     */
+    public Map<String, JedisPool> getPools() {
+        Map<String, JedisPool> result = new TreeMap<String, JedisPool>();
+        for (Map.Entry<PoolKey, JedisPool> entry : pools.entrySet()) {
+            result.put(entry.getKey().toString(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 关闭所有连接池
+     */
+    @Override
+    public void destroy() {
+        for (JedisPool pool : pools.values()) {
+            closeQuietly(pool);
+        }
+        pools.clear();
+    }
+
+    /**
+     * 创建绑定到指定节点指定数据库的连接池
+     *
+     * @param node 节点
+     * @param dbId 数据库ID
+     * @return JedisPool
+     */
+    private JedisPool createPool(RedisNode node, int dbId) {
+        logger.info("\r\n ********* 创建节点【{}】数据库【{}】的Jedis连接池", node, dbId);
+        return new JedisPool(jedisPoolConfig, node.getHost(), node.getPort(),
+                RedisConfigConstant.TIMEOUT, RedisConfigConstant.PASSWORD, dbId);
+    }
+
+    /**
+     * 关闭连接池，忽略异常
+     *
+     * @param pool 连接池
+     */
+    private void closeQuietly(JedisPool pool) {
+        try {
+            if (pool != null && !pool.isClosed()) {
+                pool.close();
+            }
+        } catch (Exception e) {
+            logger.error("\r\n ********* [关闭Jedis连接池失败]" + ExceptionUtils.getFullStackTrace(e));
+        }
+    }
+
+    /**
+     * 连接池的节点和数据库索引
+     */
+    private static final class PoolKey {
+        private final RedisNode node;
+        private final int dbId;
+
+        private PoolKey(RedisNode node, int dbId) {
+            this.node = node;
+            this.dbId = dbId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return dbId == other.dbId && node.equals(other.node);
+        }
+
+        @Override
+        public int hashCode() {
+            return node.hashCode() * 31 + dbId;
+        }
+
+        @Override
+        public String toString() {
+            return node.getName() + "/db" + dbId;
+        }
+    }
+}
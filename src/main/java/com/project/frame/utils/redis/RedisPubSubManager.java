@@ -0,0 +1,521 @@
+package com.project.frame.utils.redis;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis发布订阅管理器
+ * 所有频道和模式共用一条不属于连接池的专用连接，由后台线程读取，不占用连接池的连接；
+ * 消息交给有界线程池处理，队列满时订阅线程等待队列空出，暂停读取连接，积压由TCP和Redis的输出缓冲区承接；
+ * 连接断开后按指数退避重新连接并恢复全部订阅，定时发送PING，两个心跳间隔内未收到响应时主动断开重连
+ * 订阅在默认节点上进行，发布仍使用RedisClient.publish
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisPubSubManager implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisPubSubManager.class);
+
+    // 订阅所在节点
+    private final RedisNode node;
+
+    private final String password;
+
+    // 连接超时时间，单位：毫秒；订阅期间读取不超时
+    private final int timeout;
+
+    // 重新订阅的初始间隔和最大间隔，单位：毫秒
+    private final long retryInitial;
+    private final long retryMax;
+
+    // 心跳间隔，单位：毫秒，不大于0时不发送心跳
+    private final long pingInterval;
+
+    // 频道 -> 监听器
+    private final Map<String, Set<RedisMessageListener>> channels = new ConcurrentHashMap<String, Set<RedisMessageListener>>();
+
+    // 模式 -> 监听器
+    private final Map<String, Set<RedisMessageListener>> patterns = new ConcurrentHashMap<String, Set<RedisMessageListener>>();
+
+    // 已在当前连接上发送订阅的频道和模式，与subscription一起由lock保护
+    private final Set<String> sentChannels = new HashSet<String>();
+    private final Set<String> sentPatterns = new HashSet<String>();
+
+    // 当前连接上已确认订阅的频道和模式
+    private final Set<String> activeChannels = ConcurrentHashMap.newKeySet();
+    private final Set<String> activePatterns = ConcurrentHashMap.newKeySet();
+
+    private final Object lock = new Object();
+
+    private final ThreadPoolExecutor handlerExecutor;
+
+    private final ScheduledExecutorService pinger;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    // 当前连接和订阅，未连接时为null
+    private volatile Jedis connection;
+    private volatile Subscription subscription;
+
+    // 最近一次收到心跳响应的时间
+    private volatile long lastPong;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder handlerFailures = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    /**
+     * 构造发布订阅管理器并启动订阅线程，没有订阅时订阅线程不建立连接
+     *
+     * @param node           订阅所在节点
+     * @param password       密码
+     * @param timeout        连接超时时间，单位：毫秒
+     * @param handlerThreads 消息处理线程数
+     * @param queueCapacity  待处理消息队列容量
+     * @param retryInitial   重新订阅的初始间隔，单位：毫秒
+     * @param retryMax       重新订阅的最大间隔，单位：毫秒
+     * @param pingInterval   心跳间隔，单位：毫秒，不大于0时不发送心跳
+     */
+    public RedisPubSubManager(RedisNode node, String password, int timeout, int handlerThreads, int queueCapacity,
+                              long retryInitial, long retryMax, long pingInterval) {
+        this.node = node;
+        this.password = password;
+        this.timeout = timeout;
+        this.retryInitial = Math.max(1L, retryInitial);
+        this.retryMax = Math.max(this.retryInitial, retryMax);
+        this.pingInterval = pingInterval;
+        final AtomicInteger index = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread handler = new Thread(runnable, "redis-pubsub-handler-" + index.incrementAndGet());
+            handler.setDaemon(true);
+            return handler;
+        };
+        // 队列满时阻塞订阅线程，不丢弃消息
+        RejectedExecutionHandler blockingHandler = (runnable, pool) -> {
+            if (pool.isShutdown()) {
+                return;
+            }
+            backpressureWaits.increment();
+            try {
+                pool.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        int threads = Math.max(1, handlerThreads);
+        this.handlerExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)), threadFactory, blockingHandler);
+        this.pinger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread ping = new Thread(runnable, "redis-pubsub-ping");
+            ping.setDaemon(true);
+            return ping;
+        });
+        if (pingInterval > 0) {
+            this.pinger.scheduleWithFixedDelay(this::ping, pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+        }
+        this.thread = new Thread(this::subscribeLoop, "redis-pubsub");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 订阅频道，同一个频道的多个监听器共用一个订阅
+     *
+     * @param channel  频道
+     * @param listener 监听器
+     */
+    public void subscribe(String channel, RedisMessageListener listener) {
+        register(channels, activeChannels, channel, listener);
+    }
+
+    /**
+     * 取消监听器对频道的订阅，频道没有监听器时取消订阅
+     *
+     * @param channel  频道
+     * @param listener 监听器
+     */
+    public void unsubscribe(String channel, RedisMessageListener listener) {
+        unregister(channels, channel, listener);
+    }
+
+    /**
+     * 按模式订阅频道
+     *
+     * @param pattern  模式
+     * @param listener 监听器
+     */
+    public void psubscribe(String pattern, RedisMessageListener listener) {
+        register(patterns, activePatterns, pattern, listener);
+    }
+
+    /**
+     * 取消监听器对模式的订阅，模式没有监听器时取消订阅
+     *
+     * @param pattern  模式
+     * @param listener 监听器
+     */
+    public void punsubscribe(String pattern, RedisMessageListener listener) {
+        unregister(patterns, pattern, listener);
+    }
+
+    private void register(Map<String, Set<RedisMessageListener>> registry, Set<String> active, String name,
+                          RedisMessageListener listener) {
+        synchronized (lock) {
+            registry.computeIfAbsent(name, k -> new CopyOnWriteArraySet<RedisMessageListener>()).add(listener);
+            if (active.contains(name)) {
+                // 频道已在当前连接上订阅，直接通知新的监听器
+                listener.onSubscribe(name);
+            }
+            reconcile();
+            lock.notifyAll();
+        }
+    }
+
+    private void unregister(Map<String, Set<RedisMessageListener>> registry, String name, RedisMessageListener listener) {
+        synchronized (lock) {
+            Set<RedisMessageListener> listeners = registry.get(name);
+            if (listeners != null && listeners.remove(listener) && listeners.isEmpty()) {
+                registry.remove(name);
+            }
+            reconcile();
+        }
+    }
+
+    /**
+     * 在当前连接上补发新增的订阅、取消已删除的订阅
+     * 连接尚未确认订阅时不发送，由首个订阅确认回调再次调用
+     */
+    private void reconcile() {
+        synchronized (lock) {
+            Subscription current = subscription;
+            if (current == null || !current.confirmed) {
+                return;
+            }
+            try {
+                String[] addChannels = difference(channels.keySet(), sentChannels);
+                String[] removeChannels = difference(sentChannels, channels.keySet());
+                String[] addPatterns = difference(patterns.keySet(), sentPatterns);
+                String[] removePatterns = difference(sentPatterns, patterns.keySet());
+                if (addChannels.length > 0) {
+                    current.subscribe(addChannels);
+                    Collections.addAll(sentChannels, addChannels);
+                }
+                if (addPatterns.length > 0) {
+                    current.psubscribe(addPatterns);
+                    Collections.addAll(sentPatterns, addPatterns);
+                }
+                if (removeChannels.length > 0) {
+                    current.unsubscribe(removeChannels);
+                    for (String channel : removeChannels) {
+                        sentChannels.remove(channel);
+                    }
+                }
+                if (removePatterns.length > 0) {
+                    current.punsubscribe(removePatterns);
+                    for (String pattern : removePatterns) {
+                        sentPatterns.remove(pattern);
+                    }
+                }
+            } catch (JedisException e) {
+                // 连接已断开，订阅线程重新连接后会恢复全部订阅
+                logger.error("\r\n ********* [更新Redis订阅失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        }
+    }
+
+    private static String[] difference(Set<String> source, Set<String> exclude) {
+        List<String> result = new ArrayList<String>();
+        for (String name : source) {
+            if (!exclude.contains(name)) {
+                result.add(name);
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * 订阅线程：没有订阅时等待；建立专用连接并订阅，订阅方法返回或抛出异常即表示连接结束，随后重新订阅
+     */
+    private void subscribeLoop() {
+        long backoff = retryInitial;
+        while (running) {
+            Subscription pubSub = new Subscription();
+            String[] initialChannels;
+            String[] initialPatterns;
+            synchronized (lock) {
+                while (running && channels.isEmpty() && patterns.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                // 频道和模式需要分两条命令订阅，先发送其中一种，另一种在首个订阅确认后补发
+                sentChannels.clear();
+                sentPatterns.clear();
+                initialChannels = channels.keySet().toArray(new String[0]);
+                initialPatterns = initialChannels.length == 0 ? patterns.keySet().toArray(new String[0]) : new String[0];
+                Collections.addAll(sentChannels, initialChannels);
+                Collections.addAll(sentPatterns, initialPatterns);
+                subscription = pubSub;
+            }
+            Jedis jedis = null;
+            boolean failed = false;
+            try {
+                jedis = new Jedis(node.getHost(), node.getPort(), timeout);
+                if (StringUtils.isNotEmpty(password)) {
+                    jedis.auth(password);
+                }
+                connection = jedis;
+                lastPong = System.currentTimeMillis();
+                if (initialChannels.length > 0) {
+                    jedis.subscribe(pubSub, initialChannels);
+                } else {
+                    jedis.psubscribe(pubSub, initialPatterns);
+                }
+            } catch (Exception e) {
+                failed = running;
+                if (failed) {
+                    logger.error("\r\n ********* [Redis订阅连接断开]" + ExceptionUtils.getFullStackTrace(e));
+                }
+            } finally {
+                synchronized (lock) {
+                    subscription = null;
+                    connection = null;
+                    activeChannels.clear();
+                    activePatterns.clear();
+                }
+                if (jedis != null) {
+                    try {
+                        jedis.close();
+                    } catch (Exception e) {
+                        logger.error("\r\n ********* [关闭Redis订阅连接失败]" + ExceptionUtils.getFullStackTrace(e));
+                    }
+                }
+                if (pubSub.confirmed) {
+                    notifyDisconnect();
+                }
+            }
+            if (!running || !failed) {
+                continue;
+            }
+            // 曾经订阅成功的连接断开后从初始间隔开始退避，连续连接失败时间隔加倍
+            backoff = pubSub.confirmed ? retryInitial : backoff;
+            reconnects.increment();
+            long sleep = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            logger.warn("\r\n ********* Redis订阅连接断开，{}毫秒后重新订阅", sleep);
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, retryMax);
+        }
+    }
+
+    /**
+     * 通知所有监听器连接断开
+     */
+    private void notifyDisconnect() {
+        Set<RedisMessageListener> listeners = new HashSet<RedisMessageListener>();
+        for (Set<RedisMessageListener> set : channels.values()) {
+            listeners.addAll(set);
+        }
+        for (Set<RedisMessageListener> set : patterns.values()) {
+            listeners.addAll(set);
+        }
+        for (RedisMessageListener listener : listeners) {
+            try {
+                listener.onDisconnect();
+            } catch (RuntimeException e) {
+                logger.error("\r\n ********* [处理Redis订阅断开失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        }
+    }
+
+    /**
+     * 发送心跳，超过两个心跳间隔未收到响应时断开连接，由订阅线程重新连接
+     */
+    private void ping() {
+        synchronized (lock) {
+            Subscription current = subscription;
+            Jedis jedis = connection;
+            if (current == null || !current.confirmed || jedis == null) {
+                return;
+            }
+            try {
+                if (System.currentTimeMillis() - lastPong > pingInterval * 2) {
+                    logger.warn("\r\n ********* Redis订阅连接心跳超时，断开重连");
+                    jedis.getClient().disconnect();
+                } else {
+                    current.ping();
+                }
+            } catch (Exception e) {
+                logger.error("\r\n ********* [发送Redis订阅心跳失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        }
+    }
+
+    /**
+     * 把消息交给处理线程池，队列满时阻塞当前的订阅线程
+     */
+    private void dispatch(Set<RedisMessageListener> listeners, final String channel, final String message) {
+        received.increment();
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        for (final RedisMessageListener listener : listeners) {
+            handlerExecutor.execute(() -> {
+                try {
+                    listener.onMessage(channel, message);
+                    handled.increment();
+                } catch (Exception e) {
+                    handlerFailures.increment();
+                    logger.error("\r\n ********* [处理Redis订阅消息失败]" + ExceptionUtils.getFullStackTrace(e));
+                }
+            });
+        }
+    }
+
+    private void notifySubscribe(Set<RedisMessageListener> listeners, String name) {
+        if (listeners == null) {
+            return;
+        }
+        for (RedisMessageListener listener : listeners) {
+            try {
+                listener.onSubscribe(name);
+            } catch (RuntimeException e) {
+                logger.error("\r\n ********* [处理Redis订阅成功通知失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        }
+    }
+
+    /**
+     * 获取发布订阅统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Subscription current = subscription;
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("node", node.getName());
+        stats.put("connected", current != null && current.confirmed);
+        stats.put("channels", new ArrayList<String>(channels.keySet()));
+        stats.put("patterns", new ArrayList<String>(patterns.keySet()));
+        stats.put("received", received.sum());
+        stats.put("handled", handled.sum());
+        stats.put("handlerFailures", handlerFailures.sum());
+        stats.put("queued", handlerExecutor.getQueue().size());
+        stats.put("backpressureWaits", backpressureWaits.sum());
+        stats.put("reconnects", reconnects.sum());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        synchronized (lock) {
+            Jedis jedis = connection;
+            if (jedis != null) {
+                try {
+                    jedis.getClient().disconnect();
+                } catch (Exception e) {
+                    logger.error("\r\n ********* [关闭Redis订阅连接失败]" + ExceptionUtils.getFullStackTrace(e));
+                }
+            }
+            lock.notifyAll();
+        }
+        thread.interrupt();
+        pinger.shutdownNow();
+        handlerExecutor.shutdown();
+    }
+
+    /**
+     * 一条连接上的订阅，回调在订阅线程中执行
+     */
+    private final class Subscription extends JedisPubSub {
+
+        // 是否已收到首个订阅确认，确认之后才能在其他线程中通过此对象发送命令
+        volatile boolean confirmed;
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            activeChannels.add(channel);
+            onConfirmed();
+            notifySubscribe(channels.get(channel), channel);
+        }
+
+        @Override
+        public void onPSubscribe(String pattern, int subscribedChannels) {
+            activePatterns.add(pattern);
+            onConfirmed();
+            notifySubscribe(patterns.get(pattern), pattern);
+        }
+
+        @Override
+        public void onUnsubscribe(String channel, int subscribedChannels) {
+            activeChannels.remove(channel);
+        }
+
+        @Override
+        public void onPUnsubscribe(String pattern, int subscribedChannels) {
+            activePatterns.remove(pattern);
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            dispatch(channels.get(channel), channel, message);
+        }
+
+        @Override
+        public void onPMessage(String pattern, String channel, String message) {
+            dispatch(patterns.get(pattern), channel, message);
+        }
+
+        @Override
+        public void onPong(String pattern) {
+            lastPong = System.currentTimeMillis();
+        }
+
+        private void onConfirmed() {
+            if (!confirmed) {
+                confirmed = true;
+                reconcile();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.frame.utils.redis;
+
+/**
+ * 限流规则
+ * 格式为维度:路径模式=每秒令牌数/桶容量，例如ip:/admin/login=0.2/5表示每个IP访问登录接口平均每5秒一次，最多连续5次
+ * 维度：ip(按客户端IP)、user(按登录用户，未登录的请求不计入)、path(按路径模式，所有客户端共享)
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public final class RedisRateLimitRule {
+
+    public static final String IP = "ip";
+    public static final String USER = "user";
+    public static final String PATH = "path";
+
+    // 限流维度
+    private final String dimension;
+
+    // Ant风格的路径模式
+    private final String pattern;
+
+    // 每秒补充的令牌数
+    private final double rate;
+
+    // 桶容量，即允许的突发请求数
+    private final long capacity;
+
+    public RedisRateLimitRule(String dimension, String pattern, double rate, long capacity) {
+        if (!IP.equals(dimension) && !USER.equals(dimension) && !PATH.equals(dimension)) {
+            throw new IllegalArgumentException("限流维度只能是ip、user、path：" + dimension);
+        }
+        if (rate <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("限流速率必须大于0，桶容量不能小于1：" + rate + "/" + capacity);
+        }
+        this.dimension = dimension;
+        this.pattern = pattern;
+        this.rate = rate;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 解析维度:路径模式=每秒令牌数/桶容量格式的限流规则
+     *
+     * @param rule 限流规则
+     * @return 限流规则
+     */
+    public static RedisRateLimitRule parse(String rule) {
+        String value = rule.trim();
+        int colon = value.indexOf(':');
+        int equals = value.lastIndexOf('=');
+        int slash = value.lastIndexOf('/');
+        if (colon <= 0 || equals <= colon + 1 || slash <= equals + 1 || slash == value.length() - 1) {
+            throw new IllegalArgumentException("限流规则格式错误，应为维度:路径模式=每秒令牌数/桶容量：" + rule);
+        }
+        return new RedisRateLimitRule(value.substring(0, colon), value.substring(colon + 1, equals),
+                Double.parseDouble(value.substring(equals + 1, slash)), Long.parseLong(value.substring(slash + 1)));
+    }
+
+    /**
+     * 计算每次从Redis预取的令牌数，约为同步间隔内补充的令牌数，且不超过桶容量
+     *
+     * @param syncMillis 同步间隔，单位：毫秒
+     * @return 预取的令牌数
+     */
+    public long getBatch(long syncMillis) {
+        return Math.max(1L, Math.min(capacity, Math.round(rate * syncMillis / 1000D)));
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return dimension + ":" + pattern + "=" + rate + "/" + capacity;
+    }
+}
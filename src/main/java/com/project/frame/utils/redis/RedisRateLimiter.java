@@ -0,0 +1,255 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.RedisOperations;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地与Redis混合的令牌桶限流器
+ * 令牌桶保存在Redis中，各节点共享同一个限额；节点每次从Redis预取约一个同步间隔内补充的令牌，
+ * 在本地逐个消耗，用完或超过同步间隔后才再次访问Redis，大多数请求不产生Redis调用；
+ * Redis返回令牌不足时，本地在一个令牌的补充时间内直接拒绝，不再重复访问Redis
+ * 预取后未在同步间隔内用完的令牌会被丢弃，因此同步间隔越短限流越精确，Redis调用也越多
+ * Redis不可用时，在一个同步间隔内改用各节点独立的本地令牌桶，此时整个集群的限额为单节点限额乘以节点数
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisRateLimiter implements DisposableBean {
+
+    private final RedisOperations redisClient;
+
+    // 是否启用
+    private final boolean enabled;
+
+    // 令牌桶KEY前缀
+    private final String keyPrefix;
+
+    // 限流规则，一个请求需要通过所有匹配的规则
+    private final List<RedisRateLimitRule> rules;
+
+    // 预取令牌的有效期，单位：毫秒
+    private final long syncMillis;
+
+    // 本地令牌桶闲置超过该时间后移除，单位：毫秒
+    private final long idleMillis;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // 本地令牌桶，KEY与Redis中的令牌桶KEY相同
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+    // 清理闲置令牌桶的线程
+    private final ScheduledExecutorService sweeper;
+
+    // Redis访问失败后，在该时间之前只使用本地令牌桶
+    private volatile long fallbackUntil;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder remoteCalls = new LongAdder();
+    private final LongAdder remoteErrors = new LongAdder();
+    private final LongAdder fallbackCalls = new LongAdder();
+
+    /**
+     * 构造限流器
+     *
+     * @param redisClient Redis客户端
+     * @param enabled     是否启用
+     * @param keyPrefix   令牌桶KEY前缀
+     * @param rules       限流规则，格式见RedisRateLimitRule
+     * @param syncMillis  预取令牌的有效期，单位：毫秒
+     * @param idleMillis  本地令牌桶闲置超过该时间后移除，单位：毫秒
+     */
+    public RedisRateLimiter(RedisOperations redisClient, boolean enabled, String keyPrefix, String[] rules,
+                            long syncMillis, long idleMillis) {
+        this.redisClient = redisClient;
+        this.enabled = enabled;
+        this.keyPrefix = keyPrefix;
+        List<RedisRateLimitRule> parsed = new ArrayList<RedisRateLimitRule>();
+        for (String rule : rules) {
+            if (!rule.trim().isEmpty()) {
+                parsed.add(RedisRateLimitRule.parse(rule));
+            }
+        }
+        this.rules = Collections.unmodifiableList(parsed);
+        this.syncMillis = Math.max(1L, syncMillis);
+        this.idleMillis = Math.max(this.syncMillis, idleMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled && !this.rules.isEmpty()) {
+            this.sweeper.scheduleWithFixedDelay(this::sweep, this.idleMillis, this.idleMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 判断请求是否允许通过
+     *
+     * @param path 请求路径
+     * @param ip   客户端IP
+     * @param user 登录用户标识，未登录时为null
+     * @return 是否允许通过
+     */
+    public boolean tryAcquire(String path, String ip, String user) {
+        if (!enabled) {
+            return true;
+        }
+        for (RedisRateLimitRule rule : rules) {
+            String id;
+            if (RedisRateLimitRule.IP.equals(rule.getDimension())) {
+                id = ip;
+            } else if (RedisRateLimitRule.USER.equals(rule.getDimension())) {
+                id = user;
+            } else {
+                id = "";
+            }
+            if (id == null || !pathMatcher.match(rule.getPattern(), path)) {
+                continue;
+            }
+            if (!tryAcquire(rule, keyPrefix + rule.getDimension() + ":" + rule.getPattern() + ":" + id)) {
+                rejected.increment();
+                return false;
+            }
+        }
+        allowed.increment();
+        return true;
+    }
+
+    /**
+     * 从指定令牌桶中取出一个令牌
+     * 同一个令牌桶的预取由持有桶锁的线程完成，其他线程等待预取结果，不会并发访问Redis
+     *
+     * @param rule 限流规则
+     * @param key  令牌桶KEY
+     * @return 是否取到令牌
+     */
+    private boolean tryAcquire(RedisRateLimitRule rule, String key) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(rule.getCapacity(), now));
+        synchronized (bucket) {
+            bucket.lastAccess = now;
+            if (bucket.leased > 0 && now < bucket.leaseExpiresAt) {
+                bucket.leased--;
+                return true;
+            }
+            if (now < bucket.deniedUntil) {
+                return false;
+            }
+            if (now < fallbackUntil) {
+                fallbackCalls.increment();
+                return bucket.tryLocal(rule, now);
+            }
+            remoteCalls.increment();
+            Long granted = redisClient.eval(RedisScripts.TOKEN_BUCKET_ACQUIRE, Collections.singletonList(key),
+                    rule.getRate(), rule.getCapacity(), rule.getBatch(syncMillis));
+            if (granted == null) {
+                remoteErrors.increment();
+                fallbackUntil = now + syncMillis;
+                fallbackCalls.increment();
+                return bucket.tryLocal(rule, now);
+            }
+            if (granted > 0) {
+                bucket.leased = granted - 1;
+                bucket.leaseExpiresAt = now + syncMillis;
+                return true;
+            }
+            bucket.leased = 0;
+            bucket.deniedUntil = now + Math.min(syncMillis, (long) Math.ceil(1000D / rule.getRate()));
+            return false;
+        }
+    }
+
+    /**
+     * 移除闲置的本地令牌桶
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        buckets.values().removeIf(bucket -> now - bucket.lastAccess > idleMillis);
+    }
+
+    /**
+     * 获取限流统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        List<String> ruleNames = new ArrayList<String>(rules.size());
+        for (RedisRateLimitRule rule : rules) {
+            ruleNames.add(rule.toString());
+        }
+        stats.put("rules", ruleNames);
+        stats.put("buckets", buckets.size());
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("remoteCalls", remoteCalls.sum());
+        stats.put("remoteErrors", remoteErrors.sum());
+        stats.put("fallbackCalls", fallbackCalls.sum());
+        stats.put("fallback", System.currentTimeMillis() < fallbackUntil);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 本地令牌桶，由所属的限流器在桶锁内访问
+     */
+    private static final class Bucket {
+
+        // 从Redis预取且尚未消耗的令牌数
+        long leased;
+
+        // 预取令牌的过期时间
+        long leaseExpiresAt;
+
+        // Redis返回令牌不足后，在该时间之前直接拒绝
+        long deniedUntil;
+
+        // Redis不可用时使用的本地令牌数
+        double localTokens;
+
+        // 本地令牌上次补充的时间
+        long localRefilledAt;
+
+        // 最近一次访问的时间
+        volatile long lastAccess;
+
+        Bucket(long capacity, long now) {
+            this.localTokens = capacity;
+            this.localRefilledAt = now;
+            this.lastAccess = now;
+        }
+
+        /**
+         * 从本地令牌桶中取出一个令牌
+         */
+        boolean tryLocal(RedisRateLimitRule rule, long now) {
+            localTokens = Math.min(rule.getCapacity(), localTokens + (now - localRefilledAt) * rule.getRate() / 1000D);
+            localRefilledAt = now;
+            if (localTokens >= 1D) {
+                localTokens -= 1D;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.commons.constant.RedisConfigConstant;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Hashing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis只读副本路由
+ * 读命令轮询发送到KEY所在主节点的健康副本，没有健康副本时回退到主节点；后台定时检查副本的主从链路和复制延迟
+ * 一致性模式：
+ * 1、eventual：容忍复制延迟，读命令总是优先读副本
+ * 2、read-your-writes：本节点写入过的KEY在窗口期内从主节点读取，保证读到自己的写入；
+ * 跟踪的KEY超过上限时，窗口期内所有读命令都回到主节点
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisReplicaRouter implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisReplicaRouter.class);
+
+    /**
+     * 容忍复制延迟的一致性模式
+     */
+    public static final String EVENTUAL = "eventual";
+
+    /**
+     * 读到自己写入的一致性模式
+     */
+    public static final String READ_YOUR_WRITES = "read-your-writes";
+
+    // 主节点 -> 副本节点
+    private final Map<RedisNode, List<RedisNode>> replicas;
+
+    // 全部副本节点的健康状态
+    private final Map<RedisNode, ReplicaState> states = new LinkedHashMap<RedisNode, ReplicaState>();
+
+    // 是否启用
+    private final boolean enabled;
+
+    // 是否保证读到自己的写入
+    private final boolean readYourWrites;
+
+    // 写入后从主节点读取的窗口期，单位：毫秒
+    private final long windowMillis;
+
+    // 最多跟踪的KEY数量
+    private final int maxTrackedKeys;
+
+    // 副本允许的最大复制延迟，单位：秒
+    private final int maxLagSeconds;
+
+    // 连接池注册表
+    private final RedisPoolRegistry poolRegistry;
+
+    // KEY的哈希值 -> 窗口期结束时间，哈希冲突只会让读命令多回到主节点，不影响一致性
+    private final ConcurrentHashMap<Long, Long> recentWrites = new ConcurrentHashMap<Long, Long>();
+
+    // 跟踪的KEY超过上限时，在该时间之前所有读命令都回到主节点
+    private volatile long primaryOnlyUntil;
+
+    // 轮询副本的计数器
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    // 定时检查副本状态的后台线程
+    private final ScheduledExecutorService checker;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder recentWriteReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * 构造副本路由
+     *
+     * @param enabled             是否启用
+     * @param replicas            主节点 -> 副本节点
+     * @param consistency         一致性模式：eventual、read-your-writes
+     * @param windowMillis        写入后从主节点读取的窗口期，单位：毫秒
+     * @param maxTrackedKeys      最多跟踪的KEY数量
+     * @param maxLagSeconds       副本允许的最大复制延迟，单位：秒
+     * @param checkIntervalMillis 检查副本状态的间隔，单位：毫秒
+     * @param poolRegistry        连接池注册表
+     */
+    public RedisReplicaRouter(boolean enabled, Map<RedisNode, List<RedisNode>> replicas, String consistency,
+                              long windowMillis, int maxTrackedKeys, int maxLagSeconds, long checkIntervalMillis,
+                              RedisPoolRegistry poolRegistry) {
+        this.enabled = enabled && replicas != null && !replicas.isEmpty();
+        this.replicas = this.enabled ? replicas : Collections.<RedisNode, List<RedisNode>>emptyMap();
+        if (!EVENTUAL.equals(consistency) && !READ_YOUR_WRITES.equals(consistency)) {
+            throw new IllegalArgumentException("不支持的副本一致性模式：" + consistency);
+        }
+        this.readYourWrites = READ_YOUR_WRITES.equals(consistency);
+        this.windowMillis = windowMillis;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.maxLagSeconds = maxLagSeconds;
+        this.poolRegistry = poolRegistry;
+        for (List<RedisNode> nodes : this.replicas.values()) {
+            for (RedisNode node : nodes) {
+                states.put(node, new ReplicaState());
+            }
+        }
+        if (this.enabled) {
+            this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "redis-replica-checker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.checker.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.checker = null;
+        }
+    }
+
+    /**
+     * 解析副本配置，格式：主节点>副本1|副本2
+     *
+     * @param entries 配置项
+     * @return 主节点 -> 副本节点
+     */
+    public static Map<RedisNode, List<RedisNode>> parse(String[] entries) {
+        Map<RedisNode, List<RedisNode>> result = new LinkedHashMap<RedisNode, List<RedisNode>>();
+        if (entries == null) {
+            return result;
+        }
+        for (String entry : entries) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int index = entry.indexOf('>');
+            if (index <= 0) {
+                throw new IllegalArgumentException("Redis副本配置格式错误，应为主节点>副本1|副本2：" + entry);
+            }
+            List<RedisNode> nodes = new ArrayList<RedisNode>();
+            for (String address : entry.substring(index + 1).split("\\|")) {
+                nodes.add(RedisNode.parse(address));
+            }
+            result.put(RedisNode.parse(entry.substring(0, index)), nodes);
+        }
+        return result;
+    }
+
+    /**
+     * 为读命令选择副本节点
+     *
+     * @param primary 主节点
+     * @param keys    本次读取的KEY，任一KEY在窗口期内被写入过都读主节点
+     * @return 副本节点，应读主节点时返回null
+     */
+    public RedisNode select(RedisNode primary, byte[]... keys) {
+        if (!enabled) {
+            return null;
+        }
+        List<RedisNode> nodes = replicas.get(primary);
+        if (nodes == null) {
+            primaryReads.increment();
+            return null;
+        }
+        if (readYourWrites && isRecentlyWritten(keys)) {
+            recentWriteReads.increment();
+            return null;
+        }
+        int size = nodes.size();
+        int start = sequence.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            RedisNode node = nodes.get((start + i) % size);
+            if (states.get(node).healthy) {
+                replicaReads.increment();
+                return node;
+            }
+        }
+        primaryReads.increment();
+        return null;
+    }
+
+    /**
+     * 是否启用
+     *
+     * @return boolean
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 是否需要记录写入的KEY
+     *
+     * @return boolean
+     */
+    public boolean isTrackingWrites() {
+        return enabled && readYourWrites;
+    }
+
+    /**
+     * 记录本节点写入的KEY，只在read-your-writes模式下生效
+     *
+     * @param key KEY的字节数组
+     */
+    public void recordWrite(byte[] key) {
+        if (!enabled || !readYourWrites) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (recentWrites.size() >= maxTrackedKeys) {
+            primaryOnlyUntil = now + windowMillis;
+            return;
+        }
+        recentWrites.put(Hashing.MURMUR_HASH.hash(key), now + windowMillis);
+    }
+
+    /**
+     * 副本连接失败，标记为不健康，等待下一次检查恢复
+     *
+     * @param node 副本节点
+     */
+    public void markDown(RedisNode node) {
+        ReplicaState state = states.get(node);
+        if (state != null && state.healthy) {
+            state.healthy = false;
+            logger.warn("\r\n ********* Redis副本【{}】连接失败，读命令回退到主节点", node);
+        }
+        fallbacks.increment();
+    }
+
+    /**
+     * 判断连接是否属于副本节点
+     *
+     * @param jedis Jedis实例
+     * @return 副本节点，不是副本时返回null
+     */
+    public RedisNode replicaOf(Jedis jedis) {
+        if (!enabled) {
+            return null;
+        }
+        for (RedisNode node : states.keySet()) {
+            if (node.getPort() == jedis.getClient().getPort() && node.getHost().equals(jedis.getClient().getHost())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断KEY是否在窗口期内被本节点写入过
+     *
+     * @param keys KEY的字节数组
+     * @return boolean
+     */
+    private boolean isRecentlyWritten(byte[][] keys) {
+        long now = System.currentTimeMillis();
+        if (now < primaryOnlyUntil) {
+            return true;
+        }
+        for (byte[] key : keys) {
+            Long until = recentWrites.get(Hashing.MURMUR_HASH.hash(key));
+            if (until != null && until > now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查所有副本的状态，并清理过了窗口期的KEY
+     */
+    private void check() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Long, Long>> iterator = recentWrites.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() <= now) {
+                iterator.remove();
+            }
+        }
+        for (Map.Entry<RedisNode, ReplicaState> entry : states.entrySet()) {
+            checkReplica(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 检查副本状态：主从链路正常，且距上次收到主节点数据的时间不超过最大复制延迟
+     *
+     * @param node  副本节点
+     * @param state 副本状态
+     */
+    private void checkReplica(RedisNode node, ReplicaState state) {
+        boolean healthy = false;
+        Jedis jedis = null;
+        try {
+            jedis = poolRegistry.getPool(node, RedisConfigConstant.DATABASE_ID).getResource();
+            Map<String, String> info = parseInfo(jedis.info("replication"));
+            state.linkStatus = info.get("master_link_status");
+            String lag = info.get("master_last_io_seconds_ago");
+            state.lagSeconds = lag == null ? -1 : Integer.parseInt(lag);
+            healthy = "slave".equals(info.get("role")) && "up".equals(state.linkStatus)
+                    && state.lagSeconds >= 0 && state.lagSeconds <= maxLagSeconds;
+        } catch (Exception e) {
+            state.linkStatus = "unreachable";
+            if (state.healthy) {
+                logger.error("\r\n ********* [检查Redis副本" + node + "状态失败]" + ExceptionUtils.getFullStackTrace(e));
+            }
+        } finally {
+            if (jedis != null) {
+                jedis.close();
+            }
+        }
+        if (healthy != state.healthy) {
+            logger.warn("\r\n ********* Redis副本【{}】状态变化：【{}】，主从链路【{}】，延迟【{}】秒",
+                    node, healthy ? "可用" : "不可用", state.linkStatus, state.lagSeconds);
+        }
+        state.healthy = healthy;
+        state.checkedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 解析INFO命令的返回结果
+     *
+     * @param info INFO命令的返回结果
+     * @return 字段 -> 值
+     */
+    private static Map<String, String> parseInfo(String info) {
+        Map<String, String> result = new HashMap<String, String>();
+        for (String line : info.split("\r\n")) {
+            int index = line.indexOf(':');
+            if (index > 0 && !line.startsWith("#")) {
+                result.put(line.substring(0, index), line.substring(index + 1).trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取副本路由统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("consistency", readYourWrites ? READ_YOUR_WRITES : EVENTUAL);
+        stats.put("replicaReads", replicaReads.sum());
+        stats.put("primaryReads", primaryReads.sum());
+        stats.put("recentWriteReads", recentWriteReads.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("trackedKeys", recentWrites.size());
+        Map<String, Object> nodes = new LinkedHashMap<String, Object>();
+        for (Map.Entry<RedisNode, ReplicaState> entry : states.entrySet()) {
+            ReplicaState state = entry.getValue();
+            Map<String, Object> node = new LinkedHashMap<String, Object>();
+            node.put("healthy", state.healthy);
+            node.put("linkStatus", state.linkStatus);
+            node.put("lagSeconds", state.lagSeconds);
+            node.put("checkedAt", state.checkedAt);
+            nodes.put(entry.getKey().getName(), node);
+        }
+        stats.put("replicas", nodes);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * 副本状态，检查之前视为不可用
+     */
+    private static final class ReplicaState {
+        private volatile boolean healthy;
+        private volatile String linkStatus;
+        private volatile int lagSeconds = -1;
+        private volatile long checkedAt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.frame.utils.redis;
+
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于SCAN游标的惰性迭代器
+ * 只有当前页消费完毕才会发送下一次SCAN，每次SCAN单独借用连接，迭代过程中不长期占用连接
+ * SCAN在Redis rehash期间可能返回重复元素，调用方需要时自行去重
+ * 分片模式下每个节点一个迭代器，通过concat依次迭代
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public abstract class RedisScanIterator<T> implements Iterator<T> {
+
+    // 下一次SCAN使用的游标
+    private String cursor = ScanParams.SCAN_POINTER_START;
+
+    // 游标是否已回到起点
+    private boolean finished;
+
+    // 当前页的元素
+    private Iterator<T> page = Collections.<T>emptyIterator();
+
+    /**
+     * 从指定游标位置获取一页数据
+     *
+     * @param cursor 游标
+     * @return 本页数据和下一次的游标，出错时返回null结束迭代
+     */
+    protected abstract ScanResult<T> scan(String cursor);
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext() && !finished) {
+            ScanResult<T> result = scan(cursor);
+            if (result == null) {
+                finished = true;
+                break;
+            }
+            cursor = result.getCursor();
+            finished = ScanParams.SCAN_POINTER_START.equals(cursor);
+            List<T> items = result.getResult();
+            page = items == null ? Collections.<T>emptyIterator() : items.iterator();
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    /**
+     * 依次迭代多个迭代器，前一个迭代完毕才开始下一个
+     *
+     * @param iterators 迭代器集合
+     * @return 迭代器
+     */
+    public static <T> Iterator<T> concat(final List<Iterator<T>> iterators) {
+        if (iterators.size() == 1) {
+            return iterators.get(0);
+        }
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (index < iterators.size()) {
+                    if (iterators.get(index).hasNext()) {
+                        return true;
+                    }
+                    index++;
+                }
+                return false;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterators.get(index).next();
+            }
+        };
+    }
+}
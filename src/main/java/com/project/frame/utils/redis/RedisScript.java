@@ -0,0 +1,107 @@
+package com.project.frame.utils.redis;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis Lua脚本定义
+ * 脚本内容和SHA1在创建时确定，执行时只发送SHA1；返回值按声明的类型转换
+ * 支持的返回类型：Long、Boolean、String、byte[]、List（元素中的字节数组转换为String）、Object（原样返回）、Void
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public final class RedisScript<T> {
+
+    // 脚本名称
+    private final String name;
+
+    // 脚本内容
+    private final byte[] script;
+
+    // 脚本SHA1，十六进制小写
+    private final byte[] sha1;
+
+    // 返回值类型
+    private final Class<T> resultType;
+
+    private RedisScript(String name, String script, Class<T> resultType) {
+        if (resultType != Long.class && resultType != Boolean.class && resultType != String.class
+                && resultType != byte[].class && resultType != List.class && resultType != Object.class
+                && resultType != Void.class) {
+            throw new IllegalArgumentException("不支持的脚本返回类型：" + resultType.getName());
+        }
+        this.name = name;
+        this.script = SafeEncoder.encode(script);
+        this.sha1 = SafeEncoder.encode(DigestUtils.sha1Hex(this.script));
+        this.resultType = resultType;
+    }
+
+    /**
+     * 创建脚本定义
+     *
+     * @param name       脚本名称
+     * @param script     脚本内容
+     * @param resultType 返回值类型
+     * @return 脚本定义
+     */
+    public static <T> RedisScript<T> of(String name, String script, Class<T> resultType) {
+        return new RedisScript<T>(name, script, resultType);
+    }
+
+    /**
+     * 把脚本的原始返回值转换为声明的类型
+     * Lua的false和nil都返回null，Boolean类型时视为false
+     *
+     * @param raw 原始返回值
+     * @return 转换后的返回值
+     */
+    @SuppressWarnings("unchecked")
+    public T convertResult(Object raw) {
+        if (resultType == Void.class) {
+            return null;
+        }
+        if (resultType == Boolean.class) {
+            if (raw instanceof Long) {
+                return (T) Boolean.valueOf((Long) raw != 0L);
+            }
+            return (T) Boolean.valueOf(raw != null);
+        }
+        if (raw == null || resultType == Object.class) {
+            return (T) raw;
+        }
+        if (resultType == Long.class) {
+            return (T) (raw instanceof byte[] ? Long.valueOf(SafeEncoder.encode((byte[]) raw)) : raw);
+        }
+        if (resultType == String.class) {
+            return (T) (raw instanceof byte[] ? SafeEncoder.encode((byte[]) raw) : String.valueOf(raw));
+        }
+        if (resultType == List.class) {
+            List<Object> result = new ArrayList<Object>();
+            for (Object item : (List<Object>) raw) {
+                result.add(item instanceof byte[] ? SafeEncoder.encode((byte[]) item) : item);
+            }
+            return (T) result;
+        }
+        return (T) raw;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getScript() {
+        return script;
+    }
+
+    public byte[] getSha1() {
+        return sha1;
+    }
+
+    public Class<T> getResultType() {
+        return resultType;
+    }
+}
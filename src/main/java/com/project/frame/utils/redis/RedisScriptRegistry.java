@@ -0,0 +1,103 @@
+package com.project.frame.utils.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis Lua脚本注册表
+ * 执行时优先使用EVALSHA，只发送脚本SHA1；Redis返回NOSCRIPT（重启、切换或执行过SCRIPT FLUSH）时自动加载脚本后重试
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisScriptRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(RedisScriptRegistry.class);
+
+    // 脚本名称 -> 脚本定义
+    private final Map<String, RedisScript<?>> scripts = new ConcurrentHashMap<String, RedisScript<?>>();
+
+    // 因NOSCRIPT重新加载脚本的次数
+    private final LongAdder reloads = new LongAdder();
+
+    /**
+     * 构造注册表并注册预定义脚本
+     *
+     * @param predefined 预定义脚本
+     */
+    public RedisScriptRegistry(RedisScript<?>... predefined) {
+        for (RedisScript<?> script : predefined) {
+            register(script);
+        }
+    }
+
+    /**
+     * 注册脚本，同名脚本内容不同时抛出异常
+     *
+     * @param script 脚本定义
+     */
+    public void register(RedisScript<?> script) {
+        RedisScript<?> existing = scripts.putIfAbsent(script.getName(), script);
+        if (existing != null && existing != script && !Arrays.equals(existing.getSha1(), script.getSha1())) {
+            throw new IllegalStateException("Redis脚本名称重复：" + script.getName());
+        }
+    }
+
+    /**
+     * 根据名称获取已注册的脚本
+     *
+     * @param name 脚本名称
+     * @return 脚本定义，不存在返回null
+     */
+    public RedisScript<?> getScript(String name) {
+        return scripts.get(name);
+    }
+
+    /**
+     * 获取所有已注册的脚本
+     *
+     * @return 脚本集合
+     */
+    public Collection<RedisScript<?>> getScripts() {
+        return scripts.values();
+    }
+
+    /**
+     * 获取因NOSCRIPT重新加载脚本的次数
+     *
+     * @return 次数
+     */
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * 在指定连接上执行脚本
+     *
+     * @param jedis  Jedis实例
+     * @param script 脚本定义
+     * @param keys   KEY参数
+     * @param args   其他参数
+     * @return 原始返回值
+     */
+    public Object execute(Jedis jedis, RedisScript<?> script, List<byte[]> keys, List<byte[]> args) {
+        register(script);
+        try {
+            return jedis.evalsha(script.getSha1(), keys, args);
+        } catch (JedisNoScriptException e) {
+            reloads.increment();
+            logger.info("\r\n ********* Redis脚本【{}】未加载，重新加载", script.getName());
+            jedis.scriptLoad(script.getScript());
+            return jedis.evalsha(script.getSha1(), keys, args);
+        }
+    }
+}
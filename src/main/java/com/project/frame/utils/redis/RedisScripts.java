@@ -0,0 +1,98 @@
+package com.project.frame.utils.redis;
+
+/**
+ * 预定义的Redis Lua脚本
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public final class RedisScripts {
+
+    /**
+     * 计数器自增，KEY没有过期时间时设置过期时间
+     * KEYS[1]：计数器KEY；ARGV[1]：增量；ARGV[2]：过期时间，单位：秒
+     * 返回自增后的值
+     */
+    public static final RedisScript<Long> INCR_BY_AND_EXPIRE = RedisScript.of("incrByAndExpire",
+            "local value = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if redis.call('TTL', KEYS[1]) == -1 then redis.call('EXPIRE', KEYS[1], ARGV[2]) end "
+                    + "return value", Long.class);
+
+    /**
+     * 值与期望值相同时删除KEY
+     * KEYS[1]：KEY；ARGV[1]：期望值
+     * 返回是否删除
+     */
+    public static final RedisScript<Boolean> DEL_IF_EQUALS = RedisScript.of("delIfEquals",
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0", Boolean.class);
+
+    /**
+     * 值与期望值相同时重新设置过期时间
+     * KEYS[1]：KEY；ARGV[1]：期望值；ARGV[2]：过期时间，单位：毫秒
+     * 返回是否设置成功
+     */
+    public static final RedisScript<Boolean> PEXPIRE_IF_EQUALS = RedisScript.of("pexpireIfEquals",
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+                    + "return 0", Boolean.class);
+
+    /**
+     * 获取锁，成功时递增并返回围栏令牌
+     * KEYS[1]：锁KEY；KEYS[2]：围栏令牌计数器KEY；ARGV[1]：持有者标识；ARGV[2]：租约时间，单位：毫秒
+     * 返回围栏令牌，锁已被占用时返回nil
+     */
+    public static final RedisScript<Long> LOCK_ACQUIRE = RedisScript.of("lockAcquire",
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return redis.call('INCR', KEYS[2]) end "
+                    + "return false", Long.class);
+
+    /**
+     * 从令牌桶中批量取出令牌，按服务端时间补充令牌，桶满后KEY自动过期
+     * KEYS[1]：令牌桶KEY；ARGV[1]：每秒补充的令牌数；ARGV[2]：桶容量；ARGV[3]：请求的令牌数
+     * 返回实际取出的令牌数，令牌不足时返回剩余的整数部分
+     */
+    public static final RedisScript<Long> TOKEN_BUCKET_ACQUIRE = RedisScript.of("tokenBucketAcquire",
+            "redis.replicate_commands() "
+                    + "local rate = tonumber(ARGV[1]) local capacity = tonumber(ARGV[2]) "
+                    + "local time = redis.call('TIME') local now = time[1] * 1000 + math.floor(time[2] / 1000) "
+                    + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+                    + "local tokens = tonumber(bucket[1]) or capacity local ts = tonumber(bucket[2]) or now "
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000) "
+                    + "local granted = math.min(tonumber(ARGV[3]), math.floor(tokens)) "
+                    + "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens - granted), 'ts', tostring(now)) "
+                    + "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000) "
+                    + "return granted", Long.class);
+
+    /**
+     * 设置布隆过滤器元素对应的位，正在重建的位图存在时同时设置，重建期间新增的元素不会在切换后丢失
+     * KEYS[1]：当前位图KEY；KEYS[2]：正在重建的位图KEY；ARGV：位偏移量
+     * 返回1
+     */
+    public static final RedisScript<Boolean> BLOOM_PUT = RedisScript.of("bloomPut",
+            "local building = redis.call('EXISTS', KEYS[2]) == 1 "
+                    + "for i = 1, #ARGV do redis.call('SETBIT', KEYS[1], ARGV[i], 1) "
+                    + "if building then redis.call('SETBIT', KEYS[2], ARGV[i], 1) end end "
+                    + "return 1", Boolean.class);
+
+    /**
+     * 清除布隆过滤器的就绪标记并放弃正在重建的位图，所有节点回退为查询数据源，直到下一次重建完成
+     * KEYS[1]：当前位图KEY；KEYS[2]：正在重建的位图KEY；ARGV[1]：就绪标记的偏移量
+     * 返回1
+     */
+    public static final RedisScript<Boolean> BLOOM_INVALIDATE = RedisScript.of("bloomInvalidate",
+            "if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('SETBIT', KEYS[1], ARGV[1], 0) end "
+                    + "redis.call('DEL', KEYS[2]) "
+                    + "return 1", Boolean.class);
+
+    /**
+     * 用重建完成的位图替换当前位图，重建期间被放弃（就绪标记不存在）时删除重建的位图
+     * KEYS[1]：当前位图KEY；KEYS[2]：正在重建的位图KEY；ARGV[1]：就绪标记的偏移量
+     * 返回是否替换
+     */
+    public static final RedisScript<Boolean> BLOOM_SWAP = RedisScript.of("bloomSwap",
+            "if redis.call('GETBIT', KEYS[2], ARGV[1]) == 0 then redis.call('DEL', KEYS[2]) return 0 end "
+                    + "redis.call('RENAME', KEYS[2], KEYS[1]) redis.call('PERSIST', KEYS[1]) "
+                    + "return 1", Boolean.class);
+
+    private RedisScripts() {
+    }
+}
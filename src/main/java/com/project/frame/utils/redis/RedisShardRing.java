@@ -0,0 +1,150 @@
+package com.project.frame.utils.redis;
+
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Redis分片一致性哈希环
+ * 每个节点在环上放置若干虚拟节点，KEY按MurmurHash落到顺时针方向的第一个虚拟节点；增删节点时只有相邻区间的KEY需要迁移
+ * KEY中包含{...}时只对第一对花括号中的内容计算哈希（与Redis Cluster的hash tag规则一致），
+ * 用于把会话及其索引等需要一起操作的KEY放到同一个节点
+ * byte类型的KEY是序列化后的字符串，计算hash tag时跳过序列化头，避免长度字节恰好等于花括号时误判
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisShardRing {
+
+    // 序列化字符串的头：流魔数、版本号、字符串标记，之后是2字节长度
+    private static final byte[] SERIALIZED_STRING_HEADER = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x74};
+
+    // 序列化字符串头和长度字节的总长度
+    private static final int SERIALIZED_STRING_OFFSET = SERIALIZED_STRING_HEADER.length + 2;
+
+    // 哈希值 -> 节点
+    private final TreeMap<Long, RedisNode> ring = new TreeMap<Long, RedisNode>();
+
+    // 全部节点，按配置顺序
+    private final List<RedisNode> nodes;
+
+    /**
+     * 构造一致性哈希环
+     *
+     * @param nodes        节点集合
+     * @param virtualNodes 每个节点的虚拟节点数
+     */
+    public RedisShardRing(List<RedisNode> nodes, int virtualNodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Redis分片节点不能为空");
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<RedisNode>(nodes));
+        int replicas = Math.max(1, virtualNodes);
+        for (RedisNode node : this.nodes) {
+            for (int i = 0; i < replicas; i++) {
+                ring.put(Hashing.MURMUR_HASH.hash(SafeEncoder.encode(node.getName() + "#" + i)), node);
+            }
+        }
+    }
+
+    /**
+     * 获取KEY所在的节点
+     *
+     * @param key KEY的字节数组
+     * @return 节点
+     */
+    public RedisNode getNode(byte[] key) {
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+        SortedMap<Long, RedisNode> tail = ring.tailMap(hash(key));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : ring.get(tail.firstKey());
+    }
+
+    /**
+     * 获取全部节点
+     *
+     * @return 节点集合
+     */
+    public List<RedisNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 统计各节点在环上占据的比例，用于检查虚拟节点数是否足够让KEY分布均匀
+     *
+     * @return 节点名称 -> 占比
+     */
+    public Map<String, Double> getOwnership() {
+        Map<String, Double> ownership = new TreeMap<String, Double>();
+        for (RedisNode node : nodes) {
+            ownership.put(node.getName(), 0D);
+        }
+        double total = Math.pow(2, 64);
+        long previous = ring.lastKey();
+        for (Map.Entry<Long, RedisNode> entry : ring.entrySet()) {
+            // 区间(previous, current]属于当前虚拟节点，按无符号差值计算长度
+            double span = unsigned(entry.getKey() - previous);
+            if (span == 0 && ring.size() == 1) {
+                span = total;
+            }
+            ownership.put(entry.getValue().getName(), ownership.get(entry.getValue().getName()) + span / total);
+            previous = entry.getKey();
+        }
+        return ownership;
+    }
+
+    /**
+     * 计算KEY的哈希值，存在hash tag时只计算花括号中的内容
+     *
+     * @param key KEY的字节数组
+     * @return 哈希值
+     */
+    private long hash(byte[] key) {
+        int from = isSerializedString(key) ? SERIALIZED_STRING_OFFSET : 0;
+        for (int start = from; start < key.length; start++) {
+            if (key[start] == '{') {
+                for (int end = start + 1; end < key.length; end++) {
+                    if (key[end] == '}') {
+                        if (end > start + 1) {
+                            byte[] tag = new byte[end - start - 1];
+                            System.arraycopy(key, start + 1, tag, 0, tag.length);
+                            return Hashing.MURMUR_HASH.hash(tag);
+                        }
+                        break;
+                    }
+                }
+                break;
+            }
+        }
+        return Hashing.MURMUR_HASH.hash(key);
+    }
+
+    /**
+     * 判断是否为序列化后的字符串
+     *
+     * @param key KEY的字节数组
+     * @return boolean
+     */
+    private static boolean isSerializedString(byte[] key) {
+        if (key.length < SERIALIZED_STRING_OFFSET) {
+            return false;
+        }
+        for (int i = 0; i < SERIALIZED_STRING_HEADER.length; i++) {
+            if (key[i] != SERIALIZED_STRING_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? (double) value : (double) (value >>> 1) * 2 + (value & 1);
+    }
+}
@@ -0,0 +1,177 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.RedisOperations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 缓存未命中时的合并加载
+ * 同一节点上同一个KEY的并发加载只执行一次，其他线程等待并共享加载结果或异常；
+ * 跨节点合并时，执行加载的线程先在Redis中获取短期租约，未获取到租约的节点轮询缓存，等待持有租约的节点写入缓存，
+ * 持有者提前结束而缓存仍未写入时接手租约，等待超过租约时间或Redis不可用时直接加载
+ * 加载函数内不能再加载同一个KEY，否则会等待自己
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisSingleFlight {
+
+    private final RedisOperations redisClient;
+
+    // 租约KEY前缀
+    private final String keyPrefix;
+
+    // 租约时间，单位：毫秒，应大于一次加载的耗时
+    private final long leaseMillis;
+
+    // 等待其他节点加载时轮询缓存的平均间隔，单位：毫秒
+    private final long retryMillis;
+
+    // 当前节点正在进行的加载
+    private final Map<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder leaseTimeouts = new LongAdder();
+    private final LongAdder leaseErrors = new LongAdder();
+
+    /**
+     * 构造合并加载器
+     *
+     * @param redisClient Redis客户端
+     * @param keyPrefix   租约KEY前缀
+     * @param leaseMillis 租约时间，单位：毫秒
+     * @param retryMillis 等待其他节点加载时轮询缓存的平均间隔，单位：毫秒
+     */
+    public RedisSingleFlight(RedisOperations redisClient, String keyPrefix, long leaseMillis, long retryMillis) {
+        this.redisClient = redisClient;
+        this.keyPrefix = keyPrefix;
+        this.leaseMillis = leaseMillis;
+        this.retryMillis = Math.max(1L, retryMillis);
+    }
+
+    /**
+     * 在当前节点内合并加载
+     * 同一个KEY同一时刻只有一个线程执行加载函数，其他线程等待其结果；加载函数抛出的异常同样抛给所有等待的线程
+     *
+     * @param key    KEY
+     * @param loader 加载函数
+     * @param <T>    值类型
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<Object>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        loads.increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * 跨节点合并加载
+     * 先在当前节点内合并，再通过Redis租约在节点之间合并；加载函数负责把结果写入缓存，读取函数从缓存读取
+     * 未获取到租约时每隔一段时间读取一次缓存，读取到即返回，不执行加载函数
+     *
+     * @param key    KEY
+     * @param cached 从缓存读取的函数，未命中返回null
+     * @param loader 加载并写入缓存的函数
+     * @param <T>    值类型
+     * @return 缓存中的值或加载结果
+     */
+    public <T> T loadShared(String key, Supplier<T> cached, Supplier<T> loader) {
+        return load(key, () -> loadWithLease(key, cached, loader));
+    }
+
+    /**
+     * 获取租约后加载，未获取到租约时等待其他节点写入缓存
+     */
+    private <T> T loadWithLease(String key, Supplier<T> cached, Supplier<T> loader) {
+        String leaseKey = keyPrefix + "{" + key + "}";
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + leaseMillis;
+        while (true) {
+            long acquired = redisClient.setnxAndPexpireString(leaseKey, owner, leaseMillis);
+            if (acquired < 0) {
+                leaseErrors.increment();
+                return loader.get();
+            }
+            if (acquired > 0) {
+                leases.increment();
+                try {
+                    // 获取租约前其他节点可能刚好完成加载
+                    T value = cached.get();
+                    return value != null ? value : loader.get();
+                } finally {
+                    redisClient.delIfEquals(leaseKey, owner);
+                }
+            }
+            long sleep = retryMillis / 2 + ThreadLocalRandom.current().nextLong(retryMillis + 1);
+            try {
+                Thread.sleep(Math.max(1L, Math.min(sleep, deadline - System.currentTimeMillis())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return loader.get();
+            }
+            T value = cached.get();
+            if (value != null) {
+                remoteHits.increment();
+                return value;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                leaseTimeouts.increment();
+                return loader.get();
+            }
+        }
+    }
+
+    /**
+     * 获取合并加载统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("inFlight", flights.size());
+        stats.put("loads", loads.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("leases", leases.sum());
+        stats.put("remoteHits", remoteHits.sum());
+        stats.put("leaseTimeouts", leaseTimeouts.sum());
+        stats.put("leaseErrors", leaseErrors.sum());
+        return stats;
+    }
+}
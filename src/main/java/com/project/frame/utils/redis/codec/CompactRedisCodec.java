@@ -0,0 +1,618 @@
+package com.project.frame.utils.redis.codec;
+
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.session.mgt.SimpleSession;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 紧凑二进制编解码
+ * 数据格式：1个字节的版本号 + 带类型标记的值
+ * 支持基础类型、常用集合、本项目的实体类(com.project.frame包下无自定义序列化逻辑的Serializable类)、
+ * Shiro的SimpleSession、SimplePrincipalCollection和SimpleAuthorizationInfo，
+ * 其余类型以内嵌Java序列化数据的方式写入。
+ * 类均通过线程上下文类加载器加载，不会出现devtools下的类型转换异常
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class CompactRedisCodec implements RedisCodec {
+
+    public static final String NAME = "compact";
+
+    // 格式版本号，即数据首字节
+    public static final byte FORMAT_V1 = 0x01;
+
+    // 最大嵌套深度，超过时认为存在循环引用
+    private static final int MAX_DEPTH = 64;
+
+    /* ********************************** 类型标记 **********************************/
+    private static final int T_NULL = 0;
+    private static final int T_STRING = 1;
+    private static final int T_INTEGER = 2;
+    private static final int T_LONG = 3;
+    private static final int T_TRUE = 4;
+    private static final int T_FALSE = 5;
+    private static final int T_DOUBLE = 6;
+    private static final int T_FLOAT = 7;
+    private static final int T_SHORT = 8;
+    private static final int T_BYTE = 9;
+    private static final int T_CHAR = 10;
+    private static final int T_DATE = 11;
+    private static final int T_BYTES = 12;
+    private static final int T_LIST = 13;
+    private static final int T_SET = 14;
+    private static final int T_MAP = 15;
+    private static final int T_ENUM = 16;
+    private static final int T_OBJECT = 17;
+    private static final int T_SESSION = 18;
+    private static final int T_PRINCIPALS = 19;
+    private static final int T_AUTHZ_INFO = 20;
+    private static final int T_JAVA = 21;
+
+    // 允许按字段编码的类的包前缀
+    private static final String OBJECT_PACKAGE_PREFIX = "com.project.frame.";
+
+    // 类的字段描述缓存，随类卸载而释放
+    private static final ClassValue<ClassDescriptor> DESCRIPTORS = new ClassValue<ClassDescriptor>() {
+        @Override
+        protected ClassDescriptor computeValue(Class<?> type) {
+            return new ClassDescriptor(type);
+        }
+    };
+
+    // 不支持的类型使用的内嵌编码
+    private final JdkRedisCodec jdkCodec = new JdkRedisCodec();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == FORMAT_V1;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        Output out = new Output(64);
+        out.writeByte(FORMAT_V1);
+        writeValue(out, value, 0);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (!canDecode(bytes)) {
+            throw new StreamCorruptedException("不是compact格式的数据");
+        }
+        Input in = new Input(bytes, 1);
+        return readValue(in);
+    }
+
+    /* ********************************** 编码 **********************************/
+
+    private void writeValue(Output out, Object value, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new NotSerializableException("嵌套层级超过" + MAX_DEPTH + "，可能存在循环引用");
+        }
+        if (value == null) {
+            out.writeByte(T_NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(T_STRING);
+            out.writeString((String) value);
+        } else if (type == Long.class) {
+            out.writeByte(T_LONG);
+            out.writeVarLong((Long) value);
+        } else if (type == Integer.class) {
+            out.writeByte(T_INTEGER);
+            out.writeVarLong((Integer) value);
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? T_TRUE : T_FALSE);
+        } else if (type == Date.class) {
+            out.writeByte(T_DATE);
+            out.writeVarLong(((Date) value).getTime());
+        } else if (type == Double.class) {
+            out.writeByte(T_DOUBLE);
+            out.writeFixedLong(Double.doubleToLongBits((Double) value));
+        } else if (type == Float.class) {
+            out.writeByte(T_FLOAT);
+            out.writeVarLong(Float.floatToIntBits((Float) value));
+        } else if (type == Short.class) {
+            out.writeByte(T_SHORT);
+            out.writeVarLong((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(T_BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            out.writeByte(T_CHAR);
+            out.writeVarLong((Character) value);
+        } else if (type == byte[].class) {
+            out.writeByte(T_BYTES);
+            out.writeBytes((byte[]) value);
+        } else if (isPlainList(type)) {
+            List<?> list = (List<?>) value;
+            out.writeByte(T_LIST);
+            out.writeVarInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item, depth + 1);
+            }
+        } else if (type == HashSet.class || type == LinkedHashSet.class) {
+            Set<?> set = (Set<?>) value;
+            out.writeByte(T_SET);
+            out.writeVarInt(set.size());
+            for (Object item : set) {
+                writeValue(out, item, depth + 1);
+            }
+        } else if (type == HashMap.class || type == LinkedHashMap.class) {
+            writeMap(out, (Map<?, ?>) value, depth);
+        } else if (value instanceof Enum) {
+            out.writeByte(T_ENUM);
+            out.writeString(((Enum<?>) value).getDeclaringClass().getName());
+            out.writeString(((Enum<?>) value).name());
+        } else if (type == SimpleSession.class) {
+            writeSession(out, (SimpleSession) value, depth);
+        } else if (type == SimplePrincipalCollection.class) {
+            writePrincipals(out, (SimplePrincipalCollection) value, depth);
+        } else if (type == SimpleAuthorizationInfo.class) {
+            SimpleAuthorizationInfo info = (SimpleAuthorizationInfo) value;
+            out.writeByte(T_AUTHZ_INFO);
+            writeValue(out, info.getRoles(), depth + 1);
+            writeValue(out, info.getStringPermissions(), depth + 1);
+            writeValue(out, info.getObjectPermissions(), depth + 1);
+        } else {
+            ClassDescriptor descriptor = DESCRIPTORS.get(type);
+            if (descriptor.fieldEncodable) {
+                writeObject(out, value, descriptor, depth);
+            } else {
+                out.writeByte(T_JAVA);
+                out.writeBytes(jdkCodec.encode(value));
+            }
+        }
+    }
+
+    private void writeMap(Output out, Map<?, ?> map, int depth) throws IOException {
+        out.writeByte(T_MAP);
+        out.writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey(), depth + 1);
+            writeValue(out, entry.getValue(), depth + 1);
+        }
+    }
+
+    private void writeSession(Output out, SimpleSession session, int depth) throws IOException {
+        out.writeByte(T_SESSION);
+        writeValue(out, session.getId(), depth + 1);
+        writeValue(out, session.getStartTimestamp(), depth + 1);
+        writeValue(out, session.getStopTimestamp(), depth + 1);
+        writeValue(out, session.getLastAccessTime(), depth + 1);
+        out.writeVarLong(session.getTimeout());
+        out.writeByte(session.isExpired() ? 1 : 0);
+        writeValue(out, session.getHost(), depth + 1);
+        Map<Object, Object> attributes = session.getAttributes();
+        if (attributes == null) {
+            out.writeByte(T_NULL);
+        } else {
+            writeMap(out, attributes, depth + 1);
+        }
+    }
+
+    private void writePrincipals(Output out, SimplePrincipalCollection principals, int depth) throws IOException {
+        out.writeByte(T_PRINCIPALS);
+        // 空的身份集合没有Realm名称，getRealmNames返回null
+        Set<String> realmNames = principals.isEmpty() ? Collections.<String>emptySet() : principals.getRealmNames();
+        out.writeVarInt(realmNames.size());
+        for (String realmName : realmNames) {
+            out.writeString(realmName);
+            Collection<?> realmPrincipals = principals.fromRealm(realmName);
+            out.writeVarInt(realmPrincipals.size());
+            for (Object principal : realmPrincipals) {
+                writeValue(out, principal, depth + 1);
+            }
+        }
+    }
+
+    private void writeObject(Output out, Object value, ClassDescriptor descriptor, int depth) throws IOException {
+        out.writeByte(T_OBJECT);
+        out.writeString(descriptor.type.getName());
+        out.writeVarInt(descriptor.fields.length);
+        try {
+            for (Field field : descriptor.fields) {
+                out.writeString(field.getName());
+                writeValue(out, field.get(value), depth + 1);
+            }
+        } catch (IllegalAccessException e) {
+            throw new NotSerializableException(descriptor.type.getName());
+        }
+    }
+
+    private static boolean isPlainList(Class<?> type) {
+        return type == ArrayList.class || type.getName().startsWith("java.util.Arrays$ArrayList")
+                || type.getName().startsWith("java.util.Collections$Unmodifiable") && List.class.isAssignableFrom(type);
+    }
+
+    /* ********************************** 解码 **********************************/
+
+    @SuppressWarnings("unchecked")
+    private Object readValue(Input in) throws IOException, ClassNotFoundException {
+        int tag = in.readByte();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_STRING:
+                return in.readString();
+            case T_INTEGER:
+                return (int) in.readVarLong();
+            case T_LONG:
+                return in.readVarLong();
+            case T_TRUE:
+                return Boolean.TRUE;
+            case T_FALSE:
+                return Boolean.FALSE;
+            case T_DOUBLE:
+                return Double.longBitsToDouble(in.readFixedLong());
+            case T_FLOAT:
+                return Float.intBitsToFloat((int) in.readVarLong());
+            case T_SHORT:
+                return (short) in.readVarLong();
+            case T_BYTE:
+                return (byte) in.readByte();
+            case T_CHAR:
+                return (char) in.readVarLong();
+            case T_DATE:
+                return new Date(in.readVarLong());
+            case T_BYTES:
+                return in.readBytes();
+            case T_LIST: {
+                int size = in.readVarInt();
+                List<Object> list = new ArrayList<Object>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case T_SET: {
+                int size = in.readVarInt();
+                Set<Object> set = new LinkedHashSet<Object>(capacity(size));
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(in));
+                }
+                return set;
+            }
+            case T_MAP:
+                return readMapBody(in);
+            case T_ENUM: {
+                Class enumType = loadClass(in.readString());
+                return Enum.valueOf(enumType, in.readString());
+            }
+            case T_OBJECT:
+                return readObject(in);
+            case T_SESSION:
+                return readSession(in);
+            case T_PRINCIPALS:
+                return readPrincipals(in);
+            case T_AUTHZ_INFO: {
+                SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+                info.setRoles((Set<String>) readValue(in));
+                info.setStringPermissions((Set<String>) readValue(in));
+                info.setObjectPermissions((Set) readValue(in));
+                return info;
+            }
+            case T_JAVA:
+                return jdkCodec.decode(in.readBytes());
+            default:
+                throw new StreamCorruptedException("未知的类型标记：" + tag);
+        }
+    }
+
+    private Map<Object, Object> readMapBody(Input in) throws IOException, ClassNotFoundException {
+        int size = in.readVarInt();
+        Map<Object, Object> map = new LinkedHashMap<Object, Object>(capacity(size));
+        for (int i = 0; i < size; i++) {
+            Object key = readValue(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SimpleSession readSession(Input in) throws IOException, ClassNotFoundException {
+        SimpleSession session = new SimpleSession();
+        session.setId((Serializable) readValue(in));
+        session.setStartTimestamp((Date) readValue(in));
+        session.setStopTimestamp((Date) readValue(in));
+        session.setLastAccessTime((Date) readValue(in));
+        session.setTimeout(in.readVarLong());
+        session.setExpired(in.readByte() == 1);
+        session.setHost((String) readValue(in));
+        session.setAttributes((Map<Object, Object>) readValue(in));
+        return session;
+    }
+
+    private SimplePrincipalCollection readPrincipals(Input in) throws IOException, ClassNotFoundException {
+        SimplePrincipalCollection principals = new SimplePrincipalCollection();
+        int realmCount = in.readVarInt();
+        for (int i = 0; i < realmCount; i++) {
+            String realmName = in.readString();
+            int size = in.readVarInt();
+            List<Object> realmPrincipals = new ArrayList<Object>(size);
+            for (int j = 0; j < size; j++) {
+                realmPrincipals.add(readValue(in));
+            }
+            principals.addAll(realmPrincipals, realmName);
+        }
+        return principals;
+    }
+
+    private Object readObject(Input in) throws IOException, ClassNotFoundException {
+        Class<?> type = loadClass(in.readString());
+        ClassDescriptor descriptor = DESCRIPTORS.get(type);
+        if (!descriptor.fieldEncodable) {
+            throw new NotSerializableException(type.getName());
+        }
+        Object value;
+        try {
+            value = descriptor.constructor.newInstance();
+        } catch (Exception e) {
+            throw new NotSerializableException(type.getName());
+        }
+        int fieldCount = in.readVarInt();
+        for (int i = 0; i < fieldCount; i++) {
+            String fieldName = in.readString();
+            Object fieldValue = readValue(in);
+            // 忽略类升级后已删除的字段
+            Field field = descriptor.fieldMap.get(fieldName);
+            if (field == null) {
+                continue;
+            }
+            if (fieldValue == null && field.getType().isPrimitive()) {
+                continue;
+            }
+            try {
+                field.set(value, fieldValue);
+            } catch (Exception e) {
+                throw new StreamCorruptedException("字段【" + type.getName() + "." + fieldName + "】赋值失败：" + e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    private static Class<?> loadClass(String name) throws ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CompactRedisCodec.class.getClassLoader();
+        }
+        return Class.forName(name, false, classLoader);
+    }
+
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+
+    /* ********************************** 内部类 **********************************/
+
+    /**
+     * 类的字段描述
+     */
+    private static class ClassDescriptor {
+
+        private final Class<?> type;
+
+        // 是否可以按字段编码
+        private final boolean fieldEncodable;
+
+        private final Constructor<?> constructor;
+
+        private final Field[] fields;
+
+        private final Map<String, Field> fieldMap = new HashMap<String, Field>();
+
+        ClassDescriptor(Class<?> type) {
+            this.type = type;
+            Constructor<?> noArgConstructor = null;
+            boolean encodable = type.getName().startsWith(OBJECT_PACKAGE_PREFIX)
+                    && Serializable.class.isAssignableFrom(type)
+                    && !Modifier.isAbstract(type.getModifiers())
+                    && !type.isAnonymousClass()
+                    && !(type.isMemberClass() && !Modifier.isStatic(type.getModifiers()));
+            if (encodable) {
+                try {
+                    noArgConstructor = type.getDeclaredConstructor();
+                    noArgConstructor.setAccessible(true);
+                } catch (Exception e) {
+                    encodable = false;
+                }
+            }
+            List<Field> fieldList = new ArrayList<Field>();
+            for (Class<?> c = type; encodable && c != null && c != Object.class; c = c.getSuperclass()) {
+                if (hasCustomSerialization(c)) {
+                    encodable = false;
+                    break;
+                }
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                        continue;
+                    }
+                    // 子类字段与父类字段同名时无法区分
+                    if (fieldMap.containsKey(field.getName())) {
+                        encodable = false;
+                        break;
+                    }
+                    field.setAccessible(true);
+                    fieldList.add(field);
+                    fieldMap.put(field.getName(), field);
+                }
+            }
+            this.fieldEncodable = encodable;
+            this.constructor = noArgConstructor;
+            this.fields = fieldList.toArray(new Field[0]);
+        }
+
+        private static boolean hasCustomSerialization(Class<?> c) {
+            for (Method method : c.getDeclaredMethods()) {
+                String name = method.getName();
+                if ("writeObject".equals(name) || "readObject".equals(name)
+                        || "writeReplace".equals(name) || "readResolve".equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 可扩容的写缓冲
+     */
+    private static class Output {
+
+        private byte[] buffer;
+
+        private int position;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) b;
+        }
+
+        void writeVarInt(int value) {
+            writeUnsignedVarLong(value & 0xFFFFFFFFL);
+        }
+
+        // zigzag编码，绝对值小的负数同样只占少量字节
+        void writeVarLong(long value) {
+            writeUnsignedVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int i = 7; i >= 0; i--) {
+                buffer[position++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void writeUnsignedVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+    }
+
+    /**
+     * 读缓冲
+     */
+    private static class Input {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() throws EOFException {
+            if (position >= buffer.length) {
+                throw new EOFException();
+            }
+            return buffer[position++];
+        }
+
+        int readVarInt() throws IOException {
+            long value = readUnsignedVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("长度越界：" + value);
+            }
+            return (int) value;
+        }
+
+        long readVarLong() throws IOException {
+            long value = readUnsignedVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readFixedLong() throws EOFException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        byte[] readBytes() throws IOException {
+            int length = readVarInt();
+            if (position + length > buffer.length) {
+                throw new EOFException();
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt();
+            if (position + length > buffer.length) {
+                throw new EOFException();
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private long readUnsignedVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("varint格式错误");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.frame.utils.redis.codec;
+
+import com.project.frame.utils.ByteUtil;
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+/**
+ * Java序列化编解码
+ * 兼容升级前写入的数据。反序列化时优先使用线程上下文类加载器，
+ * 避免spring-boot-devtools的RestartClassLoader与AppClassLoader加载的类互相转换失败
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class JdkRedisCodec implements RedisCodec {
+
+    public static final String NAME = "jdk";
+
+    // Java序列化流的魔数
+    private static final byte STREAM_MAGIC_0 = (byte) 0xAC;
+    private static final byte STREAM_MAGIC_1 = (byte) 0xED;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == STREAM_MAGIC_0 && bytes[1] == STREAM_MAGIC_1;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return ByteUtil.objectToBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = JdkRedisCodec.class.getClassLoader();
+        }
+        ObjectInputStream in = new ClassLoaderObjectInputStream(classLoader, new ByteArrayInputStream(bytes));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.frame.utils.redis.codec;
+
+import java.io.IOException;
+
+/**
+ * Redis对象值编解码接口
+ * 每种编码格式都需要能够通过数据的首字节识别自身，以便新旧格式的数据在同一个库中共存
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public interface RedisCodec {
+
+    /**
+     * 获取编码格式名称
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 判断字节数组是否为本编码格式写入的数据
+     *
+     * @param bytes 字节数组
+     * @return boolean
+     */
+    boolean canDecode(byte[] bytes);
+
+    /**
+     * 把对象编码成字节数组
+     *
+     * @param value 对象
+     * @return 字节数组
+     * @throws IOException 对象无法用此格式编码
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * 把字节数组解码成对象
+     *
+     * @param bytes 字节数组
+     * @return 对象
+     * @throws IOException            数据格式错误
+     * @throws ClassNotFoundException 找不到数据中记录的类
+     */
+    Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+}
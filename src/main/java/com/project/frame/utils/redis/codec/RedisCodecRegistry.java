@@ -0,0 +1,158 @@
+package com.project.frame.utils.redis.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Redis对象值编解码注册表
+ * 写入时使用配置的编码格式，读取时根据数据首字节自动选择编码格式，
+ * 因此切换编码格式后新旧数据可以共存，旧数据随过期或重写逐步迁移
+ * 销毁时同时销毁压缩器，释放zlib的本地内存
+ * 此类由RedisConfig注入到Spring
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCodecRegistry implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisCodecRegistry.class);
+
+    // 所有已注册的编码格式
+    private final List<RedisCodec> codecs;
+
+    // 写入时使用的编码格式
+    private final RedisCodec writeCodec;
+
+    // 写入格式无法编码时使用的兜底格式
+    private final RedisCodec fallbackCodec;
+
+    // 编码结果的压缩器，为null时不压缩
+    private RedisCompressor compressor;
+
+    /**
+     * 构造编解码注册表
+     *
+     * @param writeCodecName 写入时使用的编码格式名称
+     * @param codecs         所有可读取的编码格式，最后一个作为兜底格式
+     */
+    public RedisCodecRegistry(String writeCodecName, RedisCodec... codecs) {
+        if (codecs == null || codecs.length == 0) {
+            throw new IllegalArgumentException("RedisCodecRegistry初始化时，codecs参数不能为空");
+        }
+        this.codecs = new ArrayList<RedisCodec>(Arrays.asList(codecs));
+        this.fallbackCodec = codecs[codecs.length - 1];
+        this.writeCodec = getCodec(writeCodecName);
+        if (this.writeCodec == null) {
+            throw new IllegalArgumentException("未知的Redis编码格式：" + writeCodecName);
+        }
+    }
+
+    /**
+     * 根据名称获取编码格式
+     *
+     * @param name 编码格式名称
+     * @return 编码格式，不存在时返回null
+     */
+    public RedisCodec getCodec(String name) {
+        for (RedisCodec codec : codecs) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 设置编码结果的压缩器
+     *
+     * @param compressor 压缩器
+     */
+    public void setCompressor(RedisCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    /**
+     * 获取编码结果的压缩器
+     */
+    public RedisCompressor getCompressor() {
+        return compressor;
+    }
+
+    @Override
+    public void destroy() {
+        if (compressor != null) {
+            compressor.destroy();
+        }
+    }
+
+    /**
+     * 获取写入时使用的编码格式
+     */
+    public RedisCodec getWriteCodec() {
+        return writeCodec;
+    }
+
+    /**
+     * 把对象编码成字节数组，超过压缩阈值时压缩
+     *
+     * @param value 对象
+     * @return 字节数组
+     * @throws IOException 编码失败
+     */
+    public byte[] encode(Object value) throws IOException {
+        byte[] bytes = encodeUncompressed(value);
+        return compressor == null ? bytes : compressor.compress(bytes);
+    }
+
+    /**
+     * 把对象编码成字节数组
+     * 写入格式不支持该对象时(如存在循环引用)退回兜底格式
+     *
+     * @param value 对象
+     * @return 字节数组
+     * @throws IOException 编码失败
+     */
+    private byte[] encodeUncompressed(Object value) throws IOException {
+        if (writeCodec == fallbackCodec) {
+            return writeCodec.encode(value);
+        }
+        try {
+            return writeCodec.encode(value);
+        } catch (IOException e) {
+            logger.debug("\r\n ********* 编码格式【{}】无法编码类型【{}】，退回【{}】：{}", writeCodec.getName(),
+                    value == null ? null : value.getClass().getName(), fallbackCodec.getName(), e.getMessage());
+            return fallbackCodec.encode(value);
+        }
+    }
+
+    /**
+     * 根据首字节识别编码格式并解码，压缩数据先解压
+     *
+     * @param bytes 字节数组
+     * @return 对象
+     * @throws IOException            无法识别的编码格式或数据错误
+     * @throws ClassNotFoundException 找不到数据中记录的类
+     */
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (bytes == null) {
+            return null;
+        }
+        if (RedisCompressor.isCompressed(bytes)) {
+            if (compressor == null) {
+                throw new IOException("数据已压缩，但未配置压缩器");
+            }
+            bytes = compressor.decompress(bytes);
+        }
+        for (RedisCodec codec : codecs) {
+            if (codec.canDecode(bytes)) {
+                return codec.decode(bytes);
+            }
+        }
+        throw new IOException("无法识别的Redis数据编码格式，首字节：" + (bytes.length == 0 ? "空" : String.valueOf(bytes[0] & 0xFF)));
+    }
+}
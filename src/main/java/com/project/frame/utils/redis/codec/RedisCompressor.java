@@ -0,0 +1,275 @@
+package com.project.frame.utils.redis.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis对象值压缩
+ * 编码结果超过阈值时使用Deflate压缩并加上压缩头，压缩后没有变小则保留原数据；
+ * 读取时根据首字节识别压缩数据，关闭压缩后已压缩的数据仍可读取
+ * 压缩数据格式：1字节压缩头 + 原始长度(varint) + Deflate数据，原始数据仍带有各编码格式自己的头
+ * Deflater和Inflater占用zlib的本地内存，放在容量有限的池中复用；池满时归还的实例和销毁时池中的实例立即调用end释放，
+ * 不依赖线程存活时间或对象终结
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisCompressor {
+
+    /**
+     * 压缩头，高4位为压缩标记，低4位为版本号
+     * 与compact格式的0x01、Java序列化的0xAC均不冲突
+     */
+    public static final byte DEFLATE_V1 = 0x11;
+
+    // 解压后允许的最大长度，防止异常数据导致分配过大的数组
+    private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    // 池中最多保留的Deflater、Inflater数量
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    // 是否启用压缩
+    private final boolean enabled;
+
+    // 超过该长度才压缩，单位：字节
+    private final int threshold;
+
+    // 压缩级别
+    private final int level;
+
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<Inflater>(POOL_SIZE);
+
+    // 是否已销毁，销毁后归还的实例不再放回池中
+    private volatile boolean destroyed;
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder ineffective = new LongAdder();
+    private final LongAdder decompressed = new LongAdder();
+    private final LongAdder bytesBefore = new LongAdder();
+    private final LongAdder bytesAfter = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    /**
+     * 构造压缩器
+     *
+     * @param enabled   是否启用压缩
+     * @param threshold 超过该长度才压缩，单位：字节
+     * @param level     Deflate压缩级别，1-9
+     */
+    public RedisCompressor(boolean enabled, int threshold, int level) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    /**
+     * 判断是否为压缩数据
+     *
+     * @param bytes 字节数组
+     * @return boolean
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == DEFLATE_V1;
+    }
+
+    /**
+     * 按阈值压缩编码后的数据
+     *
+     * @param bytes 编码后的数据
+     * @return 压缩数据，未压缩时返回原数据
+     */
+    public byte[] compress(byte[] bytes) {
+        if (!enabled || bytes.length <= threshold) {
+            skipped.increment();
+            return bytes;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+        out.write(DEFLATE_V1);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        Deflater deflater = borrowDeflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            release(deflaters, deflater);
+        }
+        compressNanos.add(System.nanoTime() - start);
+
+        if (out.size() >= bytes.length) {
+            ineffective.increment();
+            return bytes;
+        }
+        compressed.increment();
+        bytesBefore.add(bytes.length);
+        bytesAfter.add(out.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * 解压数据
+     *
+     * @param bytes 压缩数据
+     * @return 原始编码数据
+     * @throws IOException 数据格式错误
+     */
+    public byte[] decompress(byte[] bytes) throws IOException {
+        if (!isCompressed(bytes)) {
+            throw new StreamCorruptedException("不是压缩格式的数据");
+        }
+        long start = System.nanoTime();
+        int pos = 1;
+        int length = 0;
+        int shift = 0;
+        while (true) {
+            if (pos >= bytes.length || shift > 28) {
+                throw new StreamCorruptedException("压缩数据长度错误");
+            }
+            byte b = bytes[pos++];
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new StreamCorruptedException("压缩数据长度错误：" + length);
+        }
+
+        byte[] result = new byte[length];
+        Inflater inflater = borrowInflater();
+        try {
+            inflater.setInput(bytes, pos, bytes.length - pos);
+            int total = 0;
+            while (total < length && !inflater.finished()) {
+                int n = inflater.inflate(result, total, length - total);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += n;
+            }
+            if (total != length) {
+                throw new StreamCorruptedException("压缩数据不完整");
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("压缩数据错误：" + e.getMessage());
+        } finally {
+            release(inflaters, inflater);
+        }
+        decompressed.increment();
+        decompressNanos.add(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 从池中取出Deflater，池为空时新建
+     */
+    private Deflater borrowDeflater() {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level);
+        }
+        deflater.reset();
+        return deflater;
+    }
+
+    /**
+     * 从池中取出Inflater，池为空时新建
+     */
+    private Inflater borrowInflater() {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            return new Inflater();
+        }
+        inflater.reset();
+        return inflater;
+    }
+
+    /**
+     * 把实例归还到池中，池已满或已销毁时释放本地内存；归还时恰好销毁的，再次清空池
+     */
+    private <T> void release(BlockingQueue<T> pool, T zlib) {
+        if (destroyed || !pool.offer(zlib)) {
+            end(zlib);
+            return;
+        }
+        if (destroyed) {
+            drain(pool);
+        }
+    }
+
+    private static void end(Object zlib) {
+        if (zlib instanceof Deflater) {
+            ((Deflater) zlib).end();
+        } else if (zlib instanceof Inflater) {
+            ((Inflater) zlib).end();
+        }
+    }
+
+    private static void drain(BlockingQueue<?> pool) {
+        Object zlib;
+        while ((zlib = pool.poll()) != null) {
+            end(zlib);
+        }
+    }
+
+    /**
+     * 销毁压缩器，释放池中所有Deflater、Inflater的本地内存；正在使用的实例在归还时释放
+     */
+    public void destroy() {
+        destroyed = true;
+        drain(deflaters);
+        drain(inflaters);
+    }
+
+    /**
+     * 获取压缩统计信息
+     *
+     * @return 压缩次数、压缩率、耗时等
+     */
+    public Map<String, Object> getStats() {
+        long before = bytesBefore.sum();
+        long after = bytesAfter.sum();
+        long compressedCount = compressed.sum();
+        long decompressedCount = decompressed.sum();
+        long attempts = compressedCount + ineffective.sum();
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("threshold", threshold);
+        stats.put("level", level);
+        stats.put("compressed", compressedCount);
+        stats.put("belowThreshold", skipped.sum());
+        stats.put("ineffective", ineffective.sum());
+        stats.put("decompressed", decompressedCount);
+        stats.put("bytesBefore", before);
+        stats.put("bytesAfter", after);
+        stats.put("ratio", before == 0 ? 0D : (double) after / before);
+        stats.put("avgCompressMicros", attempts == 0 ? 0D : compressNanos.sum() / 1e3 / attempts);
+        stats.put("avgDecompressMicros", decompressedCount == 0 ? 0D : decompressNanos.sum() / 1e3 / decompressedCount);
+        stats.put("compressCpuMillis", compressNanos.sum() / 1e6);
+        stats.put("decompressCpuMillis", decompressNanos.sum() / 1e6);
+        return stats;
+    }
+}
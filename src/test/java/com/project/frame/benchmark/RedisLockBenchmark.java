@@ -0,0 +1,178 @@
+package com.project.frame.benchmark;
+
+import com.project.frame.commons.config.RedisConfig;
+import com.project.frame.commons.constant.RedisConfigConstant;
+import com.project.frame.utils.LocalRedisClient;
+import com.project.frame.utils.RedisClient;
+import com.project.frame.utils.redis.RedisLock;
+import com.project.frame.utils.redis.RedisLockManager;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis分布式锁的竞争基准
+ * 多个线程反复竞争同一把锁，统计获取锁的吞吐量和等待耗时分布，并校验互斥性和围栏令牌的单调递增；
+ * 最后用很短的租约持有锁超过租约时间，校验看门狗续期期间其他竞争者无法获取锁
+ * 使用真实的RedisConfig和RedisClient，需要本地可用的redis-server，不参与单元测试，直接运行main方法：
+ * java -cp ... com.project.frame.benchmark.RedisLockBenchmark [host] [port] [password] [threads] [acquisitionsPerThread] [holdMicros]
+ * host为local时启用local环境，使用进程内的LocalRedisClient，不需要redis-server
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisLockBenchmark {
+
+    private static final String LOCK_NAME = "benchmark";
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        String port = args.length > 1 ? args[1] : "6379";
+        String password = args.length > 2 ? args[2] : "";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int perThread = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+        long holdMicros = args.length > 5 ? Long.parseLong(args[5]) : 100;
+
+        AnnotationConfigApplicationContext context = createContext(host, port, password, threads);
+        try {
+            RedisLockManager lockManager = context.getBean(RedisLockManager.class);
+            runContention(lockManager, threads, perThread, holdMicros);
+            verifyWatchdog(lockManager);
+            System.out.println("stats                  : " + lockManager.getStats());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 使用application-redis.yml和命令行参数创建只包含Redis相关Bean的容器
+     * host为local时启用local环境，注册LocalRedisClient代替RedisClient
+     */
+    private static AnnotationConfigApplicationContext createContext(String host, String port, String password,
+                                                                    int threads) throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        for (PropertySource<?> source : new YamlPropertySourceLoader().load("application-redis",
+                new ClassPathResource("application-redis.yml"))) {
+            context.getEnvironment().getPropertySources().addLast(source);
+        }
+        Map<String, Object> overrides = new HashMap<String, Object>();
+        overrides.put("spring.redis.host", host);
+        overrides.put("spring.redis.port", port);
+        overrides.put("spring.redis.password", password);
+        overrides.put("spring.redis.jedis.pool.max-active", threads + 4);
+        overrides.put("frame.redis.near-cache.enabled", false);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", overrides));
+        boolean local = "local".equals(host);
+        if (local) {
+            context.getEnvironment().setActiveProfiles("local");
+        }
+        context.register(RedisConfigConstant.class, RedisConfig.class, local ? LocalRedisClient.class : RedisClient.class);
+        context.registerBean(ConcurrentMapCacheManager.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * 多线程竞争同一把锁
+     */
+    private static void runContention(final RedisLockManager lockManager, int threads, final int perThread,
+                                      final long holdMicros) throws InterruptedException {
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger exclusionViolations = new AtomicInteger();
+        final AtomicInteger tokenViolations = new AtomicInteger();
+        final AtomicInteger timeouts = new AtomicInteger();
+        final AtomicLong lastToken = new AtomicLong();
+        final long[][] waits = new long[threads][perThread];
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        long begin = System.nanoTime();
+                        RedisLock lock = lockManager.tryLock(LOCK_NAME, 10000L);
+                        waits[index][i] = System.nanoTime() - begin;
+                        if (lock == null) {
+                            timeouts.incrementAndGet();
+                            continue;
+                        }
+                        try {
+                            if (inside.incrementAndGet() != 1) {
+                                exclusionViolations.incrementAndGet();
+                            }
+                            if (lock.getToken() <= lastToken.get()) {
+                                tokenViolations.incrementAndGet();
+                            }
+                            lastToken.set(lock.getToken());
+                            long until = System.nanoTime() + holdMicros * 1000L;
+                            while (System.nanoTime() < until) {
+                                Thread.yield();
+                            }
+                            inside.decrementAndGet();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "lock-benchmark-" + t);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(waits[t], 0, all, t * perThread, perThread);
+        }
+        Arrays.sort(all);
+        int acquisitions = all.length - timeouts.get();
+        System.out.println("threads x acquisitions : " + threads + " x " + perThread + " (hold " + holdMicros + "us)");
+        System.out.println("throughput (locks/s)   : " + (long) (acquisitions / (elapsed / 1e9)));
+        System.out.println("wait p50/p99/max (ms)  : " + all[all.length / 2] / 1e6 + " / "
+                + all[(int) (all.length * 0.99)] / 1e6 + " / " + all[all.length - 1] / 1e6);
+        System.out.println("timeouts               : " + timeouts.get());
+        System.out.println("exclusion violations   : " + exclusionViolations.get());
+        System.out.println("token violations       : " + tokenViolations.get());
+    }
+
+    /**
+     * 用300毫秒的租约持有锁1秒，看门狗续期期间其他竞争者应无法获取锁
+     */
+    private static void verifyWatchdog(RedisLockManager lockManager) throws InterruptedException {
+        RedisLock lock = lockManager.tryLock(LOCK_NAME + ":watchdog", 0L, 300L);
+        if (lock == null) {
+            System.out.println("watchdog               : failed to acquire");
+            return;
+        }
+        try {
+            Thread.sleep(1000L);
+            RedisLock competitor = lockManager.tryLock(LOCK_NAME + ":watchdog");
+            System.out.println("watchdog               : held=" + lock.isHeld() + ", competitor acquired=" + (competitor != null));
+            if (competitor != null) {
+                competitor.unlock();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.frame.benchmark;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+/**
+ * Jedis连接池借用方式的微基准
+ * 对比【借用后SELECT再执行命令】与【借用预先绑定数据库的连接直接执行命令】的单命令耗时
+ * 需要本地可用的redis-server，不参与单元测试，直接运行main方法：
+ * java -cp ... com.project.frame.benchmark.RedisPoolBenchmark [host] [port] [password] [dbId] [iterations]
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisPoolBenchmark {
+
+    private static final String KEY = "frame:benchmark:pool";
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        String password = args.length > 2 && !args[2].isEmpty() ? args[2] : null;
+        int dbId = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int iterations = args.length > 4 ? Integer.parseInt(args[4]) : 100000;
+
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(8);
+        config.setJmxEnabled(false);
+
+        // 连接未绑定数据库，与原有实现一致，每次借用后执行SELECT
+        JedisPool unboundPool = new JedisPool(config, host, port, 3000, password);
+        // 连接创建时即绑定数据库
+        JedisPool boundPool = new JedisPool(config, host, port, 3000, password, dbId);
+        try {
+            try (Jedis jedis = boundPool.getResource()) {
+                jedis.set(KEY, "value");
+            }
+
+            // 预热
+            runSelectPerBorrow(unboundPool, dbId, iterations / 10);
+            runBoundPool(boundPool, iterations / 10);
+
+            long selectNanos = runSelectPerBorrow(unboundPool, dbId, iterations);
+            long boundNanos = runBoundPool(boundPool, iterations);
+
+            System.out.println("iterations               : " + iterations);
+            System.out.println("select per borrow (ns/op): " + selectNanos / iterations);
+            System.out.println("pre-bound pool    (ns/op): " + boundNanos / iterations);
+            System.out.println("saved per command (ns/op): " + (selectNanos - boundNanos) / iterations);
+
+            try (Jedis jedis = boundPool.getResource()) {
+                jedis.del(KEY);
+            }
+        } finally {
+            unboundPool.close();
+            boundPool.close();
+        }
+    }
+
+    /**
+     * 每次借用后执行SELECT再执行GET
+     */
+    private static long runSelectPerBorrow(JedisPool pool, int dbId, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try (Jedis jedis = pool.getResource()) {
+                jedis.select(dbId);
+                jedis.get(KEY);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 借用预先绑定数据库的连接后直接执行GET
+     */
+    private static long runBoundPool(JedisPool pool, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try (Jedis jedis = pool.getResource()) {
+                jedis.get(KEY);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
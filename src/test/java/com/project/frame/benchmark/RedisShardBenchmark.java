@@ -0,0 +1,152 @@
+package com.project.frame.benchmark;
+
+import com.project.frame.utils.redis.RedisNode;
+import com.project.frame.utils.redis.RedisShardRing;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis分片一致性哈希环的分布检查
+ * 统计KEY在各节点上的分布、增加一个节点后需要迁移的KEY比例、hash tag是否让相关KEY落在同一节点、单次路由耗时；
+ * 指定live参数时，按哈希环把KEY写入本地的多个redis-server，再逐个节点核对KEY确实落在预期的节点上
+ * 不参与单元测试，直接运行main方法，例如先启动6379、6380、6381三个redis-server：
+ * java -cp ... com.project.frame.benchmark.RedisShardBenchmark 127.0.0.1:6379,127.0.0.1:6380,127.0.0.1:6381 [virtualNodes] [keys] [live] [password]
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+public class RedisShardBenchmark {
+
+    private static final String KEY_PREFIX = "frame:benchmark:shard:";
+
+    public static void main(String[] args) {
+        String addresses = args.length > 0 ? args[0] : "127.0.0.1:6379,127.0.0.1:6380,127.0.0.1:6381";
+        int virtualNodes = args.length > 1 ? Integer.parseInt(args[1]) : 160;
+        int keys = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+        boolean live = args.length > 3 && "live".equals(args[3]);
+        String password = args.length > 4 && !args[4].isEmpty() ? args[4] : null;
+
+        List<RedisNode> nodes = new ArrayList<RedisNode>();
+        for (String address : addresses.split(",")) {
+            nodes.add(RedisNode.parse(address));
+        }
+        RedisShardRing ring = new RedisShardRing(nodes, virtualNodes);
+
+        // 各节点分到的KEY数量
+        Map<RedisNode, Integer> counts = new LinkedHashMap<RedisNode, Integer>();
+        for (RedisNode node : nodes) {
+            counts.put(node, 0);
+        }
+        for (int i = 0; i < keys; i++) {
+            RedisNode node = ring.getNode(SafeEncoder.encode(KEY_PREFIX + i));
+            counts.put(node, counts.get(node) + 1);
+        }
+        System.out.println("nodes / virtual nodes    : " + nodes.size() + " / " + virtualNodes);
+        System.out.println("ring ownership           : " + ring.getOwnership());
+        for (Map.Entry<RedisNode, Integer> entry : counts.entrySet()) {
+            System.out.println("keys on " + entry.getKey() + " : " + entry.getValue()
+                    + String.format(" (%.2f%%)", entry.getValue() * 100D / keys));
+        }
+
+        // 增加一个节点后需要迁移的KEY，理想情况下约为1/(n+1)，且只会迁移到新节点
+        List<RedisNode> grown = new ArrayList<RedisNode>(nodes);
+        RedisNode last = nodes.get(nodes.size() - 1);
+        grown.add(new RedisNode(last.getHost(), last.getPort() + 1));
+        RedisShardRing grownRing = new RedisShardRing(grown, virtualNodes);
+        int moved = 0;
+        int movedElsewhere = 0;
+        for (int i = 0; i < keys; i++) {
+            byte[] key = SafeEncoder.encode(KEY_PREFIX + i);
+            RedisNode before = ring.getNode(key);
+            RedisNode after = grownRing.getNode(key);
+            if (!before.equals(after)) {
+                moved++;
+                if (!after.equals(grown.get(grown.size() - 1))) {
+                    movedElsewhere++;
+                }
+            }
+        }
+        System.out.println(String.format("moved after adding node : %.2f%% (ideal %.2f%%), to old nodes: %d",
+                moved * 100D / keys, 100D / grown.size(), movedElsewhere));
+
+        // hash tag：会话和会话索引落在同一节点
+        int colocated = 0;
+        for (int i = 0; i < 10000; i++) {
+            RedisNode session = ring.getNode(SafeEncoder.encode("frame:session:{" + i + "}"));
+            RedisNode index = ring.getNode(SafeEncoder.encode("frame:session:{" + i + "}:index"));
+            if (session.equals(index)) {
+                colocated++;
+            }
+        }
+        System.out.println("hash tag colocated       : " + colocated + " / 10000");
+
+        // 单次路由耗时
+        byte[][] routed = new byte[10000][];
+        for (int i = 0; i < routed.length; i++) {
+            routed[i] = SafeEncoder.encode(KEY_PREFIX + i);
+        }
+        for (int i = 0; i < keys; i++) {
+            ring.getNode(routed[i % routed.length]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < keys; i++) {
+            ring.getNode(routed[i % routed.length]);
+        }
+        System.out.println("route (ns/op)            : " + (System.nanoTime() - start) / keys);
+
+        if (live) {
+            verifyLive(ring, nodes, Math.min(keys, 10000), password);
+        }
+    }
+
+    /**
+     * 按哈希环写入KEY，再到每个节点核对KEY是否存在于预期的节点
+     */
+    private static void verifyLive(RedisShardRing ring, List<RedisNode> nodes, int keys, String password) {
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(2);
+        config.setJmxEnabled(false);
+        Map<RedisNode, JedisPool> pools = new LinkedHashMap<RedisNode, JedisPool>();
+        for (RedisNode node : nodes) {
+            pools.put(node, new JedisPool(config, node.getHost(), node.getPort(), 3000, password));
+        }
+        try {
+            for (int i = 0; i < keys; i++) {
+                String key = KEY_PREFIX + i;
+                try (Jedis jedis = pools.get(ring.getNode(SafeEncoder.encode(key))).getResource()) {
+                    jedis.setex(key, 60, "v");
+                }
+            }
+            int misplaced = 0;
+            for (int i = 0; i < keys; i++) {
+                String key = KEY_PREFIX + i;
+                RedisNode expected = ring.getNode(SafeEncoder.encode(key));
+                for (Map.Entry<RedisNode, JedisPool> entry : pools.entrySet()) {
+                    try (Jedis jedis = entry.getValue().getResource()) {
+                        if (jedis.exists(key) != entry.getKey().equals(expected)) {
+                            misplaced++;
+                        }
+                    }
+                }
+            }
+            System.out.println("live misplaced keys      : " + misplaced + " / " + keys);
+            for (int i = 0; i < keys; i++) {
+                String key = KEY_PREFIX + i;
+                try (Jedis jedis = pools.get(ring.getNode(SafeEncoder.encode(key))).getResource()) {
+                    jedis.del(key);
+                }
+            }
+        } finally {
+            for (JedisPool pool : pools.values()) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.frame.shiro;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 限流过滤器客户端IP解析测试
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class RateLimitFilterTests {
+
+    private static final String HEADER = "X-Forwarded-For";
+
+    private final RateLimitFilter filter = new RateLimitFilter(null, HEADER,
+            new String[]{"10.0.0.0/8", " 192.168.1.10 ", "fd00::/8", ""});
+
+    @Test
+    void usesPeerWithoutHeaderConfigured() {
+        RateLimitFilter direct = new RateLimitFilter(null, " ", new String[]{"10.0.0.0/8"});
+        assertEquals("10.0.0.1", direct.resolveClientIp(request("10.0.0.1", "1.2.3.4")));
+    }
+
+    @Test
+    void ignoresHeaderFromUntrustedPeer() {
+        assertEquals("203.0.113.7", filter.resolveClientIp(request("203.0.113.7", "1.2.3.4")));
+        assertEquals("192.168.1.11", filter.resolveClientIp(request("192.168.1.11", "1.2.3.4")));
+    }
+
+    @Test
+    void usesPeerWhenHeaderMissing() {
+        assertEquals("10.0.0.1", filter.resolveClientIp(request("10.0.0.1", null)));
+        assertEquals("10.0.0.1", filter.resolveClientIp(request("10.0.0.1", " , ")));
+    }
+
+    @Test
+    void skipsTrustedProxiesFromRight() {
+        assertEquals("1.2.3.4", filter.resolveClientIp(request("10.0.0.1", "1.2.3.4")));
+        assertEquals("1.2.3.4", filter.resolveClientIp(request("10.0.0.1", "1.2.3.4, 192.168.1.10, 10.20.30.40")));
+    }
+
+    @Test
+    void ignoresSpoofedLeftmostAddress() {
+        assertEquals("1.2.3.4", filter.resolveClientIp(request("10.0.0.1", "6.6.6.6, 1.2.3.4, 10.1.1.1")));
+    }
+
+    @Test
+    void usesLeftmostWhenAllHopsTrusted() {
+        assertEquals("10.1.1.1", filter.resolveClientIp(request("10.0.0.1", "10.1.1.1, 10.2.2.2")));
+    }
+
+    @Test
+    void matchesIpv6Subnets() {
+        assertEquals("2001:db8::1", filter.resolveClientIp(request("fd12::1", "2001:db8::1, fd00::2")));
+        assertEquals("2001:db8::2", filter.resolveClientIp(request("2001:db8::2", "1.2.3.4")));
+        // IPv4映射的IPv6地址按IPv4地址匹配
+        assertEquals("1.2.3.4", filter.resolveClientIp(request("::ffff:10.0.0.1", "1.2.3.4")));
+    }
+
+    @Test
+    void treatsNonIpHopAsClient() {
+        assertEquals("unknown", filter.resolveClientIp(request("10.0.0.1", "1.2.3.4, unknown, 10.1.1.1")));
+        assertEquals("proxy.example.com",
+                filter.resolveClientIp(request("10.0.0.1", "1.2.3.4, proxy.example.com")));
+        assertEquals("999.1.1.1", filter.resolveClientIp(request("10.0.0.1", "1.2.3.4, 999.1.1.1")));
+    }
+
+    @Test
+    void rejectsInvalidTrustedProxy() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(null, HEADER, new String[]{"proxy.example.com"}));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwarded) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwarded != null) {
+            request.addHeader(HEADER, forwarded);
+        }
+        return request;
+    }
+
+}
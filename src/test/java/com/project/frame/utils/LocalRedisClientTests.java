@@ -0,0 +1,126 @@
+package com.project.frame.utils;
+
+import com.project.frame.utils.redis.RedisScript;
+import com.project.frame.utils.redis.RedisScripts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 进程内Redis客户端的有效时间和脚本等价实现测试，不需要redis-server
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class LocalRedisClientTests {
+
+    private final LocalRedisClient redisClient = new LocalRedisClient();
+
+    @AfterEach
+    void destroy() {
+        redisClient.destroy();
+    }
+
+    @Test
+    void expiresKeys() throws Exception {
+        redisClient.setAndExpireString("session", "1", 10);
+        redisClient.setString("persistent", "1");
+        assertEquals(10L, redisClient.ttl("session"));
+        assertEquals(-1L, redisClient.ttl("persistent"));
+        assertEquals(-2L, redisClient.ttl("absent"));
+
+        assertEquals(1L, redisClient.setnxAndPexpireString("lease", "owner", 50L));
+        assertEquals(0L, redisClient.setnxAndPexpireString("lease", "other", 50L));
+        assertTrue(redisClient.existsString("lease"));
+        Thread.sleep(100L);
+        assertFalse(redisClient.existsString("lease"));
+        assertNull(redisClient.getString("lease"));
+        assertEquals(1L, redisClient.setnxAndPexpireString("lease", "other", 50L));
+    }
+
+    @Test
+    void expireStringReportsMissingKeys() {
+        assertEquals(0L, redisClient.expireString("absent", 10));
+        redisClient.setString("present", "1");
+        assertEquals(1L, redisClient.expireString("present", 10));
+        assertEquals(10L, redisClient.ttl("present"));
+    }
+
+    @Test
+    void incrByAndExpireKeepsFirstExpiry() {
+        assertEquals(2L, redisClient.incrByAndExpire("counter", 2L, 10));
+        assertEquals(10L, redisClient.ttl("counter"));
+        redisClient.expireString("counter", 100);
+        assertEquals(5L, redisClient.incrByAndExpire("counter", 3L, 10));
+        assertEquals(100L, redisClient.ttl("counter"));
+    }
+
+    @Test
+    void delIfEqualsComparesOwner() {
+        redisClient.setString("lock", "owner");
+        assertFalse(redisClient.delIfEquals("lock", "other"));
+        assertEquals("owner", redisClient.getString("lock"));
+        assertTrue(redisClient.delIfEquals("lock", "owner"));
+        assertFalse(redisClient.existsString("lock"));
+        assertFalse(redisClient.delIfEquals("lock", "owner"));
+    }
+
+    @Test
+    void pexpireIfEqualsComparesOwner() throws Exception {
+        redisClient.setnxAndPexpireString("lock", "owner", 50L);
+        assertFalse(redisClient.pexpireIfEquals("lock", "other", 10000L));
+        assertTrue(redisClient.pexpireIfEquals("lock", "owner", 10000L));
+        Thread.sleep(100L);
+        assertEquals("owner", redisClient.getString("lock"));
+        assertFalse(redisClient.pexpireIfEquals("absent", "owner", 10000L));
+    }
+
+    @Test
+    void lockAcquireIssuesFencingTokens() throws Exception {
+        assertEquals(1L, redisClient.eval(RedisScripts.LOCK_ACQUIRE, Arrays.asList("lock", "lock:fence"), "a", 50L));
+        assertNull(redisClient.eval(RedisScripts.LOCK_ACQUIRE, Arrays.asList("lock", "lock:fence"), "b", 50L));
+        assertEquals("a", redisClient.getString("lock"));
+        Thread.sleep(100L);
+        assertEquals(2L, redisClient.eval(RedisScripts.LOCK_ACQUIRE, Arrays.asList("lock", "lock:fence"), "b", 50L));
+        assertEquals("b", redisClient.getString("lock"));
+    }
+
+    @Test
+    void tokenBucketLimitsBursts() throws Exception {
+        assertEquals(3L, redisClient.eval(RedisScripts.TOKEN_BUCKET_ACQUIRE, Collections.singletonList("bucket"),
+                10D, 5L, 3L));
+        assertEquals(2L, redisClient.eval(RedisScripts.TOKEN_BUCKET_ACQUIRE, Collections.singletonList("bucket"),
+                10D, 5L, 3L));
+        assertEquals(0L, redisClient.eval(RedisScripts.TOKEN_BUCKET_ACQUIRE, Collections.singletonList("bucket"),
+                10D, 5L, 1L));
+        Thread.sleep(250L);
+        long granted = redisClient.eval(RedisScripts.TOKEN_BUCKET_ACQUIRE, Collections.singletonList("bucket"),
+                10D, 5L, 5L);
+        assertTrue(granted >= 2L && granted <= 5L, "补充的令牌数：" + granted);
+        assertTrue(redisClient.ttl("bucket") > 0L);
+    }
+
+    @Test
+    void setsAndGetsBits() {
+        assertEquals(Arrays.asList(false, false), redisClient.getbits("bits", 1L, 100L));
+        assertEquals(2L, redisClient.setbits("bits", 1L, 100L, 100L));
+        assertEquals(0L, redisClient.setbits("bits", 1L));
+        assertEquals(Arrays.asList(true, false, true), redisClient.getbits("bits", 1L, 2L, 100L));
+    }
+
+    @Test
+    void rejectsUnknownScripts() {
+        RedisScript<Long> script = RedisScript.of("custom", "return redis.call('DBSIZE')", Long.class);
+        assertThrows(UnsupportedOperationException.class,
+                () -> redisClient.eval(script, Collections.<String>emptyList()));
+    }
+
+}
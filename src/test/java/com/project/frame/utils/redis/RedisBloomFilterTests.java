@@ -0,0 +1,122 @@
+package com.project.frame.utils.redis;
+
+import com.project.frame.utils.LocalRedisClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 布隆过滤器容量计算和元素规范化测试，使用进程内的LocalRedisClient，不需要redis-server
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class RedisBloomFilterTests {
+
+    private final LocalRedisClient redisClient = new LocalRedisClient();
+
+    private RedisBloomFilter filter;
+
+    @AfterEach
+    void destroy() {
+        if (filter != null) {
+            filter.destroy();
+        }
+        redisClient.destroy();
+    }
+
+    @Test
+    void sizesBitsAndHashes() {
+        assertSizing(10000L, 0.01D, 95851L, 7);
+        assertSizing(1000L, 0.01D, 9586L, 7);
+        assertSizing(1000L, 0.001D, 14378L, 10);
+        // 位数不少于64，哈希函数个数限制在1到30之间，误判率不超过0.5
+        assertSizing(1L, 0.5D, 64L, 30);
+        assertSizing(100000L, 0.9D, 144270L, 1);
+    }
+
+    @Test
+    void normalizesValues() throws Exception {
+        filter = new RedisBloomFilter(redisClient, true, "test:bloom", 1000L, 0.01D, 10000L, 0L);
+        filter.init(f -> f.putAll(Arrays.asList(" Alice ", "BOB", null)));
+        awaitReady();
+
+        assertTrue(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("  ALICE"));
+        assertTrue(filter.mightContain("bob"));
+        assertFalse(filter.mightContain("carol"));
+
+        filter.put(" Carol\t");
+        assertTrue(filter.mightContain("CAROL"));
+    }
+
+    @Test
+    void allowsEverythingUntilReady() {
+        filter = new RedisBloomFilter(redisClient, true, "test:bloom", 1000L, 0.01D, 10000L, 0L);
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("anyone"));
+        assertEquals(1L, filter.getStats().get("notReady"));
+    }
+
+    @Test
+    void rejectsAbsentValuesAfterLoad() throws Exception {
+        filter = new RedisBloomFilter(redisClient, true, "test:bloom", 1000L, 0.01D, 10000L, 0L);
+        filter.init(f -> {
+            for (int i = 0; i < 1000; i += 100) {
+                String[] batch = new String[100];
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = "user" + (i + j);
+                }
+                f.putAll(Arrays.asList(batch));
+            }
+        });
+        awaitReady();
+        int positives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+            if (filter.mightContain("absent" + i)) {
+                positives++;
+            }
+        }
+        // 期望误判率1%，留出足够余量
+        assertTrue(positives < 50, "误判次数：" + positives);
+    }
+
+    @Test
+    void disabledFilterAllowsEverything() {
+        filter = new RedisBloomFilter(redisClient, false, "test:bloom", 1000L, 0.01D, 10000L, 0L);
+        filter.init(f -> {
+            throw new IllegalStateException("禁用时不加载数据源");
+        });
+        filter.put("alice");
+        assertTrue(filter.mightContain("anyone"));
+        assertFalse(filter.isReady());
+    }
+
+    private void assertSizing(long expectedInsertions, double fpp, long bits, int hashes) {
+        RedisBloomFilter sized = new RedisBloomFilter(redisClient, true, "test:bloom", expectedInsertions, fpp,
+                10000L, 0L);
+        try {
+            Map<String, Object> stats = sized.getStats();
+            assertEquals(bits, ((Number) stats.get("bits")).longValue());
+            assertEquals(hashes, ((Number) stats.get("hashes")).intValue());
+        } finally {
+            sized.destroy();
+        }
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!filter.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertTrue(filter.isReady());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.project.frame.utils.redis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 熔断器状态转换测试
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class RedisCircuitBreakerTests {
+
+    private static final long OPEN_DURATION = 50L;
+
+    private final CountDownLatch opened = new CountDownLatch(1);
+
+    private final RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 4, 50, OPEN_DURATION, 2,
+            opened::countDown);
+
+    @AfterEach
+    void destroy() {
+        breaker.destroy();
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onFailure();
+        }
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        for (int i = 0; i < 10; i++) {
+            if (i % 3 == 2) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtFailureRateAndRejects() throws Exception {
+        open();
+        assertTrue(opened.await(1, TimeUnit.SECONDS));
+        assertFalse(breaker.allowRequest());
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpensAfterDurationAndLimitsProbes() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION * 2);
+        assertTrue(breaker.allowRequest());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION * 2);
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        // 关闭后重新统计，之前的失败不再计入
+        breaker.onFailure();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensOnFailedProbe() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION * 2);
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void ignoredProbeReturnsPermit() throws Exception {
+        open();
+        Thread.sleep(OPEN_DURATION * 2);
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.onIgnored();
+        assertTrue(breaker.allowRequest());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.allowRequest());
+            if (i % 2 == 1) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+}
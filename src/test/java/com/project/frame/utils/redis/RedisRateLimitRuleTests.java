@@ -0,0 +1,61 @@
+package com.project.frame.utils.redis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 限流规则解析测试
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class RedisRateLimitRuleTests {
+
+    @Test
+    void parsesRule() {
+        RedisRateLimitRule rule = RedisRateLimitRule.parse(" ip:/api/**=20/40 ");
+        assertEquals(RedisRateLimitRule.IP, rule.getDimension());
+        assertEquals("/api/**", rule.getPattern());
+        assertEquals(20D, rule.getRate());
+        assertEquals(40L, rule.getCapacity());
+    }
+
+    @Test
+    void parsesFractionalRateAndPatternWithSeparators() {
+        RedisRateLimitRule rule = RedisRateLimitRule.parse("user:/login=x/y=0.5/3");
+        assertEquals(RedisRateLimitRule.USER, rule.getDimension());
+        assertEquals("/login=x/y", rule.getPattern());
+        assertEquals(0.5D, rule.getRate());
+        assertEquals(3L, rule.getCapacity());
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        String[] rules = {"", "/api/**=20/40", ":/api/**=20/40", "ip:=20/40", "ip:/api/**20/40", "ip:/api/**=/40",
+                "ip:/api/**=20/", "ip:/api/**=20"};
+        for (String rule : rules) {
+            assertThrows(IllegalArgumentException.class, () -> RedisRateLimitRule.parse(rule), rule);
+        }
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> RedisRateLimitRule.parse("host:/api/**=20/40"));
+        assertThrows(IllegalArgumentException.class, () -> RedisRateLimitRule.parse("path:/api/**=0/40"));
+        assertThrows(IllegalArgumentException.class, () -> RedisRateLimitRule.parse("path:/api/**=-1/40"));
+        assertThrows(IllegalArgumentException.class, () -> RedisRateLimitRule.parse("path:/api/**=20/0"));
+        assertThrows(NumberFormatException.class, () -> RedisRateLimitRule.parse("path:/api/**=a/40"));
+    }
+
+    @Test
+    void batchFollowsSyncInterval() {
+        RedisRateLimitRule rule = new RedisRateLimitRule(RedisRateLimitRule.PATH, "/**", 100D, 50L);
+        assertEquals(10L, rule.getBatch(100L));
+        assertEquals(50L, rule.getBatch(1000L));
+        assertEquals(1L, rule.getBatch(1L));
+        assertEquals(1L, new RedisRateLimitRule(RedisRateLimitRule.PATH, "/**", 0.1D, 5L).getBatch(100L));
+    }
+
+}
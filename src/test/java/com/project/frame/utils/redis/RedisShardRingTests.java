@@ -0,0 +1,134 @@
+package com.project.frame.utils.redis;
+
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 一致性哈希环分布测试
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class RedisShardRingTests {
+
+    private static final List<RedisNode> NODES = Arrays.asList(RedisNode.parse("10.0.0.1:6379"),
+            RedisNode.parse("10.0.0.2:6379"), RedisNode.parse("10.0.0.3:6379"));
+
+    private final RedisShardRing ring = new RedisShardRing(NODES, 160);
+
+    @Test
+    void rejectsEmptyNodes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RedisShardRing(Collections.<RedisNode>emptyList(), 160));
+    }
+
+    @Test
+    void singleNodeOwnsEverything() {
+        RedisNode node = new RedisNode("127.0.0.1", 6379);
+        RedisShardRing single = new RedisShardRing(Collections.singletonList(node), 1);
+        for (int i = 0; i < 100; i++) {
+            assertSame(node, single.getNode(SafeEncoder.encode("key:" + i)));
+        }
+        assertEquals(1D, single.getOwnership().get(node.getName()), 1e-9);
+    }
+
+    @Test
+    void distributesKeysEvenly() {
+        int keys = 30000;
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (int i = 0; i < keys; i++) {
+            counts.merge(ring.getNode(SafeEncoder.encode("session:" + i)).getName(), 1, Integer::sum);
+        }
+        assertEquals(NODES.size(), counts.size());
+        for (int count : counts.values()) {
+            assertEquals(keys / 3D, count, keys * 0.05);
+        }
+    }
+
+    @Test
+    void ownershipCoversRing() {
+        Map<String, Double> ownership = ring.getOwnership();
+        assertEquals(NODES.size(), ownership.size());
+        double total = 0D;
+        for (double share : ownership.values()) {
+            assertEquals(1D / 3, share, 0.05);
+            total += share;
+        }
+        assertEquals(1D, total, 1e-6);
+    }
+
+    @Test
+    void keepsMappingStable() {
+        RedisShardRing copy = new RedisShardRing(NODES, 160);
+        for (int i = 0; i < 1000; i++) {
+            byte[] key = SafeEncoder.encode("user:" + i);
+            assertEquals(ring.getNode(key).getName(), copy.getNode(key).getName());
+        }
+    }
+
+    @Test
+    void movesOnlyRemovedNodeKeys() {
+        RedisShardRing reduced = new RedisShardRing(NODES.subList(0, 2), 160);
+        String removed = NODES.get(2).getName();
+        for (int i = 0; i < 1000; i++) {
+            byte[] key = SafeEncoder.encode("user:" + i);
+            String before = ring.getNode(key).getName();
+            if (!removed.equals(before)) {
+                assertEquals(before, reduced.getNode(key).getName());
+            }
+        }
+    }
+
+    @Test
+    void hashTagsColocateKeys() {
+        for (int i = 0; i < 100; i++) {
+            String tag = "{session-" + i + "}";
+            RedisNode node = ring.getNode(SafeEncoder.encode("shiro:session:" + tag));
+            assertSame(node, ring.getNode(SafeEncoder.encode("shiro:session:index:" + tag + ":attributes")));
+            assertSame(node, ring.getNode(SafeEncoder.encode("session-" + i)));
+        }
+    }
+
+    @Test
+    void hashTagsWorkOnSerializedKeys() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            String tag = "{user-" + i + "}";
+            assertSame(ring.getNode(SafeEncoder.encode("user-" + i)), ring.getNode(serialize("cache:" + tag)));
+        }
+        // 长度为123的字符串长度字节恰好是左花括号，不能误判为hash tag，否则以下KEY都会落到同一个节点
+        char[] padding = new char[120];
+        Arrays.fill(padding, 'a');
+        List<RedisNode> owners = new ArrayList<RedisNode>();
+        for (int i = 0; i < 100; i++) {
+            byte[] serialized = serialize(new String(padding) + "}" + String.format("%02d", i));
+            assertEquals('{', serialized[6]);
+            owners.add(ring.getNode(serialized));
+        }
+        assertTrue(new HashSet<RedisNode>(owners).size() > 1);
+    }
+
+    private static byte[] serialize(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.project.frame.utils.redis.codec;
+
+import com.project.frame.shiro.Principal;
+import org.apache.shiro.session.mgt.SimpleSession;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 紧凑编码和压缩的往返测试
+ *
+ * @author mxy
+ * @date 2026/10/18
+ */
+class CompactRedisCodecTests {
+
+    private final RedisCodecRegistry registry = new RedisCodecRegistry(CompactRedisCodec.NAME,
+            new CompactRedisCodec(), new JdkRedisCodec());
+
+    @Test
+    void roundTripsPrimitivesAndCollections() throws Exception {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("name", "张三");
+        map.put("age", 18);
+        map.put("roles", Arrays.asList("admin", "user"));
+        List<Object> values = Arrays.<Object>asList(null, "", "abc", 1, -1L, Long.MAX_VALUE, 1.5D, true,
+                new Date(1760745600000L), new byte[]{1, 2, 3}, map);
+        for (Object value : values) {
+            Object decoded = roundTrip(value);
+            if (value instanceof byte[]) {
+                assertArrayEquals((byte[]) value, (byte[]) decoded);
+            } else {
+                assertEquals(value, decoded);
+            }
+        }
+    }
+
+    @Test
+    void writesCompactFormat() throws Exception {
+        assertEquals(CompactRedisCodec.FORMAT_V1, registry.encode("abc")[0]);
+    }
+
+    @Test
+    void roundTripsSession() throws Exception {
+        SimpleSession session = new SimpleSession("127.0.0.1");
+        session.setId("f1c5e1a2-7b1d-4c3e-9f00-123456789abc");
+        session.setTimeout(1800000L);
+        session.setAttribute("loginName", "admin");
+        session.setAttribute("count", 3);
+        session.setAttribute("principals", principals(1L, "admin"));
+
+        SimpleSession decoded = (SimpleSession) roundTrip(session);
+
+        assertEquals(session.getId(), decoded.getId());
+        assertEquals(session.getHost(), decoded.getHost());
+        assertEquals(session.getTimeout(), decoded.getTimeout());
+        assertEquals(session.getStartTimestamp(), decoded.getStartTimestamp());
+        assertEquals(session.getLastAccessTime(), decoded.getLastAccessTime());
+        assertNull(decoded.getStopTimestamp());
+        assertFalse(decoded.isExpired());
+        assertEquals("admin", decoded.getAttribute("loginName"));
+        assertEquals(3, decoded.getAttribute("count"));
+        Principal principal = (Principal) ((SimplePrincipalCollection) decoded.getAttribute("principals"))
+                .getPrimaryPrincipal();
+        assertEquals(Long.valueOf(1L), principal.getId());
+        assertEquals("admin", principal.getLoginName());
+    }
+
+    @Test
+    void roundTripsPrincipals() throws Exception {
+        SimplePrincipalCollection principals = principals(2L, "user");
+        principals.add("user@example.com", "emailRealm");
+
+        SimplePrincipalCollection decoded = (SimplePrincipalCollection) roundTrip(principals);
+
+        assertEquals(principals.getRealmNames(), decoded.getRealmNames());
+        Principal principal = (Principal) decoded.fromRealm("authenticationRealm").iterator().next();
+        assertEquals(Long.valueOf(2L), principal.getId());
+        assertEquals("user", principal.getLoginName());
+        assertEquals("user@example.com", decoded.fromRealm("emailRealm").iterator().next());
+    }
+
+    @Test
+    void roundTripsEmptyPrincipals() throws Exception {
+        SimplePrincipalCollection decoded = (SimplePrincipalCollection) roundTrip(new SimplePrincipalCollection());
+        assertTrue(decoded.isEmpty());
+    }
+
+    @Test
+    void readsLegacyJdkData() throws Exception {
+        SimpleSession session = new SimpleSession("127.0.0.1");
+        session.setId("legacy");
+        session.setAttribute("loginName", "admin");
+        byte[] legacy = new JdkRedisCodec().encode(session);
+        assertEquals((byte) 0xAC, legacy[0]);
+        assertEquals((byte) 0xED, legacy[1]);
+
+        SimpleSession decoded = (SimpleSession) registry.decode(legacy);
+
+        assertEquals("legacy", decoded.getId());
+        assertEquals("admin", decoded.getAttribute("loginName"));
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IOException.class, () -> registry.decode(new byte[]{0x7F, 1, 2}));
+    }
+
+    @Test
+    void compressesLargeValuesIntoEnvelope() throws Exception {
+        RedisCodecRegistry compressing = new RedisCodecRegistry(CompactRedisCodec.NAME,
+                new CompactRedisCodec(), new JdkRedisCodec());
+        compressing.setCompressor(new RedisCompressor(true, 256, 6));
+        RedisCodecRegistry disabled = new RedisCodecRegistry(CompactRedisCodec.NAME,
+                new CompactRedisCodec(), new JdkRedisCodec());
+        disabled.setCompressor(new RedisCompressor(false, 256, 6));
+        List<String> value = new ArrayList<String>();
+        for (int i = 0; i < 200; i++) {
+            value.add("permission:user:" + i);
+        }
+        try {
+            byte[] small = compressing.encode("abc");
+            byte[] large = compressing.encode(value);
+
+            assertEquals(CompactRedisCodec.FORMAT_V1, small[0]);
+            assertEquals(RedisCompressor.DEFLATE_V1, large[0]);
+            assertTrue(large.length < registry.encode(value).length);
+            assertEquals(value, compressing.decode(large));
+            // 关闭压缩后写入不压缩，仍能读取已压缩的数据
+            assertEquals(CompactRedisCodec.FORMAT_V1, disabled.encode(value)[0]);
+            assertEquals(value, disabled.decode(large));
+            // 未配置压缩器时不能把压缩数据当作其他格式解码
+            assertThrows(IOException.class, () -> registry.decode(large));
+        } finally {
+            compressing.destroy();
+            disabled.destroy();
+        }
+    }
+
+    @Test
+    void compressorPassesThroughSmallValues() throws Exception {
+        RedisCompressor compressor = new RedisCompressor(true, 64, 6);
+        byte[] small = new byte[]{CompactRedisCodec.FORMAT_V1, 1, 2, 3};
+        assertSame(small, compressor.compress(small));
+        assertFalse(RedisCompressor.isCompressed(small));
+        compressor.destroy();
+        assertSame(small, new RedisCompressor(false, 0, 6).compress(small));
+    }
+
+    @Test
+    void compressorRoundTripsAndRejectsCorruptData() throws Exception {
+        RedisCompressor compressor = new RedisCompressor(true, 16, 6);
+        byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        byte[] compressed = compressor.compress(data);
+        assertTrue(RedisCompressor.isCompressed(compressed));
+        assertArrayEquals(data, compressor.decompress(compressed));
+
+        byte[] corrupt = Arrays.copyOf(compressed, compressed.length);
+        for (int i = 6; i < corrupt.length; i++) {
+            corrupt[i] = (byte) ~corrupt[i];
+        }
+        assertThrows(IOException.class, () -> compressor.decompress(corrupt));
+        assertThrows(IOException.class, () -> compressor.decompress(Arrays.copyOf(compressed, 3)));
+        // 出错后归还的实例已被重置，不影响后续调用
+        assertArrayEquals(data, compressor.decompress(compressed));
+    }
+
+    @Test
+    void compressorWorksAfterDestroy() throws Exception {
+        RedisCompressor compressor = new RedisCompressor(true, 16, 6);
+        byte[] data = new byte[1024];
+        byte[] compressed = compressor.compress(data);
+        compressor.destroy();
+        assertArrayEquals(data, compressor.decompress(compressor.compress(data)));
+        assertArrayEquals(data, compressor.decompress(compressed));
+    }
+
+    private Object roundTrip(Object value) throws Exception {
+        return registry.decode(registry.encode(value));
+    }
+
+    private static SimplePrincipalCollection principals(Long id, String loginName) {
+        return new SimplePrincipalCollection(new Principal(id, loginName), "authenticationRealm");
+    }
+
+}